@@ -0,0 +1,17 @@
+package com.example.inventory.archive;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * The uncompressed start of an archive file, kept in memory for every file so reads can skip files
+ * without opening them.
+ *
+ * @param partition   the UTC day all orders in the file were placed on
+ * @param customers   which customers (probably) have orders in the file
+ * @param columnSizes compressed size of each column block, in file order
+ * @param bodyOffset  where the first column block starts
+ */
+record ArchiveFileHeader(Path file, LocalDate partition, int rowCount, long minId, long maxId,
+        CustomerBloomFilter customers, int[] columnSizes, long bodyOffset) {
+}
@@ -0,0 +1,13 @@
+package com.example.inventory.archive;
+
+/**
+ * One order as stored in an archive file: plain ids and values, no JPA.
+ *
+ * 0 stands for "no customer" / "no item" (database ids start at 1).
+ *
+ * @param lineItemIds    item of each line of a multi-line order (empty for single-item orders)
+ * @param lineQuantities quantity of each line, same length as lineItemIds
+ */
+record ArchivedOrder(long id, long customerId, long itemId, int quantity, String status, long placedAtMillis,
+        long[] lineItemIds, int[] lineQuantities) {
+}
@@ -0,0 +1,85 @@
+package com.example.inventory.archive;
+
+/**
+ * A small Bloom filter over the customer ids in one archive file.
+ *
+ * Why?
+ * - GET /orders/{customerId} must look at every archive file that MIGHT hold that customer's orders.
+ *   The filter answers "definitely not in this file" from a few bits kept in memory, so most files are
+ *   never opened. It can say "maybe" for a customer that is not there (about 1% of the time), never the
+ *   other way round.
+ *
+ * How?
+ * - ~10 bits per customer and 7 bit positions per id, derived from two halves of one 64-bit hash.
+ */
+final class CustomerBloomFilter {
+
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASHES = 7;
+
+    private final long[] words;
+
+    private CustomerBloomFilter(long[] words) {
+        this.words = words;
+    }
+
+    static CustomerBloomFilter forExpectedEntries(int entries) {
+        int bits = Math.max(64, entries * BITS_PER_ENTRY);
+        return new CustomerBloomFilter(new long[(bits + 63) / 64]);
+    }
+
+    /**
+     * Rebuilds a filter from the words stored in an archive file header.
+     */
+    static CustomerBloomFilter of(long[] words) {
+        return new CustomerBloomFilter(words);
+    }
+
+    void add(long customerId) {
+        long hash = mix(customerId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long bits = (long) words.length * 64;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return false if the customer is certainly not in the file; true if it may be
+     */
+    boolean mightContain(long customerId) {
+        long hash = mix(customerId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long bits = (long) words.length * 64;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The raw words, for writing into a file header. Callers must not modify them.
+     */
+    long[] words() {
+        return words;
+    }
+
+    /**
+     * MurmurHash3's 64-bit finalizer: spreads sequential ids over all bits.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
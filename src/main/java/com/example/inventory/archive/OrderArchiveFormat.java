@@ -0,0 +1,294 @@
+package com.example.inventory.archive;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes archive files: compressed, column-by-column copies of old orders.
+ *
+ * File layout:
+ * 1. Header (not compressed): magic, version, row count, id range, customer Bloom filter, column sizes.
+ * 2. One gzip block per column: ids, customers, items, quantities, statuses, placed-at times, lines.
+ *
+ * Why columns instead of rows?
+ * - Values of one column look alike (ids close together, only 2-4 distinct statuses), so they compress far
+ *   better side by side. And a reader looking for one customer only unpacks the customer column first:
+ *   if no row matches (a Bloom filter false positive), the rest of the file is never decompressed.
+ *
+ * Encodings:
+ * - ids: sorted, stored as the gap to the previous id (delta encoding): usually 1, so one byte each.
+ * - statuses: a small dictionary of distinct strings, then one index per row (dictionary encoding).
+ * - placed-at: gap to the previous row in milliseconds.
+ * - all numbers: variable-length ("varint"), so small numbers take one byte instead of eight.
+ */
+final class OrderArchiveFormat {
+
+    static final String FILE_SUFFIX = ".oarc";
+
+    private static final int MAGIC = 0x4F415243; // "OARC"
+    private static final int VERSION = 1;
+    private static final int COLUMNS = 7;
+
+    private OrderArchiveFormat() {
+    }
+
+    /**
+     * Writes the orders (sorted by id, all from one day) to a new file, atomically:
+     * readers either see the complete file or no file at all.
+     */
+    static ArchiveFileHeader write(Path file, LocalDate partition, List<ArchivedOrder> orders) throws IOException {
+        int rows = orders.size();
+        ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        ByteArrayOutputStream customers = new ByteArrayOutputStream();
+        ByteArrayOutputStream items = new ByteArrayOutputStream();
+        ByteArrayOutputStream quantities = new ByteArrayOutputStream();
+        ByteArrayOutputStream statuses = new ByteArrayOutputStream();
+        ByteArrayOutputStream placedAt = new ByteArrayOutputStream();
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        CustomerBloomFilter bloom = CustomerBloomFilter.forExpectedEntries(rows);
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+
+        long previousId = 0;
+        long previousPlacedAt = 0;
+        for (ArchivedOrder order : orders) {
+            writeVarLong(ids, order.id() - previousId);
+            previousId = order.id();
+            writeVarLong(customers, order.customerId());
+            bloom.add(order.customerId());
+            writeVarLong(items, order.itemId());
+            writeVarLong(quantities, zigZag(order.quantity()));
+            // index 0 means "no status"; dictionary entries start at 1
+            writeVarLong(statuses, order.status() == null ? 0
+                    : dictionary.computeIfAbsent(order.status(), status -> dictionary.size() + 1));
+            writeVarLong(placedAt, zigZag(order.placedAtMillis() - previousPlacedAt));
+            previousPlacedAt = order.placedAtMillis();
+            writeVarLong(lines, order.lineItemIds().length);
+            for (int i = 0; i < order.lineItemIds().length; i++) {
+                writeVarLong(lines, order.lineItemIds()[i]);
+                writeVarLong(lines, zigZag(order.lineQuantities()[i]));
+            }
+        }
+        ByteArrayOutputStream statusColumn = new ByteArrayOutputStream();
+        writeVarLong(statusColumn, dictionary.size());
+        for (String status : dictionary.keySet()) {
+            byte[] bytes = status.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(statusColumn, bytes.length);
+            statusColumn.write(bytes);
+        }
+        statuses.writeTo(statusColumn);
+
+        byte[][] blocks = {
+                gzip(ids), gzip(customers), gzip(items), gzip(quantities), gzip(statusColumn), gzip(placedAt), gzip(lines)
+        };
+        int[] columnSizes = new int[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columnSizes[i] = blocks[i].length;
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long bodyOffset;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows);
+            out.writeLong(orders.get(0).id());
+            out.writeLong(orders.get(rows - 1).id());
+            long[] words = bloom.words();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+            for (int size : columnSizes) {
+                out.writeInt(size);
+            }
+            bodyOffset = out.size();
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+            out.flush();
+            channel.force(true); // on disk before the rows are deleted from the database
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new ArchiveFileHeader(file, partition, rows, orders.get(0).id(), orders.get(rows - 1).id(), bloom,
+                columnSizes, bodyOffset);
+    }
+
+    /**
+     * Reads only the (small, uncompressed) header of a file.
+     */
+    static ArchiveFileHeader readHeader(Path file, LocalDate partition) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an order archive file: " + file);
+            }
+            int rows = in.readInt();
+            long minId = in.readLong();
+            long maxId = in.readLong();
+            long[] words = new long[in.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            int[] columnSizes = new int[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                columnSizes[i] = in.readInt();
+            }
+            long bodyOffset = 4L * 3 + 8L * 2 + 4 + 8L * words.length + 4L * COLUMNS;
+            return new ArchiveFileHeader(file, partition, rows, minId, maxId, CustomerBloomFilter.of(words),
+                    columnSizes, bodyOffset);
+        }
+    }
+
+    /**
+     * Returns the orders of one customer from a file.
+     * Decompresses the customer column first and the other columns only if some row matches.
+     */
+    static List<ArchivedOrder> readOrders(ArchiveFileHeader header, long customerId) throws IOException {
+        byte[] file = Files.readAllBytes(header.file());
+        long[] offsets = new long[COLUMNS];
+        long offset = header.bodyOffset();
+        for (int i = 0; i < COLUMNS; i++) {
+            offsets[i] = offset;
+            offset += header.columnSizes()[i];
+        }
+        int rows = header.rowCount();
+
+        Cursor customers = new Cursor(gunzip(file, offsets[1], header.columnSizes()[1]));
+        boolean[] match = new boolean[rows];
+        int matches = 0;
+        for (int row = 0; row < rows; row++) {
+            if (customers.readVarLong() == customerId) {
+                match[row] = true;
+                matches++;
+            }
+        }
+        if (matches == 0) {
+            return List.of();
+        }
+
+        Cursor ids = new Cursor(gunzip(file, offsets[0], header.columnSizes()[0]));
+        Cursor items = new Cursor(gunzip(file, offsets[2], header.columnSizes()[2]));
+        Cursor quantities = new Cursor(gunzip(file, offsets[3], header.columnSizes()[3]));
+        Cursor statuses = new Cursor(gunzip(file, offsets[4], header.columnSizes()[4]));
+        Cursor placedAt = new Cursor(gunzip(file, offsets[5], header.columnSizes()[5]));
+        Cursor lines = new Cursor(gunzip(file, offsets[6], header.columnSizes()[6]));
+
+        String[] dictionary = new String[(int) statuses.readVarLong() + 1];
+        for (int i = 1; i < dictionary.length; i++) {
+            dictionary[i] = statuses.readString((int) statuses.readVarLong());
+        }
+
+        List<ArchivedOrder> result = new ArrayList<>(matches);
+        long id = 0;
+        long placedAtMillis = 0;
+        for (int row = 0; row < rows; row++) {
+            // Every column must be read row by row anyway, because the values are variable-length
+            id += ids.readVarLong();
+            long itemId = items.readVarLong();
+            int quantity = (int) unZigZag(quantities.readVarLong());
+            String status = dictionary[(int) statuses.readVarLong()];
+            placedAtMillis += unZigZag(placedAt.readVarLong());
+            int lineCount = (int) lines.readVarLong();
+            long[] lineItemIds = new long[lineCount];
+            int[] lineQuantities = new int[lineCount];
+            for (int i = 0; i < lineCount; i++) {
+                lineItemIds[i] = lines.readVarLong();
+                lineQuantities[i] = (int) unZigZag(lines.readVarLong());
+            }
+            if (match[row]) {
+                result.add(new ArchivedOrder(id, customerId, itemId, quantity, status, placedAtMillis,
+                        lineItemIds, lineQuantities));
+            }
+        }
+        return result;
+    }
+
+    private static byte[] gzip(ByteArrayOutputStream column) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, column.size() / 4));
+        try (OutputStream zip = new GZIPOutputStream(compressed)) {
+            column.writeTo(zip);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] file, long offset, int length) throws IOException {
+        try (InputStream zip = new GZIPInputStream(new ByteArrayInputStream(file, (int) offset, length))) {
+            return zip.readAllBytes();
+        }
+    }
+
+    /**
+     * Writes an unsigned number 7 bits per byte; the high bit says "more bytes follow".
+     */
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Maps small negative numbers to small positive ones (0, -1, 1, -2 ... => 0, 1, 2, 3 ...),
+     * so they also fit in one varint byte.
+     */
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Sequential reader over one decompressed column.
+     */
+    private static final class Cursor {
+        private final byte[] bytes;
+        private int position;
+
+        Cursor(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String readString(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
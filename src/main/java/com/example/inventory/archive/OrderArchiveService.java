@@ -0,0 +1,356 @@
+package com.example.inventory.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.entity.OrderLine;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * OrderArchiveService moves old orders out of the "orders" table into compressed archive files, and reads
+ * them back for GET /orders/{customerId}.
+ *
+ * Why archive?
+ * - The orders table only ever grows, and every findByCustomerId gets slower with it. Old orders are
+ *   almost never read, so they can live in cheap, compact files instead of the hot database.
+ *
+ * How are the files organised?
+ * - One directory per UTC day ("partition"): {dir}/2026-01-31/orders-{firstId}-{lastId}.oarc
+ * - Each file has a Bloom filter of its customer ids. Both are kept in memory, so a read skips whole days
+ *   outside the requested date range and every file that certainly holds nothing for the customer.
+ *
+ * What to take care:
+ * - Archiving order: write + fsync the file, publish it to readers, THEN delete the rows. If we crash in
+ *   between, an order exists in both places for a while; readers drop the archived copy (the DB wins).
+ * - The scheduler is off by default (inventory.archive.enabled=false); reading archived files is always on.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired // Archived rows only keep ids; the customer is loaded again for the response
+    private CustomerRepository customerRepository;
+
+    @Autowired // Same for items (one batched lookup per read)
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.archive.dir:data/order-archive}")
+    private Path directory = Path.of("data/order-archive");
+
+    @Value("${inventory.archive.older-than:30d}")
+    private Duration olderThan = Duration.ofDays(30);
+
+    @Value("${inventory.archive.interval:1h}")
+    private Duration interval = Duration.ofHours(1);
+
+    @Value("${inventory.archive.batch-size:5000}")
+    private int batchSize = 5000;
+
+    /**
+     * Every known archive file, by day. Copy-on-write: readers use whatever map is current, without locks.
+     * null until the directory has been scanned (on first use).
+     */
+    private volatile NavigableMap<LocalDate, List<ArchiveFileHeader>> partitions;
+    private final Object partitionsLock = new Object();
+    private final Object archiveLock = new Object();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::scheduledRun, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduledRun() {
+        try {
+            int archived = archiveOlderThan(Instant.now().minus(olderThan));
+            if (archived > 0) {
+                log.info("Archived {} orders placed before {}", archived, Instant.now().minus(olderThan));
+            }
+        } catch (RuntimeException e) {
+            // Nothing was deleted for the failed batch; the next run tries again
+            log.warn("Order archiving failed", e);
+        }
+    }
+
+    /**
+     * Archives every order placed before the cutoff, batch by batch.
+     *
+     * @return how many orders were moved out of the database
+     */
+    public int archiveOlderThan(Instant cutoff) {
+        synchronized (archiveLock) { // one archiver at a time, or two could write the same rows
+            int total = 0;
+            int archived;
+            do {
+                archived = archiveBatch(cutoff);
+                total += archived;
+            } while (archived == batchSize);
+            return total;
+        }
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        // 1. Read the oldest orders (lines included) and turn them into plain rows
+        List<ArchivedOrder> batch = transactionTemplate.execute(status ->
+                orderRepository.findByPlacedAtBeforeOrderByIdAsc(cutoff, Limit.of(batchSize)).stream()
+                        .map(OrderArchiveService::toArchived)
+                        .toList());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // 2. One file per day, written and made visible to readers
+        Map<LocalDate, List<ArchivedOrder>> byDay = new TreeMap<>();
+        for (ArchivedOrder order : batch) {
+            byDay.computeIfAbsent(dayOf(order.placedAtMillis()), day -> new ArrayList<>()).add(order);
+        }
+        for (Map.Entry<LocalDate, List<ArchivedOrder>> day : byDay.entrySet()) {
+            List<ArchivedOrder> orders = day.getValue();
+            Path file = directory.resolve(day.getKey().toString()).resolve(
+                    "orders-" + orders.get(0).id() + "-" + orders.get(orders.size() - 1).id() + OrderArchiveFormat.FILE_SUFFIX);
+            try {
+                publish(OrderArchiveFormat.write(file, day.getKey(), orders));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + file, e);
+            }
+        }
+
+        // 3. Only now remove the rows from the database (bulk deletes, lines first)
+        List<Long> ids = batch.stream().map(ArchivedOrder::id).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.deleteLinesOfOrders(ids);
+            orderRepository.deleteAllByIdInBatch(ids);
+        });
+        return batch.size();
+    }
+
+    /**
+     * Returns the archived orders of a customer, optionally only those placed between two days (inclusive).
+     *
+     * The returned orders are rebuilt from the files: they are NOT managed by JPA and must never be saved.
+     */
+    public List<Order> findOrders(Long customerId, LocalDate from, LocalDate to) {
+        List<ArchivedOrder> rows = new ArrayList<>();
+        for (ArchiveFileHeader file : candidateFiles(customerId, from, to)) {
+            try {
+                rows.addAll(OrderArchiveFormat.readOrders(file, customerId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + file.file(), e);
+            }
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Customer customer = customerRepository.findById(customerId).orElse(null);
+        Set<Long> itemIds = new HashSet<>();
+        for (ArchivedOrder row : rows) {
+            if (row.itemId() != 0) {
+                itemIds.add(row.itemId());
+            }
+            for (long lineItemId : row.lineItemIds()) {
+                itemIds.add(lineItemId);
+            }
+        }
+        Map<Long, InventoryItem> items = new HashMap<>();
+        inventoryItemRepository.findAllById(itemIds).forEach(item -> items.put(item.getId(), item));
+
+        List<Order> orders = new ArrayList<>(rows.size());
+        for (ArchivedOrder row : rows) {
+            Order order = Order.archived(row.id(), customer, items.get(row.itemId()), row.quantity(),
+                    row.status() == null ? null : OrderStatus.valueOf(row.status()), // files keep the name
+                    Instant.ofEpochMilli(row.placedAtMillis()));
+            for (int i = 0; i < row.lineItemIds().length; i++) {
+                order.addLine(items.get(row.lineItemIds()[i]), row.lineQuantities()[i]);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * The files a read has to open: inside the date range, and whose Bloom filter may contain the customer.
+     */
+    List<ArchiveFileHeader> candidateFiles(long customerId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<ArchiveFileHeader>> all = partitions();
+        if (all.isEmpty()) {
+            return List.of();
+        }
+        NavigableMap<LocalDate, List<ArchiveFileHeader>> days = all;
+        if (from != null) {
+            days = days.tailMap(from, true);
+        }
+        if (to != null) {
+            days = days.headMap(to, true);
+        }
+        List<ArchiveFileHeader> candidates = new ArrayList<>();
+        for (List<ArchiveFileHeader> files : days.values()) {
+            for (ArchiveFileHeader file : files) {
+                if (file.customers().mightContain(customerId)) {
+                    candidates.add(file);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @return how many archive files exist in total (for logging and tests)
+     */
+    public int fileCount() {
+        return partitions().values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Forgets the known files, so the next read scans the directory again
+     * (after files were removed or copied in by hand).
+     */
+    public void rescan() {
+        synchronized (partitionsLock) {
+            partitions = null;
+        }
+    }
+
+    private NavigableMap<LocalDate, List<ArchiveFileHeader>> partitions() {
+        NavigableMap<LocalDate, List<ArchiveFileHeader>> current = partitions;
+        if (current == null) {
+            synchronized (partitionsLock) {
+                if (partitions == null) {
+                    partitions = scanDirectory();
+                }
+                current = partitions;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Adds a freshly written file: copies the map, so readers holding the old one are not disturbed.
+     */
+    private void publish(ArchiveFileHeader header) {
+        synchronized (partitionsLock) {
+            NavigableMap<LocalDate, List<ArchiveFileHeader>> copy = new TreeMap<>(partitions());
+            List<ArchiveFileHeader> files = new ArrayList<>(copy.getOrDefault(header.partition(), List.of()));
+            files.removeIf(known -> known.file().equals(header.file())); // the first scan may have seen it already
+            files.add(header);
+            copy.put(header.partition(), Collections.unmodifiableList(files));
+            partitions = Collections.unmodifiableNavigableMap(copy);
+        }
+    }
+
+    /**
+     * Reads the header of every archive file on disk (once, at first use).
+     */
+    private NavigableMap<LocalDate, List<ArchiveFileHeader>> scanDirectory() {
+        NavigableMap<LocalDate, List<ArchiveFileHeader>> found = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return Collections.unmodifiableNavigableMap(found);
+        }
+        try (Stream<Path> days = Files.list(directory)) {
+            for (Path dayDirectory : days.filter(Files::isDirectory).toList()) {
+                LocalDate day;
+                try {
+                    day = LocalDate.parse(dayDirectory.getFileName().toString());
+                } catch (DateTimeParseException e) {
+                    continue; // not a partition directory
+                }
+                List<ArchiveFileHeader> files = new ArrayList<>();
+                try (Stream<Path> paths = Files.list(dayDirectory)) {
+                    for (Path file : paths.filter(path -> path.toString().endsWith(OrderArchiveFormat.FILE_SUFFIX)).toList()) {
+                        files.add(OrderArchiveFormat.readHeader(file, day));
+                    }
+                }
+                found.put(day, Collections.unmodifiableList(files));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not scan order archive " + directory, e);
+        }
+        return Collections.unmodifiableNavigableMap(found);
+    }
+
+    private static ArchivedOrder toArchived(Order order) {
+        List<OrderLine> lines = order.getLines();
+        long[] lineItemIds = new long[lines.size()];
+        int[] lineQuantities = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            lineItemIds[i] = idOf(lines.get(i).getItem());
+            lineQuantities[i] = lines.get(i).getQuantity();
+        }
+        return new ArchivedOrder(order.getId(),
+                order.getCustomer() == null ? 0 : order.getCustomer().getId(),
+                idOf(order.getItem()),
+                order.getQuantity(),
+                order.getStatus() == null ? null : order.getStatus().name(),
+                order.getPlacedAt().toEpochMilli(),
+                lineItemIds,
+                lineQuantities);
+    }
+
+    private static long idOf(InventoryItem item) {
+        return item == null ? 0 : item.getId();
+    }
+
+    private static LocalDate dayOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.inventory.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Lets API clients exchange CBOR or Smile instead of JSON text, on every controller and in both directions.
+ *
+ * How do clients use it?
+ * - Responses: send "Accept: application/cbor" or "Accept: application/x-jackson-smile".
+ * - Requests (POST /orders, ...): send the body in one of them with the matching Content-Type.
+ * - Without such headers nothing changes: JSON stays first, so browsers and clients that accept anything get JSON.
+ *
+ * Why?
+ * - The same objects, but binary: numbers are not turned into text and back, field names are shorter
+ *   (Smile even sends repeated names only once), so both sides spend less CPU and the payload is smaller.
+ *
+ * Why our own beans, if Spring MVC adds these converters by itself when the libraries are present?
+ * - Spring's own ones use a plain mapper. Built from Spring Boot's Jackson2ObjectMapperBuilder, they use exactly
+ *   the settings and modules of the JSON converter (e.g. dates as ISO text, not numbers), so every format
+ *   carries the same fields and values. Spring Boot puts them where Spring's would have been: after JSON.
+ *
+ * What to take care:
+ * - Set inventory.binary-formats.enabled=false to fall back to Spring's defaults.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.binary-formats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BinaryFormatsConfig {
+
+    /**
+     * The builder is a prototype bean: every injection gets a fresh copy with Spring Boot's settings applied.
+     * (Not builder.cbor()/smile(): those are static and would start from a plain builder again.)
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
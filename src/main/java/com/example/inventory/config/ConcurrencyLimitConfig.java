@@ -0,0 +1,68 @@
+package com.example.inventory.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.inventory.limit.AdaptiveConcurrencyLimiter;
+import com.example.inventory.limit.ConcurrencyLimitFilter;
+
+/**
+ * Creates the two adaptive concurrency limiters (orders and reads) and registers the filter that uses them.
+ *
+ * Why as @Bean methods?
+ * - Each limiter needs several numbers from the configuration; building them here keeps the limiter class
+ *   itself free of Spring, so it can be unit-tested (and load-tested) with plain "new".
+ *
+ * What to take care:
+ * - Set inventory.limiter.enabled=false to switch load shedding off completely.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${inventory.limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${inventory.limiter.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    /**
+     * Limits concurrent POST /orders requests.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter orderLimiter(
+            @Value("${inventory.limiter.orders.initial-limit:20}") int initialLimit,
+            @Value("${inventory.limiter.orders.min-limit:2}") int minLimit,
+            @Value("${inventory.limiter.orders.max-limit:200}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("orders", initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+    }
+
+    /**
+     * Limits concurrent GET requests on the API, independently of orders.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter readLimiter(
+            @Value("${inventory.limiter.reads.initial-limit:50}") int initialLimit,
+            @Value("${inventory.limiter.reads.min-limit:4}") int minLimit,
+            @Value("${inventory.limiter.reads.max-limit:500}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("reads", initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+    }
+
+    /**
+     * Registers the filter early in the chain, so rejected requests cost almost nothing.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Qualifier("orderLimiter") AdaptiveConcurrencyLimiter orderLimiter,
+            @Qualifier("readLimiter") AdaptiveConcurrencyLimiter readLimiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(orderLimiter, readLimiter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.inventory.config;
+
+/**
+ * The two kinds of database connection pools the app can route statements to.
+ *
+ * Why an enum?
+ * - AbstractRoutingDataSource looks up the target pool by a "key"; an enum keeps those keys type-safe
+ *   instead of passing around magic strings like "primary" / "replica".
+ */
+public enum DataSourceRole {
+    /**
+     * The read/write database. Every write and every read that must see the latest data goes here.
+     */
+    PRIMARY,
+
+    /**
+     * A read-only copy of the primary that may lag behind it. Only read-only transactions go here.
+     */
+    REPLICA
+}
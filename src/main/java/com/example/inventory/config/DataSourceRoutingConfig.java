@@ -0,0 +1,109 @@
+package com.example.inventory.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sets up separate connection pools for writes (primary) and reads (replica).
+ *
+ * When is this active?
+ * - Only when inventory.datasource.replica.enabled=true. Otherwise Spring Boot creates its usual single pool
+ *   and nothing here runs.
+ *
+ * How does it work?
+ * 1. "primaryDataSource" is built from the normal spring.datasource.* settings.
+ * 2. "replicaDataSource" is built from inventory.datasource.replica.* settings.
+ * 3. The DataSource that JPA actually uses is a routing DataSource (picks one of the two per connection),
+ *    wrapped in a LazyConnectionDataSourceProxy so the choice is made at the first SQL statement.
+ *
+ * What to take care:
+ * - Methods marked @Transactional(readOnly = true) go to the replica; everything else goes to the primary.
+ * - The replica must already contain the schema; Hibernate only creates tables through the primary.
+ * - Spring Boot normally keeps one JDBC connection for the whole web request (open-in-view). With routing,
+ *   that would let a write reuse a replica connection opened by an earlier read, so we release connections
+ *   after every transaction instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.datasource.replica", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * The read/write pool, configured exactly like Spring Boot's default pool would be: spring.datasource.* for
+     * the connection, spring.datasource.hikari.* for the pool (size, timeouts), bound onto it like Boot does.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * The read-only pool pointing at the replica database.
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(
+            @Value("${inventory.datasource.replica.url}") String url,
+            @Value("${inventory.datasource.replica.username:sa}") String username,
+            @Value("${inventory.datasource.replica.password:}") String password,
+            @Value("${inventory.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true); // extra safety: the driver refuses writes on these connections
+        return dataSource;
+    }
+
+    /**
+     * The DataSource everyone else (JPA, Spring Data, JdbcTemplate) receives.
+     *
+     * @Primary makes sure this one wins whenever a plain DataSource is injected.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaRoutingPolicy routingPolicy) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(routingPolicy);
+        routing.setTargetDataSources(Map.<Object, Object>of(
+                DataSourceRole.PRIMARY, primary,
+                DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Makes Hibernate give the connection back after each transaction, so the next transaction routes again.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
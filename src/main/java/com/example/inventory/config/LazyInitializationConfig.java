@@ -0,0 +1,50 @@
+package com.example.inventory.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.inventory.archive.OrderArchiveService;
+import com.example.inventory.controller.InventoryController;
+import com.example.inventory.service.InventoryCatalogCache;
+import com.example.inventory.service.InventoryService;
+import com.example.inventory.snapshot.DatabaseSnapshotService;
+import com.example.inventory.wal.StockEventLog;
+
+/**
+ * Decides which beans stay eager when lazy initialization is on (spring.main.lazy-initialization=true,
+ * set by the "startup" profile).
+ *
+ * Why lazy at all?
+ * - With lazy initialization a bean is only created when something first needs it. Order, customer and
+ *   warehouse beans are then built on their first request instead of delaying the moment the server
+ *   starts answering.
+ *
+ * Why keep some beans eager?
+ * - GET /inventory is what load balancers and clients hit first after a scale-out, so its path is built
+ *   before the port opens rather than inside the first request.
+ * - Background services must start on their own: the snapshot restore has to finish before any request
+ *   is served, the write-ahead log replays right after it, and the archiver schedules itself. Lazily, nobody
+ *   would ever ask for them.
+ *
+ * What to take care:
+ * - Without the startup profile this filter does nothing; every bean is eager as usual.
+ * - A lazy bean with a configuration mistake fails on its first request, not at startup.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * static, so Spring can read the filter before any other bean of this class is created.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                InventoryController.class,
+                InventoryService.class,
+                InventoryCatalogCache.class,
+                DatabaseSnapshotService.class,
+                StockEventLog.class,
+                OrderArchiveService.class);
+    }
+}
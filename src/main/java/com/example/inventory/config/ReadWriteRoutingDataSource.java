@@ -0,0 +1,28 @@
+package com.example.inventory.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * A DataSource that forwards each getConnection() call to either the primary or the replica pool.
+ *
+ * Why extend AbstractRoutingDataSource?
+ * - Spring already implements "pick one of several DataSources by key"; we only have to supply the key.
+ *
+ * What to take care:
+ * - The key is evaluated when a connection is requested. Always wrap this class in a
+ *   LazyConnectionDataSourceProxy (see DataSourceRoutingConfig) so the connection is requested at the first
+ *   statement, after the transaction's read-only flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRoutingPolicy routingPolicy;
+
+    public ReadWriteRoutingDataSource(ReplicaRoutingPolicy routingPolicy) {
+        this.routingPolicy = routingPolicy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routingPolicy.currentRole();
+    }
+}
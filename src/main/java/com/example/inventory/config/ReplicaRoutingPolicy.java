@@ -0,0 +1,160 @@
+package com.example.inventory.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ReplicaRoutingPolicy decides, for every JDBC connection the app opens, whether it should talk to the
+ * primary database or to the read replica.
+ *
+ * Rules (checked in this order):
+ * 1. If the current code explicitly "pinned" itself to the primary (see {@link #onPrimary(Supplier)}), use the primary.
+ * 2. If we are not inside a read-only transaction, use the primary (writes must never hit a replica!).
+ * 3. If the replica is reported to lag more than the configured maximum staleness, use the primary.
+ * 4. Otherwise, use the replica.
+ *
+ * Read-your-writes:
+ * - A replica copies the primary a little later, so a customer who just placed an order could look at
+ *   their order list and not see it yet. To avoid this, we remember who wrote recently
+ *   ({@link #recordWrite(Long)}), and {@link #mustReadFromPrimary(Long)} keeps that customer "sticky" to the
+ *   primary for one staleness window.
+ *
+ * What to take care:
+ * - This bean always exists, even when no replica is configured. Without a replica, every key simply
+ *   resolves to the single pool, so calling it is harmless.
+ */
+@Component
+public class ReplicaRoutingPolicy {
+
+    /**
+     * Soft cap on how many "recent writer" entries we keep before sweeping expired ones.
+     */
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    /**
+     * Code that must see the latest data sets this flag around its reads.
+     */
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    /**
+     * How old replica data may be before we stop trusting it.
+     * Also used as the read-your-writes window after a customer writes.
+     */
+    @Value("${inventory.datasource.replica.max-staleness:5s}")
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * customerId -> System.nanoTime() of their last write.
+     */
+    private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+
+    /**
+     * Last replication lag reported by whatever feeds the replica (a monitor, a heartbeat job, a test stand-in).
+     */
+    private volatile Duration replicaLag = Duration.ZERO;
+
+    /**
+     * Works out which pool the next connection should come from.
+     *
+     * @return PRIMARY or REPLICA, following the rules in the class comment
+     */
+    public DataSourceRole currentRole() {
+        if (Boolean.TRUE.equals(PINNED_TO_PRIMARY.get())) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (!isReplicaFreshEnough()) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    /**
+     * Remembers that a customer just changed data, so their next reads stay on the primary.
+     *
+     * @param customerId the customer who wrote (ignored if null)
+     */
+    public void recordWrite(Long customerId) {
+        if (customerId == null) {
+            return;
+        }
+        if (recentWriters.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            recentWriters.values().removeIf(writtenAt -> now - writtenAt > maxStaleness.toNanos());
+        }
+        recentWriters.put(customerId, System.nanoTime());
+    }
+
+    /**
+     * Tells whether reads for this customer must go to the primary to honour read-your-writes.
+     *
+     * @param customerId the customer whose data is about to be read
+     * @return true if the customer wrote within the last staleness window
+     */
+    public boolean mustReadFromPrimary(Long customerId) {
+        if (customerId == null) {
+            return false;
+        }
+        Long writtenAt = recentWriters.get(customerId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > maxStaleness.toNanos()) {
+            recentWriters.remove(customerId, writtenAt); // window is over, forget the entry
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the given reads against the primary, even inside a read-only transaction.
+     *
+     * Why does this work inside a transaction that already started?
+     * - The routing DataSource is wrapped in a LazyConnectionDataSourceProxy, so the real connection is only
+     *   fetched when the first SQL statement runs. Pinning before that statement is enough.
+     *
+     * @param reads the code doing the reads
+     * @return whatever the reads return
+     */
+    public <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            } else {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Called by whatever observes replication to tell us how far behind the replica currently is.
+     *
+     * @param lag current replication delay (null is treated as zero)
+     */
+    public void reportReplicaLag(Duration lag) {
+        this.replicaLag = lag == null ? Duration.ZERO : lag;
+    }
+
+    /**
+     * @return true if the last reported replica lag is within the configured maximum staleness
+     */
+    public boolean isReplicaFreshEnough() {
+        return replicaLag.compareTo(maxStaleness) <= 0;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+}
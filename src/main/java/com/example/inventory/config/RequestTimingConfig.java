@@ -0,0 +1,62 @@
+package com.example.inventory.config;
+
+import java.time.Duration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.inventory.timing.JdbcTimingListener;
+import com.example.inventory.timing.RequestTimingAspect;
+import com.example.inventory.timing.ServerTimingFilter;
+import com.example.inventory.timing.SqlCapturingInspector;
+
+/**
+ * Wires up per-request timing: statement count, DB time, service and controller time.
+ *
+ * What gets registered?
+ * - ServerTimingFilter, first in the chain, so "total" also covers the concurrency limiter.
+ * - RequestTimingAspect around @RestController and @Service beans.
+ * - Two Hibernate plug-ins that see every JDBC statement.
+ * (ServerTimingResponseAdvice, which writes the header, is a @ControllerAdvice and found by component scan.)
+ *
+ * What to take care:
+ * - Set inventory.request-timing.enabled=false to remove all of it.
+ * - The header tells clients how long the database took. Switch the header off if that must stay internal;
+ *   logging keeps working.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.request-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${inventory.request-timing.header:true}") boolean header,
+            @Value("${inventory.request-timing.slow-threshold:500ms}") Duration slowThreshold) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(header, slowThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public RequestTimingAspect requestTimingAspect() {
+        return new RequestTimingAspect();
+    }
+
+    /**
+     * Plugs the statement listener and SQL inspector into Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestTimingHibernateListeners() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCapturingInspector());
+        };
+    }
+}
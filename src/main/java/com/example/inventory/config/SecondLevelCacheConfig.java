@@ -0,0 +1,105 @@
+package com.example.inventory.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hibernate's second-level cache (entities) and query cache, kept in Caffeine through the JCache API.
+ *
+ * What is cached?
+ * - "customers": Customer entities (see Customer). Every order looks its customer up; with the cache that
+ *   lookup runs no SQL.
+ * - "orders-by-customer": the results of OrderRepository.findByCustomerId.
+ * - Hibernate's own two regions: default query results, and the update timestamps that tell it which
+ *   cached query results are outdated.
+ * - NOT InventoryItem: its quantity changes all the time, also through plain SQL (see InventoryItem).
+ *
+ * Why create the regions here instead of a cache config file?
+ * - Sizes and expiry come from inventory.second-level-cache.* like every other setting, and Hibernate is told
+ *   to fail at startup if it asks for a region that is not created here (no silently unbounded caches).
+ *
+ * What to take care:
+ * - Each application context gets its own cache manager (its own URI): Caffeine shares managers by URI, and
+ *   two contexts (tests, tools) pointing to different databases must never see each other's rows.
+ * - The cache lives in this JVM. With several instances, each has its own copy: a customer renamed on one
+ *   instance stays old on the others until evicted. Fine for names; use a clustered cache otherwise.
+ * - With inventory.second-level-cache.enabled=false, both caches are switched off explicitly (Hibernate
+ *   would otherwise pick up the JCache module on the classpath by itself).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String ORDERS_BY_CUSTOMER = "orders-by-customer";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "inventory.second-level-cache", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public CacheManager secondLevelCacheManager(
+            @Value("${inventory.second-level-cache.customers.max-size:100000}") long customersMaxSize,
+            @Value("${inventory.second-level-cache.orders-by-customer.max-size:10000}") long ordersMaxSize,
+            @Value("${inventory.second-level-cache.orders-by-customer.expire-after-access:10m}") Duration ordersExpiry,
+            @Value("${inventory.second-level-cache.statistics:true}") boolean statistics) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("inventory-second-level-cache:" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+        cacheManager.createCache(CUSTOMERS, region(customersMaxSize, null, statistics));
+        cacheManager.createCache(ORDERS_BY_CUSTOMER, region(ordersMaxSize, ordersExpiry, statistics));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(1_000L, ordersExpiry, statistics));
+        // Never evicted: a forgotten timestamp could make Hibernate trust an outdated query result
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(null, null, statistics));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheSettings(ObjectProvider<CacheManager> secondLevelCacheManager) {
+        return properties -> {
+            CacheManager cacheManager = secondLevelCacheManager.getIfAvailable();
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheManager != null);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, cacheManager != null);
+            if (cacheManager != null) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+                properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    /**
+     * @param maxSize  most entries; older, rarely used ones are evicted first (null: unbounded)
+     * @param expiry   entries not read for this long are dropped (null: never)
+     * @param statistics hit/miss counters per region, readable over JMX (javax.cache:type=CacheStatistics)
+     */
+    private static CaffeineConfiguration<Object, Object> region(Long maxSize, Duration expiry, boolean statistics) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (expiry != null) {
+            configuration.setExpireAfterAccess(OptionalLong.of(expiry.toNanos()));
+        }
+        configuration.setStatisticsEnabled(statistics);
+        configuration.setManagementEnabled(statistics);
+        return configuration;
+    }
+}
@@ -7,10 +7,13 @@ import org.springframework.web.bind.annotation.GetMapping; // Used to inject (au
 import org.springframework.web.bind.annotation.PostMapping; // Import core REST API annotations: @RestController, @RequestMapping, etc.
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.inventory.entity.Customer;
 import com.example.inventory.service.CustomerService;
+import com.example.inventory.sync.ChangeSet;
+import com.example.inventory.sync.InventorySyncService;
 
 /**
  * CustomerController handles all HTTP requests related to customer management.
@@ -31,6 +34,9 @@ public class CustomerController {
     @Autowired // This tells Spring to "inject" (supply) the right CustomerService instance here—Dependency Injection best-practice!
     private CustomerService customerService;
 
+    @Autowired // "what changed since version N" for mirroring clients
+    private InventorySyncService inventorySyncService;
+
     /**
      * Handles GET requests for all customers.
      * Example: GET /customers
@@ -47,6 +53,25 @@ public class CustomerController {
         return customerService.getAllCustomers(); // Delegates to service layer for fetching data
     }
 
+    /**
+     * Customers added or changed since a version, for clients that keep a copy.
+     * Example: GET /customers/changes?since=1234 (see ChangeSet for the answer and how to apply it)
+     */
+    @GetMapping("/changes")
+    public ChangeSet<Customer> getChanges(@RequestParam(defaultValue = "0") long since) {
+        return inventorySyncService.customerChangesSince(since);
+    }
+
+    /**
+     * Customers whose name contains the text, at most 50, sorted by name (the web UI's customer picker).
+     * Example: GET /customers/search?q=ann&limit=20
+     */
+    @GetMapping("/search")
+    public List<Customer> searchCustomers(@RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return customerService.searchCustomers(q, limit);
+    }
+
     /**
      * Handles POST requests to add a new customer.
      * Example: POST /customers with Customer data in JSON payload
@@ -1,18 +1,36 @@
 package com.example.inventory.controller;
 
-import java.util.List; // Our data type for inventory entries (like an object representing a product)
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired; // Business logic for inventory lives here
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping; // Lets us auto-inject the service into our controller
 import org.springframework.web.bind.annotation.GetMapping; // RESTful controller and endpoint annotations
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.forecast.DemandForecastService;
+import com.example.inventory.forecast.ItemForecast;
+import com.example.inventory.service.InventoryCatalogCache;
+import com.example.inventory.service.InventoryCatalogSnapshot;
 import com.example.inventory.service.InventoryService;
+import com.example.inventory.service.StockAdjustment;
+import com.example.inventory.service.StockAdjustmentResult;
+import com.example.inventory.service.StockAdjustmentService;
+import com.example.inventory.sync.ChangeSet;
+import com.example.inventory.sync.InventorySyncService;
 
 /**
  * InventoryController manages all HTTP requests related to Inventory management (viewing, adding, deleting items).
@@ -29,9 +47,29 @@ import com.example.inventory.service.InventoryService;
 @RequestMapping("/inventory") // All endpoints in this controller will be under /inventory
 public class InventoryController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    /**
+     * The formats BinaryFormatsConfig adds next to JSON.
+     */
+    private static final List<MediaType> BINARY_FORMATS = List.of(MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType("application/x-jackson-smile"));
+
     @Autowired // Auto-injects (wires) the correct InventoryService bean for us
     private InventoryService inventoryService;
 
+    @Autowired // Delta sync for clients that mirror the catalog
+    private InventorySyncService inventorySyncService;
+
+    @Autowired // Bulk restocks and cycle counts
+    private StockAdjustmentService stockAdjustmentService;
+
+    @Autowired // Pre-encoded catalog bytes (used when inventory.catalog-snapshot.enabled=true)
+    private InventoryCatalogCache catalogCache;
+
+    @Autowired // Demand forecasts and reorder suggestions
+    private DemandForecastService demandForecastService;
+
     /**
      * Handles GET requests for listing all inventory items.
      * Example: GET /inventory
@@ -41,10 +79,117 @@ public class InventoryController {
      * Things to care about:
      * - Returns all inventory items in the system.
      * - For large inventories, consider implementing pagination!
+     * - With the catalog snapshot enabled, we send ready-made JSON bytes (gzip-compressed if the client
+     *   accepts it): no DB query and no entity objects per request.
+     * - Clients asking for CBOR or Smile (see BinaryFormatsConfig) get the snapshot's items encoded in that
+     *   format: still no DB query, but encoded per request, as the ready-made bytes are JSON.
      */
     @GetMapping
-    public List<InventoryItem> getAllItems() {
-        return inventoryService.getAllItems(); // Let the service fetch all inventory data
+    public ResponseEntity<?> getAllItems(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (!catalogCache.isEnabled()) {
+            return ResponseEntity.ok(inventoryService.getAllItems()); // Let the service fetch all inventory data
+        }
+        InventoryCatalogSnapshot snapshot = catalogCache.current();
+        if (prefersBinaryFormat(accept)) {
+            return ResponseEntity.ok(snapshot.getItems());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.getGzipJson() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzipJson());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    /**
+     * True if the Accept header ranks CBOR or Smile above JSON, by the usual rules: the highest q-value wins,
+     * and among equal q-values the more specific type (a wildcard next to application/cbor gets CBOR). An
+     * unreadable header gets JSON.
+     */
+    private static boolean prefersBinaryFormat(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        accepted.sort(Comparator.<MediaType>comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                return false; // q=0 means "not acceptable", and only such types are left
+            }
+            if (BINARY_FORMATS.stream().anyMatch(type::equalsTypeAndSubtype)) {
+                return true;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Items added, changed or deleted since a version: lets POS terminals and apps keep their copy of the
+     * catalog up to date without downloading all of it every time.
+     * Example: GET /inventory/changes?since=1234
+     *
+     * Answer: {"version": 1300, "fullResync": false, "changed": [...items...], "deleted": [17, 42]}
+     * - Keep "version" and send it as "since" next time.
+     * - fullResync=true (first call, or "since" is older than the retained deletions): "changed" is the
+     *   whole catalog and replaces the local copy.
+     */
+    @GetMapping("/changes")
+    public ChangeSet<InventoryItem> getChanges(@RequestParam(defaultValue = "0") long since) {
+        return inventorySyncService.itemChangesSince(since);
+    }
+
+    /**
+     * Items whose name contains the text, for pickers (the web UI's order form) that must not load the catalog.
+     * Example: GET /inventory/search?q=bolt&limit=20
+     *
+     * At most 50 items, sorted by name.
+     */
+    @GetMapping("/search")
+    public List<InventoryItem> searchItems(@RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return inventoryService.searchItems(q, limit);
+    }
+
+    /**
+     * Demand forecast and reorder suggestion for one item, from its order history.
+     * Example: GET /inventory/42/forecast
+     *
+     * Answer: {"itemId": 42, "stock": 30, "asOf": "2026-03-01", "averageDemand": 4.2, "forecastDemand": 5.1,
+     *          "demandStdDev": 1.8, "reorderPoint": 44, "reorderQuantity": 85}
+     * 404 if there is no such item. An item that was never ordered has a demand of 0.
+     */
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<ItemForecast> getForecast(@PathVariable Long id) {
+        return ResponseEntity.of(demandForecastService.forecast(id));
+    }
+
+    /**
+     * Bulk export: the forecast of every item as CSV (one line per item, by id), for purchasing tools and
+     * spreadsheets.
+     * Example: GET /inventory/forecasts
+     *
+     * The body is streamed while the catalog is read page by page, so even a huge catalog is never held in
+     * memory as a whole.
+     */
+    @GetMapping(path = "/forecasts", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportForecasts() {
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"forecasts.csv\"")
+                .body(demandForecastService::exportCsv);
     }
 
     /**
@@ -60,6 +205,32 @@ public class InventoryController {
         return inventoryService.saveItem(item); // Pass the item to the service for saving (creation)
     }
 
+    /**
+     * Request body for POST /inventory/adjustments, e.g.
+     * {"reference": "delivery 4711", "lines": [{"itemId": 3, "delta": 120}, {"itemId": 7, "count": 40}]}
+     */
+    public record AdjustmentsRequest(String reference, List<StockAdjustment> lines) {
+    }
+
+    /**
+     * Applies a batch of restocks (delta) and cycle counts (count) at once.
+     * Example: POST /inventory/adjustments with the body above
+     *
+     * Returns one result per line, in request order: APPLIED with the quantity before and after, or why the
+     * line was skipped (the other lines are still applied). 400 if there are no lines at all.
+     *
+     * Why not POST /inventory per item?
+     * - That means fetching and re-sending the whole item for each change, one transaction each; here the
+     *   whole batch is one transaction with one batched UPDATE (see StockAdjustmentService).
+     */
+    @PostMapping("/adjustments")
+    public ResponseEntity<List<StockAdjustmentResult>> adjustStock(@RequestBody AdjustmentsRequest request) {
+        if (request.lines() == null || request.lines().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(stockAdjustmentService.applyAdjustments(request.reference(), request.lines()));
+    }
+
     /**
      * Handles DELETE requests to remove an inventory item by its ID.
      * Example: DELETE /inventory/123 will delete the item with id=123
@@ -1,17 +1,36 @@
 package com.example.inventory.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List; // Order entity represents order data
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired; // Handles business logic for orders
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping; // Dependency injection
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.service.AsyncOrderPipeline;
+import com.example.inventory.service.OrderLineRequest;
+import com.example.inventory.service.OrderRequest;
 import com.example.inventory.service.OrderService;
+import com.example.inventory.service.OrderTracking;
 
 /**
  * OrderController handles API requests related to orders, like placing a new order or fetching orders for a customer.
@@ -31,6 +50,12 @@ public class OrderController {
     @Autowired // Dependency Injection: Spring will create and supply the required OrderService instance
     private OrderService orderService;
 
+    @Autowired(required = false) // Only exists with inventory.async-orders.enabled=true
+    private AsyncOrderPipeline asyncOrderPipeline;
+
+    @Value("${inventory.async-orders.sse-timeout:60s}")
+    private Duration sseTimeout;
+
     /**
      * Nested static class used to receive complex data as a single object in POST requests.
      * 
@@ -66,17 +91,105 @@ public class OrderController {
      * 
      * Careful:
      * - No explicit error-handling: In practice, add checks for out-of-stock, non-existent customer/item, etc.
+     *
+     * Asynchronous mode (inventory.async-orders.enabled=true):
+     * - The request is only checked (ids present, quantity > 0, otherwise 400) and queued. The answer is
+     *   202 Accepted with {"trackingId": ..., "status": "QUEUED"} and a Location header to poll.
+     * - If the queue is full: 503 with Retry-After, and the order was NOT accepted.
      */
     @PostMapping
-    public Order placeOrder(@RequestBody PlaceOrderRequest request) {
-        return orderService.placeOrder(request.customerId, request.itemId, request.quantity);
+    public ResponseEntity<?> placeOrder(@RequestBody PlaceOrderRequest request) {
+        if (asyncOrderPipeline == null) {
+            return ResponseEntity.ok(orderService.placeOrder(request.customerId, request.itemId, request.quantity));
+        }
+        if (request.customerId == null || request.itemId == null || request.quantity <= 0) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "customerId, itemId and a positive quantity are required"));
+        }
+        OrderTracking tracking = asyncOrderPipeline.submit(
+                new OrderRequest(request.customerId, request.itemId, request.quantity));
+        if (tracking == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "order queue is full"));
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/status/" + tracking.trackingId()))
+                .body(tracking);
+    }
+
+    /**
+     * Handles GET requests for the state of an order accepted asynchronously.
+     * Example: GET /orders/status/3f2c... returns {"trackingId":"3f2c...", "status":"PLACED", "orderId":42}
+     *
+     * Returns 404 if the tracking id is unknown, expired, or asynchronous mode is off.
+     */
+    @GetMapping("/status/{trackingId}")
+    public ResponseEntity<OrderTracking> getOrderStatus(@PathVariable String trackingId) {
+        OrderTracking tracking = asyncOrderPipeline == null ? null : asyncOrderPipeline.status(trackingId);
+        return tracking == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(tracking);
+    }
+
+    /**
+     * Server-Sent Events stream for one asynchronous order: sends one "order-status" event with the final
+     * state as soon as it is known (right away if it already is), then closes.
+     * Example: GET /orders/status/3f2c.../events  (in a browser: new EventSource(url))
+     *
+     * Why SSE instead of polling?
+     * - The client learns the result the moment the worker commits, with one request instead of many.
+     *
+     * What to take care:
+     * - The stream gives up after inventory.async-orders.sse-timeout; clients can then poll the status.
+     */
+    @GetMapping(path = "/status/{trackingId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderStatus(@PathVariable String trackingId) {
+        CompletableFuture<OrderTracking> done = asyncOrderPipeline == null ? null : asyncOrderPipeline.whenDone(trackingId);
+        if (done == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        done.thenAccept(tracking -> {
+            try {
+                emitter.send(SseEmitter.event().name("order-status").data(tracking, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e); // the client went away
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Request body for a basket order with several lines.
+     * Example: {"customerId":1, "lines":[{"itemId":2, "quantity":1}, {"itemId":5, "quantity":3}]}
+     */
+    public static class PlaceMultiLineOrderRequest {
+        public Long customerId;              // The ID of the customer placing the order
+        public List<OrderLineRequest> lines; // One entry per item; the same item may appear twice
+    }
+
+    /**
+     * Handles POST requests to place a basket order with several lines.
+     * Example: POST /orders/basket
+     *
+     * Returns:
+     * - The created Order with its lines. "PLACED" only if EVERY line was in stock; otherwise "REJECTED"
+     *   and no stock was taken at all.
+     */
+    @PostMapping("/basket")
+    public Order placeMultiLineOrder(@RequestBody PlaceMultiLineOrderRequest request) {
+        return orderService.placeMultiLineOrder(request.customerId, request.lines);
     }
 
     /**
      * Handles GET requests for all orders belonging to a customer.
      * Example: GET /orders/1 returns a list of orders for customer with ID 1
+     * Example: GET /orders/1?from=2026-01-01&to=2026-01-31 returns only the orders placed in January
      * 
      * @param customerId Extracted directly from the URL (via @PathVariable)
+     * @param from       optional first day (inclusive, UTC); also lets the server skip older archive files
+     * @param to         optional last day (inclusive, UTC)
+     * @param status     optional: only orders in this status (e.g. ?status=PLACED)
      * 
      * Returns:
      * - List of Order objects for the specified customer
@@ -85,7 +198,54 @@ public class OrderController {
      * - In production, handle the case where customerId does not exist and errors gracefully.
      */
     @GetMapping("/{customerId}")
-    public List<Order> getOrdersForCustomer(@PathVariable Long customerId) {
-        return orderService.getOrdersByCustomer(customerId);
+    public List<Order> getOrdersForCustomer(@PathVariable Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status) {
+        return orderService.getOrdersByCustomer(customerId, from, to, status);
+    }
+
+    /**
+     * Handles GET requests for all orders in one status, page by page (e.g. the shipping queue).
+     * Example: GET /orders?status=PLACED&limit=100, then GET /orders?status=PLACED&afterId=<last id>&limit=100
+     *
+     * At most 1000 orders per page, sorted by id. Archived orders are not included.
+     */
+    @GetMapping
+    public List<Order> getOrdersByStatus(@RequestParam OrderStatus status,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return orderService.getOrdersByStatus(status, afterId, limit);
+    }
+
+    /**
+     * Handles POST requests to ship an order.
+     * Example: POST /orders/42/ship
+     *
+     * Answers: 200 with the SHIPPED order; 404 if there is no such order; 409 if it is not PLACED.
+     */
+    @PostMapping("/{orderId}/ship")
+    public ResponseEntity<?> shipOrder(@PathVariable Long orderId) {
+        try {
+            return ResponseEntity.of(orderService.shipOrder(orderId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Handles POST requests to cancel an order; its units go back into stock.
+     * Example: POST /orders/42/cancel
+     *
+     * Answers: 200 with the CANCELLED order; 404 if there is no such order; 409 if it is not PLACED
+     * (shipped, rejected and cancelled orders cannot be cancelled), or if it took items stocked per warehouse.
+     */
+    @PostMapping("/{orderId}/cancel")
+    public ResponseEntity<?> cancelOrder(@PathVariable Long orderId) {
+        try {
+            return ResponseEntity.of(orderService.cancelOrder(orderId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.example.inventory.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.inventory.report.ReportGranularity;
+import com.example.inventory.report.SalesReportService;
+
+/**
+ * ReportController exposes read-only reports computed from the orders table.
+ *
+ * What to take care:
+ * - Reports read on their own connection pool (see SalesReportService), so a long report never takes
+ *   connections away from placing orders. It does take CPU: keep large ranges for quiet hours.
+ */
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    /**
+     * Handles GET requests for a sales report: orders, units and reject rate per day or hour, per status, and
+     * the top items and customers by units.
+     * Example: GET /reports/sales?from=2026-01-01&to=2026-01-31
+     * Example: GET /reports/sales?from=2026-01-05&to=2026-01-05&granularity=HOUR&top=20
+     *
+     * @param from        first day (inclusive, UTC)
+     * @param to          last day (inclusive, UTC)
+     * @param granularity DAY (default) or HOUR
+     * @param top         items and customers listed per period (default 10)
+     *
+     * Answers 400 with {"error": ...} for a reversed range, too many periods or a bad top.
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSalesReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") ReportGranularity granularity,
+            @RequestParam(defaultValue = "10") int top) {
+        try {
+            return ResponseEntity.ok(salesReportService.report(from, to, granularity, top));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.inventory.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.inventory.entity.StockLocation;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.service.WarehouseService;
+
+/**
+ * WarehouseController: HTTP API for warehouses and the stock stored in each of them.
+ *
+ * Endpoints:
+ * - GET  /warehouses                                  list warehouses
+ * - POST /warehouses                                  create a warehouse
+ * - GET  /warehouses/stock/{itemId}                   where an item is stored
+ * - PUT  /warehouses/{warehouseId}/stock/{itemId}     set an item's stock in one warehouse
+ */
+@RestController
+@RequestMapping("/warehouses")
+public class WarehouseController {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    /**
+     * Request body for setting a stock level, e.g. {"quantity": 25}.
+     */
+    public static class StockLevelRequest {
+        public int quantity; // the new absolute number of units in the warehouse
+    }
+
+    @GetMapping
+    public List<Warehouse> getAllWarehouses() {
+        return warehouseService.getAllWarehouses();
+    }
+
+    @PostMapping
+    public Warehouse addWarehouse(@RequestBody Warehouse warehouse) {
+        return warehouseService.saveWarehouse(warehouse);
+    }
+
+    @GetMapping("/stock/{itemId}")
+    public List<StockLocation> getStockLocations(@PathVariable Long itemId) {
+        return warehouseService.getStockLocations(itemId);
+    }
+
+    /**
+     * Sets the stock of one item in one warehouse.
+     *
+     * Returns 404 if the warehouse or item does not exist, 400 for a negative quantity.
+     */
+    @PutMapping("/{warehouseId}/stock/{itemId}")
+    public ResponseEntity<StockLocation> setStock(@PathVariable Long warehouseId, @PathVariable Long itemId,
+            @RequestBody StockLevelRequest request) {
+        if (request.quantity < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.of(warehouseService.setStock(warehouseId, itemId, request.quantity));
+    }
+}
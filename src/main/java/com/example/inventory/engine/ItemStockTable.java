@@ -0,0 +1,125 @@
+package com.example.inventory.engine;
+
+/**
+ * Stock per item id for one shard, in two primitive arrays (open addressing, linear probing).
+ *
+ * Why not a HashMap<Long, Integer>?
+ * - Every lookup and update would box a Long and an Integer, and each entry is a separate object for the GC
+ *   to follow. Here a lookup is a multiply, a mask and a few array reads, and an update allocates nothing.
+ *
+ * What to take care:
+ * - Not thread-safe: only the shard's own thread may touch it (that is the point of a single writer).
+ * - Item ids must be > 0 (0 marks an empty cell), which is true for database-generated ids.
+ */
+final class ItemStockTable {
+
+    /**
+     * Returned by {@link #get(long)} for an item that is not loaded.
+     */
+    static final int MISSING = -1;
+
+    private static final long EMPTY = 0;
+
+    private long[] itemIds;
+    private int[] quantities;
+    private int mask;
+    private int size;
+
+    ItemStockTable(int expectedItems) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedItems * 2 - 1)) << 1;
+        itemIds = new long[capacity];
+        quantities = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the stock of the item, or {@link #MISSING} if it is not loaded
+     */
+    int get(long itemId) {
+        int slot = find(itemId);
+        return itemIds[slot] == EMPTY ? MISSING : quantities[slot];
+    }
+
+    void put(long itemId, int quantity) {
+        int slot = find(itemId);
+        if (itemIds[slot] == EMPTY) {
+            if (size + 1 > (mask + 1) / 2) { // keep the table at most half full so probe chains stay short
+                grow();
+                slot = find(itemId);
+            }
+            itemIds[slot] = itemId;
+            size++;
+        }
+        quantities[slot] = quantity;
+    }
+
+    /**
+     * Adds (or, with a negative delta, subtracts) units of a loaded item.
+     */
+    void add(long itemId, int delta) {
+        int slot = find(itemId);
+        if (itemIds[slot] != EMPTY) {
+            quantities[slot] += delta;
+        }
+    }
+
+    /**
+     * Forgets an item, so the next order for it loads the stock from the database again.
+     */
+    void remove(long itemId) {
+        int slot = find(itemId);
+        if (itemIds[slot] == EMPTY) {
+            return;
+        }
+        // Backward-shift deletion: move later entries of the same probe chain into the hole, so lookups
+        // never stop early at an empty cell (and no tombstones pile up)
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (itemIds[next] != EMPTY) {
+            int home = home(itemIds[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                itemIds[hole] = itemIds[next];
+                quantities[hole] = quantities[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        itemIds[hole] = EMPTY;
+        quantities[hole] = 0;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the cell holding the item, or the empty cell where it would go
+     */
+    private int find(long itemId) {
+        int slot = home(itemId);
+        while (itemIds[slot] != EMPTY && itemIds[slot] != itemId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long itemId) {
+        return (int) ((itemId * 0x9E3779B97F4A7C15L) >>> 32) & mask; // spreads sequential ids over the table
+    }
+
+    private void grow() {
+        long[] oldIds = itemIds;
+        int[] oldQuantities = quantities;
+        itemIds = new long[oldIds.length * 2];
+        quantities = new int[oldIds.length * 2];
+        mask = itemIds.length - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = find(oldIds[i]);
+                itemIds[slot] = oldIds[i];
+                quantities[slot] = oldQuantities[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.inventory.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.service.InventoryCatalogCache;
+import com.example.inventory.stock.MappedStockStore;
+import com.example.inventory.sync.ChangeVersions;
+import com.example.inventory.wal.StockEventLog;
+
+/**
+ * The database side of the sharded order engine: loads stock into a shard, and writes a shard's decisions
+ * (its "journal entries") as one transaction per batch.
+ *
+ * Why one transaction per batch?
+ * - A shard decides hundreds of orders in microseconds; committing each one separately would make the
+ *   database the bottleneck again. A batch shares one commit, and each item's stock is taken with ONE
+ *   conditional UPDATE for all of its orders in the batch.
+ *
+ * What to take care:
+ * - The database stays the source of truth. The UPDATE is still conditional (quantity >= n): if someone else
+ *   changed the stock behind the engine's back, the batch is rolled back instead of overselling.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.order-engine", name = "type", havingValue = "sharded")
+public class OrderJournal {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired // the stock updates are bulk UPDATEs, so they set the change version themselves
+    private ChangeVersions changeVersions;
+
+    @Autowired // GET /inventory must see the new stock levels too
+    private InventoryCatalogCache catalogCache;
+
+    @Autowired(required = false) // and so must the mapped stock store, if it is on
+    private MappedStockStore mappedStockStore;
+
+    @Autowired(required = false) // and the write-ahead log, if it is on: the batch is one frame
+    private StockEventLog eventLog;
+
+    /**
+     * Loads the current stock of the given items into the table (items that do not exist are left out).
+     */
+    void loadStock(long[] itemIds, int count, ItemStockTable table) {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(itemIds[i]);
+        }
+        inventoryItemRepository.findAllById(ids).forEach(item -> table.put(item.getId(), item.getQuantity()));
+    }
+
+    /**
+     * Writes one batch: takes the stock of the placed orders and inserts every order, in one transaction.
+     *
+     * @param placed in: the shard's decision per order; out: false for orders whose customer does not exist
+     *               (their units were not taken, the shard has to give them back)
+     * @return the persisted orders, in batch order; or null if the database refused a stock update
+     *         (nothing was written)
+     */
+    List<Order> write(long[] customerIds, long[] itemIds, int[] quantities, boolean[] placed, int count) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> customerIdSet = new HashSet<>();
+            Set<Long> itemIdSet = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                customerIdSet.add(customerIds[i]);
+                itemIdSet.add(itemIds[i]);
+            }
+            Map<Long, Customer> customers = new HashMap<>();
+            customerRepository.findAllById(customerIdSet).forEach(customer -> customers.put(customer.getId(), customer));
+
+            // Units per item, ascending by id: the same lock order as baskets, so no deadlock with them
+            Map<Long, Integer> unitsByItem = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                if (placed[i] && !customers.containsKey(customerIds[i])) {
+                    placed[i] = false;
+                }
+                if (placed[i]) {
+                    unitsByItem.merge(itemIds[i], quantities[i], Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> units : unitsByItem.entrySet()) {
+                if (inventoryItemRepository.decrementIfAvailable(units.getKey(), units.getValue(),
+                        changeVersions.current()) == 0) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+            }
+
+            // After the updates, so the returned items carry the new quantities
+            Map<Long, InventoryItem> items = new HashMap<>();
+            inventoryItemRepository.findAllById(itemIdSet).forEach(item -> items.put(item.getId(), item));
+            List<Order> orders = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                orders.add(new Order(customers.get(customerIds[i]), items.get(itemIds[i]), quantities[i],
+                        placed[i] ? OrderStatus.PLACED : OrderStatus.REJECTED));
+            }
+            List<Order> saved = orderRepository.saveAll(orders);
+            if (!unitsByItem.isEmpty()) {
+                catalogCache.markDirty();
+            }
+            if (mappedStockStore != null) {
+                unitsByItem.keySet().forEach(mappedStockStore::reloadAfterCommit);
+            }
+            if (eventLog != null) {
+                eventLog.itemsChanged(unitsByItem.keySet());
+                saved.forEach(order -> eventLog.orderChanged(order.getId()));
+            }
+            return saved;
+        });
+    }
+}
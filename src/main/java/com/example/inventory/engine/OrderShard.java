@@ -0,0 +1,252 @@
+package com.example.inventory.engine;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.inventory.entity.Order;
+
+/**
+ * One shard of the order engine: a ring of order slots, the stock of its items, and the ONE thread that owns both.
+ *
+ * Step-by-step, per batch (everything published since the last batch, up to batch-size):
+ * 1. Apply "forget item" slots, then load the stock of items not in the table yet (one query for all of them).
+ * 2. Decide every order in sequence order against the in-memory stock: no locks, nothing shared.
+ * 3. Hand the decisions to the {@link OrderJournal}, which writes them in one transaction.
+ * 4. Put each persisted order into its slot and wake its caller.
+ *
+ * Why a single writer?
+ * - Only this thread ever reads or changes its items' stock, so the check "enough left?" and the subtraction
+ *   cannot race, without any lock or compare-and-swap. Items are spread over shards by id, so shards never
+ *   touch the same rows and run fully in parallel.
+ *
+ * What to take care:
+ * - If the journal fails (or the database refused a stock update because someone changed it behind our
+ *   back), the touched items are forgotten and reloaded later, and the batch's callers fall back to the JPA
+ *   path. Nothing is lost; it is just slower for that batch.
+ */
+final class OrderShard implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderShard.class);
+
+    /**
+     * How often a waiting caller checks that the shard thread is still there (see {@link #place}).
+     */
+    private static final long LIVENESS_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final OrderRing ring;
+    private final ItemStockTable stock;
+    private final OrderJournal journal;
+    private final int batchSize;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean idle;
+
+    // Batch buffers, allocated once and reused for every batch
+    private final long[] sequences;
+    private final long[] customerIds;
+    private final long[] itemIds;
+    private final int[] quantities;
+    private final boolean[] placed;
+    private final boolean[] taken;
+    private final long[] missingItems;
+
+    OrderShard(int index, int ringSize, int batchSize, int expectedItems, OrderJournal journal) {
+        this.ring = new OrderRing(ringSize);
+        this.stock = new ItemStockTable(expectedItems);
+        this.journal = journal;
+        this.batchSize = Math.min(batchSize, ring.size());
+        this.sequences = new long[this.batchSize];
+        this.customerIds = new long[this.batchSize];
+        this.itemIds = new long[this.batchSize];
+        this.quantities = new int[this.batchSize];
+        this.placed = new boolean[this.batchSize];
+        this.taken = new boolean[this.batchSize];
+        this.missingItems = new long[this.batchSize];
+        this.thread = new Thread(this, "order-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Places one order through this shard and waits for its result.
+     *
+     * @return the persisted order, or null if the caller has to place it through the JPA path instead
+     */
+    Order place(long customerId, long itemId, int quantity) {
+        long sequence = ring.claim();
+        OrderRing.Slot slot = ring.slot(sequence);
+        slot.kind = OrderRing.PLACE;
+        slot.customerId = customerId;
+        slot.itemId = itemId;
+        slot.quantity = quantity;
+        slot.waiter = Thread.currentThread();
+        ring.publish(sequence);
+        wakeUp();
+
+        while (slot.completed != sequence) {
+            LockSupport.parkNanos(this, LIVENESS_CHECK_NANOS); // may wake up spuriously, hence the loop
+            if (slot.completed != sequence && !thread.isAlive()) {
+                // stop() ran between the engine's running check and our publish: the shard drained the ring and
+                // exited without seeing this slot. isAlive() == false makes its last writes visible, so this
+                // check is final and nobody else will complete the slot.
+                if (slot.completed != sequence) {
+                    complete(sequence, OrderRing.FALLBACK, null);
+                }
+            }
+        }
+        Order order = slot.outcome == OrderRing.FALLBACK ? null : slot.order;
+        slot.order = null;
+        slot.waiter = null;
+        ring.release(sequence);
+        return order;
+    }
+
+    /**
+     * Asks the shard to drop its copy of an item's stock (it reloads on the next order). Does not wait.
+     */
+    void forget(long itemId) {
+        long sequence = ring.claim();
+        OrderRing.Slot slot = ring.slot(sequence);
+        slot.kind = OrderRing.FORGET;
+        slot.itemId = itemId;
+        ring.publish(sequence);
+        wakeUp();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void wakeUp() {
+        if (idle) { // volatile read after the volatile publish: either we see idle, or the shard sees our slot
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        long next = 0;
+        while (running) {
+            long end = next;
+            while (end - next < batchSize && ring.slot(end).published == end) {
+                end++;
+            }
+            if (end == next) {
+                idle = true;
+                if (ring.slot(next).published != next && running) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+                }
+                idle = false;
+                continue;
+            }
+            process(next, end);
+            next = end;
+        }
+        // Shutting down: nobody may wait forever, so hand whatever is left back to the JPA path
+        for (; ring.slot(next).published == next; next++) {
+            if (ring.slot(next).kind == OrderRing.FORGET) {
+                ring.release(next);
+            } else {
+                complete(next, OrderRing.FALLBACK, null);
+            }
+        }
+    }
+
+    private void process(long from, long to) {
+        // 1. Forget first, then collect what is missing (before the batch, so one query loads it all)
+        int count = 0;
+        int missing = 0;
+        for (long sequence = from; sequence < to; sequence++) {
+            OrderRing.Slot slot = ring.slot(sequence);
+            if (slot.kind == OrderRing.FORGET) {
+                stock.remove(slot.itemId);
+                ring.release(sequence); // nobody waits for a forget
+                continue;
+            }
+            sequences[count] = sequence;
+            customerIds[count] = slot.customerId;
+            itemIds[count] = slot.itemId;
+            quantities[count] = slot.quantity;
+            count++;
+        }
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (stock.get(itemIds[i]) == ItemStockTable.MISSING) {
+                missingItems[missing++] = itemIds[i];
+            }
+        }
+        if (missing > 0) {
+            try {
+                journal.loadStock(missingItems, missing, stock);
+            } catch (RuntimeException e) {
+                log.warn("Order shard {} could not load stock", thread.getName(), e);
+                fallBack(count);
+                return;
+            }
+        }
+
+        // 2. Decide in arrival order (unknown items stay MISSING and are rejected)
+        for (int i = 0; i < count; i++) {
+            int available = stock.get(itemIds[i]);
+            placed[i] = available >= quantities[i];
+            taken[i] = placed[i];
+            if (placed[i]) {
+                stock.add(itemIds[i], -quantities[i]);
+            }
+        }
+
+        // 3. Journal
+        List<Order> orders;
+        try {
+            orders = journal.write(customerIds, itemIds, quantities, placed, count);
+        } catch (RuntimeException e) {
+            log.warn("Order shard {} could not write a batch of {} orders", thread.getName(), count, e);
+            orders = null;
+        }
+        if (orders == null) {
+            fallBack(count);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (taken[i] && !placed[i]) {
+                stock.add(itemIds[i], quantities[i]); // rejected by the journal (unknown customer): give back
+            }
+        }
+
+        // 4. Publish results
+        for (int i = 0; i < count; i++) {
+            complete(sequences[i], placed[i] ? OrderRing.PLACED : OrderRing.REJECTED, orders.get(i));
+        }
+    }
+
+    /**
+     * Gives the whole batch back to the JPA path and forgets its items, as our copy of their stock may be wrong.
+     */
+    private void fallBack(int count) {
+        for (int i = 0; i < count; i++) {
+            stock.remove(itemIds[i]);
+            complete(sequences[i], OrderRing.FALLBACK, null);
+        }
+    }
+
+    private void complete(long sequence, int outcome, Order order) {
+        OrderRing.Slot slot = ring.slot(sequence);
+        Thread waiter = slot.waiter;
+        slot.outcome = outcome;
+        slot.order = order;
+        slot.completed = sequence;
+        LockSupport.unpark(waiter);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.inventory.engine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.inventory.entity.Order;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ShardedOrderEngine: an alternative to the JPA path for single-item orders, built for throughput.
+ *
+ * How does it work?
+ * - Item ids are hashed to N shards. Each shard is owned by one thread that keeps its items' stock in
+ *   primitive arrays and receives orders through a preallocated ring buffer (see {@link OrderShard},
+ *   {@link OrderRing}). Deciding an order takes no lock and allocates nothing.
+ * - The decisions of a batch are written by {@link OrderJournal} in one transaction, and only then is each
+ *   caller answered with its persisted order, so the result a client sees is always durable.
+ *
+ * Why?
+ * - On the JPA path every order is its own transaction, and orders for the same item queue up on its row lock.
+ *   Here that row is updated once per batch, by the only thread that ever updates it.
+ *
+ * What to take care:
+ * - Off by default: set inventory.order-engine.type=sharded. OrderService only sends plain single-item orders
+ *   here; items stocked per warehouse, baskets and invalid requests stay on the JPA path.
+ * - Stock changes made outside the engine must call {@link #forgetAfterCommit(Long)} (InventoryService does),
+ *   or the shard keeps deciding with an old number until the database refuses an update.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.order-engine", name = "type", havingValue = "sharded")
+public class ShardedOrderEngine {
+
+    @Autowired
+    private OrderJournal journal;
+
+    @Value("${inventory.order-engine.shards:4}")
+    private int shardCount = 4;
+
+    @Value("${inventory.order-engine.ring-size:1024}")
+    private int ringSize = 1024;
+
+    @Value("${inventory.order-engine.batch-size:256}")
+    private int batchSize = 256;
+
+    @Value("${inventory.order-engine.expected-items:10000}")
+    private int expectedItems = 10_000;
+
+    private OrderShard[] shards;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        shards = new OrderShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new OrderShard(i, ringSize, batchSize, Math.max(16, expectedItems / shardCount), journal);
+            shards[i].start();
+        }
+        running = true;
+    }
+
+    /**
+     * Places a single-item order through the shard that owns the item.
+     *
+     * @param quantity must be > 0 (OrderService rejects the rest itself)
+     * @return the persisted order ("PLACED" or "REJECTED"), or null if the caller must use the JPA path
+     *         (engine stopped, or the shard could not write its batch)
+     */
+    public Order placeOrder(Long customerId, Long itemId, int quantity) {
+        if (!running) {
+            return null;
+        }
+        return shardOf(itemId).place(customerId, itemId, quantity);
+    }
+
+    /**
+     * Makes the owning shard reload the item's stock once the surrounding transaction ends
+     * (right away if there is none). Call it for every stock change that does not go through the engine.
+     */
+    public void forgetAfterCommit(Long itemId) {
+        if (!running || itemId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            shardOf(itemId).forget(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                shardOf(itemId).forget(itemId);
+            }
+        });
+    }
+
+    private OrderShard shardOf(long itemId) {
+        int hash = (int) ((itemId * 0x9E3779B97F4A7C15L) >>> 32);
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (OrderShard shard : shards) {
+            shard.stop();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.inventory.entity;
+
+/**
+ * An entity that records WHEN it last changed as a change version, so mirrors can ask for "what changed since".
+ *
+ * The version is set by ChangeVersionListener on every insert and update; never set it by hand.
+ */
+public interface ChangeVersioned {
+
+    long getChangeVersion();
+
+    void setChangeVersion(long changeVersion);
+}
@@ -1,11 +1,22 @@
 package com.example.inventory.entity;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.inventory.sync.ChangeVersionListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 /**
  * Customer entity: represents each customer in your database.
  * 
@@ -18,10 +29,21 @@ import jakarta.persistence.Table;
  * What to care about:
  * - Must have a no-argument constructor for JPA. (It's required to instantiate entities via reflection.)
  * - Fields should be private, and access should be via getters/setters to follow JavaBeans standards (Spring expects this).
+ *
+ * Why @Cacheable / @Cache?
+ * - Every order looks its customer up, and customers almost never change. Hibernate keeps them in the
+ *   second-level cache ("customers" region, see SecondLevelCacheConfig), shared by all requests, so findById
+ *   of a known customer runs no SQL.
+ * - READ_WRITE: writes through JPA update the cache when their transaction commits, and other transactions
+ *   never see uncommitted data. Writes that bypass Hibernate (plain SQL) would NOT be seen: don't do those.
  */
 @Entity
-@Table(name = "customers")
-public class Customer {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // internals of a loaded LAZY proxy (see Order)
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "customers", indexes = @Index(name = "idx_customers_change_version", columnList = "change_version"))
+public class Customer implements ChangeVersioned {
 
     /**
      * The unique primary key for each customer.
@@ -44,6 +66,13 @@ public class Customer {
      */
     private String name;
 
+    /**
+     * Change version of the last write to this row (see ChangeVersions), for GET /customers/changes.
+     */
+    @Column(name = "change_version", nullable = false)
+    @ColumnDefault("0") // rows written before versions existed (persistent DB, old snapshots) count as version 0
+    private long changeVersion;
+
     /**
      * Default constructor REQUIRED by JPA.
      * - Always include a public no-args constructor in entity classes!
@@ -85,4 +114,14 @@ public class Customer {
     public void setName(String name) {
         this.name = name;
     }
+
+    @Override
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
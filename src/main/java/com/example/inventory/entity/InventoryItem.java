@@ -1,11 +1,19 @@
 package com.example.inventory.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.inventory.sync.ChangeVersionListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 /**
  * InventoryItem entity: represents an item in your inventory database table.
  * 
@@ -18,10 +26,18 @@ import jakarta.persistence.Table;
  * - Always have a default (no-arg) constructor.
  * - All entity fields (columns) should be private and accessed with getters/setters (JavaBeans standard).
  * - Single responsibility: don't put extra logic here, just data structure.
+ *
+ * Why is this entity NOT in the second-level cache (unlike Customer)?
+ * - Its quantity changes on every order, through bulk UPDATEs (decrementIfAvailable) and plain SQL
+ *   (StockAdjustmentService). A cached copy would either be evicted all the time or show stale stock.
+ *   Orders lock and read the row anyway (InventoryItemRepository.findByIdForUpdate).
  */
 @Entity
-@Table(name = "inventory-item")
-public class InventoryItem {
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // internals of a loaded LAZY proxy (see Order)
+@EntityListeners(ChangeVersionListener.class) // stamps changeVersion on every insert/update
+@Table(name = "inventory-item",
+        indexes = @Index(name = "idx_inventory_item_change_version", columnList = "change_version"))
+public class InventoryItem implements ChangeVersioned {
 
     /**
      * Primary key (ID) for this inventory item.
@@ -44,6 +60,14 @@ public class InventoryItem {
      */
     private int quantity;
 
+    /**
+     * Change version of the last write to this row (see ChangeVersions), for GET /inventory/changes.
+     * Set automatically; the index lets "changed since N" read only the changed rows.
+     */
+    @Column(name = "change_version", nullable = false)
+    @ColumnDefault("0") // rows written before versions existed (persistent DB, old snapshots) count as version 0
+    private long changeVersion;
+
     /**
      * Default constructor needed by JPA.
      */
@@ -87,4 +111,14 @@ public class InventoryItem {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    @Override
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
@@ -0,0 +1,76 @@
+package com.example.inventory.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.example.inventory.sync.ChangeVersionListener;
+
+/**
+ * ItemTombstone: remembers that an inventory item was deleted, and at which change version.
+ *
+ * Why keep a row for something that is gone?
+ * - A client mirroring the catalog asks "what changed since version N?". A deleted row can no longer answer
+ *   that itself, so the tombstone does, until it is compacted away (see InventorySyncService).
+ */
+@Entity
+@EntityListeners(ChangeVersionListener.class)
+@Table(name = "item_tombstones", indexes = @Index(name = "idx_item_tombstones_change_version", columnList = "change_version"))
+public class ItemTombstone implements ChangeVersioned {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The id the deleted item had (item ids are never reused).
+     */
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    /**
+     * Default constructor needed by JPA.
+     */
+    public ItemTombstone() {
+    }
+
+    public ItemTombstone(Long itemId) {
+        this.itemId = itemId;
+        this.deletedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    @Override
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    @Override
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
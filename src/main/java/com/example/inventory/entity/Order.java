@@ -1,13 +1,27 @@
 package com.example.inventory.entity;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Order entity: represents a single order in your system.
  * 
@@ -18,6 +32,13 @@ import jakarta.persistence.Table;
  * Why use references, not IDs?
  * - JPA sets up relationships using objects (see Customer/InventoryItem fields) instead of just storing their IDs,
  *   allowing easy navigation/order.customer.getName() in code.
+ *
+ * Why both (customer AND customerId)?
+ * - customer and item are LAZY: loading an order does not load them, it only puts a small proxy there. Touching
+ *   the proxy (e.g. getCustomer().getName()) runs one more SELECT. customerId/itemId are the same foreign key
+ *   columns mapped as plain read-only numbers, so code that only needs the id never touches a proxy.
+ * - A customer/item that was not loaded is left out of the JSON (customerId/itemId are always there), so writing
+ *   the response never sends a query.
  * 
  * What should a beginner take care of?
  * - Always have a default constructor.
@@ -25,7 +46,11 @@ import jakarta.persistence.Table;
  * - In production, be careful with circular references (e.g., Customer with List<Order> can cause stack overflow in JSON serialization).
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_placed_at", columnList = "placed_at"),
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_customer_status", columnList = "customer_id, status, id")
+})
 public class Order {
     /**
      * The unique ID for this order
@@ -42,21 +67,38 @@ public class Order {
      * @ManyToOne: Many orders can belong to one customer.
      * @JoinColumn: Name of column in "orders" table that stores the customer foreign key.
      *   (This lets you use order.getCustomer().getName() etc directly in code.)
+     * LAZY: loaded on first use only (see the class comment). The default for @ManyToOne is EAGER.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedProxyFilter.class)
     private Customer customer;
 
+    /**
+     * The customer_id column again, as a plain number. Read-only (insertable/updatable = false): the column is
+     * written through "customer", this field is kept in step by the constructor and setCustomer.
+     */
+    @Column(name = "customer_id", insertable = false, updatable = false)
+    private Long customerId;
+
     /**
      * The item being ordered.
      * 
      * @ManyToOne: Many orders may reference the same item.
      * @JoinColumn: Sets the DB column for the item relationship.
+     * LAZY, like customer.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = UninitializedProxyFilter.class)
     private InventoryItem item;
 
+    /**
+     * The item_id column as a plain number (read-only, like customerId). Null for multi-line orders.
+     */
+    @Column(name = "item_id", insertable = false, updatable = false)
+    private Long itemId;
+
     /**
      * The quantity ordered for this item.
      * Always validate quantity > 0 in your app’s logic!
@@ -64,10 +106,32 @@ public class Order {
     private int quantity;
 
     /**
-     * The order status: for example, "PLACED" or "REJECTED"
-     * In a real-world app, this would likely be an enum type for safety.
+     * Where the order is in its life (see OrderStatus for the allowed transitions).
+     * Stored as a SMALLINT code. The status indexes put the status first, so "all SHIPPED orders" or
+     * "this customer's PLACED orders" read only the matching part of the index, already sorted by id.
+     */
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(name = "status")
+    private OrderStatus status;
+
+    /**
+     * When the order was placed. The order archiver moves orders older than a cutoff out of this table,
+     * and the index on this column lets it find them without scanning the whole table.
      */
-    private String status; // "PLACED" or "REJECTED"
+    @Column(name = "placed_at")
+    private Instant placedAt;
+
+    /**
+     * The lines of a multi-line (basket) order. Empty for classic single-item orders.
+     *
+     * For a multi-line order, "item" is null and "quantity" is the total number of units over all lines.
+     * cascade = ALL: saving/deleting the order saves/deletes its lines too.
+     * @BatchSize: when the lines of many loaded orders are needed, they are read 100 orders per SELECT
+     * instead of one SELECT per order.
+     */
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
+    private List<OrderLine> lines = new ArrayList<>();
 
     /**
      * Default constructor REQUIRED by JPA.
@@ -79,11 +143,26 @@ public class Order {
      * Custom constructor for creating orders in your own app logic.
      * (ID is set by the database automatically.)
      */
-    public Order(Customer customer, InventoryItem item, int quantity, String status) {
-        this.customer = customer;
-        this.item = item;
+    public Order(Customer customer, InventoryItem item, int quantity, OrderStatus status) {
+        setCustomer(customer);
+        setItem(item);
         this.quantity = quantity;
         this.status = status;
+        this.placedAt = Instant.now();
+    }
+
+    /**
+     * Rebuilds an order read back from an archive file (see OrderArchiveService).
+     *
+     * What to take care:
+     * - The result is NOT a managed entity and its row no longer exists in the database: never save it.
+     */
+    public static Order archived(Long id, Customer customer, InventoryItem item, int quantity, OrderStatus status,
+            Instant placedAt) {
+        Order order = new Order(customer, item, quantity, status);
+        order.id = id;
+        order.placedAt = placedAt;
+        return order;
     }
 
     // Getters and setters for all fields. Use these for accessing/modifying object data.
@@ -96,31 +175,74 @@ public class Order {
         return customer;
     }
 
+    /**
+     * The customer id, without loading the customer.
+     */
+    public Long getCustomerId() {
+        return customerId;
+    }
+
     public InventoryItem getItem() {
         return item;
     }
 
+    /**
+     * The item id, without loading the item (null for multi-line orders).
+     */
+    public Long getItemId() {
+        return itemId;
+    }
+
     public int getQuantity() {
         return quantity;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return status;
     }
 
+    public Instant getPlacedAt() {
+        return placedAt;
+    }
+
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Adds a line to this (multi-line) order and keeps both sides of the relationship in sync.
+     */
+    public void addLine(InventoryItem item, int quantity) {
+        lines.add(new OrderLine(this, item, quantity));
+    }
+
     public void setCustomer(Customer customer) {
         this.customer = customer;
+        this.customerId = customer == null ? null : customer.getId();
     }
 
     public void setItem(InventoryItem item) {
         this.item = item;
+        this.itemId = item == null ? null : item.getId();
     }
 
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
 
-    public void setStatus(String status) {
-        this.status = status;
+    /**
+     * Moves the order to another status.
+     *
+     * @throws IllegalStateException if OrderStatus does not allow that transition (e.g. shipping a cancelled order)
+     */
+    public void changeStatus(OrderStatus next) {
+        if (status == null || !status.canBecome(next)) {
+            throw new IllegalStateException("Order " + id + " cannot go from " + status + " to " + next);
+        }
+        this.status = next;
+    }
+
+    public void setPlacedAt(Instant placedAt) {
+        this.placedAt = placedAt;
     }
 }
@@ -0,0 +1,79 @@
+package com.example.inventory.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * OrderLine entity: one item (and how many of it) inside a multi-line order.
+ *
+ * Why a separate table?
+ * - A basket can hold many different items. Instead of one order per item (many HTTP calls, and some
+ *   of them may fail half-way), a single Order owns several lines and is placed all-or-nothing.
+ *
+ * What to take care:
+ * - The "order" field points back to the owner; it is hidden from JSON, otherwise Order -> lines -> order
+ *   -> lines ... would loop forever during serialization.
+ */
+@Entity
+@Table(name = "order_lines")
+public class OrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The order this line belongs to.
+     */
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    /**
+     * The item ordered on this line.
+     */
+    @ManyToOne
+    @JoinColumn(name = "item_id")
+    private InventoryItem item;
+
+    /**
+     * How many units of the item.
+     */
+    private int quantity;
+
+    /**
+     * Default constructor needed by JPA.
+     */
+    public OrderLine() {
+    }
+
+    public OrderLine(Order order, InventoryItem item, int quantity) {
+        this.order = order;
+        this.item = item;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public InventoryItem getItem() {
+        return item;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.inventory.entity;
+
+/**
+ * Where an order is in its life.
+ *
+ * Allowed transitions (everything else is refused):
+ *
+ *   PLACED --> SHIPPED
+ *   PLACED --> CANCELLED
+ *   REJECTED, SHIPPED and CANCELLED are final.
+ *
+ * How is it stored?
+ * - As a SMALLINT {@link #code()} (see OrderStatusConverter), not as text: 2 bytes per row instead of a
+ *   length-prefixed string, and status indexes shrink the same way. JSON still shows the name ("PLACED").
+ *
+ * What to take care:
+ * - The codes are in the database: never change or reuse one. A new status gets a new code.
+ */
+public enum OrderStatus {
+
+    PLACED(1),
+    REJECTED(2),
+    SHIPPED(3),
+    CANCELLED(4);
+
+    private final short code;
+
+    OrderStatus(int code) {
+        this.code = (short) code;
+    }
+
+    /**
+     * @return the value stored in orders.status
+     */
+    public short code() {
+        return code;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status has this code
+     */
+    public static OrderStatus fromCode(short code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code " + code);
+    }
+
+    /**
+     * @return true if an order in this status may move to {@code next}
+     */
+    public boolean canBecome(OrderStatus next) {
+        return this == PLACED && (next == SHIPPED || next == CANCELLED);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.inventory.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link OrderStatus} as its small integer code.
+ *
+ * Why not @Enumerated?
+ * - EnumType.STRING stores the name as text (what we want to get away from); EnumType.ORDINAL depends on the
+ *   order of the constants, so inserting one in the middle would silently change the meaning of stored rows.
+ *   A fixed code per constant has neither problem.
+ */
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
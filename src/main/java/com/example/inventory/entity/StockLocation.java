@@ -0,0 +1,83 @@
+package com.example.inventory.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * StockLocation entity: how many units of one item are stored in one warehouse.
+ *
+ * Why keyed by (item, warehouse)?
+ * - There must be at most one row per item per warehouse, otherwise "how much is in Berlin?" has two answers.
+ *   The unique constraint makes the database enforce that for us.
+ *
+ * How does this relate to InventoryItem.quantity?
+ * - For an item stored in warehouses, InventoryItem.quantity is the SUM over all its StockLocation rows.
+ *   We keep that sum up to date on every change, so GET /inventory never has to add anything up.
+ */
+@Entity
+@Table(name = "stock_locations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_location_item_warehouse",
+                columnNames = {"item_id", "warehouse_id"}))
+public class StockLocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The stored item.
+     */
+    @ManyToOne
+    @JoinColumn(name = "item_id", nullable = false)
+    private InventoryItem item;
+
+    /**
+     * Where it is stored.
+     */
+    @ManyToOne
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    /**
+     * Units of the item in this warehouse. Never negative.
+     */
+    private int quantity;
+
+    /**
+     * Default constructor needed by JPA.
+     */
+    public StockLocation() {
+    }
+
+    public StockLocation(InventoryItem item, Warehouse warehouse, int quantity) {
+        this.item = item;
+        this.warehouse = warehouse;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public InventoryItem getItem() {
+        return item;
+    }
+
+    public Warehouse getWarehouse() {
+        return warehouse;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.inventory.entity;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Jackson value filter (@JsonInclude CUSTOM) that leaves LAZY associations out of the JSON while they are not
+ * loaded yet.
+ *
+ * Why? Without it, writing an order would call the getters of its customer/item proxy and Hibernate would run
+ * one SELECT per order, in the middle of writing the response. With it, the JSON shows what the code actually
+ * loaded; customerId/itemId on Order always carry the ids.
+ *
+ * What to take care:
+ * - Jackson treats equals(value) == true as "exclude this value". Null is not excluded (it stays "null").
+ */
+public class UninitializedProxyFilter {
+
+    @Override
+    public boolean equals(Object value) {
+        return value != null && !Hibernate.isInitialized(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+}
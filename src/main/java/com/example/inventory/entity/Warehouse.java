@@ -0,0 +1,74 @@
+package com.example.inventory.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Warehouse entity: one physical location that holds stock.
+ *
+ * Why a separate table?
+ * - The same item can be stored in several places. Each place gets its own row here, and how much of an
+ *   item is stored where lives in StockLocation.
+ *
+ * What is "distance"?
+ * - A simple shipping-distance rank from our main customer region (lower = nearer = ships faster/cheaper).
+ *   The "nearest" allocation strategy prefers warehouses with a small distance.
+ */
+@Entity
+@Table(name = "warehouses")
+public class Warehouse {
+
+    /**
+     * Primary key, generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Human-readable name, e.g. "Berlin North".
+     */
+    private String name;
+
+    /**
+     * Shipping distance rank; lower means nearer.
+     */
+    private int distance;
+
+    /**
+     * Default constructor needed by JPA.
+     */
+    public Warehouse() {
+    }
+
+    /**
+     * Convenience constructor for app code and tests.
+     */
+    public Warehouse(String name, int distance) {
+        this.name = name;
+        this.distance = distance;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public void setDistance(int distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.inventory.forecast;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.ItemStockLevel;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.repository.OrderedUnits;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * DemandForecastService turns the order history into a demand forecast and a reorder suggestion per item.
+ *
+ * How are the figures kept up to date?
+ * 1. Rebuild: on first use and every night at rebuild-at, a fresh DemandModel reads the orders of the last
+ *    "history" (OrderRepository.findOrderedUnits, batch-size order ids at a time), then replaces the old one.
+ * 2. Update: every update-interval, and before every answer, only the orders after the last counted id are
+ *    read and added. Days are closed as they pass, so nothing is ever recomputed from scratch in between.
+ *
+ * How is the reorder point computed?
+ * - reorderPoint = forecast * leadTime + safetyFactor * stdDev * sqrt(leadTime)  (days, rounded up)
+ * - reorderQuantity = reorderPoint + forecast * orderCover - stock, once stock is at or below reorderPoint
+ *
+ * What to take care:
+ * - Demand is every unit ordered, rejected orders included (a refused order is demand we could not serve).
+ *   Cancellations are not subtracted, and archived orders are gone from the history after the next rebuild.
+ * - Orders placed in the last settle-time are left for the next update: an order that took longer than that
+ *   to commit with a lower id is missed until the nightly rebuild.
+ * - The model lives in memory only. Rebuilding it reads the whole history once, batch by batch, so the heap
+ *   only ever holds the model and one batch.
+ */
+@Service
+public class DemandForecastService {
+
+    private static final Logger log = LoggerFactory.getLogger(DemandForecastService.class);
+
+    private static final int EXPORT_PAGE = 1000;
+
+    static final String CSV_HEADER = "item_id,stock,as_of,average_demand,forecast_demand,demand_std_dev,"
+            + "reorder_point,reorder_quantity";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Value("${inventory.forecast.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${inventory.forecast.smoothing:0.2}")
+    private double smoothing = 0.2;
+
+    @Value("${inventory.forecast.history:365d}")
+    private Duration history = Duration.ofDays(365);
+
+    @Value("${inventory.forecast.batch-size:10000}")
+    private int batchSize = 10_000;
+
+    @Value("${inventory.forecast.settle-time:10s}")
+    private Duration settleTime = Duration.ofSeconds(10);
+
+    @Value("${inventory.forecast.update-interval:1m}")
+    private Duration updateInterval = Duration.ofMinutes(1);
+
+    @Value("${inventory.forecast.rebuild-at:02:00}")
+    private String rebuildAt = "02:00"; // UTC
+
+    @Value("${inventory.forecast.lead-time:7d}")
+    private Duration leadTime = Duration.ofDays(7);
+
+    @Value("${inventory.forecast.order-cover:14d}")
+    private Duration orderCover = Duration.ofDays(14);
+
+    @Value("${inventory.forecast.safety-factor:1.65}")
+    private double safetyFactor = 1.65;
+
+    /**
+     * The current model. Replaced as a whole by a rebuild; its contents are read and changed while holding
+     * its own monitor (synchronized (model)).
+     */
+    private volatile DemandModel model;
+
+    /**
+     * One rebuild or update at a time. Answers never wait for it: if it is busy, they use the model as it is.
+     */
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "demand-forecaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(() -> runLogged("update", this::update),
+                    updateInterval.toMillis(), updateInterval.toMillis(), TimeUnit.MILLISECONDS);
+            ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+            ZonedDateTime next = now.with(LocalTime.parse(rebuildAt));
+            if (!next.isAfter(now)) {
+                next = next.plusDays(1);
+            }
+            scheduler.scheduleAtFixedRate(() -> runLogged("rebuild", this::rebuild),
+                    Duration.between(now, next).toMillis(), Duration.ofDays(1).toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runLogged(String what, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // The model is left as it was; the next run tries again
+            log.warn("Demand forecast {} failed", what, e);
+        }
+    }
+
+    /**
+     * The forecast of one item, up to date with the orders placed until a few seconds ago.
+     *
+     * @return empty if there is no such item
+     */
+    public Optional<ItemForecast> forecast(Long itemId) {
+        Optional<InventoryItem> item = inventoryItemRepository.findById(itemId);
+        if (item.isEmpty()) {
+            return Optional.empty();
+        }
+        long stock = item.get().getQuantity(); // for warehouse-stocked items, already the sum of their warehouses
+        DemandModel current = refreshed();
+        synchronized (current) {
+            return Optional.of(forecastOf(current, itemId, stock));
+        }
+    }
+
+    /**
+     * Writes the forecast of every item as CSV (header first, by item id), reading the catalog page by page.
+     */
+    public void exportCsv(OutputStream output) throws IOException {
+        DemandModel current = refreshed();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long afterId = 0;
+        List<ItemStockLevel> page;
+        do {
+            page = inventoryItemRepository.findStockLevels(afterId, Limit.of(EXPORT_PAGE));
+            StringBuilder lines = new StringBuilder(page.size() * 64);
+            synchronized (current) {
+                for (ItemStockLevel level : page) {
+                    appendCsv(lines, forecastOf(current, level.itemId(), level.stock()));
+                }
+            }
+            writer.write(lines.toString());
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).itemId();
+            }
+        } while (page.size() == EXPORT_PAGE);
+        writer.flush();
+    }
+
+    /**
+     * Reads the whole history into a new model and puts it in place of the current one.
+     */
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            long started = System.nanoTime();
+            DemandModel fresh = new DemandModel(smoothing);
+            Long firstId = orderRepository.findFirstIdPlacedSince(Instant.now().minus(history));
+            Long maxId = orderRepository.findMaxId();
+            fresh.setLastOrderId(firstId != null ? firstId - 1 : maxId != null ? maxId : 0);
+            catchUp(fresh);
+            model = fresh;
+            log.info("Demand forecast rebuilt for {} items in {} ms", fresh.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the orders placed since the last update to the current model (rebuilds it if there is none yet).
+     */
+    public void update() {
+        updateLock.lock();
+        try {
+            if (model == null) {
+                rebuild();
+            } else {
+                catchUp(model);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the model, so the next answer or update rebuilds it (after data was restored behind the
+     * application's back: the order ids it counted up to may not exist any more).
+     */
+    public void reset() {
+        updateLock.lock();
+        try {
+            model = null;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * The current model, updated first unless another thread is rebuilding or updating it right now.
+     */
+    private DemandModel refreshed() {
+        DemandModel current = model;
+        if (current != null && !updateLock.tryLock()) {
+            return current; // busy: answer from the model as it is
+        }
+        if (current == null) {
+            updateLock.lock(); // the very first answer has to wait for the first build
+        }
+        try {
+            if (model == null) {
+                rebuild();
+            } else {
+                catchUp(model);
+            }
+            return model;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Adds every order after the model's last counted id, batch by batch, up to the first order placed within
+     * the last settle-time; then closes the days that are over. Orders placed before the history window (written
+     * late with an old placed_at) are skipped.
+     */
+    private void catchUp(DemandModel target) {
+        Instant now = Instant.now();
+        Instant settled = now.minus(settleTime);
+        Instant historyStart = now.minus(history);
+        Long maxId = orderRepository.findMaxId();
+        long afterId = target.lastOrderId();
+        boolean reachedUnsettled = false;
+        while (maxId != null && afterId < maxId && !reachedUnsettled) {
+            long lastId = Math.min(afterId + batchSize, maxId);
+            List<OrderedUnits> rows = orderRepository.findOrderedUnits(afterId, lastId);
+            synchronized (target) {
+                for (OrderedUnits row : rows) {
+                    if (row.placedAt() != null && row.placedAt().isAfter(settled)) {
+                        reachedUnsettled = true; // every line of an order has the same time: stop before it
+                        break;
+                    }
+                    if (row.placedAt() != null && !row.placedAt().isBefore(historyStart)
+                            && row.itemId() != null && row.quantity() != null) {
+                        target.add(row.itemId(), epochDay(row.placedAt()), row.quantity());
+                    }
+                    target.setLastOrderId(row.orderId());
+                }
+                if (!reachedUnsettled) {
+                    target.setLastOrderId(lastId); // also skips ids without a row (deleted or archived orders)
+                }
+            }
+            afterId = lastId;
+        }
+        synchronized (target) {
+            target.closeDaysBefore(epochDay(settled));
+        }
+    }
+
+    private ItemForecast forecastOf(DemandModel current, Long itemId, long stock) {
+        LocalDate asOf = current.currentDay() == Integer.MIN_VALUE
+                ? null
+                : LocalDate.ofEpochDay(current.currentDay() - 1);
+        DemandModel.Demand demand = current.demandOf(itemId);
+        if (demand == null) {
+            return new ItemForecast(itemId, stock, asOf, 0, 0, 0, 0, 0);
+        }
+        double leadDays = days(leadTime);
+        long reorderPoint = roundUp(demand.forecast() * leadDays
+                + safetyFactor * demand.stdDev() * Math.sqrt(leadDays));
+        long orderUpTo = reorderPoint + roundUp(demand.forecast() * days(orderCover));
+        long reorderQuantity = stock <= reorderPoint ? Math.max(0, orderUpTo - stock) : 0;
+        return new ItemForecast(itemId, stock, asOf, demand.averageRate(), demand.forecast(), demand.stdDev(),
+                reorderPoint, reorderQuantity);
+    }
+
+    private static void appendCsv(StringBuilder lines, ItemForecast forecast) {
+        lines.append(forecast.itemId()).append(',')
+                .append(forecast.stock()).append(',')
+                .append(forecast.asOf() == null ? "" : forecast.asOf().toString()).append(',')
+                .append(String.format(Locale.ROOT, "%.3f,%.3f,%.3f", forecast.averageDemand(),
+                        forecast.forecastDemand(), forecast.demandStdDev())).append(',')
+                .append(forecast.reorderPoint()).append(',')
+                .append(forecast.reorderQuantity()).append('\n');
+    }
+
+    private static int epochDay(Instant instant) {
+        return (int) LocalDate.ofInstant(instant, ZoneOffset.UTC).toEpochDay();
+    }
+
+    private static double days(Duration duration) {
+        return duration.toSeconds() / 86_400.0;
+    }
+
+    /**
+     * Whole units, rounded up, ignoring floating-point dust (a level that decayed to 1e-12 is 0 units).
+     */
+    private static long roundUp(double units) {
+        return (long) Math.ceil(units - 1e-9);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.inventory.forecast;
+
+import java.util.Arrays;
+
+/**
+ * Daily demand per item, kept as running state in dense primitive arrays: one slot per item that was ever
+ * ordered, in the order the items first appeared.
+ *
+ * What is kept per slot?
+ * - today:    units ordered on the day that is still open (currentDay)
+ * - level:    exponentially smoothed units per day: after each closed day, level += alpha * (units - level)
+ * - variance: exponentially smoothed squared forecast error, for the safety stock
+ * - total, firstDay: units since the first order of the item, for the plain average rate
+ *
+ * Why arrays and not an object per item?
+ * - 1M items are five arrays of 1M entries plus the id index, about 55 MB, and closing a day is one pass over
+ *   them. A map of objects would need several times the heap and a pointer chase per item.
+ *
+ * What to take care:
+ * - Days are UTC epoch days. Closing a day touches every slot (also items not ordered that day: their level
+ *   decays), so days must be closed in order, and orders of a closed day are counted on the open day.
+ * - Not thread-safe: DemandForecastService locks around every call.
+ */
+final class DemandModel {
+
+    /**
+     * Units of one closed day, smoothed (see the class comment). 0 = ignore new days, 1 = only the last day.
+     */
+    private final double alpha;
+
+    private final ItemSlots slots = new ItemSlots(1024);
+    private int[] today = new int[1024];
+    private double[] level = new double[1024];
+    private double[] variance = new double[1024];
+    private long[] total = new long[1024];
+    private int[] firstDay = new int[1024];
+
+    private int currentDay = Integer.MIN_VALUE;
+    private long lastOrderId;
+
+    DemandModel(double alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * Counts units of an item ordered on a day. A later day first closes every day before it.
+     */
+    void add(long itemId, int epochDay, int units) {
+        if (currentDay == Integer.MIN_VALUE) {
+            currentDay = epochDay;
+        } else if (epochDay > currentDay) {
+            closeDaysBefore(epochDay);
+        }
+        int slot = slots.slotOf(itemId);
+        if (slot < 0) {
+            slot = slots.add(itemId);
+            ensureCapacity(slot + 1);
+            firstDay[slot] = currentDay;
+        }
+        today[slot] += units;
+        total[slot] += units;
+    }
+
+    /**
+     * Closes every day before {@code epochDay}: smooths each item's units of the open day (0 for the days
+     * after it) into its level and variance, then opens {@code epochDay}.
+     */
+    void closeDaysBefore(int epochDay) {
+        if (currentDay == Integer.MIN_VALUE) {
+            currentDay = epochDay;
+            return;
+        }
+        int size = slots.size();
+        while (currentDay < epochDay) {
+            for (int slot = 0; slot < size; slot++) {
+                double error = today[slot] - level[slot];
+                level[slot] += alpha * error;
+                variance[slot] = (1 - alpha) * (variance[slot] + alpha * error * error);
+            }
+            Arrays.fill(today, 0, size, 0);
+            currentDay++;
+        }
+    }
+
+    /**
+     * @return the figures of one item, or null if it was never ordered
+     */
+    Demand demandOf(long itemId) {
+        int slot = slots.slotOf(itemId);
+        if (slot < 0) {
+            return null;
+        }
+        int days = Math.max(1, currentDay - firstDay[slot]); // closed days since the item's first order
+        return new Demand(level[slot], Math.sqrt(variance[slot]),
+                (double) (total[slot] - today[slot]) / days, today[slot]);
+    }
+
+    /**
+     * The open day (UTC epoch day); days before it are closed. Integer.MIN_VALUE before the first order.
+     */
+    int currentDay() {
+        return currentDay;
+    }
+
+    /**
+     * The highest order id counted so far (the next update starts after it).
+     */
+    long lastOrderId() {
+        return lastOrderId;
+    }
+
+    void setLastOrderId(long lastOrderId) {
+        this.lastOrderId = lastOrderId;
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    /**
+     * Demand of one item.
+     *
+     * @param forecast     smoothed units per day (the expected demand of the next day)
+     * @param stdDev       smoothed standard deviation of the daily forecast error
+     * @param averageRate  units per closed day since the item's first order
+     * @param todayUnits   units ordered so far on the open day
+     */
+    record Demand(double forecast, double stdDev, double averageRate, int todayUnits) {
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= today.length) {
+            return;
+        }
+        int grown = Math.max(capacity, today.length * 2);
+        today = Arrays.copyOf(today, grown);
+        level = Arrays.copyOf(level, grown);
+        variance = Arrays.copyOf(variance, grown);
+        total = Arrays.copyOf(total, grown);
+        firstDay = Arrays.copyOf(firstDay, grown);
+    }
+}
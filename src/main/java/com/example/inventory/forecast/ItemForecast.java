@@ -0,0 +1,21 @@
+package com.example.inventory.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * Demand and reorder suggestion for one item: the answer of GET /inventory/{id}/forecast and one row of the
+ * bulk export.
+ *
+ * @param itemId           the item
+ * @param stock            units on hand now (the item's quantity: for warehouse-stocked items, their sum)
+ * @param asOf             the last closed day the figures include (UTC); null before the first order
+ * @param averageDemand    units per day since the item's first order (within the history window)
+ * @param forecastDemand   exponentially smoothed units per day: the expected demand of the coming days
+ * @param demandStdDev     how far daily demand strays from the forecast (smoothed standard deviation)
+ * @param reorderPoint     order more once stock is at or below this: demand over the lead time plus safety stock
+ * @param reorderQuantity  units to order now to get back to reorderPoint plus the cover period (0 above the
+ *                         reorder point)
+ */
+public record ItemForecast(Long itemId, long stock, LocalDate asOf, double averageDemand, double forecastDemand,
+        double demandStdDev, long reorderPoint, long reorderQuantity) {
+}
@@ -0,0 +1,79 @@
+package com.example.inventory.forecast;
+
+/**
+ * Item id -> dense slot number (0, 1, 2 ... in the order items were added), in two primitive arrays
+ * (open addressing, linear probing), like the order engine's ItemStockTable.
+ *
+ * What to take care:
+ * - Not thread-safe, and items are never removed (a slot stays valid for the life of the DemandModel).
+ * - Item ids must be > 0 (0 marks an empty cell), which is true for database-generated ids.
+ */
+final class ItemSlots {
+
+    private static final long EMPTY = 0;
+
+    private long[] ids;
+    private int[] slots;
+    private int mask;
+    private int size;
+
+    ItemSlots(int expectedItems) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedItems * 2 - 1)) << 1;
+        ids = new long[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the slot of the item, or -1 if it was never added
+     */
+    int slotOf(long itemId) {
+        int cell = find(itemId);
+        return ids[cell] == EMPTY ? -1 : slots[cell];
+    }
+
+    /**
+     * Adds an item that is not in the table yet.
+     *
+     * @return its slot (the number of items added before it)
+     */
+    int add(long itemId) {
+        if (size + 1 > (mask + 1) / 2) { // keep the table at most half full so probe chains stay short
+            grow();
+        }
+        int cell = find(itemId);
+        ids[cell] = itemId;
+        slots[cell] = size;
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the cell holding the item, or the empty cell where it would go
+     */
+    private int find(long itemId) {
+        int cell = (int) ((itemId * 0x9E3779B97F4A7C15L) >>> 32) & mask; // spreads sequential ids over the table
+        while (ids[cell] != EMPTY && ids[cell] != itemId) {
+            cell = (cell + 1) & mask;
+        }
+        return cell;
+    }
+
+    private void grow() {
+        long[] oldIds = ids;
+        int[] oldSlots = slots;
+        ids = new long[oldIds.length * 2];
+        slots = new int[oldIds.length * 2];
+        mask = ids.length - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int cell = find(oldIds[i]);
+                ids[cell] = oldIds[i];
+                slots[cell] = oldSlots[i];
+            }
+        }
+    }
+}
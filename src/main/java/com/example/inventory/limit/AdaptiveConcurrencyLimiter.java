@@ -0,0 +1,175 @@
+package com.example.inventory.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AdaptiveConcurrencyLimiter: caps how many requests may run at the same time, and learns that cap from
+ * measured latency (AIMD = Additive Increase, Multiplicative Decrease, the same idea TCP uses).
+ *
+ * Why not a fixed limit?
+ * - The "right" number of in-flight requests depends on the DB, the pool size, the machine, the data...
+ *   A limit that is too high lets requests pile up in queues until they time out; too low wastes capacity.
+ *
+ * How does it adapt?
+ * - We remember the best (lowest) latency seen recently: that is the latency "without queueing".
+ * - If a request takes much longer than that (more than latencyTolerance times), or fails, we assume the
+ *   system is queueing and shrink the limit: limit = limit * backoffRatio.
+ * - If requests are fast and we are actually using the limit, we grow it by one.
+ *
+ * What happens when the limit is reached?
+ * - tryAcquire() returns null straight away. The caller should fail fast (HTTP 429) instead of waiting:
+ *   a quick "try again later" is much better than a slow timeout that also slows everyone else down.
+ *
+ * What to take care:
+ * - Always release a permit you acquired (use try/finally), otherwise the limiter slowly "leaks" capacity.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * How many samples to take before forgetting the old minimum latency, so the baseline can follow
+     * real changes (e.g. the data set grew and every query is now a bit slower).
+     */
+    private static final int BASELINE_RESET_SAMPLES = 1_000;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Guarded by "this": updated on every completed request
+    private double limit;
+    private long baselineRttNanos = Long.MAX_VALUE;
+    private long nextBaselineRttNanos = Long.MAX_VALUE;
+    private int samplesSinceBaselineReset;
+    private double smoothedRttNanos;
+
+    /**
+     * @param name             used in logs/responses to tell the limiters apart (e.g. "orders", "reads")
+     * @param initialLimit     in-flight limit to start with
+     * @param minLimit         the limit never goes below this
+     * @param maxLimit         the limit never goes above this
+     * @param backoffRatio     multiplier applied on congestion, e.g. 0.9
+     * @param latencyTolerance how many times the baseline latency counts as "congested", e.g. 2.0
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+            double backoffRatio, double latencyTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Need 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tries to start one request.
+     *
+     * @return a permit to release when the request is done, or null if the limit is reached (fail fast!)
+     */
+    public Permit tryAcquire() {
+        int currentLimit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    /**
+     * Feeds one finished request into the AIMD rule.
+     */
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean success) {
+        trackBaseline(rttNanos);
+        smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos : smoothedRttNanos * 0.9 + rttNanos * 0.1;
+
+        boolean congested = !success || rttNanos > baselineRttNanos * latencyTolerance;
+        if (congested) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlightAtStart * 2 >= limit) {
+            // Only grow when we were actually using the limit; idle time says nothing about capacity
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Keeps the "no queueing" latency up to date: the minimum over the current window, and every
+     * BASELINE_RESET_SAMPLES samples we switch to the minimum of the window that just ended.
+     */
+    private void trackBaseline(long rttNanos) {
+        baselineRttNanos = Math.min(baselineRttNanos, rttNanos);
+        nextBaselineRttNanos = Math.min(nextBaselineRttNanos, rttNanos);
+        if (++samplesSinceBaselineReset >= BASELINE_RESET_SAMPLES) {
+            baselineRttNanos = nextBaselineRttNanos;
+            nextBaselineRttNanos = Long.MAX_VALUE;
+            samplesSinceBaselineReset = 0;
+        }
+    }
+
+    /**
+     * Suggests how long a rejected client should wait before retrying (for the Retry-After header).
+     *
+     * @return whole seconds, at least 1
+     */
+    public synchronized long suggestedRetryAfterSeconds() {
+        long seconds = (long) Math.ceil(smoothedRttNanos / TimeUnit.SECONDS.toNanos(1));
+        return Math.max(1, seconds);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * One admitted request. Call {@link #release(boolean)} exactly once when it is done.
+     */
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * @param success false if the request failed in a way that hints at overload (5xx, timeout)
+         */
+        public void release(boolean success) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, success);
+        }
+    }
+}
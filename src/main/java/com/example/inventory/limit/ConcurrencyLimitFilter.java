@@ -0,0 +1,82 @@
+package com.example.inventory.limit;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet filter that puts an AdaptiveConcurrencyLimiter in front of the API.
+ *
+ * Why two limiters?
+ * - Placing orders (POST /orders, /orders/basket) writes to the DB and is the first thing to slow down
+ *   when H2 or the pool saturates.
+ * - Reads (GET /inventory, /customers, /orders/...) get their own, independent limit so a flood of orders
+ *   cannot starve them (and the other way round).
+ *
+ * What does a rejected client see?
+ * - HTTP 429 Too Many Requests, a Retry-After header, and a tiny JSON body. No queueing, no timeout.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter orderLimiter;
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter orderLimiter, AdaptiveConcurrencyLimiter readLimiter) {
+        this.orderLimiter = orderLimiter;
+        this.readLimiter = readLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            chain.doFilter(request, response); // not a limited endpoint (static files, deletes, ...)
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            reject(response, limiter);
+            return;
+        }
+
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < 500;
+        } finally {
+            permit.release(success);
+        }
+    }
+
+    /**
+     * Picks the limiter for a request, or null if the request is not limited.
+     */
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(request.getMethod()) && (path.equals("/orders") || path.equals("/orders/basket"))) {
+            return orderLimiter;
+        }
+        if ("GET".equals(request.getMethod()) && (path.startsWith("/inventory")
+                || path.startsWith("/customers") || path.startsWith("/orders"))) {
+            return readLimiter;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.suggestedRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"overloaded\",\"limiter\":\"" + limiter.getName() + "\"}");
+    }
+}
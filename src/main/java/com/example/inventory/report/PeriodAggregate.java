@@ -0,0 +1,93 @@
+package com.example.inventory.report;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.example.inventory.entity.OrderStatus;
+
+/**
+ * Running totals of one report period, filled from order rows and merged with the totals other chunks
+ * computed for the same period.
+ *
+ * Not thread-safe, like SalesCounters: one instance belongs to one chunk until it is merged.
+ */
+final class PeriodAggregate {
+
+    // Indexed by OrderStatus.code(); slot 0 collects rows without a (known) status
+    private static final int STATUS_SLOTS = maxStatusCode() + 1;
+    private static final int REJECTED = OrderStatus.REJECTED.code();
+
+    private final long[] ordersByStatus = new long[STATUS_SLOTS];
+    private final long[] unitsByStatus = new long[STATUS_SLOTS];
+    private final SalesCounters items = new SalesCounters(64);
+    private final SalesCounters customers = new SalesCounters(64);
+
+    /**
+     * One row of the orders table.
+     *
+     * @param itemId 0 for a multi-line order: its items are added line by line with {@link #addLine}
+     */
+    void addOrder(long customerId, long itemId, int quantity, int statusCode) {
+        int status = statusSlot(statusCode);
+        long rejected = status == REJECTED ? 1 : 0;
+        ordersByStatus[status]++;
+        unitsByStatus[status] += quantity;
+        if (customerId != 0) {
+            customers.add(customerId, 1, quantity, rejected);
+        }
+        if (itemId != 0) {
+            items.add(itemId, 1, quantity, rejected);
+        }
+    }
+
+    /**
+     * One line of a multi-line order; statusCode is the status of its order.
+     */
+    void addLine(long itemId, int quantity, int statusCode) {
+        if (itemId != 0) {
+            items.add(itemId, 1, quantity, statusSlot(statusCode) == REJECTED ? 1 : 0);
+        }
+    }
+
+    void merge(PeriodAggregate other) {
+        for (int i = 0; i < STATUS_SLOTS; i++) {
+            ordersByStatus[i] += other.ordersByStatus[i];
+            unitsByStatus[i] += other.unitsByStatus[i];
+        }
+        items.addAll(other.items);
+        customers.addAll(other.customers);
+    }
+
+    /**
+     * @param top how many items and customers to list
+     */
+    SalesPeriod toPeriod(Instant start, Instant end, int top) {
+        long orders = 0;
+        long units = 0;
+        for (int i = 0; i < STATUS_SLOTS; i++) {
+            orders += ordersByStatus[i];
+            units += unitsByStatus[i];
+        }
+        Map<OrderStatus, SalesFigures> byStatus = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            int slot = status.code();
+            byStatus.put(status, SalesFigures.of(null, ordersByStatus[slot], unitsByStatus[slot],
+                    status == OrderStatus.REJECTED ? ordersByStatus[slot] : 0));
+        }
+        return new SalesPeriod(start, end, SalesFigures.of(null, orders, units, ordersByStatus[REJECTED]), byStatus,
+                items.size(), items.top(top), customers.size(), customers.top(top));
+    }
+
+    private static int statusSlot(int statusCode) {
+        return statusCode > 0 && statusCode < STATUS_SLOTS ? statusCode : 0;
+    }
+
+    private static int maxStatusCode() {
+        int max = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            max = Math.max(max, status.code());
+        }
+        return max;
+    }
+}
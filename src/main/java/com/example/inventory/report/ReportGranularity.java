@@ -0,0 +1,22 @@
+package com.example.inventory.report;
+
+import java.time.Duration;
+
+/**
+ * How long one period of a sales report is. Periods start at UTC midnight / full UTC hours.
+ */
+public enum ReportGranularity {
+
+    DAY(Duration.ofDays(1)),
+    HOUR(Duration.ofHours(1));
+
+    private final Duration length;
+
+    ReportGranularity(Duration length) {
+        this.length = length;
+    }
+
+    public Duration length() {
+        return length;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.inventory.report;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sales counters (orders, units, rejected orders) per id, in primitive arrays (open addressing, linear probing).
+ *
+ * Why not a HashMap<Long, long[]>?
+ * - A report adds one row per order to two of these maps (item and customer), tens of millions of times.
+ *   Here that is a multiply, a mask and a few array writes; a HashMap would box the key and allocate an entry
+ *   per new id, and the GC would follow every one of them.
+ *
+ * What to take care:
+ * - Not thread-safe: each fork-join chunk fills its own counters, and they are merged after the chunks joined.
+ * - Ids must be > 0 (0 marks an empty cell), which is true for database-generated ids.
+ */
+final class SalesCounters {
+
+    private static final long EMPTY = 0;
+
+    private long[] ids;
+    private long[] orders;
+    private long[] units;
+    private long[] rejected;
+    private int mask;
+    private int size;
+
+    SalesCounters(int expectedIds) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedIds * 2 - 1)) << 1;
+        ids = new long[capacity];
+        orders = new long[capacity];
+        units = new long[capacity];
+        rejected = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    void add(long id, long orderCount, long unitCount, long rejectedCount) {
+        int slot = find(id);
+        if (ids[slot] == EMPTY) {
+            if (size + 1 > (mask + 1) / 2) { // keep the table at most half full so probe chains stay short
+                grow();
+                slot = find(id);
+            }
+            ids[slot] = id;
+            size++;
+        }
+        orders[slot] += orderCount;
+        units[slot] += unitCount;
+        rejected[slot] += rejectedCount;
+    }
+
+    /**
+     * Adds every counter of another table to this one.
+     */
+    void addAll(SalesCounters other) {
+        for (int i = 0; i < other.ids.length; i++) {
+            if (other.ids[i] != EMPTY) {
+                add(other.ids[i], other.orders[i], other.units[i], other.rejected[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the counters of one id (all zero if it was never added)
+     */
+    SalesFigures get(long id) {
+        int slot = find(id);
+        return ids[slot] == EMPTY
+                ? SalesFigures.of(id, 0, 0, 0)
+                : SalesFigures.of(id, orders[slot], units[slot], rejected[slot]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the ids with the most units, most first (ties: lower id first)
+     */
+    List<SalesFigures> top(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        // Min-heap of the best "limit" slots seen so far; its head is the first to drop out
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> compare(b, a));
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] == EMPTY) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(slot);
+            } else if (compare(slot, best.peek()) < 0) {
+                best.poll();
+                best.add(slot);
+            }
+        }
+        List<SalesFigures> top = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int slot = best.poll();
+            top.add(SalesFigures.of(ids[slot], orders[slot], units[slot], rejected[slot]));
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
+    /**
+     * Ranking order: more units first, then the lower id.
+     */
+    private int compare(int slotA, int slotB) {
+        int byUnits = Long.compare(units[slotB], units[slotA]);
+        return byUnits != 0 ? byUnits : Long.compare(ids[slotA], ids[slotB]);
+    }
+
+    /**
+     * @return the cell holding the id, or the empty cell where it would go
+     */
+    private int find(long id) {
+        int slot = home(id);
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask; // spreads sequential ids over the table
+    }
+
+    private void grow() {
+        long[] oldIds = ids;
+        long[] oldOrders = orders;
+        long[] oldUnits = units;
+        long[] oldRejected = rejected;
+        ids = new long[oldIds.length * 2];
+        orders = new long[oldIds.length * 2];
+        units = new long[oldIds.length * 2];
+        rejected = new long[oldIds.length * 2];
+        mask = ids.length - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = find(oldIds[i]);
+                ids[slot] = oldIds[i];
+                orders[slot] = oldOrders[i];
+                units[slot] = oldUnits[i];
+                rejected[slot] = oldRejected[i];
+            }
+        }
+    }
+}
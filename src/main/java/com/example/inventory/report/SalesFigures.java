@@ -0,0 +1,20 @@
+package com.example.inventory.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Sales numbers of one group of orders: a whole period, one status, one item or one customer.
+ *
+ * @param id             the item or customer id (absent for periods and statuses)
+ * @param orders         how many orders; for an item, how many order lines name it
+ * @param units          units ordered, in every status (byStatus splits them up)
+ * @param rejectedOrders orders refused for lack of stock
+ * @param rejectRate     rejectedOrders / orders (0 without orders)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SalesFigures(Long id, long orders, long units, long rejectedOrders, double rejectRate) {
+
+    static SalesFigures of(Long id, long orders, long units, long rejectedOrders) {
+        return new SalesFigures(id, orders, units, rejectedOrders, orders == 0 ? 0 : (double) rejectedOrders / orders);
+    }
+}
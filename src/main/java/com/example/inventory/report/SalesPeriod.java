@@ -0,0 +1,25 @@
+package com.example.inventory.report;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.example.inventory.entity.OrderStatus;
+
+/**
+ * The sales of one day or hour (UTC), from start (inclusive) to end (exclusive).
+ *
+ * Items and customers are listed as a top list by units; itemCount and customerCount say how many had any order.
+ */
+public record SalesPeriod(Instant start, Instant end, SalesFigures total, Map<OrderStatus, SalesFigures> byStatus,
+        int itemCount, List<SalesFigures> topItems, int customerCount, List<SalesFigures> topCustomers) {
+
+    /**
+     * @return this period with at most {@code top} items and customers listed
+     */
+    SalesPeriod limitedTo(int top) {
+        return new SalesPeriod(start, end, total, byStatus, itemCount,
+                topItems.subList(0, Math.min(top, topItems.size())), customerCount,
+                topCustomers.subList(0, Math.min(top, topCustomers.size())));
+    }
+}
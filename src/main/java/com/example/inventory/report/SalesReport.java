@@ -0,0 +1,10 @@
+package com.example.inventory.report;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Answer of GET /reports/sales: one entry per day or hour between from and to (both inclusive, UTC days).
+ */
+public record SalesReport(LocalDate from, LocalDate to, ReportGranularity granularity, List<SalesPeriod> periods) {
+}
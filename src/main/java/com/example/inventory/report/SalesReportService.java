@@ -0,0 +1,222 @@
+package com.example.inventory.report;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Service;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * SalesReportService builds the sales reports of GET /reports/sales: orders, units and reject rate per day or
+ * hour, split by status, item and customer.
+ *
+ * How is a report computed?
+ * - Periods that are cached are taken from the cache. For the others, SalesScan reads the orders table in
+ *   id-range chunks on a ForkJoinPool with one thread per core, and merges the per-chunk totals.
+ *
+ * Why a separate connection pool?
+ * - A report over millions of orders keeps every scan thread on a connection for seconds. Taken from the
+ *   application's pool, those connections would be missing for placing orders. The "reporting" pool has one
+ *   connection per scan thread, is read-only, and can point at a replica (inventory.reports.datasource.url).
+ *
+ * What is cached?
+ * - Every closed period: one that ended more than settle-time ago, so no order placed in it can still commit.
+ *   A cached period is reused until cache.ttl, so a ship or cancel changes its byStatus only after that.
+ * - Items and customers are cached as top lists of max-top entries, not all of them.
+ *
+ * What to take care:
+ * - Only orders still in the orders table are counted: once the archiver moves orders out, they disappear
+ *   from periods that are computed again.
+ * - Both the pool and the threads are created on the first report, not at startup.
+ */
+@Service
+public class SalesReportService {
+
+    @Autowired // The reporting pool uses the same database settings as the application, unless overridden
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${inventory.reports.datasource.url:}")
+    private String url = "";
+
+    @Value("${inventory.reports.parallelism:0}")
+    private int parallelism;
+
+    @Value("${inventory.reports.chunk-size:100000}")
+    private int chunkSize = 100_000;
+
+    @Value("${inventory.reports.max-periods:8784}")
+    private int maxPeriods = 8_784;
+
+    @Value("${inventory.reports.max-top:100}")
+    private int maxTop = 100;
+
+    @Value("${inventory.reports.cache.enabled:true}")
+    private boolean cacheEnabled = true;
+
+    @Value("${inventory.reports.cache.ttl:1h}")
+    private Duration cacheTtl = Duration.ofHours(1);
+
+    @Value("${inventory.reports.cache.settle-time:1m}")
+    private Duration settleTime = Duration.ofMinutes(1);
+
+    @Value("${inventory.reports.cache.max-periods:100000}")
+    private int maxCachedPeriods = 100_000;
+
+    private final ConcurrentHashMap<PeriodKey, CachedPeriod> cache = new ConcurrentHashMap<>();
+    private final Object scanLock = new Object();
+    private volatile SalesScan scan;
+    private HikariDataSource dataSource;
+    private ForkJoinPool pool;
+
+    private record PeriodKey(ReportGranularity granularity, Instant start) {
+    }
+
+    private record CachedPeriod(SalesPeriod period, Instant expiresAt) {
+    }
+
+    /**
+     * Builds the report for the days from..to (both inclusive, UTC).
+     *
+     * @param top how many items and customers to list per period (at most inventory.reports.max-top)
+     * @throws IllegalArgumentException for a missing or reversed range, too many periods, or a bad top
+     */
+    public SalesReport report(LocalDate from, LocalDate to, ReportGranularity granularity, int top) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("from and to are required, and to must not be before from");
+        }
+        if (top < 0 || top > maxTop) {
+            throw new IllegalArgumentException("top must be between 0 and " + maxTop);
+        }
+        Duration length = granularity.length();
+        Instant start = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        long count = Duration.between(start, to.plusDays(1).atStartOfDay(ZoneOffset.UTC)).dividedBy(length);
+        if (count > maxPeriods) {
+            throw new IllegalArgumentException(
+                    "At most " + maxPeriods + " periods per report, this range has " + count);
+        }
+
+        Instant now = Instant.now();
+        SalesPeriod[] periods = new SalesPeriod[(int) count];
+        for (int i = 0; i < periods.length; i++) {
+            periods[i] = cached(new PeriodKey(granularity, start.plus(length.multipliedBy(i))), now);
+        }
+        // Scan every run of periods that are not cached, each run in one pass
+        int i = 0;
+        while (i < periods.length) {
+            if (periods[i] != null) {
+                i++;
+                continue;
+            }
+            int runEnd = i;
+            while (runEnd < periods.length && periods[runEnd] == null) {
+                runEnd++;
+            }
+            Instant runStart = start.plus(length.multipliedBy(i));
+            PeriodAggregate[] scanned = scan().run(runStart, length, runEnd - i);
+            for (int j = 0; j < scanned.length; j++) {
+                Instant periodStart = runStart.plus(length.multipliedBy(j));
+                PeriodAggregate aggregate = scanned[j] == null ? new PeriodAggregate() : scanned[j];
+                periods[i + j] = aggregate.toPeriod(periodStart, periodStart.plus(length), maxTop);
+                if (!periodStart.plus(length).plus(settleTime).isAfter(now)) {
+                    remember(new PeriodKey(granularity, periodStart), periods[i + j], now);
+                }
+            }
+            i = runEnd;
+        }
+
+        List<SalesPeriod> result = new ArrayList<>(periods.length);
+        for (SalesPeriod period : periods) {
+            result.add(period.limitedTo(top));
+        }
+        return new SalesReport(from, to, granularity, result);
+    }
+
+    /**
+     * Forgets every cached period (after data was changed or restored behind the application's back).
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private SalesPeriod cached(PeriodKey key, Instant now) {
+        CachedPeriod cached = cacheEnabled ? cache.get(key) : null;
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt().isBefore(now)) {
+            cache.remove(key, cached);
+            return null;
+        }
+        return cached.period();
+    }
+
+    private void remember(PeriodKey key, SalesPeriod period, Instant now) {
+        if (!cacheEnabled) {
+            return;
+        }
+        if (cache.size() >= maxCachedPeriods) {
+            cache.values().removeIf(cached -> cached.expiresAt().isBefore(now));
+            if (cache.size() >= maxCachedPeriods) {
+                return; // full of live entries: this period is computed again next time
+            }
+        }
+        cache.put(key, new CachedPeriod(period, now.plus(cacheTtl)));
+    }
+
+    /**
+     * The scanner, with its pool and threads created on first use.
+     */
+    private SalesScan scan() {
+        SalesScan current = scan;
+        if (current == null) {
+            synchronized (scanLock) {
+                if (scan == null) {
+                    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                            .type(HikariDataSource.class)
+                            .build();
+                    if (!url.isEmpty()) {
+                        dataSource.setJdbcUrl(url);
+                    }
+                    dataSource.setPoolName("reporting");
+                    dataSource.setMaximumPoolSize(threads);
+                    dataSource.setReadOnly(true);
+                    pool = new ForkJoinPool(threads, forkJoinPool -> {
+                        ForkJoinWorkerThread thread =
+                                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName("sales-report-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                    scan = new SalesScan(dataSource, pool, chunkSize);
+                }
+                current = scan;
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (scanLock) {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+            if (dataSource != null) {
+                dataSource.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.inventory.report;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.sql.DataSource;
+
+/**
+ * One parallel pass over the orders placed in a time range, aggregated per period.
+ *
+ * Step-by-step:
+ * 1. Find the lowest and highest order id placed in the range (one query on the placed_at index).
+ * 2. Split that id range in halves, recursively, until a piece has at most chunkSize ids (fork-join).
+ * 3. Each piece reads its orders by primary key range, plus the lines of its multi-line orders, and adds them
+ *    to its own per-period totals. Nothing is shared while chunks run, so nothing is locked.
+ * 4. Joining two halves merges their totals, until one result per period is left.
+ *
+ * Why id ranges and not "WHERE placed_at BETWEEN"?
+ * - Ids are handed out in placing order, so the orders of a time range are (almost) one id range, and a primary
+ *   key range is the cheapest thing a database can read and split. The few rows of a boundary chunk outside
+ *   the time range are skipped here.
+ *
+ * What to take care:
+ * - Every running chunk holds one connection of the given DataSource while it queries: give it at least as many
+ *   connections as the pool has threads, and never the connections that serve orders.
+ */
+final class SalesScan {
+
+    private static final String ORDERS_SQL =
+            "SELECT id, customer_id, item_id, quantity, status, placed_at FROM orders WHERE id BETWEEN ? AND ?";
+    private static final String LINES_SQL =
+            "SELECT order_id, item_id, quantity FROM order_lines WHERE order_id BETWEEN ? AND ?";
+    private static final String ID_RANGE_SQL =
+            "SELECT MIN(id), MAX(id) FROM orders WHERE placed_at >= ? AND placed_at < ?";
+
+    private final DataSource dataSource;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    SalesScan(DataSource dataSource, ForkJoinPool pool, int chunkSize) {
+        this.dataSource = dataSource;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Aggregates the orders placed from {@code start} (inclusive) over {@code periods} periods of {@code length}.
+     *
+     * @return one entry per period; null for a period without orders
+     */
+    PeriodAggregate[] run(Instant start, Duration length, int periods) {
+        Range range = new Range(start.toEpochMilli(), length.toMillis(), periods);
+        long[] ids = idRange(start, start.plus(length.multipliedBy(periods)));
+        if (ids == null) {
+            return new PeriodAggregate[periods];
+        }
+        return pool.invoke(new ChunkTask(range, ids[0], ids[1]));
+    }
+
+    /**
+     * @return {lowest id, highest id} of the orders placed in [from, to), or null if there are none
+     */
+    private long[] idRange(Instant from, Instant to) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(ID_RANGE_SQL)) {
+            statement.setObject(1, OffsetDateTime.ofInstant(from, ZoneOffset.UTC));
+            statement.setObject(2, OffsetDateTime.ofInstant(to, ZoneOffset.UTC));
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                long first = rows.getLong(1);
+                return rows.wasNull() ? null : new long[] { first, rows.getLong(2) };
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not find the orders of the report range", e);
+        }
+    }
+
+    /**
+     * The report time range, cut into periods of equal length (all in epoch milliseconds).
+     */
+    private record Range(long startMillis, long periodMillis, int periods) {
+
+        /**
+         * @return the period of a timestamp, or -1 if it is outside the range
+         */
+        int periodOf(long millis) {
+            if (millis < startMillis) {
+                return -1;
+            }
+            long period = (millis - startMillis) / periodMillis;
+            return period < periods ? (int) period : -1;
+        }
+    }
+
+    /**
+     * Aggregates the ids [firstId, lastId], splitting itself while the range is larger than one chunk.
+     */
+    private final class ChunkTask extends RecursiveTask<PeriodAggregate[]> {
+
+        private final Range range;
+        private final long firstId;
+        private final long lastId;
+
+        ChunkTask(Range range, long firstId, long lastId) {
+            this.range = range;
+            this.firstId = firstId;
+            this.lastId = lastId;
+        }
+
+        @Override
+        protected PeriodAggregate[] compute() {
+            if (lastId - firstId < chunkSize) {
+                return scan();
+            }
+            long middle = firstId + (lastId - firstId) / 2;
+            ChunkTask lower = new ChunkTask(range, firstId, middle);
+            lower.fork(); // another worker may steal it; we go on with the upper half ourselves
+            PeriodAggregate[] upper = new ChunkTask(range, middle + 1, lastId).compute();
+            return merge(lower.join(), upper);
+        }
+
+        private PeriodAggregate[] scan() {
+            PeriodAggregate[] result = new PeriodAggregate[range.periods()];
+            // Period and status of the multi-line orders in this chunk, by (id - firstId); -1: none or outside
+            int[] basketPeriods = null;
+            short[] basketStatuses = null;
+            try (Connection connection = dataSource.getConnection()) {
+                try (PreparedStatement statement = connection.prepareStatement(ORDERS_SQL)) {
+                    statement.setFetchSize(1000);
+                    statement.setLong(1, firstId);
+                    statement.setLong(2, lastId);
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            OffsetDateTime placedAt = rows.getObject(6, OffsetDateTime.class);
+                            int period = placedAt == null ? -1 : range.periodOf(placedAt.toInstant().toEpochMilli());
+                            if (period < 0) {
+                                continue;
+                            }
+                            long itemId = rows.getLong(3); // 0 (SQL NULL) for multi-line orders
+                            short status = rows.getShort(5);
+                            aggregate(result, period).addOrder(rows.getLong(2), itemId, rows.getInt(4), status);
+                            if (itemId == 0) {
+                                if (basketPeriods == null) {
+                                    basketPeriods = new int[(int) (lastId - firstId + 1)];
+                                    Arrays.fill(basketPeriods, -1);
+                                    basketStatuses = new short[basketPeriods.length];
+                                }
+                                int index = (int) (rows.getLong(1) - firstId);
+                                basketPeriods[index] = period;
+                                basketStatuses[index] = status;
+                            }
+                        }
+                    }
+                }
+                if (basketPeriods != null) {
+                    try (PreparedStatement statement = connection.prepareStatement(LINES_SQL)) {
+                        statement.setFetchSize(1000);
+                        statement.setLong(1, firstId);
+                        statement.setLong(2, lastId);
+                        try (ResultSet rows = statement.executeQuery()) {
+                            while (rows.next()) {
+                                int index = (int) (rows.getLong(1) - firstId);
+                                if (basketPeriods[index] >= 0) {
+                                    result[basketPeriods[index]].addLine(rows.getLong(2), rows.getInt(3),
+                                            basketStatuses[index]);
+                                }
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(
+                        "Could not read orders " + firstId + " to " + lastId + " for a sales report", e);
+            }
+            return result;
+        }
+    }
+
+    private static PeriodAggregate aggregate(PeriodAggregate[] periods, int period) {
+        PeriodAggregate aggregate = periods[period];
+        if (aggregate == null) {
+            aggregate = new PeriodAggregate();
+            periods[period] = aggregate;
+        }
+        return aggregate;
+    }
+
+    /**
+     * Adds the totals of {@code from} into {@code into}, period by period.
+     */
+    private static PeriodAggregate[] merge(PeriodAggregate[] into, PeriodAggregate[] from) {
+        for (int i = 0; i < into.length; i++) {
+            if (into[i] == null) {
+                into[i] = from[i];
+            } else if (from[i] != null) {
+                into[i].merge(from[i]);
+            }
+        }
+        return into;
+    }
+}
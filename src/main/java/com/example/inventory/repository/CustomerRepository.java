@@ -1,6 +1,11 @@
 package com.example.inventory.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.inventory.entity.Customer;
 
@@ -25,4 +30,15 @@ import com.example.inventory.entity.Customer;
  *     (Spring will auto-implement these patterns for you as well!)
  */
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * Customers written in the version range (from, to], through idx_customers_change_version.
+     */
+    @Query("select c from Customer c where c.changeVersion > :from and c.changeVersion <= :to order by c.id")
+    List<Customer> findChangedBetween(@Param("from") long fromExclusive, @Param("to") long toInclusive);
+
+    /**
+     * Customers whose name contains the text (any case), by name, at most {@code limit}: the UI's customer picker.
+     */
+    List<Customer> findByNameContainingIgnoreCaseOrderByNameAscIdAsc(String text, Limit limit);
 }
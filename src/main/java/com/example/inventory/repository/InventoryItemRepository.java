@@ -1,9 +1,19 @@
 package com.example.inventory.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.inventory.entity.InventoryItem;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * The repository interface for InventoryItem entity.
  *
@@ -21,6 +31,53 @@ import com.example.inventory.entity.InventoryItem;
  * How can you customize?
  * - Add your own finder methods; for example, List<InventoryItem> findByName(String name);
  *   Spring will magically generate the query for you if you follow the naming convention.
+ *
+ * Why decrementIfAvailable()?
+ * - "Check stock, then subtract" in Java is two steps, and two orders can both pass the check before either
+ *   subtracts. This UPDATE checks and subtracts in one statement, holding the row lock until commit.
+ *   It returns 1 if the stock was taken, 0 if the item is missing or does not have enough.
+ *   Bulk updates skip the entity listener, so the caller passes the change version (ChangeVersions.current()).
  */
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
+
+    @Modifying(clearAutomatically = true) // forget cached items, so later reads see the new quantity
+    @Query("update InventoryItem i set i.quantity = i.quantity - :quantity, i.changeVersion = :version "
+            + "where i.id = :id and i.quantity >= :quantity")
+    int decrementIfAvailable(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") long version);
+
+    /**
+     * Loads an item and locks its row until the transaction ends (SELECT ... FOR UPDATE), so the caller can check
+     * the stock and subtract from it without another order changing it in between (see OrderService.placeOrder).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.id = :id")
+    Optional<InventoryItem> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Puts units back (a cancelled order), in one UPDATE.
+     *
+     * @return 1 if the item exists, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true) // write pending changes first, then re-read
+    @Query("update InventoryItem i set i.quantity = i.quantity + :quantity, i.changeVersion = :version where i.id = :id")
+    int increment(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") long version);
+
+    /**
+     * Items written in the version range (from, to], through idx_inventory_item_change_version.
+     */
+    @Query("select i from InventoryItem i where i.changeVersion > :from and i.changeVersion <= :to order by i.id")
+    List<InventoryItem> findChangedBetween(@Param("from") long fromExclusive, @Param("to") long toInclusive);
+
+    /**
+     * Items whose name contains the text (any case), by name, at most {@code limit}: the UI's item picker.
+     */
+    List<InventoryItem> findByNameContainingIgnoreCaseOrderByNameAscIdAsc(String text, Limit limit);
+
+    /**
+     * Units on hand of the items with an id above {@code afterId}, by id, at most {@code limit} (keyset paging
+     * over the whole catalog, without loading entities).
+     */
+    @Query("select new com.example.inventory.repository.ItemStockLevel(i.id, i.quantity) "
+            + "from InventoryItem i where i.id > :afterId order by i.id")
+    List<ItemStockLevel> findStockLevels(@Param("afterId") long afterId, Limit limit);
 }
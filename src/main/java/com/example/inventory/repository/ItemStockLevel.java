@@ -0,0 +1,8 @@
+package com.example.inventory.repository;
+
+/**
+ * An item's units on hand: InventoryItem.quantity, which for warehouse-stocked items is kept equal to the sum
+ * of their warehouses (see InventoryItemRepository.findStockLevels).
+ */
+public record ItemStockLevel(Long itemId, int stock) {
+}
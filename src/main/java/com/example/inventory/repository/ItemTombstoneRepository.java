@@ -0,0 +1,33 @@
+package com.example.inventory.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.inventory.entity.ItemTombstone;
+
+/**
+ * Tombstones of deleted inventory items, read by GET /inventory/changes and compacted by InventorySyncService.
+ */
+public interface ItemTombstoneRepository extends JpaRepository<ItemTombstone, Long> {
+
+    /**
+     * Ids of the items deleted in the version range (from, to], through idx_item_tombstones_change_version.
+     */
+    @Query("select distinct t.itemId from ItemTombstone t where t.changeVersion > :from and t.changeVersion <= :to")
+    List<Long> findItemIdsDeletedBetween(@Param("from") long fromExclusive, @Param("to") long toInclusive);
+
+    @Query("select max(t.changeVersion) from ItemTombstone t where t.deletedAt < :cutoff")
+    Long findHighestVersionDeletedBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("select min(t.changeVersion) from ItemTombstone t")
+    Long findLowestVersion();
+
+    @Modifying
+    @Query("delete from ItemTombstone t where t.changeVersion <= :version")
+    int deleteUpToVersion(@Param("version") long version);
+}
@@ -1,10 +1,23 @@
 package com.example.inventory.repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 /**
  * The repository interface for Order entity.
@@ -26,5 +39,83 @@ import com.example.inventory.entity.Order;
  *   (Spring will automatically generate the query behind the scenes based on the method name.)
  */
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * All orders of a customer. The result is kept in the query cache ("orders-by-customer" region, see
+     * SecondLevelCacheConfig): asking again for the same customer runs no SQL for the orders themselves.
+     *
+     * What to take care:
+     * - Hibernate drops every cached result of a query on "orders" as soon as any transaction writes to the
+     *   orders table through Hibernate, so a cached list is never stale, but under a steady stream of new
+     *   orders most lookups are misses. It pays off for repeated reads between writes (a customer paging
+     *   through their history, dashboards).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "orders-by-customer")
+    })
     List<Order> findByCustomerId(Long customerId);
+
+    /**
+     * Orders of a customer placed in [from, to). Used when GET /orders/{customerId} asks for a date range.
+     */
+    @Query("select o from Order o where o.customer.id = :customerId and o.placedAt >= :from and o.placedAt < :to")
+    List<Order> findByCustomerIdPlacedBetween(@Param("customerId") Long customerId, @Param("from") Instant from,
+            @Param("to") Instant to);
+
+    /**
+     * The oldest orders placed before the cutoff, at most {@code limit} of them (the archiver's batch).
+     */
+    List<Order> findByPlacedAtBeforeOrderByIdAsc(Instant cutoff, Limit limit);
+
+    /**
+     * Bulk-deletes the lines of the given orders in one statement (before the orders themselves).
+     */
+    @Modifying
+    @Query("delete from OrderLine l where l.order.id in :orderIds")
+    int deleteLinesOfOrders(@Param("orderIds") List<Long> orderIds);
+
+    /**
+     * Loads an order and locks its row until the transaction ends, so two status changes of the same order
+     * (say, ship and cancel at once) run one after the other and the second one sees the first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Orders in one status with an id above {@code afterId}, by id (keyset paging), through idx_orders_status_id.
+     */
+    List<Order> findByStatusAndIdGreaterThanOrderByIdAsc(OrderStatus status, Long afterId, Limit limit);
+
+    /**
+     * A customer's orders in one status, by id, through idx_orders_customer_status.
+     */
+    List<Order> findByCustomerIdAndStatusOrderByIdAsc(Long customerId, OrderStatus status);
+
+    /**
+     * How many orders are in one status; answered from idx_orders_status_id alone.
+     */
+    long countByStatus(OrderStatus status);
+
+    /**
+     * Units per item of the orders with an id in (afterId, lastId], by order id: one row per single-item order,
+     * one row per line of a multi-line order. Plain records, no entities: a batch costs no persistence context.
+     */
+    @Query("select new com.example.inventory.repository.OrderedUnits(o.id, coalesce(l.item.id, o.itemId), "
+            + "coalesce(l.quantity, o.quantity), o.placedAt) "
+            + "from Order o left join o.lines l where o.id > :afterId and o.id <= :lastId order by o.id")
+    List<OrderedUnits> findOrderedUnits(@Param("afterId") long afterId, @Param("lastId") long lastId);
+
+    /**
+     * The lowest id of the orders placed since {@code since}, through idx_orders_placed_at (null if none).
+     */
+    @Query("select min(o.id) from Order o where o.placedAt >= :since")
+    Long findFirstIdPlacedSince(@Param("since") Instant since);
+
+    /**
+     * The highest order id (null if there are no orders), read from the end of the primary key.
+     */
+    @Query("select max(o.id) from Order o")
+    Long findMaxId();
 }
@@ -0,0 +1,11 @@
+package com.example.inventory.repository;
+
+import java.time.Instant;
+
+/**
+ * Units of one item in one order, read without loading any entity (see OrderRepository.findOrderedUnits).
+ *
+ * @param itemId null if the item of a single-item order is not known (legacy rows)
+ */
+public record OrderedUnits(Long orderId, Long itemId, Integer quantity, Instant placedAt) {
+}
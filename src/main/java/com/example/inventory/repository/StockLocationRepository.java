@@ -0,0 +1,45 @@
+package com.example.inventory.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.inventory.entity.StockLocation;
+
+/**
+ * The repository interface for StockLocation entity (stock per item per warehouse).
+ *
+ * Why the @Modifying queries?
+ * - decrementIfAvailable() is an "atomic conditional update": the database checks the stock and subtracts
+ *   it in ONE statement, so two orders can never both take the last unit. It returns how many rows changed
+ *   (1 = done, 0 = not enough stock there any more).
+ */
+public interface StockLocationRepository extends JpaRepository<StockLocation, Long> {
+
+    List<StockLocation> findByItemId(Long itemId);
+
+    Optional<StockLocation> findByItemIdAndWarehouseId(Long itemId, Long warehouseId);
+
+    @Query("select coalesce(sum(s.quantity), 0) from StockLocation s where s.item.id = :itemId")
+    long sumQuantityByItemId(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("update StockLocation s set s.quantity = s.quantity - :quantity "
+            + "where s.item.id = :itemId and s.warehouse.id = :warehouseId and s.quantity >= :quantity")
+    int decrementIfAvailable(@Param("itemId") Long itemId, @Param("warehouseId") Long warehouseId,
+            @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("update StockLocation s set s.quantity = s.quantity + :quantity "
+            + "where s.item.id = :itemId and s.warehouse.id = :warehouseId")
+    int increment(@Param("itemId") Long itemId, @Param("warehouseId") Long warehouseId,
+            @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("delete from StockLocation s where s.item.id = :itemId")
+    int deleteByItemId(@Param("itemId") Long itemId);
+}
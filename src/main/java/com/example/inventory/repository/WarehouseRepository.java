@@ -0,0 +1,13 @@
+package com.example.inventory.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.inventory.entity.Warehouse;
+
+/**
+ * The repository interface for Warehouse entity.
+ *
+ * - Spring Data JPA generates the implementation: save(), findAll(), findById(), deleteById(), etc.
+ */
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+}
@@ -0,0 +1,226 @@
+package com.example.inventory.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.inventory.entity.Order;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * AsyncOrderPipeline: accept an order now, place it a moment later.
+ *
+ * Step-by-step:
+ * 1. POST /orders puts the request into a bounded in-memory queue and answers 202 Accepted with a tracking id
+ *    right away. No database work happens on the HTTP thread.
+ * 2. A few worker threads take up to batch-size orders at a time and place them with
+ *    {@link OrderService#placeOrderBatch(List)}: one transaction, one commit for the whole batch.
+ * 3. Each result is published: GET /orders/status/{trackingId} returns it, and anyone listening on the
+ *    SSE stream /orders/status/{trackingId}/events receives it.
+ *
+ * Why?
+ * - When the database is the bottleneck, synchronous order requests hold an HTTP thread each while they wait
+ *   for it, until the web tier runs out of threads and even GET /inventory stops answering. Here the HTTP
+ *   tier only pays for a queue insert, and the database sees fewer, larger transactions.
+ *
+ * What to take care:
+ * - The queue is bounded on purpose: when it is full, new orders are refused (503) instead of piling up
+ *   in memory without limit.
+ * - Queued orders live in memory only. On shutdown we wait up to shutdown-timeout for the queue to drain;
+ *   orders still queued after that, or lost in a crash, are never placed (their status ends as FAILED or
+ *   unknown). Clients that need a guarantee must check the status.
+ * - Results are kept for result-ttl after completion, then forgotten (status 404).
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.async-orders", name = "enabled", havingValue = "true")
+public class AsyncOrderPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncOrderPipeline.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${inventory.async-orders.queue-capacity:10000}")
+    private int queueCapacity = 10_000;
+
+    @Value("${inventory.async-orders.workers:2}")
+    private int workerCount = 2;
+
+    @Value("${inventory.async-orders.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${inventory.async-orders.result-ttl:10m}")
+    private Duration resultTtl = Duration.ofMinutes(10);
+
+    @Value("${inventory.async-orders.shutdown-timeout:10s}")
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    private BlockingQueue<PendingOrder> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ConcurrentHashMap<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime());
+    private volatile boolean accepting;
+
+    /**
+     * An accepted order waiting in the queue.
+     */
+    private record PendingOrder(String trackingId, OrderRequest request) {
+    }
+
+    /**
+     * The latest state of one tracking id, plus a future that completes when the order is done.
+     */
+    private static final class Tracked {
+        volatile OrderTracking state;
+        volatile long expiresAtNanos;
+        final CompletableFuture<OrderTracking> done = new CompletableFuture<>();
+
+        Tracked(OrderTracking state) {
+            this.state = state;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drain, "order-pipeline-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        accepting = true;
+    }
+
+    /**
+     * Accepts an order for later processing.
+     *
+     * @return the tracking state (QUEUED), or null if the queue is full and the order was NOT accepted
+     */
+    public OrderTracking submit(OrderRequest request) {
+        String trackingId = UUID.randomUUID().toString();
+        Tracked entry = new Tracked(new OrderTracking(trackingId, OrderTracking.QUEUED, null));
+        tracked.put(trackingId, entry); // before offer(): a fast worker may complete it right away
+        if (!accepting || !queue.offer(new PendingOrder(trackingId, request))) {
+            tracked.remove(trackingId);
+            return null;
+        }
+        return entry.state;
+    }
+
+    /**
+     * @return the current state, or null if the tracking id is unknown (never issued or already expired)
+     */
+    public OrderTracking status(String trackingId) {
+        Tracked entry = tracked.get(trackingId);
+        return entry == null ? null : entry.state;
+    }
+
+    /**
+     * @return a future completing with the final state, or null if the tracking id is unknown
+     */
+    public CompletableFuture<OrderTracking> whenDone(String trackingId) {
+        Tracked entry = tracked.get(trackingId);
+        return entry == null ? null : entry.done;
+    }
+
+    /**
+     * @return how many accepted orders are waiting for a worker
+     */
+    public int queuedOrders() {
+        return queue.size();
+    }
+
+    /**
+     * Worker loop: wait for one order, then take whatever else is queued (up to batch-size) along with it.
+     * Under light load batches are small and latency stays low; under heavy load they grow by themselves.
+     */
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // shutting down
+        }
+    }
+
+    private void process(List<PendingOrder> batch) {
+        List<OrderTracking> results = new ArrayList<>(batch.size());
+        try {
+            List<Order> orders = orderService.placeOrderBatch(batch.stream().map(PendingOrder::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                Order order = orders.get(i);
+                results.add(new OrderTracking(batch.get(i).trackingId(), order.getStatus().name(), order.getId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not process a batch of {} orders", batch.size(), e);
+            results.clear();
+            batch.forEach(pending -> results.add(new OrderTracking(pending.trackingId(), OrderTracking.FAILED, null)));
+        }
+        results.forEach(this::complete);
+        evictExpired();
+    }
+
+    private void complete(OrderTracking result) {
+        Tracked entry = tracked.get(result.trackingId());
+        if (entry != null) {
+            entry.expiresAtNanos = System.nanoTime() + resultTtl.toNanos(); // before state: eviction reads state first
+            entry.state = result;
+            entry.done.complete(result);
+        }
+    }
+
+    /**
+     * Forgets finished results older than result-ttl. Runs on a worker after a batch, at most once a second.
+     */
+    private void evictExpired() {
+        long now = System.nanoTime();
+        long last = lastEvictionNanos.get();
+        if (now - last < TimeUnit.SECONDS.toNanos(1) || !lastEvictionNanos.compareAndSet(last, now)) {
+            return;
+        }
+        tracked.values().removeIf(entry -> entry.state.isDone() && now - entry.expiresAtNanos > 0);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        accepting = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<PendingOrder> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            log.warn("Shutting down with {} accepted orders not placed", abandoned.size());
+            abandoned.forEach(pending -> complete(new OrderTracking(pending.trackingId(), OrderTracking.FAILED, null)));
+        }
+    }
+}
@@ -4,10 +4,13 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.inventory.entity.Customer;
 import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.wal.StockEventLog;
 
 /**
  * CustomerService: Where business logic for customer operations lives.
@@ -23,6 +26,11 @@ import com.example.inventory.repository.CustomerRepository;
 @Service
 public class CustomerService {
 
+    /**
+     * Most rows one search returns.
+     */
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     /**
      * Dependency injection of CustomerRepository.
      * - @Autowired tells Spring to give you the right repo instance.
@@ -31,16 +39,34 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired(required = false) // Only with inventory.wal.enabled=true: replayed orders need their customer
+    private StockEventLog eventLog;
+
     /**
      * Returns a list of all customers in the system.
      * 
      * What to take care:
      * - In a real application, add pagination or filters to avoid loading too much data at once.
+     * - readOnly = true lets Hibernate skip dirty-checking and lets us serve this from a read replica.
      */
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    /**
+     * Finds customers by part of their name, for pickers that must not download the whole list.
+     *
+     * What to take care:
+     * - "Contains" cannot use an index, but the limit stops the scan as soon as enough rows matched.
+     * - The limit is capped at {@value #MAX_SEARCH_RESULTS}; an empty text returns the first rows by name.
+     */
+    @Transactional(readOnly = true)
+    public List<Customer> searchCustomers(String text, int limit) {
+        return customerRepository.findByNameContainingIgnoreCaseOrderByNameAscIdAsc(text == null ? "" : text.strip(),
+                Limit.of(Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS))));
+    }
+
     /**
      * Returns a single customer by ID, or empty if not found.
      * 
@@ -50,6 +76,7 @@ public class CustomerService {
      * What to take care:
      * - Always check for "not found" when using this—don't assume it always returns a customer!
      */
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
@@ -65,6 +92,10 @@ public class CustomerService {
      * - If customer already has an ID, this will update the existing row; otherwise, it creates a new one.
      */
     public Customer saveCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        if (eventLog != null) {
+            eventLog.customerChanged(saved.getId());
+        }
+        return saved;
     }
 }
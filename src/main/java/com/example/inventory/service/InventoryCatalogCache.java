@@ -0,0 +1,176 @@
+package com.example.inventory.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.inventory.config.ReplicaRoutingPolicy;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * InventoryCatalogCache keeps a copy-on-write {@link InventoryCatalogSnapshot} of the whole catalog for GET /inventory.
+ *
+ * How does it stay up to date?
+ * 1. Every change made through InventoryService calls {@link #markDirty()} (after the transaction commits).
+ * 2. markDirty() schedules ONE rebuild a short "debounce" delay later. More changes during that delay are
+ *    folded into the same rebuild, so a burst of 1000 orders costs one rebuild, not 1000.
+ * 3. The rebuild runs on a background thread and swaps in a brand-new snapshot; readers never wait for it.
+ * 4. Safety net: if a reader finds the snapshot dirty for longer than max-staleness, it rebuilds right away.
+ *
+ * What to take care:
+ * - Off by default (inventory.catalog-snapshot.enabled=false): changes made directly through the repository
+ *   (scripts, tests) are not noticed until the next change through InventoryService.
+ */
+@Service
+public class InventoryCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryCatalogCache.class);
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired // Spring Boot's own mapper, so the bytes match what the normal JSON path would produce
+    private ObjectMapper objectMapper;
+
+    @Autowired // Rebuilds must see the write that triggered them, so they read the primary
+    private ReplicaRoutingPolicy replicaRoutingPolicy;
+
+    @Value("${inventory.catalog-snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.catalog-snapshot.debounce:200ms}")
+    private Duration debounce = Duration.ofMillis(200);
+
+    @Value("${inventory.catalog-snapshot.max-staleness:2s}")
+    private Duration maxStaleness = Duration.ofSeconds(2);
+
+    @Value("${inventory.catalog-snapshot.gzip:true}")
+    private boolean gzip = true;
+
+    private final AtomicReference<InventoryCatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong dirtySinceNanos = new AtomicLong(); // 0 means "snapshot is up to date"
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the snapshot to serve right now.
+     * Builds it on first use, and rebuilds it synchronously if it has been stale for too long.
+     */
+    public InventoryCatalogSnapshot current() {
+        InventoryCatalogSnapshot snapshot = current.get();
+        long dirtySince = dirtySinceNanos.get();
+        if (snapshot == null || (dirtySince != 0 && System.nanoTime() - dirtySince > maxStaleness.toNanos())) {
+            return rebuild();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Tells the cache that inventory data changed. Cheap: it only flips a flag and maybe schedules a rebuild.
+     *
+     * Inside a transaction, the real work waits until after commit, so the rebuild can see the change.
+     */
+    public void markDirty() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDirtyNow();
+                }
+            });
+        } else {
+            markDirtyNow();
+        }
+    }
+
+    private void markDirtyNow() {
+        dirtySinceNanos.compareAndSet(0, Math.max(1, System.nanoTime()));
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(this::scheduledRebuild, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduledRebuild() {
+        rebuildScheduled.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the next change or the staleness bound will retry
+            log.warn("Could not rebuild the inventory catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Loads all items, encodes them once and swaps the new snapshot in.
+     */
+    InventoryCatalogSnapshot rebuild() {
+        synchronized (rebuildLock) {
+            InventoryCatalogSnapshot existing = current.get();
+            if (existing != null && dirtySinceNanos.get() == 0) {
+                return existing; // another thread rebuilt while we were waiting for the lock
+            }
+            // Clear the flag BEFORE reading: a change that commits during the read marks it dirty again
+            long dirtySince = dirtySinceNanos.getAndSet(0);
+            try {
+                List<InventoryItem> items = replicaRoutingPolicy.onPrimary(() -> inventoryItemRepository.findAll());
+                byte[] json = objectMapper.writeValueAsBytes(items);
+                InventoryCatalogSnapshot snapshot = new InventoryCatalogSnapshot(
+                        items.toArray(new InventoryItem[0]), json, gzip ? gzip(json) : null, System.nanoTime());
+                current.set(snapshot);
+                return snapshot;
+            } catch (JsonProcessingException | RuntimeException e) {
+                dirtySinceNanos.compareAndSet(0, dirtySince == 0 ? Math.max(1, System.nanoTime()) : dirtySince);
+                throw e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot really happen with an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.inventory.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.inventory.entity.InventoryItem;
+
+/**
+ * An immutable, ready-to-send copy of the whole inventory catalog.
+ *
+ * Why keep the catalog as bytes?
+ * - GET /inventory is called far more often than items change. Instead of querying the DB and turning
+ *   every item into JSON on every request, we do that work once per change and then just copy bytes.
+ *
+ * What's inside?
+ * - items: the entities the JSON was built from (never modified after the snapshot is built).
+ * - json: the JSON array exactly as GET /inventory returns it.
+ * - gzipJson: the same bytes gzip-compressed, for clients that send "Accept-Encoding: gzip".
+ *
+ * What to take care:
+ * - Nobody may change the arrays after construction; that is what makes sharing them between threads safe.
+ */
+public final class InventoryCatalogSnapshot {
+
+    private final InventoryItem[] items;
+    private final byte[] json;
+    private final byte[] gzipJson;
+    private final long builtAtNanos;
+
+    InventoryCatalogSnapshot(InventoryItem[] items, byte[] json, byte[] gzipJson, long builtAtNanos) {
+        this.items = items;
+        this.json = json;
+        this.gzipJson = gzipJson;
+        this.builtAtNanos = builtAtNanos;
+    }
+
+    /**
+     * @return a read-only view of the items in this snapshot
+     */
+    public List<InventoryItem> getItems() {
+        return Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    /**
+     * @return the encoded JSON; the caller must not modify it
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * @return the gzip-compressed JSON; the caller must not modify it
+     */
+    public byte[] getGzipJson() {
+        return gzipJson;
+    }
+
+    /**
+     * @return System.nanoTime() at the moment the snapshot was built
+     */
+    public long getBuiltAtNanos() {
+        return builtAtNanos;
+    }
+}
@@ -1,13 +1,27 @@
 package com.example.inventory.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.inventory.engine.ShardedOrderEngine;
 import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.ItemTombstone;
 import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.ItemTombstoneRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.stock.MappedStockStore;
+import com.example.inventory.sync.ChangeVersions;
+import com.example.inventory.wal.StockEventLog;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 /**
  * InventoryService: Holds business logic for handling inventory management.
@@ -21,6 +35,11 @@ import com.example.inventory.repository.InventoryItemRepository;
 @Service
 public class InventoryService {
 
+    /**
+     * Most rows one search returns.
+     */
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     /**
      * Dependency injection for the repository.
      * - @Autowired: Spring supplies the InventoryItemRepository instance automatically.
@@ -29,18 +48,82 @@ public class InventoryService {
     @Autowired
     private InventoryItemRepository inventoryItemRepository;
 
+    /**
+     * Pre-encoded copy of the catalog for GET /inventory; every change below tells it to refresh.
+     */
+    @Autowired
+    private InventoryCatalogCache catalogCache;
+
+    /**
+     * Per-warehouse stock. For items stored in warehouses, InventoryItem.quantity is the sum over them.
+     */
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+
+    @Autowired
+    private StockLocationIndex stockLocationIndex;
+
+    /**
+     * Change versions for GET /inventory/changes: bulk updates set them by hand, deletions leave a tombstone.
+     */
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private ItemTombstoneRepository itemTombstoneRepository;
+
+    /**
+     * Keeps its own copy of the stock; only exists with inventory.order-engine.type=sharded.
+     */
+    @Autowired(required = false)
+    private ShardedOrderEngine orderEngine;
+
+    /**
+     * Off-heap copy of the stock that decreaseStock and decreaseStockIfAvailable work on; only exists with
+     * inventory.stock-store.type=mapped.
+     */
+    @Autowired(required = false)
+    private MappedStockStore mappedStockStore;
+
+    /**
+     * The mapped store writes with plain SQL: cached items are dropped afterwards, like decrementIfAvailable does.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Write-ahead log of every stock change; only exists with inventory.wal.enabled=true.
+     */
+    @Autowired(required = false)
+    private StockEventLog eventLog;
+
     /**
      * Lists all inventory items.
      * 
      * What to take care:
      * - For very large inventories, consider pagination/filtering in real apps.
+     * - readOnly = true lets Hibernate skip dirty-checking and lets us serve this from a read replica.
      * 
      * @return List of all InventoryItems in the DB.
      */
+    @Transactional(readOnly = true)
     public List<InventoryItem> getAllItems() {
         return inventoryItemRepository.findAll();
     }
 
+    /**
+     * Finds items by part of their name, for pickers that must not download the whole list.
+     *
+     * What to take care:
+     * - "Contains" cannot use an index, but the limit stops the scan as soon as enough rows matched.
+     * - The limit is capped at {@value #MAX_SEARCH_RESULTS}; an empty text returns the first rows by name.
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryItem> searchItems(String text, int limit) {
+        return inventoryItemRepository.findByNameContainingIgnoreCaseOrderByNameAscIdAsc(text == null ? "" : text.strip(),
+                Limit.of(Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS))));
+    }
+
     /**
      * Retrieves a single inventory item by its ID (if present).
      * 
@@ -50,6 +133,7 @@ public class InventoryService {
      * What to take care:
      * - Always check isPresent() before accessing the item!
      */
+    @Transactional(readOnly = true)
     public Optional<InventoryItem> getItemById(Long id) {
         return inventoryItemRepository.findById(id);
     }
@@ -62,9 +146,16 @@ public class InventoryService {
      * 
      * What to take care:
      * - Always validate item data (e.g., name not empty, quantity not negative) in production logic.
+     * - For an item stored in warehouses, the quantity sent in is ignored: it is always the sum of the
+     *   warehouse stock (change stock per warehouse through WarehouseService instead).
      */
     public InventoryItem saveItem(InventoryItem item) {
-        return inventoryItemRepository.save(item);
+        if (item.getId() != null && stockLocationIndex.hasLocations(item.getId())) {
+            item.setQuantity((int) stockLocationRepository.sumQuantityByItemId(item.getId()));
+        }
+        InventoryItem saved = inventoryItemRepository.save(item);
+        stockChanged(saved.getId());
+        return saved;
     }
 
     /**
@@ -87,20 +178,104 @@ public class InventoryService {
      * What to take care:
      * - Always guard against negative quantities!
      * - In real-world, handle concurrency (two users trying to buy last stock at same time).
+     * - With the mapped stock store on, a positive quantity is checked and taken in its slot and written with
+     *   one conditional UPDATE instead (no entity is loaded, and too little stock never reaches the database).
      */
     public boolean decreaseStock(Long itemId, int quantity) {
+        if (mappedStockStore != null && quantity > 0) {
+            Boolean taken = mappedStockStore.decrease(itemId, quantity);
+            if (taken != null) {
+                if (taken) {
+                    storeTookStock(itemId);
+                }
+                return taken;
+            }
+        }
         Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemId);
         if (itemOpt.isPresent()) {
             InventoryItem item = itemOpt.get();
             if (item.getQuantity() >= quantity) {
                 item.setQuantity(item.getQuantity() - quantity);
                 inventoryItemRepository.save(item);
+                stockChanged(itemId);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Atomically takes stock if (and only if) enough is available, in a single conditional UPDATE.
+     *
+     * Why in addition to decreaseStock()?
+     * - decreaseStock() reads the item, then writes it back: two statements, and no protection against two
+     *   orders racing for the last unit. This version cannot oversell, and it locks the row until the
+     *   surrounding transaction ends, which multi-line orders rely on for all-or-nothing placement.
+     *
+     * With the mapped stock store on, the units are checked and taken in the item's slot first, so a short item
+     * is refused without a statement; the row still gets the same conditional UPDATE, in this transaction.
+     *
+     * @param itemId   the item
+     * @param quantity units to take (must be > 0)
+     * @return true if the stock was taken; false if the item is missing or has too little
+     */
+    @Transactional
+    public boolean decreaseStockIfAvailable(Long itemId, int quantity) {
+        if (quantity <= 0) {
+            return false;
+        }
+        if (mappedStockStore != null) {
+            Boolean taken = mappedStockStore.decrease(itemId, quantity); // a rollback reloads the slot
+            if (taken != null) {
+                if (taken) {
+                    entityManager.clear(); // later reads in this transaction must see the new quantity
+                    storeTookStock(itemId);
+                }
+                return taken;
+            }
+        }
+        if (inventoryItemRepository.decrementIfAvailable(itemId, quantity, changeVersions.current()) == 0) {
+            return false;
+        }
+        stockChanged(itemId);
+        return true;
+    }
+
+    /**
+     * Takes stock from an item the caller loaded with InventoryItemRepository.findByIdForUpdate, inside the
+     * caller's transaction.
+     *
+     * Why? The row lock already keeps other orders away, so a plain check-then-subtract is safe, and the item
+     * in hand shows its new quantity without reading it again. The UPDATE itself is sent when the caller's
+     * transaction flushes. The mapped stock store is not asked: the row is read and locked already, so a slot
+     * would save nothing. It is reloaded after the commit, like for every other stock change.
+     *
+     * @return true if the stock was taken; false if the item has too little (nothing changed)
+     */
+    @Transactional(propagation = Propagation.MANDATORY) // only meaningful inside the transaction holding the lock
+    public boolean decreaseLockedStock(InventoryItem item, int quantity) {
+        if (quantity <= 0 || item.getQuantity() < quantity) {
+            return false;
+        }
+        item.setQuantity(item.getQuantity() - quantity);
+        stockChanged(item.getId());
+        return true;
+    }
+
+    /**
+     * Puts units back into stock (a cancelled order), in one UPDATE.
+     *
+     * @return true if the item exists
+     */
+    @Transactional
+    public boolean increaseStock(Long itemId, int quantity) {
+        if (quantity <= 0 || inventoryItemRepository.increment(itemId, quantity, changeVersions.current()) == 0) {
+            return false;
+        }
+        stockChanged(itemId);
+        return true;
+    }
+
     /**
      * Deletes an inventory item by its ID.
      * 
@@ -109,8 +284,90 @@ public class InventoryService {
      * What to take care:
      * - Always check if the item exists before deleting for critical systems.
      * - May want to "soft delete" (mark as inactive rather than permanently remove) in production.
+     * - A tombstone is stored in the same transaction, so mirrors learn about the deletion through
+     *   GET /inventory/changes.
      */
+    @Transactional
     public void deleteItemById(Long id) {
+        if (eventLog != null) {
+            eventLog.itemLocationsChanged(id); // before the rows are gone, so their deletion is logged
+        }
+        stockLocationRepository.deleteByItemId(id); // its warehouse stock goes with it
+        stockLocationIndex.evictAfterCompletion(id);
         inventoryItemRepository.deleteById(id);
+        ItemTombstone tombstone = itemTombstoneRepository.save(new ItemTombstone(id));
+        stockChanged(id);
+        if (eventLog != null) {
+            eventLog.tombstoneChanged(tombstone.getId());
+        }
+    }
+
+    /**
+     * Recomputes InventoryItem.quantity as the sum of the item's warehouse stock.
+     *
+     * Why store the sum at all?
+     * - So GET /inventory can read one column instead of adding up warehouse rows for every item.
+     *
+     * @param itemId the item whose warehouse stock changed
+     * @return the updated item, or empty if it does not exist
+     */
+    @Transactional
+    public Optional<InventoryItem> refreshAggregateQuantity(Long itemId) {
+        Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemId);
+        itemOpt.ifPresent(item -> {
+            item.setQuantity((int) stockLocationRepository.sumQuantityByItemId(itemId));
+            inventoryItemRepository.save(item);
+            stockChanged(itemId);
+        });
+        return itemOpt;
+    }
+
+    /**
+     * Tells the in-memory copies of the stock that an item changed (after commit): the catalog snapshot,
+     * and the sharded order engine and the mapped stock store if they are on. With the write-ahead log on,
+     * the item's row is logged with the transaction.
+     */
+    private void stockChanged(Long itemId) {
+        catalogCache.markDirty();
+        if (orderEngine != null) {
+            orderEngine.forgetAfterCommit(itemId);
+        }
+        if (mappedStockStore != null) {
+            mappedStockStore.reloadAfterCommit(itemId);
+        }
+        if (eventLog != null) {
+            eventLog.itemChanged(itemId);
+        }
+    }
+
+    /**
+     * Like {@link #stockChanged(Long)} after the mapped stock store took units: the store has the new quantity
+     * already, everyone else is told.
+     */
+    private void storeTookStock(Long itemId) {
+        catalogCache.markDirty();
+        if (orderEngine != null) {
+            orderEngine.forgetAfterCommit(itemId);
+        }
+        if (eventLog != null) {
+            eventLog.itemChanged(itemId);
+        }
+    }
+
+    /**
+     * Same as {@link #stockChanged(Long)} for many items, for changes made with plain SQL
+     * (StockAdjustmentService): the catalog snapshot is marked dirty once, not once per item.
+     */
+    void stockChanged(Collection<Long> itemIds) {
+        catalogCache.markDirty();
+        if (orderEngine != null) {
+            itemIds.forEach(orderEngine::forgetAfterCommit);
+        }
+        if (mappedStockStore != null) {
+            itemIds.forEach(mappedStockStore::reloadAfterCommit);
+        }
+        if (eventLog != null) {
+            eventLog.itemsChanged(itemIds);
+        }
     }
 }
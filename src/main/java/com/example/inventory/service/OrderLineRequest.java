@@ -0,0 +1,14 @@
+package com.example.inventory.service;
+
+/**
+ * One requested line of a multi-line order: which item, and how many.
+ *
+ * Why a record?
+ * - It is plain data that never changes after it is created; Jackson can also build it straight from JSON
+ *   like {"itemId": 3, "quantity": 2}.
+ *
+ * @param itemId   the item to order
+ * @param quantity how many units (must be > 0)
+ */
+public record OrderLineRequest(Long itemId, int quantity) {
+}
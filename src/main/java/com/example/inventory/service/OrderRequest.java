@@ -0,0 +1,11 @@
+package com.example.inventory.service;
+
+/**
+ * A single-item order waiting to be placed (used by the asynchronous order pipeline).
+ *
+ * @param customerId the customer placing the order
+ * @param itemId     the item to order
+ * @param quantity   how many units
+ */
+public record OrderRequest(Long customerId, Long itemId, int quantity) {
+}
@@ -1,17 +1,38 @@
 package com.example.inventory.service;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.inventory.archive.OrderArchiveService;
+import com.example.inventory.config.ReplicaRoutingPolicy;
+import com.example.inventory.engine.ShardedOrderEngine;
 import com.example.inventory.entity.Customer;
 import com.example.inventory.entity.InventoryItem;
 import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderLine;
+import com.example.inventory.entity.OrderStatus;
 import com.example.inventory.repository.CustomerRepository;
 import com.example.inventory.repository.InventoryItemRepository;
 import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.wal.StockEventLog;
 
 /**
  * OrderService: This is the core of "order" business logic.
@@ -26,6 +47,16 @@ import com.example.inventory.repository.OrderRepository;
 @Service
 public class OrderService {
 
+    /**
+     * Upper bound for "no end date" (Instant.MAX does not fit into a database timestamp).
+     */
+    private static final Instant FAR_FUTURE = Instant.parse("9999-12-31T00:00:00Z");
+
+    /**
+     * Most orders one page of {@link #getOrdersByStatus} returns.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired // Repository to save/fetch Order entities
     private OrderRepository orderRepository;
 
@@ -38,70 +69,374 @@ public class OrderService {
     @Autowired // Sometimes also use repo directly for raw item lookups
     private InventoryItemRepository inventoryItemRepository;
 
+    @Autowired // Takes stock out of warehouses for items stocked per location
+    private StockAllocationService stockAllocationService;
+
+    @Autowired // Runs multi-line orders as one all-or-nothing transaction
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired // Old orders live in archive files instead of the orders table
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired // Decides primary vs replica reads; remembers who just ordered (read-your-writes)
+    private ReplicaRoutingPolicy replicaRoutingPolicy;
+
+    @Autowired(required = false) // Only exists with inventory.order-engine.type=sharded
+    private ShardedOrderEngine orderEngine;
+
+    @Autowired(required = false) // Only exists with inventory.wal.enabled=true: every saved order is logged
+    private StockEventLog eventLog;
+
     /**
      * Places an order if valid, otherwise records as "REJECTED".
      * 
      * @param customerId the ID of the customer placing the order
      * @param itemId     the ID of the item being ordered
      * @param quantity   how many units of the item to order
-     * @return the Order object as persisted (either "PLACED" or "REJECTED")
+     * @return the Order object as persisted (either PLACED or REJECTED)
      * 
      * Step-by-step business logic:
-     * 1. If quantity is invalid (<=0), create and save a "REJECTED" order record.
-     * 2. Fetch customer and item by ID; if either doesn’t exist, reject order.
-     * 3. Check available item stock:
-     *    - If enough, call InventoryService to decrease the stock & mark order as "PLACED".
+     * 1. If quantity is invalid (<=0), save a "REJECTED" order record right away: no lock, no stock check. Its
+     *    customer and item are looked up only to be recorded with it.
+     * 2. Everything else runs in ONE transaction:
+     *    - Look up the customer (second-level cache, see findCustomer); if it does not exist, reject.
+     *    - Load the item and lock its row (SELECT ... FOR UPDATE); if it does not exist, reject.
+     *    - Items stored in warehouses: let StockAllocationService pick the warehouses and take the stock.
+     *    - Other items: if enough, take the stock from the locked item & mark order as "PLACED".
      *    - If not enough stock, mark order as "REJECTED".
-     * 4. Save order (always saved, for tracking rejected orders/audit trails).
+     *    - Save order (always saved, for tracking rejected orders/audit trails).
+     *
+     * SQL statements per outcome (items not stocked per warehouse; OrderPlacementStatementsIntegrationTest
+     * keeps these numbers honest):
+     *
+     *   outcome            statements  which
+     *   invalid quantity   2           SELECT item (no lock), INSERT order
+     *   unknown customer   3           SELECT customer (a miss is not cached), SELECT item (no lock),
+     *                                  INSERT order (no customer)
+     *   unknown item       2           SELECT item FOR UPDATE, INSERT order (no item)
+     *   out of stock       2           SELECT item FOR UPDATE, INSERT order
+     *   placed             3           SELECT item FOR UPDATE, INSERT order, UPDATE item
+     *
+     * (A known customer comes from the second-level cache: one more SELECT if it is not cached yet, the cache is
+     * switched off, or, for an invalid quantity, the customer does not exist. One warehouse lookup the first
+     * time an item is ordered after startup, see StockLocationIndex.) With the write-ahead log on, the order and
+     * the item are read back once more before the commit (see StockEventLog).
+     *
+     * Rejected orders keep their customer and item, so they show up in GET /orders/{customerId} and in the audit
+     * trail. Only a customer or item that does not exist is stored as null (like ShardedOrderEngine does).
+     *
+     * Why one transaction?
+     * - Without it, every statement commits on its own: a crash between taking the stock and inserting the order
+     *   loses units, and each commit is one more log flush. Now stock and order succeed or fail together.
+     * - The row lock makes "check the stock, then subtract" safe: a second order for the same item waits until
+     *   the first one commits, then sees the new quantity.
+     *
+     * With inventory.order-engine.type=sharded, valid orders for items not stocked per warehouse go through
+     * ShardedOrderEngine instead (same rules and result, decided in memory and written in batches).
      * 
      * Careful:
      * - Always defend against nulls and not-found cases!
-     * - In real-world, consider transactionality; use @Transactional if you want stock/order all to succeed/fail together.
      * - In robust systems, you'd log reasons for rejection and notify customer.
      */
     public Order placeOrder(Long customerId, Long itemId, int quantity) {
         if (quantity <= 0) {
-            // Reject the order if quantity is invalid (negative or zero)
-            Optional<Customer> customerOpt = customerRepository.findById(customerId);
-            Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemId);
-            Order rejectedOrder = new Order(
-                    customerOpt.orElse(null), // might be null; shows error in report/audit log
-                    itemOpt.orElse(null),     // might be null
-                    quantity,
-                    "REJECTED");
-            return orderRepository.save(rejectedOrder);
+            // Reject the order if quantity is invalid (negative or zero); customer and item stay for the audit trail
+            return transactionTemplate.execute(status -> saveAndRemember(
+                    new Order(findCustomer(customerId), findItem(itemId), quantity, OrderStatus.REJECTED),
+                    customerId));
         }
+        if (orderEngine != null && customerId != null && itemId != null
+                && !stockAllocationService.hasLocations(itemId)) {
+            Order order = orderEngine.placeOrder(customerId, itemId, quantity);
+            if (order != null) { // null: the engine could not decide, so take the normal path below
+                replicaRoutingPolicy.recordWrite(customerId);
+                return order;
+            }
+        }
+        return transactionTemplate.execute(status -> placeInTransaction(customerId, itemId, quantity));
+    }
 
-        // Try to fetch customer and item from the DB
-        Optional<Customer> customerOpt = customerRepository.findById(customerId);
-        Optional<InventoryItem> itemOpt = inventoryItemRepository.findById(itemId);
-
-        if (customerOpt.isEmpty() || itemOpt.isEmpty()) {
-            // Either the customer or the inventory item does not exist—reject order!
-            Order rejectedOrder = new Order(
-                    customerOpt.orElse(null),
-                    itemOpt.orElse(null),
-                    quantity,
-                    "REJECTED");
-            return orderRepository.save(rejectedOrder);
+    private Order placeInTransaction(Long customerId, Long itemId, int quantity) {
+        // The customer normally comes from the second-level cache; the item is loaded and locked for its stock
+        Customer customer = findCustomer(customerId);
+        if (customer == null) {
+            return saveAndRemember(new Order(null, findItem(itemId), quantity, OrderStatus.REJECTED), customerId);
+        }
+        Optional<InventoryItem> itemOpt = inventoryItemRepository.findByIdForUpdate(itemId);
+        if (itemOpt.isEmpty()) {
+            return saveAndRemember(new Order(customer, null, quantity, OrderStatus.REJECTED), customerId);
         }
 
         InventoryItem item = itemOpt.get();
-        boolean enoughStock = item.getQuantity() >= quantity;
-
-        String status;
-        if (enoughStock) {
-            // Sufficient stock, so fulfill order and decrease inventory
-            inventoryService.decreaseStock(itemId, quantity);
-            status = "PLACED";
+        OrderStatus status;
+        if (stockAllocationService.hasLocations(itemId)) {
+            // Stocked per warehouse: allocation checks and takes the stock in one go
+            status = stockAllocationService.allocate(itemId, quantity).isEmpty()
+                    ? OrderStatus.REJECTED : OrderStatus.PLACED;
+        } else if (inventoryService.decreaseLockedStock(item, quantity)) {
+            // Sufficient stock: the item's UPDATE is written when the transaction commits
+            status = OrderStatus.PLACED;
         } else {
             // Not enough stock: order can't be fulfilled, so reject
-            status = "REJECTED";
+            status = OrderStatus.REJECTED;
         }
 
         // Always record successful or rejected order for full audit trail
-        Order order = new Order(customerOpt.get(), item, quantity, status);
-        return orderRepository.save(order);
+        Order order = new Order(customer, item, quantity, status);
+        return saveAndRemember(order, customerId);
+    }
+
+    /**
+     * The customer, or null if there is no such customer.
+     *
+     * Why findById and not a count query plus getReferenceById? Customers are in the second-level cache (see
+     * SecondLevelCacheConfig), and only findById looks there: for a known customer this runs no SQL at all.
+     * A query (like existsById) always goes to the database.
+     */
+    private Customer findCustomer(Long customerId) {
+        return customerId == null ? null : customerRepository.findById(customerId).orElse(null);
+    }
+
+    /**
+     * The item, or null if there is no such item. Not locked: only for recording it on a rejected order.
+     */
+    private InventoryItem findItem(Long itemId) {
+        return itemId == null ? null : inventoryItemRepository.findById(itemId).orElse(null);
+    }
+
+    /**
+     * Places a batch of single-item orders in ONE transaction (used by AsyncOrderPipeline).
+     *
+     * @return one persisted Order per request, in the same order, each "PLACED" or "REJECTED"
+     *
+     * Why one transaction for many orders?
+     * - When the database is the bottleneck, each commit (a log flush) costs more than the statements
+     *   themselves. Grouping 100 orders shares one commit, and customers and items are loaded with one
+     *   query each instead of one per order.
+     *
+     * What to take care:
+     * - Stock is taken like a basket line takes it: one conditional UPDATE per order, or warehouse allocation
+     *   for items stocked per warehouse. The rules are placeOrder's, so results per order are the same; a short
+     *   item only rejects its own order. Callers must pass non-null customer and item ids.
+     * - If the batch transaction fails as a whole (an unexpected error), every order is retried on its own
+     *   with placeOrder, so one bad order never takes the others down with it.
+     */
+    public List<Order> placeOrderBatch(List<OrderRequest> requests) {
+        List<Order> placed;
+        try {
+            placed = transactionTemplate.execute(status -> {
+                Map<Long, Customer> customers = new HashMap<>();
+                customerRepository.findAllById(requests.stream().map(OrderRequest::customerId).distinct().toList())
+                        .forEach(customer -> customers.put(customer.getId(), customer));
+                Map<Long, InventoryItem> items = new HashMap<>();
+                inventoryItemRepository.findAllById(requests.stream().map(OrderRequest::itemId).distinct().toList())
+                        .forEach(item -> items.put(item.getId(), item));
+
+                // Take stock in ascending item id order (like baskets, so concurrent batches cannot deadlock).
+                // The sort is stable: orders for the same item keep their arrival order.
+                List<Integer> byItem = new ArrayList<>(requests.size());
+                for (int i = 0; i < requests.size(); i++) {
+                    byItem.add(i);
+                }
+                byItem.sort(Comparator.comparing(i -> requests.get(i).itemId()));
+                Order[] orders = new Order[requests.size()];
+                for (int i : byItem) {
+                    OrderRequest request = requests.get(i);
+                    Customer customer = customers.get(request.customerId());
+                    InventoryItem item = items.get(request.itemId());
+                    boolean ok = customer != null && item != null && request.quantity() > 0
+                            && takeStock(request.itemId(), request.quantity());
+                    orders[i] = new Order(customer, item, request.quantity(),
+                            ok ? OrderStatus.PLACED : OrderStatus.REJECTED);
+                }
+                List<Order> saved = orderRepository.saveAll(Arrays.asList(orders));
+                if (eventLog != null) {
+                    saved.forEach(order -> eventLog.orderChanged(order.getId()));
+                }
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            placed = new ArrayList<>(requests.size());
+            for (OrderRequest request : requests) {
+                placed.add(placeOrder(request.customerId(), request.itemId(), request.quantity()));
+            }
+            return placed;
+        }
+        requests.forEach(request -> replicaRoutingPolicy.recordWrite(request.customerId()));
+        return placed;
+    }
+
+    /**
+     * Places a multi-line (basket) order: either every line gets its stock, or nothing changes.
+     *
+     * @param customerId the ID of the customer placing the order
+     * @param lines      the requested items and quantities (the same item may appear more than once)
+     * @return the persisted Order with its lines, "PLACED" or "REJECTED"
+     *
+     * Step-by-step:
+     * 1. Validate the request before touching the DB (a customer, at least one line, every quantity > 0).
+     * 2. Merge duplicate items and SORT BY ITEM ID.
+     * 3. In ONE transaction: check the customer, then take the stock of each item in ascending id order with
+     *    an atomic conditional UPDATE. Each UPDATE keeps its row locked until commit.
+     * 4. If any item is short, roll the whole transaction back and record a "REJECTED" order instead.
+     *
+     * Why ascending item id?
+     * - Deadlocks happen when order A locks item 1 then waits for item 2, while order B holds item 2 and
+     *   waits for item 1. If everybody locks in the same global order, that circle can never form.
+     */
+    public Order placeMultiLineOrder(Long customerId, List<OrderLineRequest> lines) {
+        Map<Long, Integer> quantityByItem = new TreeMap<>(); // TreeMap keeps item ids sorted ascending
+        boolean valid = customerId != null && lines != null && !lines.isEmpty();
+        if (valid) {
+            for (OrderLineRequest line : lines) {
+                if (line == null || line.itemId() == null || line.quantity() <= 0) {
+                    valid = false;
+                    break;
+                }
+                quantityByItem.merge(line.itemId(), line.quantity(), Integer::sum);
+            }
+        }
+        if (!valid) {
+            return saveRejectedMultiLineOrder(customerId, quantityByItem);
+        }
+
+        Order placed = transactionTemplate.execute(status -> {
+            Optional<Customer> customerOpt = customerRepository.findById(customerId);
+            if (customerOpt.isEmpty()) {
+                return null;
+            }
+            for (Map.Entry<Long, Integer> line : quantityByItem.entrySet()) {
+                if (!takeStock(line.getKey(), line.getValue())) {
+                    status.setRollbackOnly(); // give back everything taken for earlier lines
+                    return null;
+                }
+            }
+            // One batched SELECT for all items, after the stock updates so it reads the new quantities
+            Map<Long, InventoryItem> items = new TreeMap<>();
+            inventoryItemRepository.findAllById(quantityByItem.keySet()).forEach(item -> items.put(item.getId(), item));
+
+            Order order = new Order(customerOpt.get(), null, totalUnits(quantityByItem), OrderStatus.PLACED);
+            quantityByItem.forEach((itemId, quantity) -> order.addLine(items.get(itemId), quantity));
+            return saveAndRemember(order, customerId);
+        });
+        return placed != null ? placed : saveRejectedMultiLineOrder(customerId, quantityByItem);
+    }
+
+    /**
+     * Takes stock for one line, through warehouse allocation if the item is stocked per location.
+     */
+    private boolean takeStock(Long itemId, int quantity) {
+        if (stockAllocationService.hasLocations(itemId)) {
+            return !stockAllocationService.allocate(itemId, quantity).isEmpty();
+        }
+        return inventoryService.decreaseStockIfAvailable(itemId, quantity);
+    }
+
+    /**
+     * Records a rejected multi-line order for the audit trail (lines for unknown items are left out).
+     */
+    private Order saveRejectedMultiLineOrder(Long customerId, Map<Long, Integer> quantityByItem) {
+        return transactionTemplate.execute(status -> {
+            Customer customer = customerId == null ? null : customerRepository.findById(customerId).orElse(null);
+            Order rejected = new Order(customer, null, totalUnits(quantityByItem), OrderStatus.REJECTED);
+            inventoryItemRepository.findAllById(quantityByItem.keySet())
+                    .forEach(item -> rejected.addLine(item, quantityByItem.get(item.getId())));
+            return saveAndRemember(rejected, customerId);
+        });
+    }
+
+    private static int totalUnits(Map<Long, Integer> quantityByItem) {
+        return quantityByItem.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Saves an order and remembers that this customer just wrote.
+     *
+     * Why? The customer will likely look at their orders next, so we keep their reads on the primary
+     * database for a short while (read-your-writes), instead of a replica that may not have the order yet.
+     */
+    private Order saveAndRemember(Order order, Long customerId) {
+        Order saved = orderRepository.save(order);
+        if (eventLog != null) {
+            eventLog.orderChanged(saved.getId());
+        }
+        replicaRoutingPolicy.recordWrite(customerId);
+        return saved;
+    }
+
+    /**
+     * Marks a PLACED order as SHIPPED.
+     *
+     * @return the updated order, or empty if there is no such order
+     * @throws IllegalStateException if the order is not PLACED (see OrderStatus)
+     */
+    @Transactional
+    public Optional<Order> shipOrder(Long orderId) {
+        return orderRepository.findByIdForUpdate(orderId).map(order -> {
+            order.changeStatus(OrderStatus.SHIPPED);
+            if (eventLog != null) {
+                eventLog.orderChanged(orderId);
+            }
+            Hibernate.initialize(order.getLines());
+            return order;
+        });
+    }
+
+    /**
+     * Cancels a PLACED order and puts its units back into stock, in one transaction.
+     *
+     * @return the updated order (its items with their new quantities), or empty if there is no such order
+     * @throws IllegalStateException if the order is not PLACED (see OrderStatus), or takes an item stocked per
+     *         warehouse
+     *
+     * What to take care:
+     * - Orders for items stocked per warehouse are refused, and nothing changes: the order does not record which
+     *   warehouses the units were taken from, so they could not be given back, and the cancel would lose them.
+     * - Archived orders are no longer in the orders table, so they cannot be cancelled (empty).
+     */
+    @Transactional
+    public Optional<Order> cancelOrder(Long orderId) {
+        Optional<Order> found = orderRepository.findByIdForUpdate(orderId);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Order order = found.get();
+        Map<Long, Integer> quantityByItem = new TreeMap<>(); // ascending item ids, the usual lock order
+        if (order.getItem() != null) {
+            quantityByItem.put(order.getItem().getId(), order.getQuantity());
+        }
+        for (OrderLine line : order.getLines()) {
+            if (line.getItem() != null) {
+                quantityByItem.merge(line.getItem().getId(), line.getQuantity(), Integer::sum);
+            }
+        }
+        for (Long itemId : quantityByItem.keySet()) {
+            if (stockAllocationService.hasLocations(itemId)) {
+                throw new IllegalStateException("Order " + orderId + " took item " + itemId
+                        + " from warehouses, which cannot be given back: it cannot be cancelled");
+            }
+        }
+        order.changeStatus(OrderStatus.CANCELLED);
+        if (eventLog != null) {
+            eventLog.orderChanged(orderId);
+        }
+        quantityByItem.forEach(inventoryService::increaseStock);
+        // The stock UPDATEs cleared the persistence context: read the order again, with the new quantities
+        return orderRepository.findById(orderId).map(reread -> {
+            Hibernate.initialize(reread.getItem()); // the caller wants the items' new quantities
+            Hibernate.initialize(reread.getLines());
+            return reread;
+        });
+    }
+
+    /**
+     * Orders in one status, by id, {@code limit} at a time (at most {@value #MAX_PAGE_SIZE}).
+     * Pass the last id of a page as {@code afterId} to get the next one; 0 starts at the beginning.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByStatus(OrderStatus status, long afterId, int limit) {
+        return withLines(orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId,
+                Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)))));
     }
 
     /**
@@ -113,8 +448,79 @@ public class OrderService {
      * Why use repository method name like findByCustomerId?
      * - Lets you easily filter orders for just one customer, leveraging Spring Data's method-query magic.
      * - In production, consider adding pagination, filtering by status/date, etc.
+     * - Runs read-only (replica-eligible), except right after this customer placed an order: then we read the
+     *   primary so they always see their own new order (read-your-writes).
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByCustomer(Long customerId) {
-        return orderRepository.findByCustomerId(customerId);
+        return getOrdersByCustomer(customerId, null, null);
+    }
+
+    /**
+     * Get the orders of a customer placed between two days (both inclusive, UTC; null means "no limit").
+     *
+     * Recent orders come from the database, older ones from the archive files (see OrderArchiveService).
+     * The caller sees one list, sorted by order id. If an order is briefly in both places (the archiver
+     * wrote its file but has not deleted the row yet), the database copy wins.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByCustomer(Long customerId, LocalDate from, LocalDate to) {
+        return getOrdersByCustomer(customerId, from, to, null);
+    }
+
+    /**
+     * Same as {@link #getOrdersByCustomer(Long, LocalDate, LocalDate)}, only orders in {@code status}
+     * (null means any status).
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByCustomer(Long customerId, LocalDate from, LocalDate to, OrderStatus status) {
+        List<Order> hot;
+        if (replicaRoutingPolicy.mustReadFromPrimary(customerId)) {
+            hot = replicaRoutingPolicy.onPrimary(() -> findHotOrders(customerId, from, to, status));
+        } else {
+            hot = findHotOrders(customerId, from, to, status);
+        }
+        List<Order> archived = orderArchiveService.findOrders(customerId, from, to);
+        if (status != null) {
+            archived = archived.stream().filter(order -> order.getStatus() == status).toList();
+        }
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Set<Long> hotIds = new HashSet<>();
+        hot.forEach(order -> hotIds.add(order.getId()));
+        List<Order> merged = new ArrayList<>(hot);
+        for (Order order : archived) {
+            if (!hotIds.contains(order.getId())) {
+                merged.add(order);
+            }
+        }
+        merged.sort(Comparator.comparing(Order::getId));
+        return merged;
+    }
+
+    private List<Order> findHotOrders(Long customerId, LocalDate from, LocalDate to, OrderStatus status) {
+        if (from == null && to == null) {
+            return withLines(status == null ? orderRepository.findByCustomerId(customerId)
+                    : orderRepository.findByCustomerIdAndStatusOrderByIdAsc(customerId, status));
+        }
+        Instant start = from == null ? Instant.EPOCH : from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = to == null ? FAR_FUTURE : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<Order> orders = orderRepository.findByCustomerIdPlacedBetween(customerId, start, end);
+        if (status != null) {
+            orders = orders.stream().filter(order -> order.getStatus() == status).toList();
+        }
+        return withLines(orders);
+    }
+
+    /**
+     * Loads the lines of these orders now, inside the transaction (up to 100 orders per SELECT, see Order.lines).
+     *
+     * Why? The JSON of an order includes its lines. Loading them here means writing the response afterwards
+     * never goes back to the database. Customer and item stay unloaded (only customerId/itemId are sent).
+     */
+    private static List<Order> withLines(List<Order> orders) {
+        orders.forEach(order -> Hibernate.initialize(order.getLines()));
+        return orders;
     }
 }
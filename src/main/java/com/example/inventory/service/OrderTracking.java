@@ -0,0 +1,18 @@
+package com.example.inventory.service;
+
+/**
+ * What a client sees when it asks about an order it handed to the asynchronous pipeline.
+ *
+ * @param trackingId the id returned with the 202 Accepted answer
+ * @param status     QUEUED (waiting for a worker), PLACED, REJECTED, or FAILED (could not be processed at all)
+ * @param orderId    the id of the stored order, once there is one (null while QUEUED or after FAILED)
+ */
+public record OrderTracking(String trackingId, String status, Long orderId) {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String FAILED = "FAILED";
+
+    public boolean isDone() {
+        return !QUEUED.equals(status);
+    }
+}
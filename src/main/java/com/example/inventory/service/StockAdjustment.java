@@ -0,0 +1,22 @@
+package com.example.inventory.service;
+
+/**
+ * One line of a bulk stock adjustment (POST /inventory/adjustments): either a change or a counted total.
+ *
+ * Examples:
+ * - {"itemId": 3, "delta": 120}   a restock of 120 units (negative for write-offs)
+ * - {"itemId": 7, "count": 40}    a cycle count found exactly 40 units on the shelf
+ *
+ * @param itemId the item to adjust
+ * @param delta  units to add (or remove, if negative); set either this or count
+ * @param count  the new absolute quantity (must be >= 0); set either this or delta
+ */
+public record StockAdjustment(Long itemId, Integer delta, Integer count) {
+
+    /**
+     * @return true if the line names an item and exactly one of delta/count, with a non-negative count
+     */
+    public boolean isValid() {
+        return itemId != null && (delta == null) != (count == null) && (count == null || count >= 0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.inventory.service;
+
+/**
+ * What happened to one line of a bulk stock adjustment, in the same position as the line in the request.
+ *
+ * @param itemId the item of the line
+ * @param status APPLIED, or why the line was skipped
+ * @param before the item's quantity just before this line (null if the item is unknown or the line invalid)
+ * @param after  the item's quantity after this line (equal to before if it was skipped)
+ */
+public record StockAdjustmentResult(Long itemId, Status status, Integer before, Integer after) {
+
+    public enum Status {
+        /** The new quantity is stored. */
+        APPLIED,
+        /** Missing item id, both or neither of delta/count, or a negative count. */
+        INVALID,
+        /** No item with this id. */
+        UNKNOWN_ITEM,
+        /** The delta would take the quantity below zero; nothing was changed. */
+        INSUFFICIENT_STOCK,
+        /** The item is stocked per warehouse: adjust it through PUT /warehouses/{id}/stock/{itemId} instead. */
+        WAREHOUSE_MANAGED
+    }
+}
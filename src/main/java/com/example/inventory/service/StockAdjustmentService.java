@@ -0,0 +1,177 @@
+package com.example.inventory.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.inventory.service.StockAdjustmentResult.Status;
+import com.example.inventory.sync.ChangeVersions;
+
+/**
+ * Applies restocks and cycle counts in bulk: thousands of (item, delta) or (item, count) lines in one go.
+ *
+ * Step-by-step, in ONE short transaction:
+ * 1. Find which of the items are stocked per warehouse (they are skipped, no lock needed for that).
+ * 2. Lock the item rows in ascending id order and read their quantities (SELECT ... FOR UPDATE).
+ * 3. Work out every line in memory, in id order; lines for the same item apply one after the other.
+ * 4. Write all new quantities with ONE JDBC batch of UPDATEs, sorted by id, and commit.
+ *
+ * Why not load and save the entities?
+ * - That is a SELECT and an UPDATE per item, each a round trip while earlier rows stay locked. Here the
+ *   rows are locked for two round trips in total, and no entity objects are created.
+ * - Ascending id order is the lock order of baskets and the order engine too, so they cannot deadlock
+ *   with an adjustment; orders for these items simply wait the few milliseconds it takes.
+ *
+ * What to take care:
+ * - Every applied line is written as one compact line to the "inventory.stock-changes" logger after commit:
+ *   "reference itemId before>after". Route that logger to its own file to keep an audit trail.
+ * - The rows are changed with plain SQL, so InventoryService.stockChanged() tells the caches about it.
+ */
+@Service
+public class StockAdjustmentService {
+
+    private static final Logger changeLog = LoggerFactory.getLogger("inventory.stock-changes");
+
+    /**
+     * Ids per "IN (...)" list, so a huge batch does not become one enormous statement.
+     */
+    private static final int IDS_PER_QUERY = 1000;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired // plain SQL bypasses the entity listener, so the change version is set here
+    private ChangeVersions changeVersions;
+
+    /**
+     * Applies the lines and reports what happened to each one (same order as the request).
+     *
+     * Lines that cannot be applied (see {@link Status}) are skipped; the others are applied anyway.
+     *
+     * @param reference free text stored in the change records, e.g. a delivery note; may be null
+     */
+    @Transactional
+    public List<StockAdjustmentResult> applyAdjustments(String reference, List<StockAdjustment> lines) {
+        StockAdjustmentResult[] results = new StockAdjustmentResult[lines.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<Long> itemIds = new TreeSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            StockAdjustment line = lines.get(i);
+            if (line == null || !line.isValid()) {
+                results[i] = new StockAdjustmentResult(line == null ? null : line.itemId(), Status.INVALID, null, null);
+                continue;
+            }
+            valid.add(i);
+            itemIds.add(line.itemId());
+        }
+        if (valid.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        valid.sort(Comparator.comparing(i -> lines.get(i).itemId())); // stable: same-item lines keep their order
+
+        // 1. + 2.
+        Set<Long> warehouseManaged = new HashSet<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (List<Long> chunk : chunks(itemIds)) {
+            warehouseManaged.addAll(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT item_id FROM stock_locations WHERE item_id IN (:ids)", Map.of("ids", chunk), Long.class));
+        }
+        for (List<Long> chunk : chunks(itemIds)) {
+            jdbcTemplate.query("SELECT id, quantity FROM \"inventory-item\" WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                    Map.of("ids", chunk), row -> {
+                        quantities.put(row.getLong("id"), row.getInt("quantity"));
+                    });
+        }
+
+        // 3.
+        Map<Long, Integer> newQuantities = new TreeMap<>();
+        for (int i : valid) {
+            StockAdjustment line = lines.get(i);
+            Integer current = quantities.get(line.itemId());
+            if (current == null) {
+                results[i] = new StockAdjustmentResult(line.itemId(), Status.UNKNOWN_ITEM, null, null);
+                continue;
+            }
+            if (warehouseManaged.contains(line.itemId())) {
+                results[i] = new StockAdjustmentResult(line.itemId(), Status.WAREHOUSE_MANAGED, current, current);
+                continue;
+            }
+            long target = line.count() != null ? line.count() : (long) current + line.delta();
+            if (target < 0 || target > Integer.MAX_VALUE) {
+                Status status = target < 0 ? Status.INSUFFICIENT_STOCK : Status.INVALID;
+                results[i] = new StockAdjustmentResult(line.itemId(), status, current, current);
+                continue;
+            }
+            quantities.put(line.itemId(), (int) target);
+            newQuantities.put(line.itemId(), (int) target);
+            results[i] = new StockAdjustmentResult(line.itemId(), Status.APPLIED, current, (int) target);
+        }
+
+        // 4.
+        if (!newQuantities.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(newQuantities.size());
+            long version = changeVersions.current();
+            newQuantities.forEach((itemId, quantity) -> rows.add(new Object[] { quantity, version, itemId }));
+            jdbcTemplate.getJdbcTemplate().batchUpdate(
+                    "UPDATE \"inventory-item\" SET quantity = ?, change_version = ? WHERE id = ?", rows);
+            inventoryService.stockChanged(newQuantities.keySet());
+            logAfterCommit(reference, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Writes one change record per applied line, once the transaction has committed (never for a rollback).
+     */
+    private void logAfterCommit(String reference, StockAdjustmentResult[] results) {
+        if (!changeLog.isInfoEnabled()) {
+            return;
+        }
+        String ref = reference == null || reference.isBlank() ? "-" : reference.strip().replace(' ', '_');
+        Runnable write = () -> {
+            for (StockAdjustmentResult result : results) {
+                if (result.status() == Status.APPLIED) {
+                    changeLog.info("{} {} {}>{}", ref, result.itemId(), result.before(), result.after());
+                }
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    private static List<List<Long>> chunks(Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IDS_PER_QUERY) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + IDS_PER_QUERY)));
+        }
+        return chunks;
+    }
+}
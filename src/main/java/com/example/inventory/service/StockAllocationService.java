@@ -0,0 +1,123 @@
+package com.example.inventory.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.service.allocation.Allocation;
+import com.example.inventory.service.allocation.AllocationStrategy;
+import com.example.inventory.wal.StockEventLog;
+
+/**
+ * StockAllocationService: takes stock out of warehouses for an order line.
+ *
+ * Step-by-step:
+ * 1. Ask the in-memory StockLocationIndex where the item is stored.
+ * 2. Let the configured AllocationStrategy plan which warehouses to use.
+ * 3. Subtract from each planned warehouse with a conditional UPDATE (never goes below zero).
+ * 4. Subtract the total from InventoryItem.quantity, the aggregate GET /inventory shows.
+ *
+ * What if the index was out of date?
+ * - A conditional UPDATE then changes 0 rows. We put back what we already took, reload the item's
+ *   locations from the DB and plan once more.
+ */
+@Service
+public class StockAllocationService {
+
+    /**
+     * How many times we re-plan after finding the index out of date.
+     */
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+
+    @Autowired
+    private StockLocationIndex stockLocationIndex;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired(required = false) // Only with inventory.wal.enabled=true: logged with the item's new total
+    private StockEventLog eventLog;
+
+    @Autowired // All AllocationStrategy beans, keyed by bean name ("nearest", "most-stock", "split-shipment")
+    private Map<String, AllocationStrategy> strategies;
+
+    @Value("${inventory.allocation.strategy:split-shipment}")
+    private String strategyName;
+
+    /**
+     * @return true if the item is stocked per warehouse and must go through {@link #allocate(Long, int)}
+     */
+    public boolean hasLocations(Long itemId) {
+        return stockLocationIndex.hasLocations(itemId);
+    }
+
+    /**
+     * Takes {@code quantity} units of the item out of its warehouses.
+     *
+     * @return the allocation plan that was applied, or an empty list if there is not enough stock
+     *         (in that case nothing was changed)
+     */
+    @Transactional
+    public List<Allocation> allocate(Long itemId, int quantity) {
+        AllocationStrategy strategy = strategy();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<Allocation> plan = strategy.allocate(quantity, stockLocationIndex.locationsOf(itemId));
+            if (plan.isEmpty()) {
+                return plan;
+            }
+            if (takeFromWarehouses(itemId, plan)) {
+                if (!inventoryService.decreaseStockIfAvailable(itemId, quantity)) {
+                    // The aggregate disagrees with the per-warehouse rows: undo everything
+                    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                    return List.of();
+                }
+                if (eventLog != null) {
+                    eventLog.itemLocationsChanged(itemId);
+                }
+                for (Allocation allocation : plan) {
+                    stockLocationIndex.applyAfterCommit(itemId, allocation.warehouseId(), -allocation.quantity());
+                }
+                return plan;
+            }
+            stockLocationIndex.evict(itemId); // the index was stale: reload and re-plan
+        }
+        return List.of();
+    }
+
+    /**
+     * Runs the conditional UPDATEs for a plan. If one fails, the ones before it are put back.
+     *
+     * @return true if every warehouse had enough stock
+     */
+    private boolean takeFromWarehouses(Long itemId, List<Allocation> plan) {
+        for (int i = 0; i < plan.size(); i++) {
+            Allocation allocation = plan.get(i);
+            if (stockLocationRepository.decrementIfAvailable(itemId, allocation.warehouseId(), allocation.quantity()) == 0) {
+                for (int j = 0; j < i; j++) {
+                    Allocation done = plan.get(j);
+                    stockLocationRepository.increment(itemId, done.warehouseId(), done.quantity());
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AllocationStrategy strategy() {
+        AllocationStrategy strategy = strategies.get(strategyName);
+        if (strategy == null) {
+            throw new IllegalStateException("Unknown inventory.allocation.strategy '" + strategyName
+                    + "', expected one of " + strategies.keySet());
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.inventory.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.inventory.entity.StockLocation;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.service.allocation.LocationStock;
+
+/**
+ * In-memory index: for each item, which warehouses hold it and how much.
+ *
+ * Why keep this in memory?
+ * - Allocation runs on every order. Asking the DB "where is item 42 and how much?" each time would add a
+ *   query (and row reads) to the hottest path. The index answers from a few small arrays instead.
+ *
+ * How does it stay correct?
+ * - Items are loaded lazily on first use (also "no locations", so legacy items cost one lookup ever).
+ * - Committed changes are applied as deltas after commit; rolled back ones evict the item so it reloads.
+ * - The index is only used to PLAN. The DB update is conditional (quantity >= n), so a stale index can
+ *   never oversell: at worst the update fails, we evict, reload and try again.
+ */
+@Component
+public class StockLocationIndex {
+
+    private static final ItemLocations NO_LOCATIONS = new ItemLocations(new long[0], new int[0], new int[0]);
+
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+
+    private final ConcurrentHashMap<Long, ItemLocations> byItem = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every eviction, so a load that raced with an eviction is not cached (it may be outdated).
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @return true if the item is stocked per warehouse (otherwise only InventoryItem.quantity counts)
+     */
+    public boolean hasLocations(Long itemId) {
+        return load(itemId).warehouseIds.length > 0;
+    }
+
+    /**
+     * @return a fresh list describing every warehouse holding the item
+     */
+    public List<LocationStock> locationsOf(Long itemId) {
+        return load(itemId).asList();
+    }
+
+    /**
+     * Applies a stock change to the index once the surrounding transaction commits
+     * (right away if there is no transaction). On rollback the item is evicted instead.
+     */
+    public void applyAfterCommit(Long itemId, long warehouseId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyDelta(itemId, warehouseId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    applyDelta(itemId, warehouseId, delta);
+                } else {
+                    evict(itemId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Forgets the item once the surrounding transaction ends (right away if there is none),
+     * so the next lookup reloads it from the DB.
+     */
+    public void evictAfterCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(itemId);
+            }
+        });
+    }
+
+    /**
+     * Forgets the item right away.
+     */
+    public void evict(Long itemId) {
+        byItem.compute(itemId, (id, old) -> {
+            evictions.incrementAndGet(); // inside the bin lock, so load() can check it atomically
+            return null;
+        });
+    }
+
+    private void applyDelta(Long itemId, long warehouseId, int delta) {
+        // withDelta() returns null for an unknown warehouse, which removes the entry and forces a reload
+        byItem.computeIfPresent(itemId, (id, locations) -> locations.withDelta(warehouseId, delta));
+    }
+
+    private ItemLocations load(Long itemId) {
+        ItemLocations cached = byItem.get(itemId);
+        if (cached != null) {
+            return cached;
+        }
+        // Loaded outside computeIfAbsent on purpose: never run a DB query while holding a map bin lock
+        long evictionsBefore = evictions.get();
+        ItemLocations loaded = ItemLocations.of(stockLocationRepository.findByItemId(itemId));
+        // If an eviction happened while we were reading, use the result once but don't cache it
+        ItemLocations cachedNow = byItem.compute(itemId, (id, existing) ->
+                existing != null ? existing : (evictions.get() == evictionsBefore ? loaded : null));
+        return cachedNow != null ? cachedNow : loaded;
+    }
+
+    /**
+     * Immutable per-item arrays (copy-on-write), so readers never need a lock.
+     */
+    private static final class ItemLocations {
+        private final long[] warehouseIds;
+        private final int[] distances;
+        private final int[] quantities;
+
+        private ItemLocations(long[] warehouseIds, int[] distances, int[] quantities) {
+            this.warehouseIds = warehouseIds;
+            this.distances = distances;
+            this.quantities = quantities;
+        }
+
+        static ItemLocations of(List<StockLocation> rows) {
+            if (rows.isEmpty()) {
+                return NO_LOCATIONS;
+            }
+            long[] warehouseIds = new long[rows.size()];
+            int[] distances = new int[rows.size()];
+            int[] quantities = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                StockLocation row = rows.get(i);
+                warehouseIds[i] = row.getWarehouse().getId();
+                distances[i] = row.getWarehouse().getDistance();
+                quantities[i] = row.getQuantity();
+            }
+            return new ItemLocations(warehouseIds, distances, quantities);
+        }
+
+        ItemLocations withDelta(long warehouseId, int delta) {
+            for (int i = 0; i < warehouseIds.length; i++) {
+                if (warehouseIds[i] == warehouseId) {
+                    int[] copy = quantities.clone();
+                    copy[i] = Math.max(0, copy[i] + delta);
+                    return new ItemLocations(warehouseIds, distances, copy);
+                }
+            }
+            return null;
+        }
+
+        List<LocationStock> asList() {
+            List<LocationStock> list = new ArrayList<>(warehouseIds.length);
+            for (int i = 0; i < warehouseIds.length; i++) {
+                list.add(new LocationStock(warehouseIds[i], distances[i], quantities[i]));
+            }
+            return list;
+        }
+    }
+}
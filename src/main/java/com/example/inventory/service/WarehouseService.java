@@ -0,0 +1,108 @@
+package com.example.inventory.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.StockLocation;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.repository.WarehouseRepository;
+import com.example.inventory.wal.StockEventLog;
+
+/**
+ * WarehouseService: business logic for warehouses and the stock stored in them.
+ *
+ * What to take care:
+ * - Every stock change here also refreshes InventoryItem.quantity (the total over all warehouses) and the
+ *   in-memory StockLocationIndex, so orders and GET /inventory see the new numbers.
+ */
+@Service
+public class WarehouseService {
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockLocationIndex stockLocationIndex;
+
+    @Autowired(required = false) // Only with inventory.wal.enabled=true: replayed stock rows need their warehouse
+    private StockEventLog eventLog;
+
+    /**
+     * @return every warehouse
+     */
+    @Transactional(readOnly = true)
+    public List<Warehouse> getAllWarehouses() {
+        return warehouseRepository.findAll();
+    }
+
+    /**
+     * Creates or updates a warehouse.
+     */
+    public Warehouse saveWarehouse(Warehouse warehouse) {
+        Warehouse saved = warehouseRepository.save(warehouse);
+        if (eventLog != null) {
+            eventLog.warehouseChanged(saved.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * @return how much of the item each warehouse holds
+     */
+    @Transactional(readOnly = true)
+    public List<StockLocation> getStockLocations(Long itemId) {
+        return stockLocationRepository.findByItemId(itemId);
+    }
+
+    /**
+     * Sets how many units of an item a warehouse holds (e.g. after a delivery or a stock count).
+     *
+     * @param warehouseId the warehouse
+     * @param itemId      the item
+     * @param quantity    the new absolute stock level there (must not be negative)
+     * @return the stock row, or empty if the warehouse or the item does not exist
+     *
+     * What to take care:
+     * - The first time an item gets warehouse stock, its old single quantity is replaced by the warehouse
+     *   total. From then on, the item is only stocked through warehouses.
+     */
+    @Transactional
+    public Optional<StockLocation> setStock(Long warehouseId, Long itemId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity must not be negative");
+        }
+        Optional<Warehouse> warehouse = warehouseRepository.findById(warehouseId);
+        Optional<InventoryItem> item = inventoryItemRepository.findById(itemId);
+        if (warehouse.isEmpty() || item.isEmpty()) {
+            return Optional.empty();
+        }
+
+        StockLocation location = stockLocationRepository.findByItemIdAndWarehouseId(itemId, warehouseId)
+                .orElseGet(() -> new StockLocation(item.get(), warehouse.get(), 0));
+        location.setQuantity(quantity);
+        StockLocation saved = stockLocationRepository.save(location);
+
+        if (eventLog != null) {
+            eventLog.itemLocationsChanged(itemId);
+        }
+        inventoryService.refreshAggregateQuantity(itemId);
+        stockLocationIndex.evictAfterCompletion(itemId); // reload with the new row after commit
+        return Optional.of(saved);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.inventory.service.allocation;
+
+/**
+ * One line of an allocation plan: take this many units from this warehouse.
+ *
+ * @param warehouseId the warehouse to ship from
+ * @param quantity    units to take from it (always > 0)
+ */
+public record Allocation(long warehouseId, int quantity) {
+}
@@ -0,0 +1,25 @@
+package com.example.inventory.service.allocation;
+
+import java.util.List;
+
+/**
+ * AllocationStrategy decides which warehouses an order line is shipped from.
+ *
+ * Why an interface?
+ * - Businesses disagree on what "best" means: fastest delivery, fewest parcels, emptying big warehouses
+ *   first... Each rule is a small class implementing this interface, registered as a Spring bean whose
+ *   name is used in the inventory.allocation.strategy setting.
+ *
+ * What to take care:
+ * - Strategies only PLAN. They must not change the input list, and must return an empty list when the
+ *   order cannot be fully served (we never ship part of an order line).
+ */
+public interface AllocationStrategy {
+
+    /**
+     * @param quantity  units requested (> 0)
+     * @param locations where the item is stored and how much is available there
+     * @return the plan (quantities add up to exactly {@code quantity}), or an empty list if impossible
+     */
+    List<Allocation> allocate(int quantity, List<LocationStock> locations);
+}
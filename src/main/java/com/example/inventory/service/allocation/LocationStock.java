@@ -0,0 +1,11 @@
+package com.example.inventory.service.allocation;
+
+/**
+ * What the allocation engine knows about one warehouse for one item: where, how far, how many.
+ *
+ * @param warehouseId the warehouse
+ * @param distance    shipping distance rank (lower = nearer)
+ * @param available   units of the item available there
+ */
+public record LocationStock(long warehouseId, int distance, int available) {
+}
@@ -0,0 +1,28 @@
+package com.example.inventory.service.allocation;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * "most-stock": ship everything from the single warehouse that holds the most of the item.
+ *
+ * Good for balancing stock levels; ignores distance.
+ */
+@Component("most-stock")
+public class MostStockStrategy implements AllocationStrategy {
+
+    @Override
+    public List<Allocation> allocate(int quantity, List<LocationStock> locations) {
+        LocationStock best = null;
+        for (LocationStock location : locations) {
+            if (best == null || location.available() > best.available()) {
+                best = location;
+            }
+        }
+        if (best == null || best.available() < quantity) {
+            return List.of();
+        }
+        return List.of(new Allocation(best.warehouseId(), quantity));
+    }
+}
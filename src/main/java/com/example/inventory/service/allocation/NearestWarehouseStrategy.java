@@ -0,0 +1,25 @@
+package com.example.inventory.service.allocation;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * "nearest": ship everything from the nearest single warehouse that has enough stock.
+ *
+ * Good for delivery speed; may reject orders that several warehouses together could serve.
+ */
+@Component("nearest")
+public class NearestWarehouseStrategy implements AllocationStrategy {
+
+    @Override
+    public List<Allocation> allocate(int quantity, List<LocationStock> locations) {
+        LocationStock best = null;
+        for (LocationStock location : locations) {
+            if (location.available() >= quantity && (best == null || location.distance() < best.distance())) {
+                best = location;
+            }
+        }
+        return best == null ? List.of() : List.of(new Allocation(best.warehouseId(), quantity));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.inventory.service.allocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * "split-shipment": fill the order from the nearest warehouses first, splitting it over several
+ * warehouses when no single one has enough.
+ *
+ * Good for accepting as many orders as possible; may mean several parcels per order.
+ */
+@Component("split-shipment")
+public class SplitShipmentStrategy implements AllocationStrategy {
+
+    @Override
+    public List<Allocation> allocate(int quantity, List<LocationStock> locations) {
+        List<LocationStock> nearestFirst = new ArrayList<>(locations);
+        nearestFirst.sort(Comparator.comparingInt(LocationStock::distance));
+
+        List<Allocation> plan = new ArrayList<>();
+        int remaining = quantity;
+        for (LocationStock location : nearestFirst) {
+            if (remaining == 0) {
+                break;
+            }
+            int take = Math.min(remaining, location.available());
+            if (take > 0) {
+                plan.add(new Allocation(location.warehouseId(), take));
+                remaining -= take;
+            }
+        }
+        return remaining == 0 ? plan : List.of();
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.inventory.snapshot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.inventory.forecast.DemandForecastService;
+import com.example.inventory.report.SalesReportService;
+import com.example.inventory.stock.MappedStockStore;
+import com.example.inventory.wal.StockEventLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * DatabaseSnapshotService keeps the in-memory H2 database across restarts with periodic snapshots.
+ *
+ * How does it work?
+ * 1. Every few minutes, and on shutdown, each table is exported to a CSV file with H2's CSVWRITE, all tables
+ *    inside ONE repeatable-read transaction, so the files form a consistent picture of one moment.
+ * 2. At startup, before the web server accepts requests, each table is bulk-loaded with
+ *    "INSERT INTO t SELECT ... FROM CSVREAD(...)": one statement per table, no JPA, no per-row round trips.
+ *    Then the id counters are moved past the highest restored id.
+ *
+ * Why not save the rows through the REST API or JPA again?
+ * - Row-by-row saves pay for an HTTP call or an entity, a statement and a round trip per row. A set-based
+ *   INSERT ... SELECT lets the database stream the file straight into the table.
+ *
+ * What to take care:
+ * - Changes made after the last snapshot are lost if the process crashes, unless the write-ahead log is on
+ *   (inventory.wal.enabled=true, see StockEventLog): it replays them on top of the restored snapshot, and each
+ *   snapshot is its checkpoint. Or use the "persistent" profile (file-backed H2) instead.
+ * - H2 only (CSVWRITE/CSVREAD). Restore only happens into empty tables, never on top of existing data.
+ * - On disk: {dir}/snapshot-{millis}/{table}.{chunk}.csv plus a manifest; the CURRENT file names the latest complete
+ *   snapshot and is replaced atomically, so a crash while writing leaves the previous snapshot usable.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.snapshot", name = "enabled", havingValue = "true")
+public class DatabaseSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSnapshotService.class);
+
+    /**
+     * Tables in foreign-key order: a table only references tables before it.
+     */
+    static final List<String> TABLES = List.of(
+            "customers", "inventory-item", "warehouses", "stock_locations", "orders", "order_lines", "item_tombstones");
+
+    private static final String CSV_OPTIONS = "charset=UTF-8 null=NULL";
+    private static final String CURRENT = "CURRENT";
+    private static final String MANIFEST = "manifest.properties";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired // Makes sure Hibernate has created the tables before we restore into them
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired // Its cached report periods are dropped after a restore, like Hibernate's caches
+    private SalesReportService salesReportService;
+
+    @Autowired // Its demand model counted orders by id, and the restored ids may differ: it is rebuilt
+    private DemandForecastService demandForecastService;
+
+    @Autowired(required = false) // Only with inventory.stock-store.type=mapped: its slots are loaded again
+    private MappedStockStore mappedStockStore;
+
+    @Autowired(required = false) // Only with inventory.wal.enabled=true: each snapshot is a checkpoint of the log
+    private StockEventLog eventLog;
+
+    @Value("${inventory.snapshot.dir:data/snapshots}")
+    private Path directory = Path.of("data/snapshots");
+
+    @Value("${inventory.snapshot.interval:5m}")
+    private Duration interval = Duration.ofMinutes(5);
+
+    @Value("${inventory.snapshot.chunk-rows:500000}")
+    private int chunkRows = 500_000;
+
+    @Value("${inventory.snapshot.on-shutdown:true}")
+    private boolean onShutdown = true;
+
+    private final Object snapshotLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs while the application context starts, i.e. before the web server takes requests.
+     */
+    @PostConstruct
+    void start() {
+        restore();
+        if (!interval.isZero()) {
+            scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            // The previous snapshot stays CURRENT; the next run tries again
+            log.warn("Database snapshot failed", e);
+        }
+    }
+
+    /**
+     * Writes a new snapshot of every table and makes it the CURRENT one.
+     *
+     * @return the directory of the new snapshot
+     */
+    public Path snapshot() {
+        synchronized (snapshotLock) {
+            long started = System.nanoTime();
+            Path target = directory.resolve("snapshot-" + System.currentTimeMillis());
+            Map<String, Long> rowCounts = new LinkedHashMap<>();
+            long checkpoint = eventLog != null ? eventLog.checkpointStart() : -1; // before the tables are read
+            try {
+                Files.createDirectories(target);
+                try (Connection connection = dataSource.getConnection()) {
+                    Map<String, String> tables = resolveTableNames(connection);
+                    connection.setAutoCommit(false);
+                    connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                    try (Statement statement = connection.createStatement()) {
+                        for (String table : TABLES) {
+                            rowCounts.put(table, exportTable(statement, table, quote(tables.get(table)), target));
+                        }
+                    } finally {
+                        connection.rollback(); // read-only: just end the transaction
+                    }
+                }
+                Properties manifest = new Properties();
+                rowCounts.forEach((table, rows) -> manifest.setProperty(table, Long.toString(rows)));
+                try (var out = Files.newOutputStream(target.resolve(MANIFEST))) {
+                    manifest.store(out, "row counts");
+                }
+                // Point CURRENT at the new snapshot atomically, then drop older ones
+                Path temp = directory.resolve(CURRENT + ".tmp");
+                Files.writeString(temp, target.getFileName().toString(), StandardCharsets.UTF_8);
+                Files.move(temp, directory.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                deleteOlderSnapshots(target);
+                if (eventLog != null) {
+                    eventLog.checkpointed(checkpoint);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write snapshot " + target, e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not write snapshot " + target, e);
+            }
+            log.info("Wrote database snapshot {} {} in {} ms", target, rowCounts,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return target;
+        }
+    }
+
+    /**
+     * Writes one table as CSV chunks of at most chunkRows rows, in id order: {table}.00000.csv, {table}.00001.csv ...
+     *
+     * Why chunks? Each chunk is restored by its own INSERT, so the database never has to keep undo data for
+     * ten million rows in one statement.
+     *
+     * @return the number of rows written
+     */
+    private long exportTable(Statement statement, String table, String quotedTable, Path target) throws SQLException {
+        long total = 0;
+        long lastId = 0; // ids are generated from 1 upwards
+        for (int chunk = 0; ; chunk++) {
+            long afterId = lastId;
+            long rows;
+            try (ResultSet result = statement.executeQuery("SELECT COUNT(*), MAX(ID) FROM (SELECT ID FROM "
+                    + quotedTable + " WHERE ID > " + afterId + " ORDER BY ID LIMIT " + chunkRows + ")")) {
+                result.next();
+                rows = result.getLong(1);
+                lastId = rows == 0 ? afterId : result.getLong(2);
+            }
+            if (rows == 0 && chunk > 0) {
+                return total;
+            }
+            // The first chunk is written even when empty, so the restore always finds the column list
+            Path file = target.resolve(String.format("%s.%05d.csv", table, chunk)).toAbsolutePath();
+            String query = "SELECT * FROM " + quotedTable + " WHERE ID > " + afterId + " AND ID <= " + lastId
+                    + " ORDER BY ID";
+            statement.execute("CALL CSVWRITE('" + sqlString(file.toString()) + "', '" + sqlString(query) + "', '"
+                    + CSV_OPTIONS + "')");
+            total += rows;
+            if (rows < chunkRows) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Bulk-loads the CURRENT snapshot, if there is one and the database is still empty.
+     *
+     * @return true if data was restored
+     */
+    boolean restore() {
+        Path current = directory.resolve(CURRENT);
+        if (!Files.exists(current)) {
+            return false;
+        }
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            Path source = directory.resolve(Files.readString(current, StandardCharsets.UTF_8).trim());
+            Map<String, String> tables = resolveTableNames(connection);
+            for (String table : TABLES) {
+                if (count(statement, quote(tables.get(table))) > 0) {
+                    log.info("Database is not empty, not restoring snapshot {}", source);
+                    return false;
+                }
+            }
+            // The snapshot was consistent when written, so skip per-row foreign-key lookups while loading
+            Map<String, Long> rowCounts = new LinkedHashMap<>();
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String table : TABLES) {
+                    String quoted = quote(tables.get(table));
+                    long rows = 0;
+                    for (Path file : chunksOf(source, table)) {
+                        String columns = readHeader(file);
+                        if (columns == null) {
+                            continue; // empty table when the snapshot was taken
+                        }
+                        rows += statement.executeUpdate("INSERT INTO " + quoted + " (" + columns + ") SELECT " + columns
+                                + " FROM CSVREAD('" + sqlString(file.toAbsolutePath().toString()) + "', NULL, '"
+                                + CSV_OPTIONS + "')");
+                    }
+                    rowCounts.put(table, rows);
+                    restartIdentity(statement, quoted);
+                }
+            } finally {
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+            // The rows went in with plain SQL, behind Hibernate's back: nothing cached before may be trusted
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            salesReportService.clearCache();
+            demandForecastService.reset();
+            if (mappedStockStore != null) {
+                mappedStockStore.reloadAll();
+            }
+            log.info("Restored database snapshot {} {} in {} ms", source, rowCounts,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore snapshot from " + directory, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not restore snapshot from " + directory, e);
+        }
+    }
+
+    /**
+     * The CSV chunks of one table in a snapshot, in the order they were written.
+     */
+    private static List<Path> chunksOf(Path snapshot, String table) throws IOException {
+        try (Stream<Path> files = Files.list(snapshot)) {
+            return files.filter(file -> file.getFileName().toString().matches(Pattern.quote(table) + "\\.\\d{5}\\.csv"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Moves the id counter past the highest restored id, so new rows do not collide with restored ones.
+     */
+    private static void restartIdentity(Statement statement, String quotedTable) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(ID), 0) + 1 FROM " + quotedTable)) {
+            result.next();
+            long next = result.getLong(1);
+            statement.execute("ALTER TABLE " + quotedTable + " ALTER COLUMN ID RESTART WITH " + next);
+        }
+    }
+
+    /**
+     * Reads the CSV header line, which CSVWRITE writes as a ready-to-use quoted column list: "ID","NAME".
+     *
+     * @return the column list, or null for an empty file
+     */
+    private static String readHeader(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            return header == null || header.isBlank() ? null : header;
+        }
+    }
+
+    /**
+     * Maps our table names to the names the database actually uses (H2 upper-cases unquoted names).
+     */
+    private static Map<String, String> resolveTableNames(Connection connection) throws SQLException {
+        Map<String, String> actual = new LinkedHashMap<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(null, null, null, new String[] { "TABLE" })) {
+            while (tables.next()) {
+                String name = tables.getString("TABLE_NAME");
+                for (String table : TABLES) {
+                    if (table.equalsIgnoreCase(name)) {
+                        actual.put(table, name);
+                    }
+                }
+            }
+        }
+        List<String> missing = TABLES.stream().filter(table -> !actual.containsKey(table)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Tables missing for snapshot: " + missing);
+        }
+        return actual;
+    }
+
+    private static long count(Statement statement, String quotedTable) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + quotedTable)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private void deleteOlderSnapshots(Path keep) throws IOException {
+        List<Path> old;
+        try (Stream<Path> children = Files.list(directory)) {
+            old = children.filter(path -> Files.isDirectory(path) && !path.equals(keep)
+                    && path.getFileName().toString().startsWith("snapshot-")).collect(Collectors.toCollection(ArrayList::new));
+        }
+        for (Path snapshot : old) {
+            try (Stream<Path> files = Files.walk(snapshot)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String sqlString(String value) {
+        return value.replace("'", "''");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        if (onShutdown) {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                log.warn("Final database snapshot failed; the previous snapshot is still available", e);
+            }
+        }
+    }
+}
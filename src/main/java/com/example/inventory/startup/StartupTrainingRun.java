@@ -0,0 +1,123 @@
+package com.example.inventory.startup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * StartupTrainingRun exercises every controller once over real HTTP, then shuts the application down.
+ *
+ * Why is this needed?
+ * - The AppCDS archive built by "mvn -Pstartup package" contains exactly the classes the JVM loaded during
+ *   a training run. Starting and stopping alone would miss everything the first requests load (Jackson
+ *   serializers, Hibernate query plans, Tomcat request handling ...), and those are on the path of the
+ *   first GET /inventory after a scale-out.
+ *
+ * How is it switched on?
+ * - Only with inventory.startup.training-run=true (the startup profile passes it to the training JVM).
+ *   The check happens at runtime on purpose: Spring AOT freezes @Conditional decisions at build time.
+ *
+ * What to take care:
+ * - It writes a few rows (a customer, an item, a warehouse, orders): never point it at a real database.
+ * - Any non-2xx answer fails the run with exit code 1, so a broken build never produces an archive.
+ */
+@Component
+public class StartupTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTrainingRun.class);
+
+    @Value("${inventory.startup.training-run:false}")
+    private boolean enabled;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int exitCode = 0;
+        try {
+            train(((WebServerApplicationContext) context).getWebServer().getPort());
+            log.info("Training run finished");
+        } catch (IOException | RuntimeException e) {
+            log.error("Training run failed", e);
+            exitCode = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exitCode = 1;
+        }
+        // The JVM writes the AppCDS archive (-XX:ArchiveClassesAtExit) while exiting
+        SpringApplication.exit(context);
+        System.exit(exitCode);
+    }
+
+    /**
+     * One pass over the API, in the order a new client would use it.
+     */
+    private void train(int port) throws IOException, InterruptedException {
+        String base = "http://localhost:" + port;
+        long customerId = send(base, "POST", "/customers", "{\"name\":\"Training customer\"}").get("id").asLong();
+        long itemId = send(base, "POST", "/inventory", "{\"name\":\"Training item\",\"quantity\":100}").get("id").asLong();
+        long stockedItemId = send(base, "POST", "/inventory", "{\"name\":\"Training stocked item\",\"quantity\":0}")
+                .get("id").asLong();
+        long warehouseId = send(base, "POST", "/warehouses", "{\"name\":\"Training warehouse\",\"distance\":1}")
+                .get("id").asLong();
+        send(base, "PUT", "/warehouses/" + warehouseId + "/stock/" + stockedItemId, "{\"quantity\":50}");
+
+        send(base, "POST", "/orders", "{\"customerId\":" + customerId + ",\"itemId\":" + itemId + ",\"quantity\":1}");
+        send(base, "POST", "/orders", "{\"customerId\":" + customerId + ",\"itemId\":" + stockedItemId
+                + ",\"quantity\":1}");
+        send(base, "POST", "/orders/basket", "{\"customerId\":" + customerId + ",\"lines\":[{\"itemId\":" + itemId
+                + ",\"quantity\":1},{\"itemId\":" + stockedItemId + ",\"quantity\":2}]}");
+        send(base, "POST", "/inventory/adjustments", "{\"reference\":\"training\",\"lines\":[{\"itemId\":" + itemId
+                + ",\"delta\":5},{\"itemId\":" + itemId + ",\"count\":100}]}");
+
+        send(base, "GET", "/inventory", null);
+        send(base, "GET", "/customers", null);
+        send(base, "GET", "/warehouses", null);
+        send(base, "GET", "/warehouses/stock/" + stockedItemId, null);
+        send(base, "GET", "/inventory/" + itemId + "/forecast", null);
+        send(base, "GET", "/orders/" + customerId, null);
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        send(base, "GET", "/reports/sales?from=" + today + "&to=" + today + "&granularity=HOUR", null);
+    }
+
+    private JsonNode send(String base, String method, String path, String json) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher body = json == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(json);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .method(method, body)
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + path + " answered " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+}
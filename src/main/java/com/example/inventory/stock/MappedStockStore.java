@@ -0,0 +1,277 @@
+package com.example.inventory.stock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.inventory.sync.ChangeVersions;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * MappedStockStore: a copy of every item's stock in a memory-mapped file ({@link MappedStockTable}), so that
+ * InventoryService can check and take stock without loading an entity, and without the stock of millions of
+ * items taking heap.
+ *
+ * Which requests use it?
+ * - InventoryService.decreaseStockIfAvailable: basket lines (POST /orders/basket) and AsyncOrderPipeline batches.
+ *   A short item is refused by its slot, without a statement.
+ * - InventoryService.decreaseStock.
+ * - NOT single orders (POST /orders): placeOrder locks and loads the item row anyway (decreaseLockedStock), so a
+ *   slot would save nothing there. Nor warehouse-stocked items, which StockAllocationService handles. Their
+ *   slots are reloaded after the commit, like for every other stock change.
+ *
+ * How does a decrease work?
+ * 1. The units are taken from the item's slot with a compare-and-set. Too little stock: the answer is "no"
+ *    right away, without asking the database.
+ * 2. The database row gets ONE conditional UPDATE (quantity >= n) through JDBC. If it refuses, the database had
+ *    less than the slot: the slot is reloaded from it and the answer is "no".
+ *
+ * How does it survive a restart?
+ * - Every checkpoint-interval, the file is forced to disk together with the change version (see ChangeVersions)
+ *   up to which it includes every database change. On startup the slots are reused, and only the items written
+ *   after that version, plus the items with a decrease in flight at the time, are read again. A missing or
+ *   unusable file, a database that is older than the file, or an in-memory database means one full load.
+ *
+ * What to take care:
+ * - Off by default: set inventory.stock-store.type=mapped.
+ * - The database stays the source of truth. Stock changed elsewhere must call {@link #reloadAfterCommit(Long)}
+ *   (InventoryService and the order engine do); until then the slot may say too much (the UPDATE refuses) or
+ *   too little (a decrease is refused that the database could have served).
+ * - Ids at or above max-items have no slot; InventoryService uses its usual path for them.
+ * - The file belongs to one database: delete it (or point inventory.stock-store.file elsewhere) when the
+ *   database is replaced by another one with the same or higher change versions.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.stock-store", name = "type", havingValue = "mapped")
+public class MappedStockStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedStockStore.class);
+
+    private static final String TAKE_SQL = "UPDATE \"inventory-item\" SET quantity = quantity - ?, change_version = ?"
+            + " WHERE id = ? AND quantity >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired // plain SQL bypasses the entity listener; also tells which rows changed since a checkpoint
+    private ChangeVersions changeVersions;
+
+    @Value("${inventory.stock-store.file:data/stock-store.slots}")
+    private Path file = Path.of("data/stock-store.slots");
+
+    @Value("${inventory.stock-store.max-items:16777216}")
+    private int maxItems = 16_777_216;
+
+    @Value("${inventory.stock-store.checkpoint-interval:5s}")
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+
+    private MappedStockTable table;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-store-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void open() throws IOException {
+        long started = System.nanoTime();
+        table = MappedStockTable.open(file, maxItems);
+        long safeVersion = changeVersions.safeVersion();
+        long checkpointVersion = table.checkpointVersion();
+        if (table.restored() && checkpointVersion >= 0 && checkpointVersion <= safeVersion && !inMemoryDatabase()) {
+            int[] reloaded = {0};
+            table.forEachReserved(itemId -> {
+                reload(itemId);
+                table.clearReserved(itemId);
+                reloaded[0]++;
+            });
+            int changed = loadChangedSince(checkpointVersion);
+            log.info("Stock store {} reused: {} items changed since the checkpoint, {} with a decrease in flight",
+                    file, changed, reloaded[0]);
+        } else {
+            table.clear();
+            int loaded = loadAll();
+            log.info("Stock store {} loaded with {} items", file, loaded);
+        }
+        table.checkpoint(safeVersion);
+        log.info("Stock store ready in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        scheduler.scheduleWithFixedDelay(this::scheduledCheckpoint, checkpointInterval.toMillis(),
+                checkpointInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes stock of an item, in the slot and in the database (see the class comment).
+     *
+     * @param quantity must be > 0
+     * @return true if taken; false if the item is missing or has too little; null if the item has no slot (the
+     *         caller must use the entity path)
+     */
+    public Boolean decrease(Long itemId, int quantity) {
+        int left = table.take(itemId, quantity);
+        if (left == MappedStockTable.UNKNOWN && table.covers(itemId)) {
+            reload(itemId); // not loaded yet (e.g. inserted with plain SQL): load it once
+            left = table.take(itemId, quantity);
+        }
+        if (left == MappedStockTable.UNKNOWN) {
+            return null;
+        }
+        if (left < 0) {
+            return false;
+        }
+        int updated;
+        try {
+            updated = jdbcTemplate.update(TAKE_SQL, quantity, changeVersions.current(), itemId, quantity);
+        } catch (RuntimeException e) {
+            table.cancel(itemId, quantity);
+            throw e;
+        }
+        table.confirm(itemId, quantity);
+        if (updated == 0) {
+            reload(itemId); // the database had less than the slot: it is right
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadAfterRollback(itemId);
+        }
+        return true;
+    }
+
+    /**
+     * @return the units in stock as this store sees them; empty if the item is missing or has no slot
+     */
+    public OptionalInt quantity(Long itemId) {
+        int quantity = table.quantity(itemId);
+        if (quantity == MappedStockTable.UNKNOWN && table.covers(itemId)) {
+            reload(itemId);
+            quantity = table.quantity(itemId);
+        }
+        return quantity < 0 ? OptionalInt.empty() : OptionalInt.of(quantity);
+    }
+
+    /**
+     * Reads the item's stock from the database into its slot once the surrounding transaction committed
+     * (right away if there is none). Call it for every stock change that does not go through this store.
+     */
+    public void reloadAfterCommit(Long itemId) {
+        if (itemId == null || !table.covers(itemId)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload(itemId);
+            return;
+        }
+        // afterCommit runs before ChangeVersions releases the version (afterCompletion), so a checkpoint can
+        // never record a version whose change is not in the slot yet
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload(itemId);
+            }
+        });
+    }
+
+    /**
+     * Loads every item again (after the database was restored behind the application's back).
+     */
+    public synchronized void reloadAll() {
+        long safeVersion = changeVersions.safeVersion();
+        table.clear();
+        int loaded = loadAll();
+        table.checkpoint(safeVersion);
+        log.info("Stock store reloaded with {} items", loaded);
+    }
+
+    /**
+     * Forces the slots to disk and records the change version they include.
+     */
+    public synchronized void checkpoint() {
+        table.checkpoint(changeVersions.safeVersion());
+    }
+
+    private void scheduledCheckpoint() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            // The slots are still in the page cache; the next checkpoint tries again
+            log.warn("Stock store checkpoint failed", e);
+        }
+    }
+
+    private void reloadAfterRollback(Long itemId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reload(itemId); // the UPDATE was rolled back, the slot still has the units taken
+                }
+            }
+        });
+    }
+
+    /**
+     * An in-memory database is a new one on every start: the slots of the last run do not belong to it.
+     */
+    private boolean inMemoryDatabase() {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        return url != null && url.startsWith("jdbc:h2:mem:");
+    }
+
+    private void reload(long itemId) {
+        List<Integer> quantity = jdbcTemplate.queryForList("SELECT quantity FROM \"inventory-item\" WHERE id = ?",
+                Integer.class, itemId);
+        table.put(itemId, quantity.isEmpty() ? MappedStockTable.MISSING : quantity.get(0));
+    }
+
+    private int loadAll() {
+        int[] count = {0};
+        jdbcTemplate.query("SELECT id, quantity FROM \"inventory-item\"", row -> {
+            table.put(row.getLong(1), row.getInt(2));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private int loadChangedSince(long version) {
+        int[] count = {0};
+        jdbcTemplate.query("SELECT item_id FROM item_tombstones WHERE change_version > ?", row -> {
+            table.put(row.getLong(1), MappedStockTable.MISSING);
+            count[0]++;
+        }, version);
+        jdbcTemplate.query("SELECT id, quantity FROM \"inventory-item\" WHERE change_version > ?", row -> {
+            table.put(row.getLong(1), row.getInt(2));
+            count[0]++;
+        }, version);
+        return count[0];
+    }
+
+    @PreDestroy
+    void close() {
+        scheduler.shutdownNow();
+        try {
+            checkpoint();
+            table.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.inventory.stock;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Stock per item id in a memory-mapped file: one fixed-width slot per id, so the stock of millions of items
+ * lives outside the Java heap and the GC never sees it.
+ *
+ * Layout (little-endian):
+ * - Header, 64 bytes: magic, format, slot size, capacity, and the change version and time of the last
+ *   checkpoint.
+ * - Slot of item id N at 64 + N * 16, 16 bytes:
+ *   - quantity (int) and version (int), together one long, so both change in ONE compare-and-set
+ *   - reserved (long): units taken here whose database write is not confirmed yet
+ *
+ * Why VarHandles?
+ * - A VarHandle view of the mapped buffer gives compare-and-set and atomic add straight on the file's memory:
+ *   many threads can take stock from the same slot without a lock, and a lookup allocates nothing.
+ *
+ * What to take care:
+ * - A version of 0 means "never loaded" (the state of a fresh, sparse file). A loaded item that does not
+ *   exist has the quantity {@link #MISSING}.
+ * - Ids must be below the capacity, which is at most about 134M (one mapping is limited to 2 GB). Others are
+ *   simply not in the table.
+ * - Changes reach the file through the OS page cache and survive a crash of the JVM. Only {@link #checkpoint}
+ *   (force()) makes them survive a crash of the machine.
+ */
+final class MappedStockTable implements AutoCloseable {
+
+    /**
+     * Quantity of an item that is not loaded (or whose id is beyond the capacity).
+     */
+    static final int UNKNOWN = -2;
+
+    /**
+     * Quantity of an item that was loaded and does not exist.
+     */
+    static final int MISSING = -1;
+
+    /**
+     * Returned by {@link #take} when the item has fewer units than asked for.
+     */
+    static final int TOO_LITTLE = -3;
+
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 16;
+    static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+
+    private static final long MAGIC = 0x3142544B434F5453L; // "STOCKTB1"
+    private static final int FORMAT = 1;
+    private static final int FORMAT_OFFSET = 8;
+    private static final int SLOT_SIZE_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int CHECKPOINT_VERSION_OFFSET = 24;
+    private static final int CHECKPOINT_TIME_OFFSET = 32;
+    private static final int RESERVED_OFFSET = 8;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean restored;
+
+    private MappedStockTable(FileChannel channel, MappedByteBuffer buffer, int capacity, boolean restored) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.restored = restored;
+    }
+
+    /**
+     * Maps the file, reusing its slots if it was written by a table of the same format and capacity; otherwise
+     * starts it over empty (the file is sparse: ids never written take no disk space).
+     *
+     * @param capacity ids 1 .. capacity - 1 get a slot
+     */
+    static MappedStockTable open(Path file, int capacity) throws IOException {
+        if (capacity < 2 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 2 and " + MAX_CAPACITY);
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        long size = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean reuse = channel.size() == size && matches(channel, capacity);
+            if (!reuse) {
+                channel.truncate(0); // growing it again in map() gives a sparse file of zeros
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!reuse) {
+                INTS.set(buffer, FORMAT_OFFSET, FORMAT);
+                INTS.set(buffer, SLOT_SIZE_OFFSET, SLOT_SIZE);
+                LONGS.set(buffer, CAPACITY_OFFSET, (long) capacity);
+                LONGS.set(buffer, CHECKPOINT_VERSION_OFFSET, -1L);
+                buffer.force(0, HEADER_SIZE);
+                LONGS.set(buffer, 0, MAGIC); // last: a header without magic is never reused
+                buffer.force(0, HEADER_SIZE);
+            }
+            return new MappedStockTable(channel, buffer, capacity, reuse);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean matches(FileChannel channel, int capacity) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read the whole header
+        }
+        return !header.hasRemaining()
+                && (long) LONGS.get(header, 0) == MAGIC
+                && (int) INTS.get(header, FORMAT_OFFSET) == FORMAT
+                && (int) INTS.get(header, SLOT_SIZE_OFFSET) == SLOT_SIZE
+                && (long) LONGS.get(header, CAPACITY_OFFSET) == capacity;
+    }
+
+    /**
+     * @return true if the slots were reused from an earlier run (see {@link #checkpointVersion()})
+     */
+    boolean restored() {
+        return restored;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return true if the id has a slot
+     */
+    boolean covers(long itemId) {
+        return itemId > 0 && itemId < capacity;
+    }
+
+    /**
+     * @return the units in stock, {@link #MISSING} or {@link #UNKNOWN}
+     */
+    int quantity(long itemId) {
+        if (!covers(itemId)) {
+            return UNKNOWN;
+        }
+        long word = (long) LONGS.getVolatile(buffer, offset(itemId));
+        return versionOf(word) == 0 ? UNKNOWN : quantityOf(word);
+    }
+
+    /**
+     * @return how many times the slot was changed (0 = never loaded)
+     */
+    int version(long itemId) {
+        return covers(itemId) ? versionOf((long) LONGS.getVolatile(buffer, offset(itemId))) : 0;
+    }
+
+    /**
+     * Takes units if the item has enough, and counts them as reserved until {@link #confirm} or
+     * {@link #cancel}.
+     *
+     * @param units must be > 0
+     * @return the units left, or {@link #TOO_LITTLE}, {@link #MISSING} or {@link #UNKNOWN} (nothing taken)
+     */
+    int take(long itemId, int units) {
+        if (!covers(itemId)) {
+            return UNKNOWN;
+        }
+        int offset = offset(itemId);
+        // Reserved first: a crash in between leaves a slot that is reloaded, never one that silently lost units
+        LONGS.getAndAdd(buffer, offset + RESERVED_OFFSET, (long) units);
+        long word = (long) LONGS.getVolatile(buffer, offset);
+        while (true) {
+            int quantity = quantityOf(word);
+            int result = versionOf(word) == 0 ? UNKNOWN : quantity == MISSING ? MISSING
+                    : quantity < units ? TOO_LITTLE : quantity - units;
+            if (result < 0) {
+                LONGS.getAndAdd(buffer, offset + RESERVED_OFFSET, (long) -units);
+                return result;
+            }
+            long witness = (long) LONGS.compareAndExchange(buffer, offset, word, word(result, versionOf(word) + 1));
+            if (witness == word) {
+                return result;
+            }
+            word = witness; // another thread changed the slot: decide again on its value
+        }
+    }
+
+    /**
+     * The units of a {@link #take} are written to the database: they are no longer reserved.
+     */
+    void confirm(long itemId, int units) {
+        LONGS.getAndAdd(buffer, offset(itemId) + RESERVED_OFFSET, (long) -units);
+    }
+
+    /**
+     * The units of a {@link #take} could not be written: puts them back.
+     */
+    void cancel(long itemId, int units) {
+        int offset = offset(itemId);
+        long word = (long) LONGS.getVolatile(buffer, offset);
+        while (versionOf(word) != 0 && quantityOf(word) != MISSING) {
+            long witness = (long) LONGS.compareAndExchange(buffer, offset, word,
+                    word(quantityOf(word) + units, versionOf(word) + 1));
+            if (witness == word) {
+                break;
+            }
+            word = witness;
+        }
+        confirm(itemId, units);
+    }
+
+    /**
+     * Sets the stock of an item (or {@link #MISSING}). Ids beyond the capacity are ignored.
+     */
+    void put(long itemId, int quantity) {
+        if (!covers(itemId)) {
+            return;
+        }
+        int offset = offset(itemId);
+        long word = (long) LONGS.getVolatile(buffer, offset);
+        long witness;
+        while ((witness = (long) LONGS.compareAndExchange(buffer, offset, word,
+                word(quantity, versionOf(word) + 1))) != word) {
+            word = witness;
+        }
+    }
+
+    /**
+     * Calls the consumer with every item that has reserved units: after a crash, their database writes may or
+     * may not have happened.
+     */
+    void forEachReserved(LongConsumer consumer) {
+        for (long itemId = 1; itemId < capacity; itemId++) {
+            if ((long) LONGS.get(buffer, offset(itemId) + RESERVED_OFFSET) != 0) {
+                consumer.accept(itemId);
+            }
+        }
+    }
+
+    /**
+     * Sets the reserved units of an item back to 0, once its slot was reloaded from the database.
+     */
+    void clearReserved(long itemId) {
+        LONGS.setVolatile(buffer, offset(itemId) + RESERVED_OFFSET, 0L);
+    }
+
+    /**
+     * Forgets every slot (all items become {@link #UNKNOWN}) and the last checkpoint.
+     */
+    void clear() {
+        LONGS.setVolatile(buffer, CHECKPOINT_VERSION_OFFSET, -1L);
+        for (long itemId = 1; itemId < capacity; itemId++) {
+            int offset = offset(itemId);
+            if ((long) LONGS.get(buffer, offset) != 0 || (long) LONGS.get(buffer, offset + RESERVED_OFFSET) != 0) {
+                LONGS.setVolatile(buffer, offset, 0L);
+                LONGS.setVolatile(buffer, offset + RESERVED_OFFSET, 0L);
+            }
+        }
+    }
+
+    /**
+     * The change version stored by the last checkpoint: every database change up to it is in the slots.
+     * -1 if there was none.
+     */
+    long checkpointVersion() {
+        return (long) LONGS.getVolatile(buffer, CHECKPOINT_VERSION_OFFSET);
+    }
+
+    long checkpointTime() {
+        return (long) LONGS.getVolatile(buffer, CHECKPOINT_TIME_OFFSET);
+    }
+
+    /**
+     * Writes every changed slot to the disk, then records the change version they include.
+     *
+     * @param changeVersion every database change up to this version is in the slots already
+     */
+    void checkpoint(long changeVersion) {
+        buffer.force(); // the slots first: the header must never promise more than the disk holds
+        LONGS.setVolatile(buffer, CHECKPOINT_VERSION_OFFSET, changeVersion);
+        LONGS.setVolatile(buffer, CHECKPOINT_TIME_OFFSET, System.currentTimeMillis());
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Closes the file. The mapping itself is released by the GC (Java cannot unmap a buffer explicitly).
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int offset(long itemId) {
+        return HEADER_SIZE + (int) itemId * SLOT_SIZE;
+    }
+
+    private static int quantityOf(long word) {
+        return (int) word;
+    }
+
+    private static int versionOf(long word) {
+        return (int) (word >>> 32);
+    }
+
+    private static long word(int quantity, int version) {
+        // A version that wraps around skips 0, which would mean "never loaded"
+        int next = version == 0 ? 1 : version;
+        return (long) next << 32 | (quantity & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.inventory.sync;
+
+import java.util.List;
+
+/**
+ * Answer of GET /inventory/changes and GET /customers/changes.
+ *
+ * How a client uses it:
+ * 1. First time: ask with since=0 (or without since); with fullResync=true, replace the local copy with "changed".
+ * 2. Store "version" and send it as since next time; apply "changed" (insert or overwrite by id) and remove
+ *    the ids in "deleted".
+ *
+ * @param version    send this as "since" next time
+ * @param fullResync true if "since" was older than the compaction horizon (or 0): "changed" then holds
+ *                   every row, and local rows missing from it must be dropped
+ * @param changed    rows inserted or updated after "since", sorted by id
+ * @param deleted    ids of rows deleted after "since" (always empty for a full resync)
+ */
+public record ChangeSet<T>(long version, boolean fullResync, List<T> changed, List<Long> deleted) {
+}
@@ -0,0 +1,26 @@
+package com.example.inventory.sync;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.inventory.entity.ChangeVersioned;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * JPA entity listener: stamps the transaction's change version on every insert and update of a
+ * {@link ChangeVersioned} entity, so no service has to remember it.
+ *
+ * Hibernate creates this listener through Spring, which is why it can have @Autowired fields.
+ */
+public class ChangeVersionListener {
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @PrePersist
+    @PreUpdate
+    void stamp(Object entity) {
+        ((ChangeVersioned) entity).setChangeVersion(changeVersions.current());
+    }
+}
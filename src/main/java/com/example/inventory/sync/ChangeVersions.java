@@ -0,0 +1,109 @@
+package com.example.inventory.sync;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out change versions: one increasing number per writing transaction, stored on every row it writes.
+ *
+ * Why per transaction, and why not a database sequence?
+ * - A reader asking "changed since N" must never skip a row. With versions handed out first and committed
+ *   later, version 7 can commit after version 8 has been read. So we also track which versions are still
+ *   in flight, and {@link #safeVersion()} only promises versions below the oldest of them.
+ * - Every row written in one transaction shares its version, so a batch of 1000 rows is still one step.
+ *
+ * What to take care:
+ * - The counter continues from the highest version in the database (read on first use, i.e. after a
+ *   snapshot restore). It lives in this JVM: several application instances on one database need a
+ *   shared sequence instead.
+ * - Rows changed with plain SQL must set change_version = {@link #current()} themselves.
+ */
+@Component
+public class ChangeVersions {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private long last = -1; // -1: not read from the database yet; guarded by "this"
+
+    /**
+     * @return the change version of the current transaction (the same number for every call within it),
+     *         or a fresh one if there is no transaction
+     */
+    public long current() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                if (last < 0) {
+                    last = highestStored();
+                }
+                return ++last;
+            }
+        }
+        Long bound = (Long) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            return bound;
+        }
+        long version;
+        synchronized (this) { // allocate and mark in flight in one step, so safeVersion() never passes it
+            if (last < 0) {
+                last = highestStored();
+            }
+            version = ++last;
+            inFlight.add(version);
+        }
+        TransactionSynchronizationManager.bindResource(this, version);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(ChangeVersions.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(ChangeVersions.this, version);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeVersions.this);
+                inFlight.remove(version);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * @return the highest version up to which every write is finished: rows with a version at or below it
+     *         will not change without getting a new, higher version
+     */
+    public synchronized long safeVersion() {
+        if (last < 0) {
+            last = highestStored();
+        }
+        return inFlight.isEmpty() ? last : inFlight.first() - 1;
+    }
+
+    /**
+     * Continues after the highest version in the database, for rows written behind this class's back after it
+     * was first used (a write-ahead log replay at startup).
+     */
+    public synchronized void catchUp() {
+        if (last >= 0) {
+            last = Math.max(last, highestStored());
+        }
+    }
+
+    private long highestStored() {
+        Long highest = jdbcTemplate.queryForObject("SELECT GREATEST("
+                + "(SELECT COALESCE(MAX(change_version), 0) FROM \"inventory-item\"), "
+                + "(SELECT COALESCE(MAX(change_version), 0) FROM customers), "
+                + "(SELECT COALESCE(MAX(change_version), 0) FROM item_tombstones))", Long.class);
+        return highest == null ? 0 : highest;
+    }
+}
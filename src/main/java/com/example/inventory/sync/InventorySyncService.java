@@ -0,0 +1,186 @@
+package com.example.inventory.sync;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.ItemTombstoneRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delta sync: lets clients that mirror the catalog (POS, mobile apps) download only what changed.
+ *
+ * How does it work?
+ * - Every write stamps a change version on its rows (see {@link ChangeVersions}); deleted items leave a
+ *   tombstone with the version of the deletion.
+ * - "Changed since N" is then a range query on the indexed change_version column, up to
+ *   {@link ChangeVersions#safeVersion()}, so rows still being written are picked up by the next call.
+ *
+ * Compaction:
+ * - Tombstones older than inventory.sync.tombstone-retention are deleted periodically. The highest deleted
+ *   version becomes the "horizon": a client asking for changes since an older version might miss deletions,
+ *   so it gets a full resync instead.
+ *
+ * What to take care:
+ * - The horizon is kept in memory. At startup it conservatively starts at the oldest remaining tombstone
+ *   (or the current version if there are none), so some clients do one extra full resync after a restart.
+ * - Reads run on the primary pool, not the replica: a lagging replica could hide rows below the version
+ *   we hand out, and the client would never ask for them again.
+ */
+@Service
+public class InventorySyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySyncService.class);
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ItemTombstoneRepository itemTombstoneRepository;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.sync.tombstone-retention:7d}")
+    private Duration tombstoneRetention = Duration.ofDays(7);
+
+    @Value("${inventory.sync.compaction-interval:1h}")
+    private Duration compactionInterval = Duration.ofHours(1);
+
+    private volatile long horizon = -1; // -1: not known yet, worked out on first use
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sync-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        if (!compactionInterval.isZero()) {
+            scheduler.scheduleWithFixedDelay(this::scheduledCompaction, compactionInterval.toMillis(),
+                    compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Works out the horizon once the application is up (after a snapshot restore), before clients ask.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void initHorizon() {
+        horizon();
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduledCompaction() {
+        try {
+            compactTombstones(Instant.now().minus(tombstoneRetention));
+        } catch (RuntimeException e) {
+            // Nothing is lost: the tombstones stay and the next run tries again
+            log.warn("Tombstone compaction failed", e);
+        }
+    }
+
+    /**
+     * Items changed and deleted after the given version (see {@link ChangeSet} for how to apply it).
+     */
+    @Transactional // not readOnly: must read from the primary, see class comment
+    public ChangeSet<InventoryItem> itemChangesSince(long since) {
+        long oldestDelta = horizon();
+        long version = changeVersions.safeVersion();
+        if (needsFullResync(since, version) || since < oldestDelta) {
+            return new ChangeSet<>(version, true, inventoryItemRepository.findChangedBetween(-1, version), List.of());
+        }
+        if (since == version) {
+            return new ChangeSet<>(version, false, List.of(), List.of());
+        }
+        return new ChangeSet<>(version, false, inventoryItemRepository.findChangedBetween(since, version),
+                itemTombstoneRepository.findItemIdsDeletedBetween(since, version));
+    }
+
+    /**
+     * Customers changed after the given version. Customers are never deleted, so "deleted" is always empty.
+     */
+    @Transactional
+    public ChangeSet<Customer> customerChangesSince(long since) {
+        long version = changeVersions.safeVersion();
+        boolean fullResync = needsFullResync(since, version);
+        return new ChangeSet<>(version, fullResync,
+                customerRepository.findChangedBetween(fullResync ? -1 : since, version), List.of());
+    }
+
+    /**
+     * A first sync (since <= 0), or a version we never handed out (the database was reset, e.g. an in-memory
+     * database after a restart): the client's copy cannot be patched, it has to be replaced.
+     */
+    private static boolean needsFullResync(long since, long version) {
+        return since <= 0 || since > version;
+    }
+
+    /**
+     * Deletes the tombstones of items deleted before the cutoff and moves the horizon past them.
+     *
+     * @return how many tombstones were deleted
+     */
+    public int compactTombstones(Instant cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            Long highest = itemTombstoneRepository.findHighestVersionDeletedBefore(cutoff);
+            if (highest == null) {
+                return 0;
+            }
+            // Horizon first: a reader between here and the commit is sent to a full resync, never misses a deletion
+            horizon = Math.max(horizon(), highest);
+            return itemTombstoneRepository.deleteUpToVersion(highest);
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("Compacted {} item tombstones, sync horizon is now version {}", deleted, horizon);
+        }
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * @return the oldest "since" that still gets a delta; anything older needs a full resync
+     */
+    long horizon() {
+        long known = horizon;
+        if (known >= 0) {
+            return known;
+        }
+        synchronized (this) {
+            if (horizon < 0) {
+                Long lowest = itemTombstoneRepository.findLowestVersion();
+                horizon = lowest != null ? lowest - 1 : changeVersions.safeVersion();
+            }
+            return horizon;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.inventory.timing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate calls this around every JDBC statement it executes; we add the time to the current request.
+ *
+ * Why a Hibernate listener and not a wrapped DataSource?
+ * - Every query of this application goes through Hibernate (repositories, JPQL, @Modifying updates), and
+ *   Hibernate already announces each execution. Wrapping the pool would change the DataSource bean's type,
+ *   which Spring Boot's pool metrics and our read-replica routing rely on.
+ *
+ * What to take care:
+ * - Hibernate creates one instance per session (hibernate.session.events.auto), so it keeps no state.
+ * - A JDBC batch counts as one statement: it is one round trip to the database.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementFinished(false);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementFinished(true);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.inventory.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Where the time of ONE web request went: controller code, service code, and JDBC statements.
+ *
+ * How is it filled?
+ * - ServerTimingFilter creates one per request and binds it to the request thread (a ThreadLocal).
+ * - RequestTimingAspect adds controller and service time; JdbcTimingListener and SqlCapturingInspector
+ *   (both plugged into Hibernate) add one entry per statement.
+ *
+ * Why a ThreadLocal and not a request attribute?
+ * - Hibernate calls its listeners deep inside a repository call, where no request object is around.
+ *   A servlet request is handled on one thread from start to end, so the thread identifies the request.
+ *
+ * What to take care:
+ * - Statements run on other threads (background rebuilds, schedulers) belong to no request and are ignored.
+ * - Controller time includes service time, and service time includes DB time: they are nested, not added up.
+ */
+public final class RequestTimings {
+
+    /**
+     * Only the first statements are kept with their SQL, for the slow request log; all are counted.
+     */
+    static final int MAX_RECORDED_STATEMENTS = 20;
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    /**
+     * One executed JDBC statement (or batch) and how long it took.
+     */
+    public record StatementTiming(String sql, long nanos, boolean batch) {
+    }
+
+    private final long startNanos = System.nanoTime();
+
+    private int statements;
+    private long dbNanos;
+    private long statementStartNanos;
+    private String preparedSql;
+    private final List<StatementTiming> recorded = new ArrayList<>();
+
+    private long controllerNanos;
+    private long serviceNanos;
+    private int controllerDepth;
+    private int serviceDepth;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Starts collecting for the request running on this thread.
+     */
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the timings of the request running on this thread, or null outside a web request
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    // --- JDBC (called by the Hibernate plug-ins) ---
+
+    void statementPrepared(String sql) {
+        preparedSql = sql;
+    }
+
+    void statementStarted() {
+        statementStartNanos = System.nanoTime();
+    }
+
+    void statementFinished(boolean batch) {
+        long nanos = System.nanoTime() - statementStartNanos;
+        statements++;
+        dbNanos += nanos;
+        if (recorded.size() < MAX_RECORDED_STATEMENTS) {
+            recorded.add(new StatementTiming(preparedSql, nanos, batch));
+        }
+    }
+
+    // --- controller and service code (called by RequestTimingAspect) ---
+
+    /**
+     * @return true for the outermost controller call; only that one's duration is added
+     */
+    boolean enterController() {
+        return controllerDepth++ == 0;
+    }
+
+    void exitController(boolean outermost, long nanos) {
+        controllerDepth--;
+        if (outermost) {
+            controllerNanos += nanos;
+        }
+    }
+
+    /**
+     * @return true for the outermost service call (OrderService calling InventoryService counts once)
+     */
+    boolean enterService() {
+        return serviceDepth++ == 0;
+    }
+
+    void exitService(boolean outermost, long nanos) {
+        serviceDepth--;
+        if (outermost) {
+            serviceNanos += nanos;
+        }
+    }
+
+    // --- results ---
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public long getControllerNanos() {
+        return controllerNanos;
+    }
+
+    public long getServiceNanos() {
+        return serviceNanos;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public List<StatementTiming> getRecordedStatements() {
+        return List.copyOf(recorded);
+    }
+
+    /**
+     * The Server-Timing header value, e.g.
+     * {@code total;dur=12.4, controller;dur=10.2, service;dur=9.8, db;dur=4.1;desc="3 statements"}.
+     * Browsers show it in the network tab next to their own timings.
+     */
+    public String serverTimingHeader() {
+        return String.format(Locale.ROOT,
+                "total;dur=%.1f, controller;dur=%.1f, service;dur=%.1f, db;dur=%.1f;desc=\"%d statements\"",
+                millis(elapsedNanos()), millis(controllerNanos), millis(serviceNanos), millis(dbNanos), statements);
+    }
+
+    /**
+     * One line for the logs, e.g. "12.4 ms total, controller 10.2 ms, service 9.8 ms, db 4.1 ms in 3 statements".
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, "%.1f ms total, controller %.1f ms, service %.1f ms, db %.1f ms in %d statements",
+                millis(elapsedNanos()), millis(controllerNanos), millis(serviceNanos), millis(dbNanos), statements);
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.inventory.timing;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet filter that collects {@link RequestTimings} for every request and reports them.
+ *
+ * Where do the numbers go?
+ * - Server-Timing response header: set by ServerTimingResponseAdvice just before the body is written (a header
+ *   cannot be added once the body has started), or here for requests without a body.
+ * - DEBUG log line per request (logging.level.com.example.inventory.timing=DEBUG).
+ * - WARN "slow request" log with every statement's SQL and duration, when a request takes longer than
+ *   inventory.request-timing.slow-threshold.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean header;
+    private final long slowThresholdNanos;
+
+    public ServerTimingFilter(boolean header, Duration slowThreshold) {
+        this.header = header;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTimings.end();
+            if (header && !response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timings.serverTimingHeader());
+            }
+            report(request, response, timings);
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        long elapsed = timings.elapsedNanos();
+        if (elapsed >= slowThresholdNanos) {
+            StringBuilder breakdown = new StringBuilder();
+            for (RequestTimings.StatementTiming statement : timings.getRecordedStatements()) {
+                breakdown.append(String.format("%n  %8.2f ms %s%s", RequestTimings.millis(statement.nanos()),
+                        statement.batch() ? "[batch] " : "", statement.sql()));
+            }
+            if (timings.getStatements() > RequestTimings.MAX_RECORDED_STATEMENTS) {
+                breakdown.append(String.format("%n  ... %d more statements",
+                        timings.getStatements() - RequestTimings.MAX_RECORDED_STATEMENTS));
+            }
+            log.warn("Slow request {} {} -> {}: {}{}", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), timings.summary(), breakdown);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {} -> {}: {}", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    timings.summary());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.inventory.timing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the Server-Timing header right before a controller's response body is written.
+ *
+ * Why here and not in the filter?
+ * - Once the body starts streaming (a large GET /inventory does at once), headers are already sent. This is
+ *   the last moment all controller, service and DB work is done but the headers can still change.
+ * - Without the filter (inventory.request-timing.enabled=false) there are no timings and nothing is added.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "inventory.request-timing", name = "header", havingValue = "true", matchIfMissing = true)
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            response.getHeaders().set(ServerTimingFilter.HEADER, timings.serverTimingHeader());
+        }
+        return body;
+    }
+}
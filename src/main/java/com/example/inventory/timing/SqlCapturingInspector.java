@@ -0,0 +1,19 @@
+package com.example.inventory.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the SQL of the statement Hibernate is about to prepare, so the slow request log can show which
+ * statements the time went to. The SQL itself is passed on unchanged.
+ */
+public class SqlCapturingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.inventory.wal;
+
+/**
+ * The tables whose rows go into the write-ahead log, with the code that stands for them in a frame.
+ *
+ * What to take care:
+ * - The codes are in the log files: never change or reuse one. A new table gets a new code.
+ */
+enum LoggedTable {
+
+    CUSTOMERS(1, "customers"),
+    ITEMS(2, "\"inventory-item\""),
+    ORDERS(3, "orders"),
+    ORDER_LINES(4, "order_lines"),
+    ITEM_TOMBSTONES(5, "item_tombstones"),
+    WAREHOUSES(6, "warehouses"),
+    STOCK_LOCATIONS(7, "stock_locations");
+
+    private final byte code;
+    private final String sqlName;
+
+    LoggedTable(int code, String sqlName) {
+        this.code = (byte) code;
+        this.sqlName = sqlName;
+    }
+
+    byte code() {
+        return code;
+    }
+
+    /**
+     * @return the table name as it is written in SQL (quoted where it has to be)
+     */
+    String sqlName() {
+        return sqlName;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no table has this code
+     */
+    static LoggedTable fromCode(byte code) {
+        for (LoggedTable table : values()) {
+            if (table.code == code) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Unknown table code in write-ahead log: " + code);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.inventory.wal;
+
+import java.util.List;
+
+/**
+ * One row as a transaction left it: every column with its value, or "deleted".
+ *
+ * Why whole rows and not "quantity - 3"?
+ * - Applying a row image twice gives the same result as applying it once. Recovery can therefore replay from
+ *   any point at or before the last checkpoint without knowing exactly which changes the snapshot already has.
+ *
+ * @param columns column names as the database reports them; empty for a deleted row
+ * @param values  one value per column (null, Long, Double, String, Boolean, BigDecimal, Timestamp or
+ *                OffsetDateTime); empty for a deleted row
+ */
+record RowImage(LoggedTable table, long id, List<String> columns, List<Object> values) {
+
+    static RowImage deleted(LoggedTable table, long id) {
+        return new RowImage(table, id, List.of(), List.of());
+    }
+
+    boolean isDeleted() {
+        return columns.isEmpty();
+    }
+}
@@ -0,0 +1,578 @@
+package com.example.inventory.wal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.inventory.forecast.DemandForecastService;
+import com.example.inventory.report.SalesReportService;
+import com.example.inventory.service.InventoryCatalogCache;
+import com.example.inventory.stock.MappedStockStore;
+import com.example.inventory.sync.ChangeVersions;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * StockEventLog: a write-ahead log of the rows that stock, order and customer changes write, so that the
+ * in-memory database loses nothing a client was told about, also between two snapshots.
+ *
+ * How does a transaction get logged?
+ * 1. Services say which rows they changed: InventoryService, OrderService, the order engine, CustomerService,
+ *    WarehouseService and StockAllocationService call {@link #itemChanged}, {@link #orderChanged},
+ *    {@link #itemLocationsChanged} and so on.
+ * 2. Just before the transaction commits, its rows are flushed, read back (one SELECT per table) and appended
+ *    as ONE frame while the transaction still holds its row locks, so two transactions that change the same row
+ *    append in the order they commit. Whole rows, not differences: see RowImage.
+ * 3. After the commit the caller waits until the frame is on disk (see WalDurability), then answers. The wait
+ *    starts once the transaction has given its connection back (see WalTransactionConfig).
+ *    Called outside a transaction, a short one is started that locks the row and logs it.
+ *
+ * How does it come back?
+ * - At startup, after the snapshot restore (DatabaseSnapshotService), every frame since the last checkpoint
+ *   is applied with MERGE / DELETE, then the id counters, change versions and caches catch up.
+ * - Every database snapshot is a checkpoint: it records the LSN below which every logged transaction had
+ *   finished before the snapshot read the tables. Segments that only hold older frames are deleted.
+ *
+ * What to take care:
+ * - Off by default: inventory.wal.enabled=true. Meant for the in-memory database with snapshots on: without
+ *   snapshots there is no checkpoint and the log only grows. A file-backed database (the "persistent" profile)
+ *   is durable on its own and does not need it.
+ * - Only changes made through the services above are logged. The archiver's deletes and other plain SQL are
+ *   not. An item's warehouse stock rows are logged with every change of its total quantity, so after a replay
+ *   the total is still the sum over its warehouses.
+ * - If a frame cannot be forced, the caller gets an error although its transaction committed: the change is in
+ *   the database, but may not survive a machine crash.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.wal", name = "enabled", havingValue = "true")
+public class StockEventLog implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StockEventLog.class);
+
+    /**
+     * Most ids in one "WHERE id IN (...)".
+     */
+    private static final int IDS_PER_QUERY = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired // For changes made outside a transaction: a short one locks the row and logs it
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext // Pending entity changes are flushed before the rows are read back
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired // After a replay, like after a snapshot restore: nothing cached before may be trusted
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private InventoryCatalogCache catalogCache;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private DemandForecastService demandForecastService;
+
+    @Autowired(required = false) // Only with inventory.stock-store.type=mapped: loaded before the replay
+    private MappedStockStore mappedStockStore;
+
+    @Value("${inventory.wal.dir:data/wal}")
+    private Path directory = Path.of("data/wal");
+
+    @Value("${inventory.wal.durability:group}")
+    private WalDurability durability = WalDurability.GROUP;
+
+    @Value("${inventory.wal.group-window:0ms}")
+    private Duration groupWindow = Duration.ZERO;
+
+    @Value("${inventory.wal.async-interval:1s}")
+    private Duration asyncInterval = Duration.ofSeconds(1);
+
+    @Value("${inventory.wal.segment-size:64MB}")
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private WriteAheadLog wal;
+
+    /**
+     * True when the transaction manager calls {@link #awaitCommitted()} after releasing the connection; otherwise
+     * a committed transaction waits in afterCommit, still holding it.
+     */
+    private boolean awaitAfterRelease;
+
+    /**
+     * Highest LSN this thread committed and has not waited for yet.
+     */
+    private final ThreadLocal<Long> committedLsn = new ThreadLocal<>();
+
+    /**
+     * LSNs of frames whose transaction has not finished yet; a checkpoint must not pass the oldest.
+     */
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    /**
+     * Appending and marking in flight happen under the read lock, so {@link #checkpointStart()} (write lock)
+     * never sees a frame that is appended but not marked yet.
+     */
+    private final ReadWriteLock appendLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void open() throws IOException {
+        wal = WriteAheadLog.open(directory, segmentSize.toBytes(), durability, groupWindow, asyncInterval);
+        if (transactionTemplate.getTransactionManager()
+                instanceof WalTransactionConfig.DurableCommitTransactionManager transactionManager) {
+            transactionManager.attach(this);
+            awaitAfterRelease = true;
+        }
+        log.info("Write-ahead log {} open ({} durability)", directory, durability.name().toLowerCase());
+    }
+
+    /**
+     * The item row (or its deletion) is logged with the current transaction.
+     */
+    public void itemChanged(Long itemId) {
+        changed(LoggedTable.ITEMS, itemId);
+    }
+
+    public void itemsChanged(Collection<Long> itemIds) {
+        itemIds.forEach(this::itemChanged);
+    }
+
+    /**
+     * The order row and its lines are logged with the current transaction.
+     */
+    public void orderChanged(Long orderId) {
+        changed(LoggedTable.ORDERS, orderId);
+    }
+
+    public void customerChanged(Long customerId) {
+        changed(LoggedTable.CUSTOMERS, customerId);
+    }
+
+    public void tombstoneChanged(Long tombstoneId) {
+        changed(LoggedTable.ITEM_TOMBSTONES, tombstoneId);
+    }
+
+    public void warehouseChanged(Long warehouseId) {
+        changed(LoggedTable.WAREHOUSES, warehouseId);
+    }
+
+    /**
+     * The item's warehouse stock rows are logged with the current transaction: the ones it has now and the ones
+     * it has at commit, so a row added or deleted in between is logged too. Call it before deleting rows.
+     */
+    public void itemLocationsChanged(Long itemId) {
+        if (itemId == null) {
+            return;
+        }
+        String sql = "SELECT id FROM " + LoggedTable.STOCK_LOCATIONS.sqlName() + " WHERE item_id = ?";
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query(sql + " FOR UPDATE", row -> {
+                }, itemId);
+                itemLocationsChanged(itemId);
+            });
+            return;
+        }
+        PendingRows pending = pending();
+        Set<Long> ids = pending.ids.computeIfAbsent(LoggedTable.STOCK_LOCATIONS, key -> new LinkedHashSet<>());
+        jdbcTemplate.query(sql, row -> {
+            ids.add(row.getLong(1));
+        }, itemId);
+        pending.locationItemIds.add(itemId);
+    }
+
+    private void changed(LoggedTable table, Long id) {
+        if (id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The lock makes concurrent writers of this row log in the order they read it
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query("SELECT id FROM " + table.sqlName() + " WHERE id = ? FOR UPDATE", row -> {
+                }, id);
+                changed(table, id);
+            });
+            return;
+        }
+        pending().ids.computeIfAbsent(table, key -> new LinkedHashSet<>()).add(id);
+    }
+
+    /**
+     * @return the rows pending in the current transaction, registered for logging on first use
+     */
+    private PendingRows pending() {
+        PendingRows pending = (PendingRows) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRows();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new LoggingSynchronization(pending));
+        }
+        return pending;
+    }
+
+    /**
+     * Replays the log, once every bean is created (so after the snapshot restore) and before the web server
+     * takes requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        long from = wal.checkpointLsn();
+        int[] counts = {0, 0}; // transactions, rows
+        Map<LoggedTable, Long> highestIds = new EnumMap<>(LoggedTable.class); // deleted rows count too
+        try {
+            Set<Long> aborted = new HashSet<>();
+            wal.forEachFrame(from, (lsn, payload) -> {
+                if (WalFrames.kind(payload) == WalFrames.ABORT) {
+                    aborted.add(WalFrames.abortedLsn(payload));
+                }
+            });
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                boolean autoCommit = connection.getAutoCommit();
+                Map<String, PreparedStatement> statements = new HashMap<>();
+                // Rows of one table may point at rows logged later (the end state is consistent), like a restore
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                try {
+                    connection.setAutoCommit(false);
+                    wal.forEachFrame(from, (lsn, payload) -> {
+                        if (WalFrames.kind(payload) != WalFrames.TRANSACTION || aborted.contains(lsn)) {
+                            return;
+                        }
+                        for (RowImage row : WalFrames.rows(payload)) {
+                            apply(connection, statements, row);
+                            highestIds.merge(row.table(), row.id(), Math::max);
+                            counts[1]++;
+                        }
+                        counts[0]++;
+                    });
+                    connection.commit();
+                } finally {
+                    for (PreparedStatement prepared : statements.values()) {
+                        prepared.close();
+                    }
+                    connection.setAutoCommit(autoCommit);
+                    statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+                for (Map.Entry<LoggedTable, Long> highest : highestIds.entrySet()) {
+                    restartIdentity(statement, highest.getKey().sqlName(), highest.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the write-ahead log in " + directory, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not replay the write-ahead log in " + directory, e);
+        }
+        if (counts[0] > 0) {
+            changeVersions.catchUp();
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            salesReportService.clearCache();
+            demandForecastService.reset();
+            catalogCache.markDirty();
+            if (mappedStockStore != null) {
+                mappedStockStore.reloadAll();
+            }
+        }
+        log.info("Replayed {} transactions ({} rows) from the write-ahead log in {} ms", counts[0], counts[1],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Call right before a snapshot starts reading the tables.
+     *
+     * @return the LSN to hand to {@link #checkpointed(long)} once that snapshot is complete: every transaction
+     *         logged below it has finished, so the snapshot sees its rows
+     */
+    public long checkpointStart() {
+        appendLock.writeLock().lock();
+        try {
+            return inFlight.isEmpty() ? wal.end() : inFlight.first();
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A snapshot that started after {@link #checkpointStart()} returned this LSN is complete: recovery starts
+     * there from now on, and older segments are deleted.
+     */
+    public void checkpointed(long lsn) {
+        try {
+            wal.checkpoint(lsn);
+        } catch (IOException e) {
+            // The older checkpoint stays: recovery just replays more
+            log.warn("Could not record write-ahead log checkpoint {}", lsn, e);
+        }
+    }
+
+    /**
+     * Waits until the frames of the transactions this thread committed are on disk. Called by the transaction
+     * manager once the transaction has released its connection.
+     *
+     * @throws UncheckedIOException if the log could not be forced: committed, but maybe not on disk
+     */
+    void awaitCommitted() {
+        Long lsn = committedLsn.get();
+        if (lsn == null) {
+            return;
+        }
+        committedLsn.remove();
+        awaitDurable(lsn);
+    }
+
+    private void awaitDurable(long lsn) {
+        try {
+            wal.awaitDurable(lsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Committed, but the write-ahead log could not be forced", e);
+        }
+    }
+
+    public WalStats stats() {
+        return wal.stats();
+    }
+
+    public WalDurability durability() {
+        return durability;
+    }
+
+    /**
+     * Reads the pending rows back, as they are about to be committed.
+     */
+    private List<RowImage> readRows(PendingRows pending) {
+        if (!pending.locationItemIds.isEmpty()) { // rows added since itemLocationsChanged
+            Set<Long> locationIds = pending.ids.get(LoggedTable.STOCK_LOCATIONS);
+            List<Long> itemIds = new ArrayList<>(pending.locationItemIds);
+            for (int from = 0; from < itemIds.size(); from += IDS_PER_QUERY) {
+                List<Long> chunk = itemIds.subList(from, Math.min(itemIds.size(), from + IDS_PER_QUERY));
+                jdbcTemplate.query("SELECT id FROM " + LoggedTable.STOCK_LOCATIONS.sqlName() + " WHERE item_id IN ("
+                        + placeholders(chunk.size()) + ")", row -> {
+                            locationIds.add(row.getLong(1));
+                        }, chunk.toArray());
+            }
+        }
+        List<RowImage> rows = new ArrayList<>();
+        pending.ids.forEach((table, tableIds) -> { // EnumMap: referenced tables come first
+            List<Long> all = new ArrayList<>(tableIds);
+            Set<Long> found = new HashSet<>();
+            for (int from = 0; from < all.size(); from += IDS_PER_QUERY) {
+                List<Long> chunk = all.subList(from, Math.min(all.size(), from + IDS_PER_QUERY));
+                jdbcTemplate.query("SELECT * FROM " + table.sqlName() + " WHERE id IN (" + placeholders(chunk.size())
+                        + ")", result -> {
+                            RowImage row = image(table, result);
+                            found.add(row.id());
+                            rows.add(row);
+                        }, chunk.toArray());
+                if (table == LoggedTable.ORDERS) {
+                    jdbcTemplate.query("SELECT * FROM " + LoggedTable.ORDER_LINES.sqlName() + " WHERE order_id IN ("
+                            + placeholders(chunk.size()) + ")", result -> {
+                                rows.add(image(LoggedTable.ORDER_LINES, result));
+                            }, chunk.toArray());
+                }
+            }
+            for (Long id : all) {
+                if (!found.contains(id)) {
+                    rows.add(RowImage.deleted(table, id));
+                }
+            }
+        });
+        return rows;
+    }
+
+    private static RowImage image(LoggedTable table, ResultSet result) throws SQLException {
+        ResultSetMetaData metaData = result.getMetaData();
+        List<String> columns = new ArrayList<>(metaData.getColumnCount());
+        List<Object> values = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnLabel(i));
+            values.add(result.getObject(i));
+        }
+        return new RowImage(table, result.getLong("id"), columns, values);
+    }
+
+    private static void apply(Connection connection, Map<String, PreparedStatement> statements, RowImage row) {
+        try {
+            if (row.isDeleted()) {
+                PreparedStatement delete = prepare(connection, statements,
+                        "DELETE FROM " + row.table().sqlName() + " WHERE id = ?");
+                delete.setLong(1, row.id());
+                delete.executeUpdate();
+                return;
+            }
+            StringBuilder columns = new StringBuilder();
+            for (String column : row.columns()) {
+                columns.append(columns.isEmpty() ? "" : ", ")
+                        .append('"').append(column.replace("\"", "\"\"")).append('"');
+            }
+            PreparedStatement merge = prepare(connection, statements, "MERGE INTO " + row.table().sqlName() + " ("
+                    + columns + ") KEY (id) VALUES (" + placeholders(row.columns().size()) + ")");
+            for (int i = 0; i < row.values().size(); i++) {
+                merge.setObject(i + 1, row.values().get(i));
+            }
+            merge.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not replay " + row.table() + " row " + row.id(), e);
+        }
+    }
+
+    private static PreparedStatement prepare(Connection connection, Map<String, PreparedStatement> statements,
+            String sql) throws SQLException {
+        PreparedStatement prepared = statements.get(sql);
+        if (prepared == null) {
+            prepared = connection.prepareStatement(sql);
+            statements.put(sql, prepared);
+        }
+        return prepared;
+    }
+
+    /**
+     * Moves the id counter past the highest replayed id, so new rows do not collide with replayed ones, nor take
+     * the id of a replayed deletion (mirrors have seen its tombstone).
+     */
+    private static void restartIdentity(Statement statement, String table, long highestLogged) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            long next = Math.max(result.getLong(1), highestLogged) + 1;
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        WalStats stats = wal.stats();
+        wal.close();
+        log.info("Write-ahead log closed: {} frames, {} fsyncs", stats.frames(), stats.fsyncs());
+    }
+
+    /**
+     * The rows one transaction changed, bound to it while it runs.
+     */
+    private static final class PendingRows {
+        final Map<LoggedTable, Set<Long>> ids = new EnumMap<>(LoggedTable.class);
+        /**
+         * Items whose stock_locations rows are read again at commit, for the rows added since.
+         */
+        final Set<Long> locationItemIds = new LinkedHashSet<>();
+        long lsn = -1;
+    }
+
+    private final class LoggingSynchronization implements TransactionSynchronization {
+
+        private final PendingRows pending;
+
+        LoggingSynchronization(PendingRows pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(StockEventLog.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(StockEventLog.this, pending);
+        }
+
+        /**
+         * Appends the frame. A failure here rolls the transaction back: what cannot be logged is not committed.
+         */
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush(); // Hibernate would flush at commit, after us: the SELECTs must see the changes
+            byte[] frame = WalFrames.transaction(readRows(pending));
+            appendLock.readLock().lock();
+            try {
+                pending.lsn = wal.append(frame);
+                inFlight.add(pending.lsn);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the write-ahead log", e);
+            } finally {
+                appendLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (pending.lsn < 0) {
+                return;
+            }
+            if (awaitAfterRelease) {
+                Long earlier = committedLsn.get(); // an inner transaction's, waited for with the outer one
+                committedLsn.set(earlier == null ? pending.lsn : Math.max(earlier, pending.lsn));
+            } else {
+                awaitDurable(pending.lsn);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockEventLog.this);
+            if (pending.lsn < 0) {
+                return;
+            }
+            try {
+                if (status != STATUS_COMMITTED) {
+                    wal.append(WalFrames.abort(pending.lsn)); // the frame went in before the commit failed
+                }
+            } catch (IOException e) {
+                log.warn("Could not log the rollback of write-ahead log frame {}", pending.lsn, e);
+            } finally {
+                inFlight.remove(pending.lsn);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.inventory.wal;
+
+/**
+ * When a transaction's frame in the write-ahead log counts as written (inventory.wal.durability).
+ */
+public enum WalDurability {
+
+    /**
+     * Every frame is forced to disk on its own before its transaction answers: one fsync per transaction.
+     */
+    SYNC,
+
+    /**
+     * Transactions wait for a shared fsync: the flusher forces every frame written so far at once, and the ones
+     * written meanwhile with the next fsync. Survives a crash like SYNC, with far fewer fsyncs under load.
+     */
+    GROUP,
+
+    /**
+     * Transactions do not wait: the flusher forces the log every async-interval. A machine crash loses up to
+     * that much; a crash of the JVM alone loses nothing (the frames are in the OS page cache).
+     */
+    ASYNC
+}
@@ -0,0 +1,174 @@
+package com.example.inventory.wal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What goes into a frame of the write-ahead log, and back out.
+ *
+ * Payload:
+ * - TRANSACTION: row count (int), then per row: table code (byte), id (long), column count (short, 0 = deleted),
+ *   and per column its name and a tagged value.
+ * - ABORT: the LSN (long) of a TRANSACTION frame whose transaction did not commit after all.
+ */
+final class WalFrames {
+
+    static final byte TRANSACTION = 1;
+    static final byte ABORT = 2;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte STRING = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte DECIMAL = 5;
+    private static final byte TIMESTAMP = 6;
+    private static final byte OFFSET_DATE_TIME = 7;
+
+    private WalFrames() {
+    }
+
+    static byte[] transaction(List<RowImage> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rows.size() * 96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(TRANSACTION);
+            out.writeInt(rows.size());
+            for (RowImage row : rows) {
+                out.writeByte(row.table().code());
+                out.writeLong(row.id());
+                out.writeShort(row.columns().size());
+                for (int i = 0; i < row.columns().size(); i++) {
+                    out.writeUTF(row.columns().get(i));
+                    writeValue(out, row.values().get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen in memory
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] abort(long lsn) {
+        byte[] payload = new byte[9];
+        payload[0] = ABORT;
+        for (int i = 0; i < 8; i++) {
+            payload[1 + i] = (byte) (lsn >>> (56 - 8 * i));
+        }
+        return payload;
+    }
+
+    static byte kind(byte[] payload) {
+        return payload[0];
+    }
+
+    static long abortedLsn(byte[] payload) {
+        long lsn = 0;
+        for (int i = 0; i < 8; i++) {
+            lsn = lsn << 8 | (payload[1 + i] & 0xFF);
+        }
+        return lsn;
+    }
+
+    static List<RowImage> rows(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1))) {
+            int count = in.readInt();
+            List<RowImage> rows = new ArrayList<>(count);
+            for (int r = 0; r < count; r++) {
+                LoggedTable table = LoggedTable.fromCode(in.readByte());
+                long id = in.readLong();
+                int columnCount = in.readUnsignedShort();
+                if (columnCount == 0) {
+                    rows.add(RowImage.deleted(table, id));
+                    continue;
+                }
+                List<String> columns = new ArrayList<>(columnCount);
+                List<Object> values = new ArrayList<>(columnCount);
+                for (int c = 0; c < columnCount; c++) {
+                    columns.add(in.readUTF());
+                    values.add(readValue(in));
+                }
+                rows.add(new RowImage(table, id, columns, values));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed write-ahead log frame", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            out.writeByte(LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof String text) {
+            out.writeByte(STRING);
+            writeText(out, text);
+        } else if (value instanceof Boolean flag) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(flag);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(DECIMAL);
+            writeText(out, decimal.toString());
+        } else if (value instanceof Timestamp timestamp) {
+            out.writeByte(TIMESTAMP);
+            Instant instant = timestamp.toInstant();
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (value instanceof OffsetDateTime dateTime) {
+            out.writeByte(OFFSET_DATE_TIME);
+            out.writeLong(dateTime.toEpochSecond());
+            out.writeInt(dateTime.getNano());
+            out.writeInt(dateTime.getOffset().getTotalSeconds());
+        } else {
+            throw new IllegalArgumentException("Cannot log a column value of type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case LONG -> in.readLong();
+            case DOUBLE -> in.readDouble();
+            case STRING -> readText(in);
+            case BOOLEAN -> in.readBoolean();
+            case DECIMAL -> new BigDecimal(readText(in));
+            case TIMESTAMP -> Timestamp.from(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+            case OFFSET_DATE_TIME -> {
+                Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                yield OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(in.readInt()));
+            }
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    // writeUTF is limited to 64 KB: a text column can be longer
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.inventory.wal;
+
+/**
+ * Counters of the write-ahead log since it was opened.
+ *
+ * @param frames   frames appended (one per logged transaction, plus the rare abort marker)
+ * @param bytes    bytes appended, frame headers included
+ * @param fsyncs   times the log was forced to disk (group commit: far fewer than frames)
+ * @param segments segment files on disk right now
+ */
+public record WalStats(long frames, long bytes, long fsyncs, int segments) {
+}
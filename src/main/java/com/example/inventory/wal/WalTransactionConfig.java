@@ -0,0 +1,81 @@
+package com.example.inventory.wal;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+/**
+ * With the write-ahead log on, the JPA transaction manager is replaced by one that waits for a transaction's frame
+ * to reach the disk only AFTER the transaction has given back its EntityManager and JDBC connection.
+ *
+ * Why not wait in a TransactionSynchronization (afterCommit / afterCompletion)?
+ * - Spring calls those before it releases the transaction's resources. With GROUP durability every committed
+ *   transaction would keep its pooled connection for up to an fsync, and the pool, not the disk, would limit
+ *   how many transactions share one fsync.
+ *
+ * What to take care:
+ * - Built like Spring Boot's own JpaTransactionManager (same customizers), which steps back because this one
+ *   exists.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "inventory.wal", name = "enabled", havingValue = "true")
+public class WalTransactionConfig {
+
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DurableCommitTransactionManager();
+        customizers.ifAvailable(each -> each.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Waits for the log in {@link #doCleanupAfterCompletion}, the last step of a commit or rollback, right after the
+     * EntityManager is closed.
+     *
+     * StockEventLog attaches itself when it opens the log (it needs a transaction manager itself, so it cannot be
+     * handed in here); until then there is nothing to wait for.
+     *
+     * How is an inner transaction (REQUIRES_NEW) handled?
+     * - Its cleanup is followed by resuming the outer transaction, which a failed wait must not skip. So only the
+     *   outermost transaction waits, also for the frames of the inner ones that committed on its thread.
+     */
+    static final class DurableCommitTransactionManager extends JpaTransactionManager {
+
+        private transient volatile StockEventLog eventLog;
+
+        /**
+         * How many transactions of this thread are suspended by an inner one right now.
+         */
+        private final transient ThreadLocal<int[]> suspended = ThreadLocal.withInitial(() -> new int[1]);
+
+        void attach(StockEventLog eventLog) {
+            this.eventLog = eventLog;
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            Object resources = super.doSuspend(transaction);
+            suspended.get()[0]++;
+            return resources;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            suspended.get()[0]--;
+            super.doResume(transaction, suspendedResources);
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            super.doCleanupAfterCompletion(transaction);
+            StockEventLog log = eventLog;
+            if (log != null && suspended.get()[0] == 0) {
+                log.awaitCommitted();
+            }
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.inventory.wal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of frames in segment files, with group commit: the file part of {@link StockEventLog}.
+ * It does not know what is in a frame.
+ *
+ * Layout:
+ * - Segments {dir}/wal-{base LSN, 20 digits}.log. Header, 16 bytes: magic and base LSN.
+ * - Frames follow back to back: length (int), CRC32C of the payload (int), payload.
+ * - The LSN (log sequence number) of a frame is the base LSN of its segment plus its offset in it, so it only
+ *   ever grows, across segments too: a new segment starts at the end LSN of the one before.
+ * - {dir}/checkpoint: the LSN below which no frame is needed any more (see {@link #checkpoint}).
+ *
+ * How do transactions share an fsync (GROUP)?
+ * - {@link #append} only writes the frame into the file, i.e. the OS page cache: a few microseconds under the
+ *   append lock. {@link #awaitDurable} then wakes the flusher thread, which forces everything written so far
+ *   with ONE fsync, right away when it is idle.
+ * - Appends go on while it forces. Their transactions wait for the next fsync, which takes all of them: the
+ *   more transactions arrive during one fsync, the more share the next one. No transaction waits when the
+ *   log is idle.
+ * - A group window (off by default) makes the flusher pause that long before each fsync, for disks where an
+ *   fsync costs so much that more transactions are worth the delay.
+ *
+ * What to take care:
+ * - A torn frame at the end of the last segment (a crash in the middle of a write) is cut off on open. A bad
+ *   frame in any other segment means the log is damaged: reading it fails.
+ * - After a failed fsync nothing is known about what reached the disk: every later append and wait fails
+ *   (retrying an fsync can report success for pages the kernel already dropped).
+ * - One process per directory.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final long MAGIC = 0x494E5657414C3031L; // "INVWAL01"
+    private static final int MAX_FRAME_SIZE = 1 << 30;
+    private static final String CHECKPOINT = "checkpoint";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{20})\\.log");
+
+    /**
+     * Receives the frames of {@link #forEachFrame}.
+     */
+    @FunctionalInterface
+    interface FrameConsumer {
+        void accept(long lsn, byte[] payload);
+    }
+
+    private final Path directory;
+    private final long segmentSize;
+    private final WalDurability durability;
+    private final long groupWindowNanos;
+    private final long asyncIntervalNanos;
+
+    // Guarded by "this" (the append lock)
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+    private long segmentBase;
+    private long end;
+    private long checkpointLsn;
+
+    // Guarded by durableLock
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private final Condition flushRequested = durableLock.newCondition();
+    private long durable;
+    private long requested;
+    private IOException failure;
+    private boolean closed;
+
+    private Thread flusher;
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+
+    private WriteAheadLog(Path directory, long segmentSize, WalDurability durability, Duration groupWindow,
+            Duration asyncInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.durability = durability;
+        this.groupWindowNanos = groupWindow.toNanos();
+        this.asyncIntervalNanos = Math.max(1, asyncInterval.toNanos());
+    }
+
+    /**
+     * Opens the log in the directory (creating it if needed), cuts off a torn frame at its end, and starts the
+     * flusher thread (GROUP and ASYNC).
+     *
+     * @param segmentSize a segment is closed and a new one started once the next frame would make it larger
+     */
+    static WriteAheadLog open(Path directory, long segmentSize, WalDurability durability, Duration groupWindow,
+            Duration asyncInterval) throws IOException {
+        if (segmentSize <= SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("segment size must be more than " + SEGMENT_HEADER_SIZE + " bytes");
+        }
+        Files.createDirectories(directory);
+        WriteAheadLog log = new WriteAheadLog(directory, segmentSize, durability, groupWindow, asyncInterval);
+        log.recover();
+        if (durability != WalDurability.SYNC) {
+            log.flusher = new Thread(log::flushLoop, "wal-flusher");
+            log.flusher.setDaemon(true);
+            log.flusher.start();
+        }
+        return log;
+    }
+
+    private synchronized void recover() throws IOException {
+        Path checkpointFile = directory.resolve(CHECKPOINT);
+        if (Files.exists(checkpointFile)) {
+            checkpointLsn = Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        }
+        if (segments.isEmpty()) {
+            startSegment(checkpointLsn); // new frames must never land below the checkpoint
+            markDurable(end);
+            return;
+        }
+        // Earlier segments were forced before the next one was started: only the last one can be torn
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        long size = Files.size(last.getValue());
+        long valid = scan(last.getValue(), last.getKey(), size, 0, null);
+        FileChannel opened = FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (valid < SEGMENT_HEADER_SIZE) {
+                opened.truncate(0); // not even its header made it: write it again
+                writeHeader(opened, last.getKey());
+                valid = SEGMENT_HEADER_SIZE;
+            } else if (valid < size) {
+                opened.truncate(valid);
+            }
+            opened.position(valid);
+            opened.force(false);
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            throw e;
+        }
+        channel = opened;
+        segmentBase = last.getKey();
+        end = segmentBase + valid;
+        markDurable(end);
+    }
+
+    /**
+     * Appends one frame. It is in the file (and survives a crash of the JVM) when this returns; whether it
+     * survives a crash of the machine depends on the durability mode, see {@link #awaitDurable}.
+     *
+     * @return the LSN of the frame
+     */
+    long append(byte[] payload) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        long lsn;
+        synchronized (this) {
+            checkUsable();
+            if (end - segmentBase > SEGMENT_HEADER_SIZE && end - segmentBase + frame.remaining() > segmentSize) {
+                rotate();
+            }
+            lsn = end;
+            try {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            } catch (IOException e) {
+                try { // cut off the partial frame, so the next one starts at a frame boundary
+                    channel.truncate(end - segmentBase);
+                    channel.position(end - segmentBase);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            end += frame.capacity();
+            if (durability == WalDurability.SYNC) {
+                force(channel, end);
+            }
+        }
+        frames.increment();
+        bytes.add(frame.capacity());
+        return lsn;
+    }
+
+    /**
+     * Waits until the frame at this LSN is on disk. GROUP waits for the next shared fsync; SYNC forced it in
+     * {@link #append} already; ASYNC does not wait.
+     *
+     * @throws IOException if the log could not be forced (the frame may or may not be on disk)
+     */
+    void awaitDurable(long lsn) throws IOException {
+        if (durability != WalDurability.GROUP) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            if (durable > lsn) {
+                return;
+            }
+            if (requested <= lsn) {
+                requested = lsn + 1;
+                flushRequested.signal();
+            }
+            while (durable <= lsn) {
+                if (failure != null) {
+                    throw new IOException("Write-ahead log could not be forced to disk", failure);
+                }
+                if (closed) {
+                    throw new IOException("Write-ahead log closed");
+                }
+                // The transaction committed already: an interrupt must not make it look undecided
+                durableAdvanced.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * Calls the consumer with every frame from this LSN on, in log order. Meant for recovery, before the first
+     * append.
+     *
+     * @throws IOException if a segment before the last one has a bad frame
+     */
+    synchronized void forEachFrame(long fromLsn, FrameConsumer consumer) throws IOException {
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            Long nextBase = segments.higherKey(segment.getKey());
+            if (nextBase != null && nextBase <= fromLsn) {
+                continue; // ends before fromLsn
+            }
+            long size = nextBase == null ? end - segment.getKey() : Files.size(segment.getValue());
+            long valid = scan(segment.getValue(), segment.getKey(), size, fromLsn, consumer);
+            if (valid != size) {
+                throw new IOException("Write-ahead log segment " + segment.getValue() + " is damaged at offset "
+                        + valid);
+            }
+        }
+    }
+
+    /**
+     * Records that every frame below this LSN is no longer needed (its changes are in a checkpoint, e.g. a
+     * database snapshot), then deletes the segments that only hold such frames.
+     */
+    void checkpoint(long lsn) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        Files.writeString(temp, Long.toString(lsn), StandardCharsets.UTF_8);
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (this) {
+            checkpointLsn = Math.max(checkpointLsn, lsn);
+            // A segment can go once the next one starts at or below the checkpoint; the last one always stays
+            Long base = segments.firstKey();
+            Long nextBase;
+            while ((nextBase = segments.higherKey(base)) != null && nextBase <= checkpointLsn) {
+                obsolete.add(segments.remove(base));
+                base = nextBase;
+            }
+        }
+        for (Path segment : obsolete) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    /**
+     * @return the LSN of the last {@link #checkpoint} (0 if there was none): recovery starts there
+     */
+    synchronized long checkpointLsn() {
+        return checkpointLsn;
+    }
+
+    /**
+     * @return the LSN the next frame gets: every frame below it is written (not necessarily forced)
+     */
+    synchronized long end() {
+        return end;
+    }
+
+    WalStats stats() {
+        int segmentCount;
+        synchronized (this) {
+            segmentCount = segments.size();
+        }
+        return new WalStats(frames.sum(), bytes.sum(), fsyncs.sum(), segmentCount);
+    }
+
+    /**
+     * Forces what is left and closes the file. Transactions still waiting for a GROUP fsync get theirs.
+     */
+    @Override
+    public void close() throws IOException {
+        durableLock.lock();
+        try {
+            closed = true;
+            flushRequested.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (channel.isOpen()) {
+                try {
+                    if (end > durableLsn()) {
+                        force(channel, end);
+                    }
+                } finally {
+                    channel.close();
+                }
+            }
+        }
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll(); // waiters that were not covered by the last force see "closed"
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            durableLock.lock();
+            try {
+                if (durability == WalDurability.GROUP) {
+                    while (!closed && failure == null && requested <= durable) {
+                        flushRequested.awaitUninterruptibly();
+                    }
+                } else if (!closed) {
+                    flushRequested.awaitNanos(asyncIntervalNanos);
+                }
+                if (closed || failure != null) {
+                    return; // close() forces the rest
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                durableLock.unlock();
+            }
+            if (durability == WalDurability.GROUP && groupWindowNanos > 0) {
+                LockSupport.parkNanos(groupWindowNanos); // optional: let more transactions join this fsync
+            }
+            // Everything written so far; frames appended while we force wait for the next round
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = end;
+                current = channel;
+            }
+            if (target > durableLsn()) {
+                try {
+                    force(current, target);
+                } catch (ClosedChannelException e) {
+                    // A rotation or close() closed the segment, after forcing it: target is on disk already
+                } catch (IOException e) {
+                    // force() recorded the failure; waiters get it
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces the channel (outside the append lock, except for SYNC and rotation) and moves "durable" to target.
+     */
+    private void force(FileChannel segment, long target) throws IOException {
+        try {
+            segment.force(false);
+        } catch (ClosedChannelException e) {
+            throw e;
+        } catch (IOException e) {
+            durableLock.lock();
+            try {
+                failure = e;
+                durableAdvanced.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+            throw e;
+        }
+        fsyncs.increment();
+        markDurable(target);
+    }
+
+    private void rotate() throws IOException {
+        force(channel, end); // the old segment is complete on disk before the new one exists
+        channel.close();
+        startSegment(end);
+    }
+
+    private void startSegment(long base) throws IOException {
+        Path file = directory.resolve(String.format("wal-%020d.log", base));
+        FileChannel next = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            writeHeader(next, base);
+            next.force(true);
+            forceDirectory();
+        } catch (IOException | RuntimeException e) {
+            next.close();
+            throw e;
+        }
+        segments.put(base, file);
+        channel = next;
+        segmentBase = base;
+        end = base + SEGMENT_HEADER_SIZE;
+    }
+
+    private static void writeHeader(FileChannel segment, long base) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putLong(MAGIC).putLong(base).flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+    }
+
+    /**
+     * Reads a segment's frames up to size bytes and hands the ones at or after fromLsn to the consumer (if any).
+     *
+     * @return the offset after the last good frame: size if the segment is fine, less if it is torn or damaged,
+     *         0 if even the header is bad
+     */
+    private static long scan(Path file, long base, long size, long fromLsn, FrameConsumer consumer)
+            throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            if (size < SEGMENT_HEADER_SIZE || in.readLong() != MAGIC || in.readLong() != base) {
+                return 0;
+            }
+            long offset = SEGMENT_HEADER_SIZE;
+            CRC32C crc = new CRC32C();
+            while (size - offset >= FRAME_HEADER_SIZE) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > MAX_FRAME_SIZE || size - offset - FRAME_HEADER_SIZE < length) {
+                    return offset;
+                }
+                byte[] payload = in.readNBytes(length);
+                crc.reset();
+                crc.update(payload);
+                if (payload.length != length || (int) crc.getValue() != checksum) {
+                    return offset;
+                }
+                if (consumer != null && base + offset >= fromLsn) {
+                    consumer.accept(base + offset, payload);
+                }
+                offset += FRAME_HEADER_SIZE + length;
+            }
+            return offset;
+        } catch (EOFException e) {
+            return 0; // shorter than it said: only the header check reads without a size check
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true); // makes a new or renamed file itself survive a machine crash
+        } catch (IOException e) {
+            // Not every platform can open a directory (Windows); the files themselves are forced
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        durableLock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Write-ahead log could not be forced to disk earlier", failure);
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private long durableLsn() {
+        durableLock.lock();
+        try {
+            return durable;
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void markDurable(long lsn) {
+        durableLock.lock();
+        try {
+            if (lsn > durable) {
+                durable = lsn;
+            }
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+}
@@ -1,5 +1,15 @@
 const API_BASE = "";
 
+// How often the lists ask the server "what changed since version N?" (GET /inventory/changes, /customers/changes)
+const SYNC_INTERVAL_MS = 5000;
+// Every list row has the same height (see .virtual-row in styles.css): it is what makes virtualization cheap
+const ROW_HEIGHT = 44;
+// Rows rendered above and below the visible area, so fast scrolling does not show empty space
+const OVERSCAN_ROWS = 6;
+// Pickers wait this long after the last key press before asking the server
+const SEARCH_DELAY_MS = 250;
+const SEARCH_LIMIT = 20;
+
 // Utility functions
 function createOption(value, text) {
     const option = document.createElement("option");
@@ -14,112 +24,273 @@ function showMessage(elem, message, isError = false) {
     setTimeout(() => { elem.textContent = ""; }, 3600);
 }
 
-// Customers
-async function fetchCustomers() {
-    const res = await fetch(API_BASE + "/customers");
+async function getJson(path) {
+    const res = await fetch(API_BASE + path);
+    if (!res.ok) throw new Error(`GET ${path} failed: ${res.status}`);
     return await res.json();
 }
 
-async function addCustomer(name) {
-    const res = await fetch(API_BASE + "/customers", {
+async function postJson(path, body) {
+    const res = await fetch(API_BASE + path, {
         method: "POST",
         headers: { "Content-Type": "application/json" },
-        body: JSON.stringify({ name })
+        body: JSON.stringify(body)
     });
     return await res.json();
 }
 
-// Inventory
-async function fetchInventory() {
-    const res = await fetch(API_BASE + "/inventory");
-    return await res.json();
+// Customers
+async function addCustomer(name) {
+    return await postJson("/customers", { name });
 }
 
+// Inventory
 async function addInventoryItem(name, quantity) {
-    const res = await fetch(API_BASE + "/inventory", {
-        method: "POST",
-        headers: { "Content-Type": "application/json" },
-        body: JSON.stringify({ name, quantity: parseInt(quantity) })
-    });
-    return await res.json();
+    return await postJson("/inventory", { name, quantity: parseInt(quantity) });
 }
 
 async function deleteInventoryItem(itemId) {
-    // Assume the backend supports DELETE /inventory/{id}
     const res = await fetch(API_BASE + "/inventory/" + itemId, { method: "DELETE" });
     return res.ok;
 }
 
 // Orders
 async function placeOrder(customerId, itemId, quantity) {
-    const res = await fetch(API_BASE + "/orders", {
-        method: "POST",
-        headers: { "Content-Type": "application/json" },
-        body: JSON.stringify({ customerId: parseInt(customerId), itemId: parseInt(itemId), quantity: parseInt(quantity) })
+    return await postJson("/orders", {
+        customerId: parseInt(customerId), itemId: parseInt(itemId), quantity: parseInt(quantity)
     });
-    return await res.json();
+}
+
+/**
+ * Client-side copy of one list (items or customers), keyed by id.
+ *
+ * - byId holds the rows, ids holds them in ascending id order (the order the server lists them in).
+ * - put/remove change one row and tell the view which one, so nothing else is rebuilt.
+ * - sync() fetches only what changed since the last version the server gave us.
+ */
+class KeyedModel {
+    constructor(changesPath) {
+        this.changesPath = changesPath;
+        this.byId = new Map();
+        this.ids = [];
+        this.version = 0;
+        this.listeners = [];
+    }
+
+    onChange(listener) {
+        this.listeners.push(listener);
+    }
+
+    get size() {
+        return this.ids.length;
+    }
+
+    at(index) {
+        return this.byId.get(this.ids[index]);
+    }
+
+    put(row) {
+        if (!this.byId.has(row.id)) {
+            this.ids.splice(this.insertionIndex(row.id), 0, row.id);
+        }
+        this.byId.set(row.id, row);
+    }
+
+    remove(id) {
+        if (this.byId.delete(id)) {
+            this.ids.splice(this.insertionIndex(id), 1);
+        }
+    }
+
+    /** Binary search: where id is, or where it would go. */
+    insertionIndex(id) {
+        let low = 0;
+        let high = this.ids.length;
+        while (low < high) {
+            const mid = (low + high) >>> 1;
+            if (this.ids[mid] < id) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    /** Applies a single-row answer (POST/DELETE/order) right away, without waiting for the next sync. */
+    patch(row) {
+        this.put(row);
+        this.changed();
+    }
+
+    patchRemoved(id) {
+        this.remove(id);
+        this.changed();
+    }
+
+    async sync() {
+        const changes = await getJson(`${this.changesPath}?since=${this.version}`);
+        if (changes.fullResync) {
+            this.byId.clear();
+            this.ids = [];
+        }
+        changes.changed.forEach(row => this.put(row));
+        changes.deleted.forEach(id => this.remove(id));
+        this.version = changes.version;
+        if (changes.fullResync || changes.changed.length || changes.deleted.length) {
+            this.changed();
+        }
+    }
+
+    changed() {
+        this.listeners.forEach(listener => listener());
+    }
+}
+
+/**
+ * Shows a KeyedModel in a scrolling box, creating DOM rows only for what is on screen.
+ *
+ * - A spacer as tall as all rows together gives the scrollbar its real size.
+ * - Visible rows are absolutely positioned at index * ROW_HEIGHT; the same few elements are reused while
+ *   scrolling, and a row is only written to when the record it shows changed (renderRow is skipped otherwise).
+ */
+class VirtualList {
+    constructor(container, model, renderRow) {
+        this.container = container;
+        this.model = model;
+        this.renderRow = renderRow;
+        this.spacer = document.createElement("div");
+        this.spacer.className = "virtual-spacer";
+        container.appendChild(this.spacer);
+        this.rows = new Map(); // index -> element currently showing that index
+        this.scheduled = false;
+        container.addEventListener("scroll", () => this.schedule());
+        model.onChange(() => this.schedule());
+    }
+
+    /** Renders at most once per frame, however many changes arrive. */
+    schedule() {
+        if (this.scheduled) return;
+        this.scheduled = true;
+        requestAnimationFrame(() => {
+            this.scheduled = false;
+            this.render();
+        });
+    }
+
+    render() {
+        const count = this.model.size;
+        this.spacer.style.height = `${count * ROW_HEIGHT}px`;
+        const first = Math.max(0, Math.floor(this.container.scrollTop / ROW_HEIGHT) - OVERSCAN_ROWS);
+        const last = Math.min(count,
+            Math.ceil((this.container.scrollTop + this.container.clientHeight) / ROW_HEIGHT) + OVERSCAN_ROWS);
+
+        // Rows that scrolled out of the window become free for reuse
+        const free = [];
+        for (const [index, element] of this.rows) {
+            if (index < first || index >= last) {
+                free.push(element);
+                this.rows.delete(index);
+            }
+        }
+        for (let index = first; index < last; index++) {
+            const record = this.model.at(index);
+            let element = this.rows.get(index);
+            if (!element) {
+                element = free.pop() || this.createRow();
+                element.style.top = `${index * ROW_HEIGHT}px`;
+                this.rows.set(index, element);
+            }
+            if (element.record !== record) { // records are replaced, never mutated: identity means "unchanged"
+                element.record = record;
+                element.dataset.id = record.id;
+                this.renderRow(element, record);
+            }
+        }
+        free.forEach(element => element.remove());
+    }
+
+    createRow() {
+        const element = document.createElement("div");
+        element.className = "virtual-row";
+        this.container.appendChild(element);
+        return element;
+    }
+}
+
+/**
+ * A search box feeding a <select> from a server-side search (GET .../search?q=), so the page never
+ * needs the whole catalog to pick one entry.
+ */
+function bindPicker(input, select, searchPath, placeholder, label) {
+    let timer = null;
+    let latest = 0;
+    const search = async () => {
+        const request = ++latest;
+        const rows = await getJson(`${searchPath}?q=${encodeURIComponent(input.value.trim())}&limit=${SEARCH_LIMIT}`);
+        if (request !== latest) return; // a newer search was started meanwhile
+        const selected = select.value;
+        const options = [createOption("", placeholder)];
+        options[0].disabled = true;
+        rows.forEach(row => options.push(createOption(row.id, label(row))));
+        select.replaceChildren(...options);
+        select.value = rows.some(row => String(row.id) === selected) ? selected : (rows.length ? rows[0].id : "");
+    };
+    input.addEventListener("input", () => {
+        clearTimeout(timer);
+        timer = setTimeout(search, SEARCH_DELAY_MS);
+    });
+    return search;
 }
 
 // DOM Elements
-const customerList = document.getElementById("customer-list");
 const addCustomerForm = document.getElementById("add-customer-form");
 const customerNameInput = document.getElementById("customer-name");
 
-const inventoryList = document.getElementById("inventory-list");
 const addInventoryForm = document.getElementById("add-inventory-form");
 const itemNameInput = document.getElementById("item-name");
 const itemQtyInput = document.getElementById("item-qty");
 
+const orderCustomerSearch = document.getElementById("order-customer-search");
 const orderCustomerSelect = document.getElementById("order-customer");
+const orderItemSearch = document.getElementById("order-item-search");
 const orderItemSelect = document.getElementById("order-item");
 const orderQtyInput = document.getElementById("order-qty");
 const placeOrderForm = document.getElementById("place-order-form");
 const orderResult = document.getElementById("order-result");
 
-async function renderCustomers() {
-    const customers = await fetchCustomers();
-    customerList.innerHTML = "";
-    orderCustomerSelect.innerHTML = '<option value="" disabled selected>Select Customer</option>';
-    customers.forEach(c => {
-        const li = document.createElement("li");
-        li.textContent = `${c.name} (ID: ${c.id})`;
-        customerList.appendChild(li);
-        orderCustomerSelect.appendChild(createOption(c.id, c.name));
-    });
-}
+const customers = new KeyedModel("/customers/changes");
+const items = new KeyedModel("/inventory/changes");
 
-async function renderInventory() {
-    const items = await fetchInventory();
-    inventoryList.innerHTML = "";
-    orderItemSelect.innerHTML = '<option value="" disabled selected>Select Item</option>';
-    items.forEach(item => {
-        const li = document.createElement("li");
-        li.textContent = `${item.name} (Qty: ${item.quantity})`;
-
-        // Delete button
-        const delBtn = document.createElement("button");
-        delBtn.className = "delete-btn";
-        delBtn.textContent = "Delete";
-        delBtn.onclick = async () => {
-            if (confirm("Are you sure to delete this item?")) {
-                await deleteInventoryItem(item.id);
-                renderInventory();
-            }
-        };
-        li.appendChild(delBtn);
+new VirtualList(document.getElementById("customer-list"), customers, (row, c) => {
+    row.textContent = `${c.name} (ID: ${c.id})`;
+});
 
-        inventoryList.appendChild(li);
-        orderItemSelect.appendChild(createOption(item.id, item.name));
-    });
-}
+new VirtualList(document.getElementById("inventory-list"), items, (row, item) => {
+    const label = document.createElement("span");
+    label.textContent = `${item.name} (Qty: ${item.quantity})`;
+    const delBtn = document.createElement("button");
+    delBtn.className = "delete-btn";
+    delBtn.textContent = "Delete";
+    row.replaceChildren(label, delBtn);
+});
+
+// One listener for every delete button, however many rows come and go
+document.getElementById("inventory-list").addEventListener("click", async (e) => {
+    if (!e.target.classList.contains("delete-btn")) return;
+    const itemId = Number(e.target.parentElement.dataset.id);
+    if (confirm("Are you sure to delete this item?") && await deleteInventoryItem(itemId)) {
+        items.patchRemoved(itemId);
+    }
+});
+
+const searchCustomers = bindPicker(orderCustomerSearch, orderCustomerSelect, "/customers/search",
+    "Select Customer", c => c.name);
+const searchItems = bindPicker(orderItemSearch, orderItemSelect, "/inventory/search",
+    "Select Item", item => `${item.name} (Qty: ${item.quantity})`);
 
 addCustomerForm.onsubmit = async (e) => {
     e.preventDefault();
     const name = customerNameInput.value.trim();
     if (!name) return;
-    await addCustomer(name);
+    customers.patch(await addCustomer(name));
     customerNameInput.value = "";
-    renderCustomers();
 };
 
 addInventoryForm.onsubmit = async (e) => {
@@ -127,10 +298,9 @@ addInventoryForm.onsubmit = async (e) => {
     const name = itemNameInput.value.trim();
     const qty = itemQtyInput.value;
     if (!name || !qty || parseInt(qty) <= 0) return;
-    await addInventoryItem(name, qty);
+    items.patch(await addInventoryItem(name, qty));
     itemNameInput.value = "";
     itemQtyInput.value = "";
-    renderInventory();
 };
 
 placeOrderForm.onsubmit = async (e) => {
@@ -142,13 +312,28 @@ placeOrderForm.onsubmit = async (e) => {
     const result = await placeOrder(custId, itemId, qty);
     if (result.status === "PLACED") {
         showMessage(orderResult, "Order placed successfully!");
+    } else if (result.status === "QUEUED") {
+        // Asynchronous order pipeline: the stock change arrives with the next sync
+        showMessage(orderResult, "Order accepted, processing...");
     } else {
         showMessage(orderResult, "Order rejected (insufficient stock)", true);
     }
+    if (result.item) {
+        items.patch(result.item); // the order answer carries the item with its new quantity
+    }
     orderQtyInput.value = "";
-    renderInventory();
 };
 
-// Initial load
-renderCustomers();
-renderInventory();
+async function syncAll() {
+    try {
+        await Promise.all([customers.sync(), items.sync()]);
+    } catch (err) {
+        console.warn("Sync failed, retrying later", err);
+    }
+}
+
+// Initial load: full copy once, then only the changes
+syncAll();
+setInterval(syncAll, SYNC_INTERVAL_MS);
+searchCustomers();
+searchItems();
@@ -0,0 +1,56 @@
+package com.example.inventory.load;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.inventory.reactive.CustomerRow;
+import com.example.inventory.reactive.ItemRow;
+import com.example.inventory.reactive.ReactiveCustomerRepository;
+import com.example.inventory.reactive.ReactiveInventoryApplication;
+import com.example.inventory.reactive.ReactiveItemRepository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+
+/**
+ * HttpLoadBenchmark against the reactive variant: same seed data, same mix, same arrival rate, same report,
+ * so the two summary.txt files can be compared line by line (latencies, peak threads, busy connections).
+ *
+ * Run: mvn -Preactive,benchmark test -Dtest=ReactiveLoadBenchmark -Dload.rate=300 -Dload.duration=60s
+ *      mvn -Pbenchmark test -Dtest=HttpLoadBenchmark -Dload.rate=300 -Dload.duration=60s   (servlet, to compare)
+ *
+ * Settings: the load.* properties of HttpLoadBenchmark; load.app-args is not used here and the report goes to
+ * load.report-dir [target/load-report-reactive].
+ */
+class ReactiveLoadBenchmark {
+
+    private static final Path REPORT_DIRECTORY =
+            Path.of(System.getProperty("load.report-dir", "target/load-report-reactive"));
+
+    @Test
+    void endpointLatencies_underOpenModelLoad() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ReactiveInventoryApplication.class)
+                .profiles("reactive")
+                .run("--server.port=0", "--logging.level.root=WARN")) {
+            long[] customerIds = context.getBean(ReactiveCustomerRepository.class)
+                    .saveAll(IntStream.range(0, HttpLoadBenchmark.CUSTOMERS)
+                            .mapToObj(i -> new CustomerRow(null, "Load customer " + i)).toList())
+                    .map(CustomerRow::id).collectList().block()
+                    .stream().mapToLong(Long::longValue).toArray();
+            long[] itemIds = context.getBean(ReactiveItemRepository.class)
+                    .saveAll(IntStream.range(0, HttpLoadBenchmark.ITEMS)
+                            .mapToObj(i -> new ItemRow(null, "Load item " + i, 1_000_000_000)).toList())
+                    .map(ItemRow::id).collectList().block()
+                    .stream().mapToLong(Long::longValue).toArray();
+
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            PoolMetrics pool = context.getBean(ConnectionPool.class).getMetrics().orElseThrow();
+            HttpLoadBenchmark.run(base, customerIds, itemIds, pool::acquiredSize, REPORT_DIRECTORY);
+        }
+    }
+}
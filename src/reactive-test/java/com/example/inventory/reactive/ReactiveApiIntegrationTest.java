@@ -0,0 +1,185 @@
+package com.example.inventory.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * The reactive variant answers like the servlet controllers do (same URLs, same JSON, same rules).
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveApiIntegrationTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+
+    @Autowired
+    private ReactiveItemRepository itemRepository;
+
+    private CustomerRow customer;
+    private ItemRow widget;
+    private ItemRow gadget;
+
+    @BeforeEach
+    void setUp() {
+        for (String table : List.of("order_lines", "orders", "\"inventory-item\"", "customers")) {
+            databaseClient.sql("DELETE FROM " + table).then().block();
+        }
+        customer = customerRepository.save(new CustomerRow(null, "Reactive User")).block();
+        widget = itemRepository.save(new ItemRow(null, "Widget", 10)).block();
+        gadget = itemRepository.save(new ItemRow(null, "Gadget", 2)).block();
+    }
+
+    @Test
+    void inventory_isStreamedAsJsonArray() {
+        client.get().uri("/inventory").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Widget")
+                .jsonPath("$[0].quantity").isEqualTo(10);
+    }
+
+    @Test
+    void inventory_asNdjson_oneItemPerLine() {
+        List<ItemRow> items = client.get().uri("/inventory").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .returnResult(ItemRow.class).getResponseBody().collectList().block();
+
+        assertThat(items).extracting(ItemRow::name).containsExactly("Widget", "Gadget");
+    }
+
+    @Test
+    void postAndDeleteItem() {
+        ItemRow created = client.post().uri("/inventory").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Gizmo\",\"quantity\":4}").exchange()
+                .expectStatus().isOk()
+                .expectBody(ItemRow.class).returnResult().getResponseBody();
+        assertThat(created.id()).isNotNull();
+
+        client.delete().uri("/inventory/{id}", created.id()).exchange().expectStatus().isOk();
+
+        assertThat(itemRepository.existsById(created.id()).block()).isFalse();
+    }
+
+    @Test
+    void customers_postAndList() {
+        client.post().uri("/customers").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Second User\"}").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isNotEmpty();
+
+        client.get().uri("/customers").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Reactive User")
+                .jsonPath("$[1].name").isEqualTo("Second User");
+    }
+
+    @Test
+    void placeOrder_enoughStock_placedAndStockReduced() {
+        client.post().uri("/orders").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":3}", customer.id(), widget.id()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PLACED")
+                .jsonPath("$.quantity").isEqualTo(3)
+                .jsonPath("$.customer.name").isEqualTo("Reactive User")
+                .jsonPath("$.item.quantity").isEqualTo(7)
+                .jsonPath("$.placedAt").isNotEmpty();
+
+        assertThat(itemRepository.findById(widget.id()).block().quantity()).isEqualTo(7);
+    }
+
+    @Test
+    void placeOrder_notEnoughStockOrUnknownCustomer_rejectedAndStockUnchanged() {
+        client.post().uri("/orders").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":100}", customer.id(), widget.id()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("REJECTED");
+        client.post().uri("/orders").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":999999,\"itemId\":%d,\"quantity\":1}", widget.id()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("REJECTED");
+
+        assertThat(itemRepository.findById(widget.id()).block().quantity()).isEqualTo(10);
+    }
+
+    @Test
+    void basket_oneLineShort_rejectedAndNothingTaken() {
+        client.post().uri("/orders/basket").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":%d,\"lines\":[{\"itemId\":%d,\"quantity\":5},"
+                        + "{\"itemId\":%d,\"quantity\":3}]}", customer.id(), widget.id(), gadget.id()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("REJECTED")
+                .jsonPath("$.lines.length()").isEqualTo(2);
+
+        assertThat(itemRepository.findById(widget.id()).block().quantity()).isEqualTo(10);
+        assertThat(itemRepository.findById(gadget.id()).block().quantity()).isEqualTo(2);
+    }
+
+    @Test
+    void basket_placed_thenListedWithLines() {
+        client.post().uri("/orders/basket").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":%d,\"lines\":[{\"itemId\":%d,\"quantity\":5},"
+                        + "{\"itemId\":%d,\"quantity\":2}]}", customer.id(), widget.id(), gadget.id()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("PLACED");
+        client.post().uri("/orders").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":1}", customer.id(), widget.id()))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/orders/{customerId}", customer.id()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].quantity").isEqualTo(7)
+                .jsonPath("$[0].lines.length()").isEqualTo(2)
+                .jsonPath("$[0].lines[0].item.name").isEqualTo("Widget")
+                .jsonPath("$[1].item.name").isEqualTo("Widget")
+                .jsonPath("$[1].lines.length()").isEqualTo(0);
+        assertThat(itemRepository.findById(widget.id()).block().quantity()).isEqualTo(4);
+        assertThat(itemRepository.findById(gadget.id()).block().quantity()).isEqualTo(0);
+    }
+
+    @Test
+    void ordersForCustomer_filteredByDay() {
+        client.post().uri("/orders").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":1}", customer.id(), widget.id()))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/orders/{customerId}?from=2000-01-01&to=2000-12-31", customer.id()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+        client.get().uri("/orders/{customerId}?from=2000-01-01", customer.id()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.inventory.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A row of the "customers" table. Serializes like the JPA entity Customer: {"id":1, "name":"Alice"}.
+ */
+@Table("customers")
+public record CustomerRow(@Id Long id, String name) {
+
+    public CustomerRow withId(Long id) {
+        return new CustomerRow(id, name);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.inventory.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A row of the "inventory-item" table, as R2DBC reads and writes it.
+ * Serializes to the same JSON as the JPA entity InventoryItem: {"id":1, "name":"Pen", "quantity":3}.
+ *
+ * Why a record instead of the JPA entity?
+ * - R2DBC maps plain rows: no lazy loading, no relationships, no persistence context. Immutable rows
+ *   are safe to share between the threads a reactive pipeline may hop across.
+ */
+@Table("\"inventory-item\"") // quoted, like the JPA table name with its dash
+public record ItemRow(@Id Long id, String name, int quantity) {
+
+    /**
+     * Used by Spring Data to hand back the row with its generated id after an INSERT.
+     */
+    public ItemRow withId(Long id) {
+        return new ItemRow(id, name, quantity);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.inventory.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A row of the "order_lines" table: one item of a basket order.
+ */
+@Table("order_lines")
+public record OrderLineRow(@Id Long id, Long orderId, Long itemId, int quantity) {
+
+    public OrderLineRow withId(Long id) {
+        return new OrderLineRow(id, orderId, itemId, quantity);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.inventory.reactive;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A row of the "orders" table: references are plain ids (R2DBC does not load relationships).
+ * The API answers with {@link OrderView}, which has the customer and item filled in.
+ *
+ * @param itemId null for a basket order (see {@link OrderLineRow})
+ * @param status the OrderStatus code, as stored by the servlet variant
+ */
+@Table("orders")
+public record OrderRow(@Id Long id, Long customerId, Long itemId, int quantity, short status, Instant placedAt) {
+
+    public OrderRow withId(Long id) {
+        return new OrderRow(id, customerId, itemId, quantity, status, placedAt);
+    }
+}
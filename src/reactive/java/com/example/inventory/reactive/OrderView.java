@@ -0,0 +1,29 @@
+package com.example.inventory.reactive;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.example.inventory.entity.OrderStatus;
+
+/**
+ * An order as the API returns it: the same JSON shape as the JPA entity Order, with customer and item
+ * (and, for baskets, the lines with their items) filled in.
+ */
+public record OrderView(Long id, CustomerRow customer, ItemRow item, int quantity, OrderStatus status,
+        Instant placedAt, List<Line> lines) {
+
+    /**
+     * One basket line, shaped like the JPA entity OrderLine.
+     */
+    public record Line(Long id, ItemRow item, int quantity) {
+    }
+
+    static OrderView of(OrderRow order, CustomerRow customer, ItemRow item, List<Line> lines) {
+        return new OrderView(order.id(), customer, item, order.quantity(),
+                OrderStatus.fromCode(order.status()), order.placedAt(), lines);
+    }
+
+    OrderView withLines(List<Line> lines) {
+        return new OrderView(id, customer, item, quantity, status, placedAt, lines);
+    }
+}
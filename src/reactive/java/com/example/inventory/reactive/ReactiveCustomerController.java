@@ -0,0 +1,34 @@
+package com.example.inventory.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /customers on WebFlux: the same URLs and JSON as CustomerController (lists are streamed, see
+ * ReactiveInventoryController).
+ */
+@RestController
+@RequestMapping("/customers")
+public class ReactiveCustomerController {
+
+    @Autowired
+    private ReactiveCustomerService customerService;
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<CustomerRow> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    @PostMapping
+    public Mono<CustomerRow> addCustomer(@RequestBody CustomerRow customer) {
+        return customerService.saveCustomer(customer);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.inventory.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * Reactive access to the "customers" table.
+ */
+public interface ReactiveCustomerRepository extends ReactiveCrudRepository<CustomerRow, Long> {
+}
@@ -0,0 +1,25 @@
+package com.example.inventory.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of CustomerService.
+ */
+@Service
+public class ReactiveCustomerService {
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+
+    public Flux<CustomerRow> getAllCustomers() {
+        return customerRepository.findAll();
+    }
+
+    public Mono<CustomerRow> saveCustomer(CustomerRow customer) {
+        return customerRepository.save(customer);
+    }
+}
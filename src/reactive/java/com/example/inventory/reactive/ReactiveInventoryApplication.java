@@ -0,0 +1,39 @@
+package com.example.inventory.reactive;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Entry point of the REACTIVE variant of the inventory API (build with mvn -Preactive).
+ *
+ * What is different from InventorySystemApplication?
+ * - Netty and WebFlux instead of Tomcat and Spring MVC: a few event-loop threads serve every connection,
+ *   instead of one thread per request in flight.
+ * - R2DBC instead of JDBC/JPA: database calls do not block a thread either, and list endpoints stream rows
+ *   to the client as the database produces them, at the pace the client reads them (backpressure).
+ * - Same URLs and the same JSON as the servlet controllers.
+ *
+ * What to take care:
+ * - Only this package is scanned, and the JDBC DataSource is switched off, so none of the servlet/JPA beans
+ *   (services, limiter, timing, archive, order engine) exist here. Those features are servlet-only.
+ * - Settings come from application-reactive.properties (the "reactive" profile is always on).
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class) // no JDBC pool, hence no JPA either
+public class ReactiveInventoryApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveInventoryApplication.class).profiles("reactive").run(args);
+    }
+
+    /**
+     * Netty, explicitly: Tomcat is on the classpath too (for the servlet application), and Spring Boot would pick
+     * it first. Tomcat would run WebFlux on its thread pool, which defeats the point of this variant.
+     */
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.inventory.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /inventory on WebFlux: the same URLs and JSON as InventoryController.
+ *
+ * Why return Flux instead of List?
+ * - The JSON array is written item by item while the rows arrive, and the database is only asked for more
+ *   rows as fast as the client reads the response (backpressure). A List would hold every item in memory first.
+ * - Clients that send "Accept: application/x-ndjson" get one JSON object per line instead of an array.
+ */
+@RestController
+@RequestMapping("/inventory")
+public class ReactiveInventoryController {
+
+    @Autowired
+    private ReactiveInventoryService inventoryService;
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<ItemRow> getAllItems() {
+        return inventoryService.getAllItems();
+    }
+
+    @PostMapping
+    public Mono<ItemRow> addItem(@RequestBody ItemRow item) {
+        return inventoryService.saveItem(item);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteItem(@PathVariable Long id) {
+        return inventoryService.deleteItemById(id);
+    }
+}
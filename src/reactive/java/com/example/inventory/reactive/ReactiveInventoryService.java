@@ -0,0 +1,35 @@
+package com.example.inventory.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of InventoryService for the catalog endpoints.
+ *
+ * What to take care:
+ * - Items are plain rows here: the reactive variant has no warehouses, so an item's quantity is simply its stock.
+ */
+@Service
+public class ReactiveInventoryService {
+
+    @Autowired
+    private ReactiveItemRepository itemRepository;
+
+    /**
+     * Streams every item; rows are read from the database as the client consumes them.
+     */
+    public Flux<ItemRow> getAllItems() {
+        return itemRepository.findAll();
+    }
+
+    public Mono<ItemRow> saveItem(ItemRow item) {
+        return itemRepository.save(item);
+    }
+
+    public Mono<Void> deleteItemById(Long id) {
+        return itemRepository.deleteById(id);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.inventory.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive access to the "inventory-item" table.
+ *
+ * Why decrementIfAvailable()?
+ * - Same reason as InventoryItemRepository.decrementIfAvailable(): check and subtract in ONE statement, so two
+ *   orders can never both take the last unit. Emits 1 if the stock was taken, 0 if not.
+ */
+public interface ReactiveItemRepository extends ReactiveCrudRepository<ItemRow, Long> {
+
+    @Modifying
+    @Query("UPDATE \"inventory-item\" SET quantity = quantity - :quantity WHERE id = :id AND quantity >= :quantity")
+    Mono<Integer> decrementIfAvailable(Long id, int quantity);
+}
@@ -0,0 +1,65 @@
+package com.example.inventory.reactive;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.inventory.service.OrderLineRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /orders on WebFlux: the same URLs, request bodies and JSON as OrderController.
+ *
+ * What to take care:
+ * - Only the synchronous contract exists here (POST /orders answers with the order). The asynchronous
+ *   pipeline (/orders/status/...) is a servlet-side feature; with a non-blocking stack the request thread
+ *   is not held while the database works, which is what that pipeline was protecting.
+ */
+@RestController
+@RequestMapping("/orders")
+public class ReactiveOrderController {
+
+    @Autowired
+    private ReactiveOrderService orderService;
+
+    /**
+     * Example: {"customerId":1, "itemId":2, "quantity":3}
+     */
+    public record PlaceOrderRequest(Long customerId, Long itemId, int quantity) {
+    }
+
+    /**
+     * Example: {"customerId":1, "lines":[{"itemId":2, "quantity":1}, {"itemId":5, "quantity":3}]}
+     */
+    public record PlaceMultiLineOrderRequest(Long customerId, List<OrderLineRequest> lines) {
+    }
+
+    @PostMapping
+    public Mono<OrderView> placeOrder(@RequestBody PlaceOrderRequest request) {
+        return orderService.placeOrder(request.customerId(), request.itemId(), request.quantity());
+    }
+
+    @PostMapping("/basket")
+    public Mono<OrderView> placeMultiLineOrder(@RequestBody PlaceMultiLineOrderRequest request) {
+        return orderService.placeMultiLineOrder(request.customerId(), request.lines());
+    }
+
+    @GetMapping(path = "/{customerId}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<OrderView> getOrdersForCustomer(@PathVariable Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return orderService.getOrdersByCustomer(customerId, from, to);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.inventory.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * Reactive access to the "order_lines" table (reads go through ReactiveOrderRepository's join queries).
+ */
+public interface ReactiveOrderLineRepository extends ReactiveCrudRepository<OrderLineRow, Long> {
+}
@@ -0,0 +1,46 @@
+package com.example.inventory.reactive;
+
+import java.time.Instant;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive access to the "orders" and "order_lines" tables.
+ *
+ * Why the join queries?
+ * - R2DBC has no relationships to navigate, and one lookup per order for its customer and item would be the
+ *   classic N+1 problem. One joined query gives each order with its customer and item, row by row, so the
+ *   list can be streamed to the client while the database is still reading.
+ */
+public interface ReactiveOrderRepository extends ReactiveCrudRepository<OrderRow, Long> {
+
+    /**
+     * An order joined with its customer and item (columns of a missing customer or item are null).
+     */
+    record Joined(Long id, Long customerId, String customerName, Long itemId, String itemName, Integer itemQuantity,
+            int quantity, short status, Instant placedAt) {
+    }
+
+    /**
+     * A basket line joined with its item.
+     */
+    record JoinedLine(Long id, Long itemId, String itemName, Integer itemQuantity, int quantity) {
+    }
+
+    @Query("SELECT o.id, o.customer_id, c.name AS customer_name, o.item_id, i.name AS item_name,"
+            + " i.quantity AS item_quantity, o.quantity, o.status, o.placed_at"
+            + " FROM orders o"
+            + " LEFT JOIN customers c ON c.id = o.customer_id"
+            + " LEFT JOIN \"inventory-item\" i ON i.id = o.item_id"
+            + " WHERE o.customer_id = :customerId AND o.placed_at >= :start AND o.placed_at < :end"
+            + " ORDER BY o.id")
+    Flux<Joined> findJoinedByCustomer(Long customerId, Instant start, Instant end);
+
+    @Query("SELECT l.id, l.item_id, i.name AS item_name, i.quantity AS item_quantity, l.quantity"
+            + " FROM order_lines l LEFT JOIN \"inventory-item\" i ON i.id = l.item_id"
+            + " WHERE l.order_id = :orderId ORDER BY l.id")
+    Flux<JoinedLine> findJoinedLines(Long orderId);
+}
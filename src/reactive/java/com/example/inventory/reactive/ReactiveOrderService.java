@@ -0,0 +1,193 @@
+package com.example.inventory.reactive;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.service.OrderLineRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of OrderService: the same rules and results, without blocking a thread on the database.
+ *
+ * How to read the code?
+ * - Nothing runs when a method is called; it returns a Mono/Flux describing the steps. WebFlux subscribes to it,
+ *   and each step continues on whatever thread delivered the previous database result.
+ * - transactionalOperator.transactional(...) wraps those steps in one R2DBC transaction; an error rolls it back.
+ *
+ * What to take care:
+ * - Never call anything blocking in here (JDBC, Thread.sleep, block()): it would stall an event-loop thread
+ *   that serves many other requests.
+ */
+@Service
+public class ReactiveOrderService {
+
+    /**
+     * Upper bound for "no end date" (Instant.MAX does not fit into a database timestamp).
+     */
+    private static final Instant FAR_FUTURE = Instant.parse("9999-12-31T00:00:00Z");
+
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    @Autowired
+    private ReactiveOrderLineRepository orderLineRepository;
+
+    @Autowired
+    private ReactiveCustomerRepository customerRepository;
+
+    @Autowired
+    private ReactiveItemRepository itemRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    /**
+     * Signals "a basket line was short" inside the transaction, so that it rolls back.
+     * No stack trace: it is control flow, not a bug.
+     */
+    private static final class BasketRejected extends RuntimeException {
+        BasketRejected() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Places a single-item order: PLACED if the customer and item exist and there is enough stock,
+     * otherwise REJECTED. Either way the order is stored.
+     */
+    public Mono<OrderView> placeOrder(Long customerId, Long itemId, int quantity) {
+        Mono<OrderView> placement = Mono.zip(findCustomer(customerId), findItem(itemId)).flatMap(found -> {
+            CustomerRow customer = found.getT1().orElse(null);
+            ItemRow item = found.getT2().orElse(null);
+            if (quantity <= 0 || customer == null || item == null) {
+                return saveOrder(customer, item, quantity, OrderStatus.REJECTED);
+            }
+            return itemRepository.decrementIfAvailable(itemId, quantity).flatMap(updated -> updated == 0
+                    ? saveOrder(customer, item, quantity, OrderStatus.REJECTED)
+                    // Read the item again so the answer carries its new quantity
+                    : itemRepository.findById(itemId)
+                            .flatMap(taken -> saveOrder(customer, taken, quantity, OrderStatus.PLACED)));
+        });
+        return transactionalOperator.transactional(placement);
+    }
+
+    /**
+     * Places a basket order all-or-nothing, taking stock in ascending item id order (see
+     * OrderService.placeMultiLineOrder for why the order matters).
+     */
+    public Mono<OrderView> placeMultiLineOrder(Long customerId, List<OrderLineRequest> lines) {
+        Map<Long, Integer> quantityByItem = new TreeMap<>(); // TreeMap keeps item ids sorted ascending
+        boolean valid = customerId != null && lines != null && !lines.isEmpty();
+        if (valid) {
+            for (OrderLineRequest line : lines) {
+                if (line == null || line.itemId() == null || line.quantity() <= 0) {
+                    valid = false;
+                    break;
+                }
+                quantityByItem.merge(line.itemId(), line.quantity(), Integer::sum);
+            }
+        }
+        if (!valid) {
+            return saveRejectedBasket(customerId, quantityByItem);
+        }
+
+        Mono<OrderView> placement = customerRepository.findById(customerId)
+                .switchIfEmpty(Mono.error(BasketRejected::new))
+                .flatMap(customer -> Flux.fromIterable(quantityByItem.entrySet())
+                        // concatMap: one UPDATE after the other, in id order; all() stops at the first short line
+                        .concatMap(line -> itemRepository.decrementIfAvailable(line.getKey(), line.getValue()))
+                        .all(updated -> updated == 1)
+                        .flatMap(allTaken -> allTaken
+                                ? saveBasket(customer, quantityByItem, OrderStatus.PLACED)
+                                : Mono.error(new BasketRejected())));
+        return transactionalOperator.transactional(placement)
+                .onErrorResume(BasketRejected.class, rejected -> saveRejectedBasket(customerId, quantityByItem));
+    }
+
+    /**
+     * Streams the orders of a customer placed between two days (both inclusive, UTC; null means "no limit"),
+     * sorted by id.
+     *
+     * What to take care:
+     * - Archived orders (OrderArchiveService) are not read here: the reactive variant only sees the orders table.
+     */
+    public Flux<OrderView> getOrdersByCustomer(Long customerId, LocalDate from, LocalDate to) {
+        Instant start = from == null ? Instant.EPOCH : from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = to == null ? FAR_FUTURE : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return orderRepository.findJoinedByCustomer(customerId, start, end)
+                // concatMap keeps the id order; only baskets (no item) need a second query for their lines
+                .concatMap(joined -> {
+                    OrderView view = toView(joined);
+                    return view.item() != null ? Mono.just(view) : findLines(view.id()).map(view::withLines);
+                });
+    }
+
+    private Mono<OrderView> saveOrder(CustomerRow customer, ItemRow item, int quantity, OrderStatus status) {
+        OrderRow order = new OrderRow(null, customer == null ? null : customer.id(), item == null ? null : item.id(),
+                quantity, status.code(), Instant.now());
+        return orderRepository.save(order).map(saved -> OrderView.of(saved, customer, item, List.of()));
+    }
+
+    private Mono<OrderView> saveBasket(CustomerRow customer, Map<Long, Integer> quantityByItem, OrderStatus status) {
+        OrderRow order = new OrderRow(null, customer == null ? null : customer.id(), null, totalUnits(quantityByItem),
+                status.code(), Instant.now());
+        return itemRepository.findAllById(quantityByItem.keySet())
+                .collectMap(ItemRow::id)
+                .flatMap(items -> orderRepository.save(order).flatMap(saved -> Flux.fromIterable(quantityByItem.entrySet())
+                        .filter(line -> items.containsKey(line.getKey())) // lines for unknown items are left out
+                        .concatMap(line -> orderLineRepository.save(
+                                new OrderLineRow(null, saved.id(), line.getKey(), line.getValue())))
+                        .map(line -> new OrderView.Line(line.id(), items.get(line.itemId()), line.quantity()))
+                        .collectList()
+                        .map(savedLines -> OrderView.of(saved, customer, null, savedLines))));
+    }
+
+    /**
+     * Records a rejected basket for the audit trail, in its own transaction.
+     */
+    private Mono<OrderView> saveRejectedBasket(Long customerId, Map<Long, Integer> quantityByItem) {
+        return transactionalOperator.transactional(findCustomer(customerId)
+                .flatMap(customer -> saveBasket(customer.orElse(null), quantityByItem, OrderStatus.REJECTED)));
+    }
+
+    private Mono<Optional<CustomerRow>> findCustomer(Long customerId) {
+        return customerId == null ? Mono.just(Optional.empty())
+                : customerRepository.findById(customerId).map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    private Mono<Optional<ItemRow>> findItem(Long itemId) {
+        return itemId == null ? Mono.just(Optional.empty())
+                : itemRepository.findById(itemId).map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    private Mono<List<OrderView.Line>> findLines(Long orderId) {
+        return orderRepository.findJoinedLines(orderId)
+                .map(line -> new OrderView.Line(line.id(),
+                        line.itemId() == null ? null : new ItemRow(line.itemId(), line.itemName(), line.itemQuantity()),
+                        line.quantity()))
+                .collectList();
+    }
+
+    private static OrderView toView(ReactiveOrderRepository.Joined joined) {
+        CustomerRow customer = joined.customerId() == null ? null : new CustomerRow(joined.customerId(), joined.customerName());
+        ItemRow item = joined.itemId() == null ? null : new ItemRow(joined.itemId(), joined.itemName(), joined.itemQuantity());
+        return new OrderView(joined.id(), customer, item, joined.quantity(),
+                OrderStatus.fromCode(joined.status()), joined.placedAt(), List.of());
+    }
+
+    private static int totalUnits(Map<Long, Integer> quantityByItem) {
+        return quantityByItem.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,30 @@
+-- Tables of the reactive variant: the same names and columns JPA creates for the servlet variant.
+CREATE TABLE IF NOT EXISTS customers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS "inventory-item" (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    quantity INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id BIGINT REFERENCES customers (id),
+    item_id BIGINT REFERENCES "inventory-item" (id),
+    quantity INTEGER NOT NULL,
+    status SMALLINT,
+    placed_at TIMESTAMP(6) WITH TIME ZONE
+);
+CREATE INDEX IF NOT EXISTS idx_orders_placed_at ON orders (placed_at);
+CREATE INDEX IF NOT EXISTS idx_orders_status_id ON orders (status, id);
+CREATE INDEX IF NOT EXISTS idx_orders_customer_status ON orders (customer_id, status, id);
+
+CREATE TABLE IF NOT EXISTS order_lines (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id BIGINT NOT NULL REFERENCES orders (id),
+    item_id BIGINT REFERENCES "inventory-item" (id),
+    quantity INTEGER NOT NULL
+);
@@ -0,0 +1,95 @@
+package com.example.inventory.archive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the archive file format and its customer Bloom filter.
+ */
+class OrderArchiveFormatTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 15);
+    private static final long DAY_START_MILLIS = 1_768_435_200_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteThenRead_returnsOnlyTheCustomersOrders() throws IOException {
+        List<ArchivedOrder> orders = new ArrayList<>();
+        orders.add(new ArchivedOrder(100, 1, 7, 2, "PLACED", DAY_START_MILLIS, new long[0], new int[0]));
+        orders.add(new ArchivedOrder(101, 2, 7, -4, "REJECTED", DAY_START_MILLIS + 5, new long[0], new int[0]));
+        orders.add(new ArchivedOrder(105, 1, 0, 5, "PLACED", DAY_START_MILLIS + 9,
+                new long[] { 7, 9 }, new int[] { 2, 3 }));
+        orders.add(new ArchivedOrder(106, 0, 0, 1, null, DAY_START_MILLIS + 9, new long[0], new int[0]));
+
+        ArchiveFileHeader written = OrderArchiveFormat.write(directory.resolve("a.oarc"), DAY, orders);
+        ArchiveFileHeader header = OrderArchiveFormat.readHeader(written.file(), DAY);
+
+        assertEquals(written.bodyOffset(), header.bodyOffset());
+        assertEquals(4, header.rowCount());
+        assertEquals(100, header.minId());
+        assertEquals(106, header.maxId());
+
+        List<ArchivedOrder> customerOne = OrderArchiveFormat.readOrders(header, 1);
+        assertEquals(2, customerOne.size());
+        assertEquals(100, customerOne.get(0).id());
+        assertEquals("PLACED", customerOne.get(0).status());
+        ArchivedOrder basket = customerOne.get(1);
+        assertEquals(105, basket.id());
+        assertEquals(0, basket.itemId());
+        assertEquals(DAY_START_MILLIS + 9, basket.placedAtMillis());
+        assertArrayEquals(new long[] { 7, 9 }, basket.lineItemIds());
+        assertArrayEquals(new int[] { 2, 3 }, basket.lineQuantities());
+
+        ArchivedOrder rejected = OrderArchiveFormat.readOrders(header, 2).get(0);
+        assertEquals(-4, rejected.quantity());
+        assertEquals("REJECTED", rejected.status());
+        assertTrue(OrderArchiveFormat.readOrders(header, 3).isEmpty());
+    }
+
+    @Test
+    void testEncoding_isMuchSmallerThanFixedWidthRows() throws IOException {
+        List<ArchivedOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            orders.add(new ArchivedOrder(1_000_000 + i, 1 + i % 500, 1 + i % 50, 1 + i % 5,
+                    i % 10 == 0 ? "REJECTED" : "PLACED", DAY_START_MILLIS + i * 1_000L, new long[0], new int[0]));
+        }
+        Path file = OrderArchiveFormat.write(directory.resolve("big.oarc"), DAY, orders).file();
+
+        long fixedWidthBytes = 10_000L * (8 + 8 + 8 + 4 + 8 + 8); // ids, quantity, status pointer, timestamp
+        long size = Files.size(file);
+        assertTrue(size * 10 < fixedWidthBytes, "columnar + delta + dictionary encoding should shrink rows 10x");
+    }
+
+    @Test
+    void testBloomFilter_noFalseNegativesAndFewFalsePositives() {
+        CustomerBloomFilter filter = CustomerBloomFilter.forExpectedEntries(1_000);
+        for (long id = 1; id <= 1_000; id++) {
+            filter.add(id);
+        }
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        int falsePositives = 0;
+        for (long id = 1_001; id <= 11_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "expected about 1% false positives, got " + falsePositives);
+        // A filter rebuilt from its stored words answers the same
+        assertTrue(CustomerBloomFilter.of(filter.words().clone()).mightContain(500));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.inventory.archive;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+
+/**
+ * End-to-end: old orders move to archive files and GET /orders/{customerId} still returns them.
+ *
+ * Not @Transactional: the archiver commits its own transactions.
+ */
+@SpringBootTest(properties = "inventory.archive.dir=target/test-order-archive")
+@AutoConfigureMockMvc
+class OrderArchiveIntegrationTest {
+
+    private static final Path ARCHIVE_DIR = Path.of("target/test-order-archive");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Customer alice;
+    private Customer bob;
+    private InventoryItem pen;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cleanUp();
+        alice = customerRepository.save(new Customer("Alice"));
+        bob = customerRepository.save(new Customer("Bob"));
+        pen = inventoryItemRepository.save(new InventoryItem("Pen", 10));
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+        if (Files.exists(ARCHIVE_DIR)) {
+            try (Stream<Path> paths = Files.walk(ARCHIVE_DIR)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        orderArchiveService.rescan();
+    }
+
+    @Test
+    void testArchive_movesOldOrdersToFiles_andReadsMergeThemBack() throws Exception {
+        Order januaryOrder = saveOrder(alice, 1, "2026-01-10T10:00:00Z");
+        Order februaryBasket = new Order(alice, null, 3, OrderStatus.PLACED);
+        februaryBasket.addLine(pen, 3);
+        februaryBasket.setPlacedAt(Instant.parse("2026-02-20T10:00:00Z"));
+        februaryBasket = orderRepository.save(februaryBasket);
+        saveOrder(bob, 4, "2026-01-10T11:00:00Z");
+        Order recent = saveOrder(alice, 2, "2026-06-01T00:00:00Z");
+
+        int archived = orderArchiveService.archiveOlderThan(Instant.parse("2026-03-01T00:00:00Z"));
+
+        assertEquals(3, archived);
+        assertEquals(1, orderRepository.count(), "only the recent order stays in the database");
+
+        // All of Alice's orders, archived ones first (sorted by id), including the basket's line
+        mockMvc.perform(get("/orders/" + alice.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].id", contains(januaryOrder.getId().intValue(),
+                        februaryBasket.getId().intValue(), recent.getId().intValue())))
+                .andExpect(jsonPath("$[0].customer.name").value("Alice"))
+                .andExpect(jsonPath("$[0].item.name").value("Pen"))
+                .andExpect(jsonPath("$[1].lines[0].item.name").value("Pen"))
+                .andExpect(jsonPath("$[1].lines[0].quantity").value(3));
+
+        // A date range only touches the matching partition
+        mockMvc.perform(get("/orders/" + alice.getId()).param("from", "2026-02-01").param("to", "2026-02-28"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(februaryBasket.getId().intValue()));
+    }
+
+    @Test
+    void testCandidateFiles_prunedByDateAndBloomFilter() {
+        saveOrder(alice, 1, "2026-01-10T10:00:00Z");
+        saveOrder(bob, 1, "2026-01-11T10:00:00Z");
+        saveOrder(bob, 1, "2026-01-12T10:00:00Z");
+        orderArchiveService.archiveOlderThan(Instant.parse("2026-03-01T00:00:00Z"));
+
+        assertEquals(3, orderArchiveService.fileCount());
+        // Only Jan 10 can hold Alice's orders (Bloom filters of one customer each never collide here)
+        assertEquals(1, orderArchiveService.candidateFiles(alice.getId(), null, null).size());
+        assertEquals(2, orderArchiveService.candidateFiles(bob.getId(), null, null).size());
+        assertEquals(1, orderArchiveService.candidateFiles(bob.getId(), LocalDate.of(2026, 1, 12), null).size());
+        assertEquals(0, orderArchiveService.candidateFiles(bob.getId(), null, LocalDate.of(2026, 1, 10)).size());
+    }
+
+    private Order saveOrder(Customer customer, int quantity, String placedAt) {
+        Order order = new Order(customer, pen, quantity, OrderStatus.PLACED);
+        order.setPlacedAt(Instant.parse(placedAt));
+        return orderRepository.save(order);
+    }
+}
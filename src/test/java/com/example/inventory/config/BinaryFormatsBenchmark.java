@@ -0,0 +1,129 @@
+package com.example.inventory.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON against CBOR and Smile for the two hot responses: GET /inventory (items) and GET /orders/{customerId}.
+ *
+ * For each list size and format it prints the payload size and the average time to encode the list and to
+ * decode it back into entities (what a Java client does). The mappers are taken from the application's own
+ * message converters, so they use exactly the settings the API uses.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=BinaryFormatsBenchmark -Dbenchmark.sizes=10,100,1000,10000
+ */
+class BinaryFormatsBenchmark {
+
+    private static final String SIZES = System.getProperty("benchmark.sizes", "10,100,1000,10000");
+    // Every measurement repeats until it has encoded/decoded about this many list entries
+    private static final int ENTRIES_PER_RUN = Integer.getInteger("benchmark.entries", 2_000_000);
+
+    private static volatile Object sink; // keeps the JIT from dropping the work
+
+    @Test
+    void encodeDecodeAndSize_jsonVersusCborVersusSmile() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:binary-formats")
+                .run()) {
+            List<Format> formats = List.of(
+                    new Format("json", context.getBean(MappingJackson2HttpMessageConverter.class).getObjectMapper()),
+                    new Format("cbor",
+                            context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper()),
+                    new Format("smile",
+                            context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper()));
+
+            System.out.printf("%n%-8s %7s %-6s %12s %8s %12s %12s%n",
+                    "payload", "entries", "format", "bytes", "vs json", "encode us", "decode us");
+            for (String size : SIZES.split(",")) {
+                int entries = Integer.parseInt(size.trim());
+                measure("items", items(entries), InventoryItem[].class, formats);
+                measure("orders", orders(entries), Order[].class, formats);
+            }
+        }
+    }
+
+    private static void measure(String payload, Object[] list, Class<?> type, List<Format> formats) throws IOException {
+        int repetitions = Math.max(20, ENTRIES_PER_RUN / list.length);
+        int jsonBytes = 0;
+        for (Format format : formats) {
+            byte[] encoded = format.mapper.writeValueAsBytes(list);
+            assertEquals(list.length, ((Object[]) format.mapper.readValue(encoded, type)).length);
+            if (format.name.equals("json")) {
+                jsonBytes = encoded.length;
+            }
+
+            // Warm-up, then the measured runs
+            run(format.mapper, list, encoded, type, repetitions / 2);
+            long[] nanos = run(format.mapper, list, encoded, type, repetitions);
+            System.out.printf("%-8s %,7d %-6s %,12d %7.0f%% %,12.1f %,12.1f%n", payload, list.length, format.name,
+                    encoded.length, 100.0 * encoded.length / jsonBytes,
+                    nanos[0] / 1_000.0 / repetitions, nanos[1] / 1_000.0 / repetitions);
+        }
+    }
+
+    /**
+     * @return total nanoseconds spent encoding [0] and decoding [1]
+     */
+    private static long[] run(ObjectMapper mapper, Object[] list, byte[] encoded, Class<?> type, int repetitions)
+            throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink = mapper.writeValueAsBytes(list);
+        }
+        long encoding = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink = mapper.readValue(encoded, type);
+        }
+        return new long[] { encoding, System.nanoTime() - start };
+    }
+
+    private static InventoryItem[] items(int count) {
+        InventoryItem[] items = new InventoryItem[count];
+        for (int i = 0; i < count; i++) {
+            InventoryItem item = new InventoryItem("Item " + i + " stainless steel bolt M8", 1_000 + i % 500);
+            ReflectionTestUtils.setField(item, "id", (long) i + 1);
+            items[i] = item;
+        }
+        return items;
+    }
+
+    /**
+     * Orders as GET /orders/{customerId} returns them: one customer, each order with its item.
+     */
+    private static Order[] orders(int count) {
+        Customer customer = new Customer("Benchmark customer");
+        ReflectionTestUtils.setField(customer, "id", 1L);
+        InventoryItem[] items = items(Math.min(count, 100));
+        List<Order> orders = new ArrayList<>(count);
+        Instant placedAt = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < count; i++) {
+            orders.add(Order.archived((long) i + 1, customer, items[i % items.length], 1 + i % 5,
+                    i % 10 == 0 ? OrderStatus.REJECTED : OrderStatus.PLACED, placedAt.plusSeconds(i)));
+        }
+        return orders.toArray(new Order[0]);
+    }
+
+    private record Format(String name, ObjectMapper mapper) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.inventory.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+/**
+ * Test helper that plays the role of database replication between two in-memory H2 databases.
+ *
+ * How does it "replicate"?
+ * - It dumps the primary with H2's SCRIPT command and replays that dump into the replica.
+ * - Real replication streams changes continuously; this one copies everything when sync() is called,
+ *   which is perfect for tests because the replica is stale until we say otherwise.
+ */
+class H2ReplicationStandIn {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaRoutingPolicy routingPolicy;
+
+    H2ReplicationStandIn(DataSource primary, DataSource replica, ReplicaRoutingPolicy routingPolicy) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routingPolicy = routingPolicy;
+    }
+
+    /**
+     * Copies the full primary state into the replica and reports zero lag.
+     */
+    void sync() throws SQLException, IOException {
+        Path dump = Files.createTempFile("replica-sync", ".sql");
+        try {
+            String file = dump.toAbsolutePath().toString().replace("'", "''");
+            try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SCRIPT NOPASSWORDS NOSETTINGS DROP TO '" + file + "'");
+            }
+            try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+                connection.setReadOnly(false); // the replica pool is read-only for the app, not for replication
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + file + "'");
+            }
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+        routingPolicy.reportReplicaLag(Duration.ZERO);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.inventory.config;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the app with a second in-memory H2 database acting as the read replica.
+ *
+ * The replica only changes when H2ReplicationStandIn.sync() is called, so every read that
+ * still shows old data proves it was served by the replica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "inventory.datasource.replica.enabled=true",
+        "inventory.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "inventory.datasource.replica.max-staleness=30s"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ReplicaRoutingPolicy routingPolicy;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private H2ReplicationStandIn replication;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+        replication = new H2ReplicationStandIn(primaryDataSource, replicaDataSource, routingPolicy);
+        replication.sync();
+    }
+
+    @Test
+    void testPrimaryPool_keepsSpringDatasourceHikariSettings() {
+        HikariDataSource primary = (HikariDataSource) primaryDataSource;
+        assertEquals(7, primary.getMaximumPoolSize());
+        assertEquals("primary", primary.getPoolName());
+    }
+
+    @Test
+    void testGetInventory_readsReplica_untilReplicated() throws Exception {
+        mockMvc.perform(post("/inventory")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Lamp\",\"quantity\":4}"))
+                .andExpect(status().isOk());
+
+        // The write went to the primary, the replica has not caught up yet
+        mockMvc.perform(get("/inventory"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        replication.sync();
+
+        mockMvc.perform(get("/inventory"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Lamp"));
+    }
+
+    @Test
+    void testReplicaTooStale_readsFallBackToPrimary() throws Exception {
+        customerRepository.save(new Customer("Fresh"));
+
+        routingPolicy.reportReplicaLag(Duration.ofMinutes(5));
+        try {
+            mockMvc.perform(get("/customers"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+        } finally {
+            routingPolicy.reportReplicaLag(Duration.ZERO);
+        }
+
+        mockMvc.perform(get("/customers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testReadYourWrites_customerSeesOwnOrderBeforeReplication() throws Exception {
+        Customer buyer = customerRepository.save(new Customer("Buyer"));
+        Customer other = customerRepository.save(new Customer("Other"));
+        InventoryItem item = inventoryItemRepository.save(new InventoryItem("Widget", 10));
+        replication.sync();
+
+        String body = String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":2}", buyer.getId(), item.getId());
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PLACED"));
+
+        // Sticky to the primary: the new order is visible right away
+        mockMvc.perform(get("/orders/" + buyer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        // Other customers keep reading the (still stale) replica
+        mockMvc.perform(get("/orders/" + other.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/inventory"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].quantity").value(10));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.inventory.config;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Second-level and query cache (SecondLevelCacheConfig): customers come from memory, item quantities never do,
+ * and cached order lists are dropped as soon as an order is written. Statements are counted with the
+ * Server-Timing header.
+ *
+ * Not @Transactional: the cache is only filled and invalidated when real transactions commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecondLevelCacheIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Cached customer"));
+        item = inventoryItemRepository.save(new InventoryItem("Cache test " + UUID.randomUUID(), 10));
+    }
+
+    @Test
+    void testCustomerIsCached_itemIsNot() throws Exception {
+        placeOrder(3).andExpect(jsonPath("$.status").value("PLACED"));
+
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, customer.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(InventoryItem.class, item.getId()));
+    }
+
+    @Test
+    void testQuantities_neverStale_afterOrdersAndPlainSqlAdjustments() throws Exception {
+        placeOrder(3).andExpect(jsonPath("$.item.quantity").value(7));
+        assertEquals(7, searchedQuantity());
+
+        // Written with plain SQL (StockAdjustmentService), which a cached copy would not notice
+        mockMvc.perform(post("/inventory/adjustments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"itemId\":" + item.getId() + ",\"delta\":5}]}"))
+                .andExpect(status().isOk());
+        assertEquals(12, searchedQuantity());
+        placeOrder(12).andExpect(jsonPath("$.status").value("PLACED"));
+        placeOrder(1).andExpect(jsonPath("$.status").value("REJECTED"));
+    }
+
+    @Test
+    void testOrdersByCustomer_servedFromQueryCache_untilTheNextOrder() throws Exception {
+        placeOrder(1);
+
+        int first = statementsOf(mockMvc.perform(get("/orders/" + customer.getId()))
+                .andExpect(jsonPath("$", hasSize(1))));
+        int second = statementsOf(mockMvc.perform(get("/orders/" + customer.getId()))
+                .andExpect(jsonPath("$", hasSize(1))));
+        assertEquals(first - 1, second, "the orders query itself is answered by the query cache");
+
+        placeOrder(1);
+        mockMvc.perform(get("/orders/" + customer.getId()))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    private ResultActions placeOrder(int quantity) throws Exception {
+        return mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":%d}",
+                                customer.getId(), item.getId(), quantity)))
+                .andExpect(status().isOk());
+    }
+
+    private int searchedQuantity() throws Exception {
+        String body = mockMvc.perform(get("/inventory/search").param("q", item.getName()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getContentAsString();
+        Matcher matcher = Pattern.compile("\"quantity\":(\\d+)").matcher(body);
+        assertTrue(matcher.find(), body);
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static int statementsOf(ResultActions result) {
+        String header = result.andReturn().getResponse().getHeader("Server-Timing");
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertTrue(matcher.find(), header);
+        return Integer.parseInt(matcher.group(1));
+    }
+}
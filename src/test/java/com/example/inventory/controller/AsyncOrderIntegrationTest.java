@@ -0,0 +1,155 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * POST /orders in asynchronous mode: 202 + tracking id, status polling, SSE, and batch placement under load.
+ *
+ * Runs on a real port (SSE needs a real streaming response) and without a test transaction: the orders are
+ * placed by worker threads, in their own transactions.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "inventory.async-orders.enabled=true",
+        "inventory.limiter.enabled=false"
+})
+class AsyncOrderIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private Customer customer;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Async customer"));
+        item = inventoryItemRepository.save(new InventoryItem("Async item", 100));
+    }
+
+    @Test
+    void testPostOrder_returns202_thenStatusBecomesPlaced() throws Exception {
+        HttpResponse<String> accepted = postOrder(customer.getId(), item.getId(), 3);
+
+        assertEquals(202, accepted.statusCode());
+        JsonNode tracking = objectMapper.readTree(accepted.body());
+        String trackingId = tracking.get("trackingId").asText();
+        assertEquals("/orders/status/" + trackingId, accepted.headers().firstValue("Location").orElseThrow());
+
+        JsonNode status = awaitDone(trackingId);
+        assertEquals("PLACED", status.get("status").asText());
+        assertTrue(status.get("orderId").asLong() > 0);
+        assertEquals(97, inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testPostOrder_invalidRequest_returns400WithoutQueueing() throws Exception {
+        assertEquals(400, postOrder(customer.getId(), item.getId(), 0).statusCode());
+        assertEquals(400, postOrder(null, item.getId(), 1).statusCode());
+    }
+
+    @Test
+    void testStatusEvents_streamFinalStatus() throws Exception {
+        String trackingId = objectMapper.readTree(postOrder(customer.getId(), item.getId(), 1000).body())
+                .get("trackingId").asText();
+
+        HttpResponse<String> stream = httpClient.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/orders/status/" + trackingId + "/events"))
+                        .timeout(Duration.ofSeconds(10)).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, stream.statusCode());
+        assertTrue(stream.body().contains("event:order-status"), stream.body());
+        assertTrue(stream.body().contains("\"status\":\"REJECTED\""), stream.body()); // only 100 in stock
+    }
+
+    @Test
+    void testStatus_unknownTrackingId_returns404() throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/orders/status/does-not-exist")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(404, response.statusCode());
+    }
+
+    @Test
+    void testConcurrentOrders_neverOversell() throws Exception {
+        int orders = 150; // stock is 100, one unit each
+        List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < orders; i++) {
+                responses.add(clients.submit(() -> postOrder(customer.getId(), item.getId(), 1)));
+            }
+        }
+
+        int placed = 0;
+        int rejected = 0;
+        for (Future<HttpResponse<String>> response : responses) {
+            assertEquals(202, response.get().statusCode());
+            String status = awaitDone(objectMapper.readTree(response.get().body()).get("trackingId").asText())
+                    .get("status").asText();
+            if (status.equals("PLACED")) {
+                placed++;
+            } else if (status.equals("REJECTED")) {
+                rejected++;
+            }
+        }
+        assertEquals(100, placed);
+        assertEquals(50, rejected);
+        assertEquals(0, inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity());
+    }
+
+    private HttpResponse<String> postOrder(Long customerId, Long itemId, int quantity) throws Exception {
+        String body = "{\"customerId\":" + customerId + ",\"itemId\":" + itemId + ",\"quantity\":" + quantity + "}";
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode awaitDone(String trackingId) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/orders/status/" + trackingId)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode status = objectMapper.readTree(response.body());
+            if (!"QUEUED".equals(status.get("status").asText())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("order " + trackingId + " still queued");
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * CBOR and Smile requests and responses (BinaryFormatsConfig), decoded here with plain Jackson mappers.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class BinaryFormatsIntegrationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final CBORMapper cbor = new CBORMapper();
+    private final SmileMapper smile = new SmileMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Customer customer;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Binary client"));
+        item = inventoryItemRepository.save(new InventoryItem("Sensor", 12));
+    }
+
+    @Test
+    void testGetInventory_acceptCbor_returnsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/inventory").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode items = cbor.readTree(body);
+        assertEquals(1, items.size());
+        assertEquals(item.getId(), items.get(0).get("id").asLong());
+        assertEquals("Sensor", items.get(0).get("name").asText());
+        assertEquals(12, items.get(0).get("quantity").asInt());
+    }
+
+    @Test
+    void testPostOrder_smileBody_returnsSmileWithSameFieldsAsJson() throws Exception {
+        byte[] request = smile.writeValueAsBytes(
+                Map.of("customerId", customer.getId(), "itemId", item.getId(), "quantity", 5));
+
+        byte[] body = mockMvc.perform(post("/orders").contentType(SMILE).accept(SMILE).content(request))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode order = smile.readTree(body);
+        assertEquals("PLACED", order.get("status").asText());
+        assertEquals(7, order.get("item").get("quantity").asInt());
+        // Same Jackson settings as JSON: timestamps are ISO text, not numbers
+        assertTrue(order.get("placedAt").isTextual());
+    }
+
+    @Test
+    void testGetOrders_noAccept_staysJson() throws Exception {
+        mockMvc.perform(get("/orders/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
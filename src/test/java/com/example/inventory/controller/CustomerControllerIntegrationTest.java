@@ -57,4 +57,17 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$.id").exists())
                 .andExpect(jsonPath("$.name").value("NewUser"));
     }
+
+    @Test
+    void testSearchCustomers_matchesByName() throws Exception {
+        customerRepository.save(new Customer("Anna"));
+        customerRepository.save(new Customer("Joanne"));
+        customerRepository.save(new Customer("Bob"));
+
+        mockMvc.perform(get("/customers/search").param("q", "ANN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Anna"))
+                .andExpect(jsonPath("$[1].name").value("Joanne"));
+    }
 }
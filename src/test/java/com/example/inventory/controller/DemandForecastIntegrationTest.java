@@ -0,0 +1,167 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.forecast.DemandForecastService;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.repository.WarehouseRepository;
+import com.example.inventory.service.WarehouseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET /inventory/{id}/forecast and the CSV export of GET /inventory/forecasts.
+ *
+ * Not @Transactional: the forecast reads committed orders. The properties give this class its own context and
+ * database, so the model only sees the orders placed here, and no background updates run.
+ */
+@SpringBootTest(properties = {"inventory.forecast.enabled=false", "inventory.forecast.settle-time=0s"})
+@AutoConfigureMockMvc
+class DemandForecastIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DemandForecastService demandForecastService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+
+    private Customer customer;
+    private InventoryItem kettle;
+    private InventoryItem toaster;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Forecast Carla"));
+        kettle = inventoryItemRepository.save(new InventoryItem("Forecast kettle", 20));
+        toaster = inventoryItemRepository.save(new InventoryItem("Forecast toaster", 100));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        order(kettle, 4, today.minusDays(3));
+        order(kettle, 8, today.minusDays(1)); // nothing the day in between
+        demandForecastService.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> orderRepository.deleteAllByIdInBatch(orderIds));
+        stockLocationRepository.deleteAll();
+        warehouseRepository.deleteAll();
+        customerRepository.delete(customer);
+        inventoryItemRepository.deleteAll(List.of(kettle, toaster));
+    }
+
+    @Test
+    void testForecast_smoothedDemandAndReorderSuggestion() throws Exception {
+        // Smoothing 0.2 over 4, 0, 8 units: forecast 2.112/day, std dev 3.223
+        // Reorder point: 2.112 * 7 + 1.65 * 3.223 * sqrt(7) = 28.9 -> 29; order up to 29 + 2.112 * 14 -> 59
+        mockMvc.perform(get("/inventory/{id}/forecast", kettle.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(kettle.getId()))
+                .andExpect(jsonPath("$.stock").value(20))
+                .andExpect(jsonPath("$.asOf").value(LocalDate.now(ZoneOffset.UTC).minusDays(1).toString()))
+                .andExpect(jsonPath("$.averageDemand").value(closeTo(4.0, 1e-9)))
+                .andExpect(jsonPath("$.forecastDemand").value(closeTo(2.112, 1e-9)))
+                .andExpect(jsonPath("$.demandStdDev").value(closeTo(3.2230, 1e-4)))
+                .andExpect(jsonPath("$.reorderPoint").value(29))
+                .andExpect(jsonPath("$.reorderQuantity").value(39));
+    }
+
+    @Test
+    void testForecast_itemNeverOrdered_noDemand_missingItem_notFound() throws Exception {
+        mockMvc.perform(get("/inventory/{id}/forecast", toaster.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(100))
+                .andExpect(jsonPath("$.forecastDemand").value(0.0))
+                .andExpect(jsonPath("$.reorderPoint").value(0))
+                .andExpect(jsonPath("$.reorderQuantity").value(0));
+
+        mockMvc.perform(get("/inventory/{id}/forecast", 999_999))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * A warehouse-stocked item's quantity already is the sum of its warehouses: it must not be counted twice.
+     */
+    @Test
+    void testForecast_warehouseStockedItem_countsWarehouseStockOnce() throws Exception {
+        Warehouse north = warehouseService.saveWarehouse(new Warehouse("Forecast north", 1));
+        Warehouse south = warehouseService.saveWarehouse(new Warehouse("Forecast south", 2));
+        warehouseService.setStock(north.getId(), kettle.getId(), 12);
+        warehouseService.setStock(south.getId(), kettle.getId(), 8); // 20 in all, as before
+
+        mockMvc.perform(get("/inventory/{id}/forecast", kettle.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(20))
+                .andExpect(jsonPath("$.reorderQuantity").value(39));
+
+        MvcResult started = mockMvc.perform(get("/inventory/forecasts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(content().string(containsString("\n" + kettle.getId() + ",20,")));
+    }
+
+    @Test
+    void testExport_oneCsvLinePerItem() throws Exception {
+        MvcResult started = mockMvc.perform(get("/inventory/forecasts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("item_id,stock,as_of,average_demand,forecast_demand,")))
+                .andExpect(content().string(containsString("\n" + kettle.getId() + ",20,"
+                        + LocalDate.now(ZoneOffset.UTC).minusDays(1) + ",4.000,2.112,3.223,29,39\n")))
+                .andExpect(content().string(containsString("\n" + toaster.getId() + ",100,")));
+    }
+
+    private void order(InventoryItem item, int quantity, LocalDate day) {
+        Order order = new Order(customer, item, quantity, OrderStatus.PLACED);
+        order.setPlacedAt(day.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        orderIds.add(orderRepository.save(order).getId());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.repository.InventoryItemRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET /inventory served from the pre-encoded catalog snapshot.
+ *
+ * Not @Transactional on purpose: the snapshot is rebuilt after commit, on another thread.
+ */
+@SpringBootTest(properties = {
+        "inventory.catalog-snapshot.enabled=true",
+        "inventory.catalog-snapshot.debounce=10ms",
+        "inventory.catalog-snapshot.max-staleness=100ms"
+})
+@AutoConfigureMockMvc
+class InventoryCatalogSnapshotIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventoryItemRepository.deleteAll();
+        mockMvc.perform(delete("/inventory/-1")); // any change through the service refreshes the snapshot
+        Thread.sleep(150);
+    }
+
+    @Test
+    void testGetInventory_reflectsChangesMadeThroughService() throws Exception {
+        mockMvc.perform(post("/inventory")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Monitor\",\"quantity\":7}"))
+                .andExpect(status().isOk());
+        Thread.sleep(150); // longer than the staleness bound
+
+        mockMvc.perform(get("/inventory"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Monitor"))
+                .andExpect(jsonPath("$[0].quantity").value(7));
+    }
+
+    @Test
+    void testGetInventory_acceptsGzip_returnsCompressedBytes() throws Exception {
+        mockMvc.perform(post("/inventory")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Cable\",\"quantity\":3}"));
+        Thread.sleep(150);
+
+        MvcResult result = mockMvc.perform(get("/inventory").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            String json = new String(in.readAllBytes());
+            assertTrue(json.contains("\"name\":\"Cable\""));
+        }
+    }
+
+    @Test
+    void testGetInventory_acceptCbor_encodesSnapshotItemsInCbor() throws Exception {
+        mockMvc.perform(post("/inventory")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Probe\",\"quantity\":4}"));
+        Thread.sleep(150);
+
+        byte[] body = mockMvc.perform(get("/inventory").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode items = new CBORMapper().readTree(body);
+        assertEquals(1, items.size());
+        assertEquals("Probe", items.get(0).get("name").asText());
+    }
+
+    /**
+     * Accept is read with its q-values, not searched for "cbor".
+     */
+    @Test
+    void testGetInventory_acceptWithQualities_picksTheHigherRankedFormat() throws Exception {
+        mockMvc.perform(get("/inventory").header("Accept", "application/json, application/cbor;q=0.1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/inventory").header("Accept", "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/inventory").header("Accept", "*/*, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/inventory").header("Accept", "application/cbor;q=0, */*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
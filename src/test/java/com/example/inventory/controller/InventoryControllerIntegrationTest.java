@@ -76,4 +76,22 @@ class InventoryControllerIntegrationTest {
 
         assertFalse(inventoryItemRepository.findById(item.getId()).isPresent());
     }
+
+    @Test
+    void testSearchInventory_matchesByNameSortedAndLimited() throws Exception {
+        inventoryItemRepository.save(new InventoryItem("Steel bolt", 5));
+        inventoryItemRepository.save(new InventoryItem("Anchor BOLT", 7));
+        inventoryItemRepository.save(new InventoryItem("Bolt cutter", 1));
+        inventoryItemRepository.save(new InventoryItem("Washer", 9));
+
+        mockMvc.perform(get("/inventory/search").param("q", "bolt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].name").value("Anchor BOLT"))
+                .andExpect(jsonPath("$[1].name").value("Bolt cutter"))
+                .andExpect(jsonPath("$[2].name").value("Steel bolt"));
+
+        mockMvc.perform(get("/inventory/search").param("q", "bolt").param("limit", "2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
 }
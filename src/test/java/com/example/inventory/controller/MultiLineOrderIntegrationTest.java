@@ -0,0 +1,125 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * End-to-end: POST /orders/basket places all lines or none.
+ *
+ * Not @Transactional: the order runs its own transaction, and we want to see a real rollback.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MultiLineOrderIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Customer customer;
+    private InventoryItem pen;
+    private InventoryItem book;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        customer = customerRepository.save(new Customer("Basket Buyer"));
+        pen = inventoryItemRepository.save(new InventoryItem("Pen", 10));
+        book = inventoryItemRepository.save(new InventoryItem("Book", 2));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll(); // cascades to the order lines
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testBasket_allLinesInStock_placedAndEveryStockReduced() throws Exception {
+        placeBasket(line(book, 2), line(pen, 3))
+                .andExpect(jsonPath("$.status").value("PLACED"))
+                .andExpect(jsonPath("$.quantity").value(5))
+                .andExpect(jsonPath("$.lines", hasSize(2)))
+                .andExpect(jsonPath("$.lines[*].quantity", containsInAnyOrder(2, 3)));
+
+        assertEquals(7, quantityOf(pen));
+        assertEquals(0, quantityOf(book));
+    }
+
+    @Test
+    void testBasket_oneLineShort_rejectedAndNoStockTaken() throws Exception {
+        // The pen line (lower id) is taken first, then the book line fails: the pen must be given back
+        placeBasket(line(pen, 3), line(book, 5))
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.lines", hasSize(2)));
+
+        assertEquals(10, quantityOf(pen));
+        assertEquals(2, quantityOf(book));
+    }
+
+    @Test
+    void testBasket_duplicateItems_mergedIntoOneLine() throws Exception {
+        placeBasket(line(pen, 4), line(pen, 5))
+                .andExpect(jsonPath("$.status").value("PLACED"))
+                .andExpect(jsonPath("$.lines", hasSize(1)))
+                .andExpect(jsonPath("$.lines[0].quantity").value(9));
+
+        assertEquals(1, quantityOf(pen));
+    }
+
+    @Test
+    void testBasket_invalidQuantity_rejectedWithoutTakingStock() throws Exception {
+        placeBasket(line(pen, 1), line(book, 0))
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+
+        assertEquals(10, quantityOf(pen));
+    }
+
+    @Test
+    void testBasket_unknownCustomer_rejected() throws Exception {
+        String body = String.format("{\"customerId\":999999,\"lines\":[%s]}", line(pen, 1));
+        mockMvc.perform(post("/orders/basket").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+
+        assertEquals(10, quantityOf(pen));
+    }
+
+    private static String line(InventoryItem item, int quantity) {
+        return String.format("{\"itemId\":%d,\"quantity\":%d}", item.getId(), quantity);
+    }
+
+    private ResultActions placeBasket(String... lines) throws Exception {
+        String body = String.format("{\"customerId\":%d,\"lines\":[%s]}", customer.getId(), String.join(",", lines));
+        return mockMvc.perform(post("/orders/basket").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+    }
+
+    private int quantityOf(InventoryItem item) {
+        return inventoryItemRepository.findById(item.getId()).get().getQuantity();
+    }
+}
@@ -2,9 +2,13 @@ package com.example.inventory.controller;
 
 import com.example.inventory.entity.Customer;
 import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
 import com.example.inventory.repository.CustomerRepository;
 import com.example.inventory.repository.InventoryItemRepository;
 import com.example.inventory.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +37,8 @@ class OrderControllerIntegrationTest {
         private InventoryItemRepository inventoryItemRepository;
         @Autowired
         private OrderRepository orderRepository;
+        @Autowired
+        private EntityManager entityManager;
 
         private Customer customer;
         private InventoryItem item;
@@ -176,6 +182,29 @@ class OrderControllerIntegrationTest {
                 var orders = orderRepository.findAll();
                 assertTrue(orders.stream()
                                 .filter(o -> o.getQuantity() <= 0)
-                                .allMatch(o -> "REJECTED".equals(o.getStatus())));
+                                .allMatch(o -> OrderStatus.REJECTED == o.getStatus()));
+        }
+
+        @Test
+        void testGetOrdersByCustomer_lazyReferences_idsOnly_noLoading() throws Exception {
+                orderRepository.save(new Order(customer, item, 2, OrderStatus.PLACED));
+                // Forget the customer/item loaded above, as a new request would
+                entityManager.flush();
+                entityManager.clear();
+
+                Order loaded = orderRepository.findByCustomerId(customer.getId()).get(0);
+                assertEquals(customer.getId(), loaded.getCustomerId());
+                assertEquals(item.getId(), loaded.getItemId());
+                assertFalse(Hibernate.isInitialized(loaded.getCustomer()));
+                assertFalse(Hibernate.isInitialized(loaded.getItem()));
+                entityManager.clear();
+
+                mockMvc.perform(get("/orders/" + customer.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].customerId").value(customer.getId()))
+                                .andExpect(jsonPath("$[0].itemId").value(item.getId()))
+                                .andExpect(jsonPath("$[0].customer").doesNotExist())
+                                .andExpect(jsonPath("$[0].item").doesNotExist())
+                                .andExpect(jsonPath("$[0].lines", hasSize(0)));
         }
 }
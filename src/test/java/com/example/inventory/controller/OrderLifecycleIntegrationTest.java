@@ -0,0 +1,152 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Order status transitions (ship, cancel) and the status-filtered order lists.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class OrderLifecycleIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Customer customer;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Lifecycle"));
+        item = inventoryItemRepository.save(new InventoryItem("Lamp", 10));
+    }
+
+    @Test
+    void testShip_placedOrder_becomesShipped_andCannotBeCancelled() throws Exception {
+        long orderId = placeOrder(item.getId(), 4);
+
+        mockMvc.perform(post("/orders/" + orderId + "/ship"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SHIPPED"));
+        mockMvc.perform(post("/orders/" + orderId + "/cancel"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals(6, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+        // Stored as the small integer code, not as text
+        assertEquals(OrderStatus.SHIPPED.code(),
+                jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", Short.class, orderId));
+    }
+
+    @Test
+    void testCancel_placedOrder_givesStockBack_once() throws Exception {
+        long orderId = placeOrder(item.getId(), 4);
+
+        mockMvc.perform(post("/orders/" + orderId + "/cancel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"))
+                .andExpect(jsonPath("$.item.quantity").value(10));
+        mockMvc.perform(post("/orders/" + orderId + "/cancel"))
+                .andExpect(status().isConflict());
+
+        assertEquals(10, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testCancel_basket_givesEveryLineBack() throws Exception {
+        InventoryItem shade = inventoryItemRepository.save(new InventoryItem("Shade", 5));
+        String body = String.format("{\"customerId\":%d,\"lines\":[{\"itemId\":%d,\"quantity\":2},"
+                + "{\"itemId\":%d,\"quantity\":3},{\"itemId\":%d,\"quantity\":1}]}",
+                customer.getId(), item.getId(), shade.getId(), item.getId());
+        String placed = mockMvc.perform(post("/orders/basket").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(jsonPath("$.status").value("PLACED"))
+                .andReturn().getResponse().getContentAsString();
+        long orderId = objectMapper.readTree(placed).get("id").asLong();
+
+        mockMvc.perform(post("/orders/" + orderId + "/cancel"))
+                .andExpect(status().isOk());
+
+        assertEquals(10, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+        assertEquals(5, inventoryItemRepository.findById(shade.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testShip_rejectedOrder_conflict_unknownOrder_notFound() throws Exception {
+        long rejectedId = placeOrder(item.getId(), 100);
+
+        mockMvc.perform(post("/orders/" + rejectedId + "/ship"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/orders/" + (rejectedId + 1000) + "/ship"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testListByStatus_pagesByIdAndFiltersPerCustomer() throws Exception {
+        long first = placeOrder(item.getId(), 1);
+        long second = placeOrder(item.getId(), 1);
+        long third = placeOrder(item.getId(), 1);
+        placeOrder(item.getId(), 100); // REJECTED
+        mockMvc.perform(post("/orders/" + second + "/ship"));
+
+        mockMvc.perform(get("/orders").param("status", "PLACED").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(first));
+        mockMvc.perform(get("/orders").param("status", "PLACED").param("afterId", String.valueOf(first)))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(third));
+        mockMvc.perform(get("/orders/" + customer.getId()).param("status", "SHIPPED"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(second));
+        mockMvc.perform(get("/orders/" + customer.getId()).param("status", "REJECTED"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    private long placeOrder(Long itemId, int quantity) throws Exception {
+        String body = String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":%d}",
+                customer.getId(), itemId, quantity);
+        String response = mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.service.StockLocationIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The SQL statement count of POST /orders for every outcome, as documented on OrderService.placeOrder.
+ * The count comes from the Server-Timing header (see ServerTimingFilter).
+ *
+ * Not @Transactional: a test transaction would hide the statements (and commit) of the real request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderPlacementStatementsIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private StockLocationIndex stockLocationIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Statement counter"));
+        item = inventoryItemRepository.save(new InventoryItem("Counted item", 5));
+        // Count the steady state: the first order of a customer reads it into the second-level cache, and the
+        // first order of an item after startup looks up its warehouses once
+        customerRepository.findById(customer.getId());
+        stockLocationIndex.hasLocations(item.getId());
+    }
+
+    @Test
+    void testInvalidQuantity_twoStatements() throws Exception {
+        assertEquals(2, placeOrder(customer.getId(), item.getId(), 0, "REJECTED"));
+    }
+
+    @Test
+    void testInvalidQuantity_customerNotCached_threeStatements() throws Exception {
+        entityManagerFactory.getCache().evict(Customer.class, customer.getId());
+        assertEquals(3, placeOrder(customer.getId(), item.getId(), 0, "REJECTED"));
+    }
+
+    @Test
+    void testInvalidQuantity_unknownCustomer_threeStatements() throws Exception {
+        assertEquals(3, placeOrder(customer.getId() + 100_000, item.getId(), 0, "REJECTED"));
+    }
+
+    @Test
+    void testUnknownCustomer_threeStatements() throws Exception {
+        assertEquals(3, placeOrder(customer.getId() + 100_000, item.getId(), 1, "REJECTED"));
+    }
+
+    @Test
+    void testUnknownItem_twoStatements() throws Exception {
+        assertEquals(2, placeOrder(customer.getId(), item.getId() + 100_000, 1, "REJECTED"));
+    }
+
+    @Test
+    void testOutOfStock_twoStatements() throws Exception {
+        assertEquals(2, placeOrder(customer.getId(), item.getId(), 6, "REJECTED"));
+        assertEquals(5, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testPlaced_threeStatements() throws Exception {
+        assertEquals(3, placeOrder(customer.getId(), item.getId(), 2, "PLACED"));
+        assertEquals(3, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    /**
+     * @return the number of SQL statements the request ran
+     */
+    private int placeOrder(long customerId, long itemId, int quantity, String expectedStatus) throws Exception {
+        String header = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":%d}",
+                                customerId, itemId, quantity)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(expectedStatus))
+                .andReturn().getResponse().getHeader("Server-Timing");
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertTrue(matcher.find(), header);
+        return Integer.parseInt(matcher.group(1));
+    }
+}
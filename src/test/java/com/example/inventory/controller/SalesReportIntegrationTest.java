@@ -0,0 +1,198 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET /reports/sales: per-day and per-hour figures, multi-line orders, the closed-period cache and validation.
+ *
+ * Not @Transactional: reports read on their own connection pool and only see committed orders.
+ * The tiny chunk size makes even these few orders go through several fork-join chunks.
+ */
+@SpringBootTest(properties = "inventory.reports.chunk-size=2")
+@AutoConfigureMockMvc
+class SalesReportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Customer anna;
+    private Customer bob;
+    private InventoryItem lamp;
+    private InventoryItem shade;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        anna = customerRepository.save(new Customer("Report Anna"));
+        bob = customerRepository.save(new Customer("Report Bob"));
+        lamp = inventoryItemRepository.save(new InventoryItem("Report lamp", 100));
+        shade = inventoryItemRepository.save(new InventoryItem("Report shade", 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.deleteLinesOfOrders(orderIds);
+            orderRepository.deleteAllByIdInBatch(orderIds);
+        });
+        customerRepository.deleteAll(List.of(anna, bob));
+        inventoryItemRepository.deleteAll(List.of(lamp, shade));
+    }
+
+    @Test
+    void testDaily_totalsStatusesItemsAndCustomers() throws Exception {
+        order(anna, lamp, 3, OrderStatus.PLACED, "2020-03-02T10:15:00Z");
+        order(anna, shade, 1, OrderStatus.SHIPPED, "2020-03-02T10:45:00Z");
+        order(bob, lamp, 5, OrderStatus.REJECTED, "2020-03-02T14:00:00Z");
+        basket(bob, 2, 4, "2020-03-02T23:59:59Z"); // lamp 2 + shade 4
+        order(anna, lamp, 1, OrderStatus.CANCELLED, "2020-03-03T00:00:00Z");
+
+        mockMvc.perform(get("/reports/sales").param("from", "2020-03-02").param("to", "2020-03-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andExpect(jsonPath("$.periods", hasSize(2)))
+                .andExpect(jsonPath("$.periods[0].start").value("2020-03-02T00:00:00Z"))
+                .andExpect(jsonPath("$.periods[0].total.orders").value(4))
+                .andExpect(jsonPath("$.periods[0].total.units").value(15))
+                .andExpect(jsonPath("$.periods[0].total.rejectedOrders").value(1))
+                .andExpect(jsonPath("$.periods[0].total.rejectRate").value(0.25))
+                .andExpect(jsonPath("$.periods[0].byStatus.PLACED.orders").value(2))
+                .andExpect(jsonPath("$.periods[0].byStatus.PLACED.units").value(9))
+                .andExpect(jsonPath("$.periods[0].byStatus.SHIPPED.units").value(1))
+                .andExpect(jsonPath("$.periods[0].byStatus.CANCELLED.orders").value(0))
+                // Lamp: two single-item orders and one basket line
+                .andExpect(jsonPath("$.periods[0].itemCount").value(2))
+                .andExpect(jsonPath("$.periods[0].topItems[0].id").value(lamp.getId()))
+                .andExpect(jsonPath("$.periods[0].topItems[0].orders").value(3))
+                .andExpect(jsonPath("$.periods[0].topItems[0].units").value(10))
+                .andExpect(jsonPath("$.periods[0].topItems[1].units").value(5))
+                .andExpect(jsonPath("$.periods[0].customerCount").value(2))
+                .andExpect(jsonPath("$.periods[0].topCustomers[0].id").value(bob.getId()))
+                .andExpect(jsonPath("$.periods[0].topCustomers[0].units").value(11))
+                .andExpect(jsonPath("$.periods[0].topCustomers[0].rejectRate").value(0.5))
+                .andExpect(jsonPath("$.periods[1].total.orders").value(1))
+                .andExpect(jsonPath("$.periods[1].byStatus.CANCELLED.units").value(1));
+
+        mockMvc.perform(get("/reports/sales").param("from", "2020-03-02").param("to", "2020-03-02")
+                        .param("top", "1"))
+                .andExpect(jsonPath("$.periods[0].topItems", hasSize(1)))
+                .andExpect(jsonPath("$.periods[0].topCustomers", hasSize(1)));
+    }
+
+    @Test
+    void testHourly_24PeriodsPerDay() throws Exception {
+        order(anna, lamp, 2, OrderStatus.PLACED, "2020-04-01T09:59:59Z");
+        order(bob, lamp, 3, OrderStatus.PLACED, "2020-04-01T10:00:00Z");
+        order(bob, shade, 4, OrderStatus.PLACED, "2020-04-01T10:30:00Z");
+
+        mockMvc.perform(get("/reports/sales").param("from", "2020-04-01").param("to", "2020-04-01")
+                        .param("granularity", "HOUR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periods", hasSize(24)))
+                .andExpect(jsonPath("$.periods[9].total.units").value(2))
+                .andExpect(jsonPath("$.periods[10].start").value("2020-04-01T10:00:00Z"))
+                .andExpect(jsonPath("$.periods[10].end").value("2020-04-01T11:00:00Z"))
+                .andExpect(jsonPath("$.periods[10].total.orders").value(2))
+                .andExpect(jsonPath("$.periods[10].total.units").value(7))
+                .andExpect(jsonPath("$.periods[11].total.orders").value(0));
+    }
+
+    @Test
+    void testClosedPeriods_cached_openPeriod_alwaysScanned() throws Exception {
+        order(anna, lamp, 2, OrderStatus.PLACED, "2020-05-01T12:00:00Z");
+        mockMvc.perform(get("/reports/sales").param("from", "2020-05-01").param("to", "2020-05-01"))
+                .andExpect(jsonPath("$.periods[0].total.orders").value(1));
+
+        // Written behind the report's back into a closed, already reported day: the cached figures stay
+        order(anna, lamp, 2, OrderStatus.PLACED, "2020-05-01T13:00:00Z");
+        mockMvc.perform(get("/reports/sales").param("from", "2020-05-01").param("to", "2020-05-01"))
+                .andExpect(jsonPath("$.periods[0].total.orders").value(1));
+
+        // Today is still open: every report scans it again
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        long before = todaysOrders(today);
+        String body = String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":1}", anna.getId(), lamp.getId());
+        String placed = mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        orderIds.add(objectMapper.readTree(placed).get("id").asLong());
+        assertEquals(before + 1, todaysOrders(today));
+    }
+
+    @Test
+    void testInvalidRequests_badRequest() throws Exception {
+        mockMvc.perform(get("/reports/sales").param("from", "2020-03-02").param("to", "2020-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/reports/sales").param("from", "2018-01-01").param("to", "2020-01-01")
+                        .param("granularity", "HOUR"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("periods")));
+        mockMvc.perform(get("/reports/sales").param("from", "2020-03-02").param("to", "2020-03-02")
+                        .param("top", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long todaysOrders(String today) throws Exception {
+        String report = mockMvc.perform(get("/reports/sales").param("from", today).param("to", today).param("top", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(report).at("/periods/0/total/orders").asLong();
+    }
+
+    private void order(Customer customer, InventoryItem item, int quantity, OrderStatus status, String placedAt) {
+        Order order = new Order(customer, item, quantity, status);
+        order.setPlacedAt(Instant.parse(placedAt));
+        orderIds.add(orderRepository.save(order).getId());
+    }
+
+    private void basket(Customer customer, int lamps, int shades, String placedAt) {
+        Order order = new Order(customer, null, lamps + shades, OrderStatus.PLACED);
+        order.addLine(lamp, lamps);
+        order.addLine(shade, shades);
+        order.setPlacedAt(Instant.parse(placedAt));
+        orderIds.add(orderRepository.save(order).getId());
+    }
+}
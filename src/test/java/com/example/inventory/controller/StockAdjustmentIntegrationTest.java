@@ -0,0 +1,146 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.repository.WarehouseRepository;
+import com.example.inventory.service.StockLocationIndex;
+import com.example.inventory.service.WarehouseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * POST /inventory/adjustments: per-line results, and what ends up in the database.
+ *
+ * Not @Transactional: the adjustments are written with plain SQL, which the test's entity cache would not see.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StockAdjustmentIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+    @Autowired
+    private StockLocationIndex stockLocationIndex;
+    @Autowired
+    private WarehouseService warehouseService;
+
+    private InventoryItem mouse;
+    private InventoryItem keyboard;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        mouse = inventoryItemRepository.save(new InventoryItem("Mouse", 10));
+        keyboard = inventoryItemRepository.save(new InventoryItem("Keyboard", 5));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        stockLocationRepository.deleteAll();
+        warehouseRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+    }
+
+    @Test
+    void testAdjustments_deltaAndCount_appliedInOrderPerItem() throws Exception {
+        // Lines are not sorted by id on purpose, and the mouse gets a restock followed by a count
+        String body = "{\"reference\":\"delivery 4711\",\"lines\":["
+                + "{\"itemId\":" + keyboard.getId() + ",\"delta\":-2},"
+                + "{\"itemId\":" + mouse.getId() + ",\"delta\":15},"
+                + "{\"itemId\":" + mouse.getId() + ",\"count\":30}]}";
+
+        mockMvc.perform(post("/inventory/adjustments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$[0].before").value(5))
+                .andExpect(jsonPath("$[0].after").value(3))
+                .andExpect(jsonPath("$[1].before").value(10))
+                .andExpect(jsonPath("$[1].after").value(25))
+                .andExpect(jsonPath("$[2].before").value(25))
+                .andExpect(jsonPath("$[2].after").value(30));
+
+        assertEquals(30, inventoryItemRepository.findById(mouse.getId()).get().getQuantity());
+        assertEquals(3, inventoryItemRepository.findById(keyboard.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testAdjustments_badLinesSkipped_othersStillApplied() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(new Warehouse("Main", 1));
+        InventoryItem stocked = inventoryItemRepository.save(new InventoryItem("Drill", 0));
+        warehouseService.setStock(warehouse.getId(), stocked.getId(), 7);
+        try {
+            String body = "{\"lines\":["
+                    + "{\"itemId\":" + mouse.getId() + ",\"delta\":-11},"          // would go negative
+                    + "{\"itemId\":999999,\"delta\":1},"                          // unknown
+                    + "{\"itemId\":" + mouse.getId() + ",\"delta\":1,\"count\":4}," // both set
+                    + "{\"itemId\":" + keyboard.getId() + ",\"count\":-1},"        // negative count
+                    + "{\"itemId\":" + stocked.getId() + ",\"count\":100},"        // stocked per warehouse
+                    + "{\"itemId\":" + keyboard.getId() + ",\"count\":0}]}";
+
+            mockMvc.perform(post("/inventory/adjustments").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status").value("INSUFFICIENT_STOCK"))
+                    .andExpect(jsonPath("$[0].after").value(10))
+                    .andExpect(jsonPath("$[1].status").value("UNKNOWN_ITEM"))
+                    .andExpect(jsonPath("$[2].status").value("INVALID"))
+                    .andExpect(jsonPath("$[3].status").value("INVALID"))
+                    .andExpect(jsonPath("$[4].status").value("WAREHOUSE_MANAGED"))
+                    .andExpect(jsonPath("$[5].status").value("APPLIED"));
+
+            assertEquals(10, inventoryItemRepository.findById(mouse.getId()).get().getQuantity());
+            assertEquals(0, inventoryItemRepository.findById(keyboard.getId()).get().getQuantity());
+            assertEquals(7, inventoryItemRepository.findById(stocked.getId()).get().getQuantity());
+        } finally {
+            stockLocationIndex.evict(stocked.getId());
+        }
+    }
+
+    @Test
+    void testAdjustments_noLines_badRequest() throws Exception {
+        mockMvc.perform(post("/inventory/adjustments").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAdjustments_thousandsOfLines_oneRequest() throws Exception {
+        StringBuilder body = new StringBuilder("{\"lines\":[");
+        for (int i = 0; i < 2500; i++) {
+            long itemId = (i % 2 == 0 ? mouse : keyboard).getId();
+            body.append(i == 0 ? "" : ",").append("{\"itemId\":").append(itemId).append(",\"delta\":1}");
+        }
+        body.append("]}");
+
+        mockMvc.perform(post("/inventory/adjustments").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2500))
+                .andExpect(jsonPath("$[2498].after").value(1260));
+
+        assertEquals(10 + 1250, inventoryItemRepository.findById(mouse.getId()).get().getQuantity());
+        assertEquals(5 + 1250, inventoryItemRepository.findById(keyboard.getId()).get().getQuantity());
+    }
+}
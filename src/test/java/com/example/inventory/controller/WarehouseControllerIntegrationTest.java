@@ -0,0 +1,157 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.repository.WarehouseRepository;
+import com.example.inventory.service.StockLocationIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * End-to-end: warehouse stock, allocation on order placement, and the item total.
+ *
+ * Not @Transactional, so the after-commit updates of the in-memory location index really run.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class WarehouseControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private StockLocationRepository stockLocationRepository;
+    @Autowired
+    private StockLocationIndex stockLocationIndex;
+
+    private Customer customer;
+    private InventoryItem item;
+    private Warehouse near;
+    private Warehouse far;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        customer = customerRepository.save(new Customer("Warehouse Buyer"));
+        item = inventoryItemRepository.save(new InventoryItem("Drill", 99)); // 99 is replaced by the warehouse total
+        near = warehouseRepository.save(new Warehouse("Near", 1));
+        far = warehouseRepository.save(new Warehouse("Far", 5));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Other test classes share this database and delete items without knowing about stock rows
+        orderRepository.deleteAll();
+        stockLocationRepository.deleteAll();
+        warehouseRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+        if (item != null) {
+            stockLocationIndex.evict(item.getId());
+        }
+    }
+
+    @Test
+    void testSetStock_updatesItemTotal() throws Exception {
+        setStock(near, 3);
+        setStock(far, 10);
+
+        assertEquals(13, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+        mockMvc.perform(get("/warehouses/stock/" + item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testPlaceOrder_splitsAcrossWarehouses_nearestFirst() throws Exception {
+        setStock(near, 3);
+        setStock(far, 10);
+
+        placeOrder(5).andExpect(jsonPath("$.status").value("PLACED"));
+
+        assertEquals(0, stockLocationRepository.findByItemIdAndWarehouseId(item.getId(), near.getId()).get().getQuantity());
+        assertEquals(8, stockLocationRepository.findByItemIdAndWarehouseId(item.getId(), far.getId()).get().getQuantity());
+        assertEquals(8, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+
+        // Second order uses the index updated after the first commit
+        placeOrder(8).andExpect(jsonPath("$.status").value("PLACED"));
+        assertEquals(0, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testPlaceOrder_moreThanAllWarehousesHold_rejectedAndNothingChanges() throws Exception {
+        setStock(near, 3);
+        setStock(far, 10);
+
+        placeOrder(14).andExpect(jsonPath("$.status").value("REJECTED"));
+
+        assertEquals(13, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+        assertEquals(3, stockLocationRepository.findByItemIdAndWarehouseId(item.getId(), near.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testCancel_warehouseStockedOrder_conflictAndNothingChanges() throws Exception {
+        setStock(near, 3);
+        setStock(far, 10);
+        String placed = placeOrder(5).andExpect(jsonPath("$.status").value("PLACED"))
+                .andReturn().getResponse().getContentAsString();
+        long orderId = objectMapper.readTree(placed).get("id").asLong();
+
+        mockMvc.perform(post("/orders/" + orderId + "/cancel"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals("PLACED", orderRepository.findById(orderId).get().getStatus().name());
+        assertEquals(8, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testSetStock_unknownWarehouse_returns404() throws Exception {
+        mockMvc.perform(put("/warehouses/999999/stock/" + item.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":1}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void setStock(Warehouse warehouse, int quantity) throws Exception {
+        mockMvc.perform(put("/warehouses/" + warehouse.getId() + "/stock/" + item.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":" + quantity + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(quantity));
+    }
+
+    private org.springframework.test.web.servlet.ResultActions placeOrder(int quantity) throws Exception {
+        String body = String.format("{\"customerId\":%d,\"itemId\":%d,\"quantity\":%d}",
+                customer.getId(), item.getId(), quantity);
+        return mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+    }
+}
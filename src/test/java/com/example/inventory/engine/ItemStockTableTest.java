@@ -0,0 +1,58 @@
+package com.example.inventory.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the primitive open-addressing stock table, in particular removal inside probe chains.
+ */
+class ItemStockTableTest {
+
+    @Test
+    void testPutGetAddRemove() {
+        ItemStockTable table = new ItemStockTable(4);
+
+        table.put(7, 10);
+        table.add(7, -3);
+
+        assertEquals(7, table.get(7));
+        assertEquals(ItemStockTable.MISSING, table.get(8));
+        table.remove(7);
+        assertEquals(ItemStockTable.MISSING, table.get(7));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void testRandomOperations_matchAHashMap() {
+        ItemStockTable table = new ItemStockTable(8); // small on purpose: forces growth and long probe chains
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long itemId = 1 + random.nextInt(300);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    int quantity = random.nextInt(1000);
+                    table.put(itemId, quantity);
+                    expected.put(itemId, quantity);
+                }
+                case 1 -> {
+                    table.add(itemId, -1);
+                    expected.computeIfPresent(itemId, (id, quantity) -> quantity - 1);
+                }
+                default -> {
+                    table.remove(itemId);
+                    expected.remove(itemId);
+                }
+            }
+        }
+        for (long itemId = 1; itemId <= 300; itemId++) {
+            assertEquals(expected.getOrDefault(itemId, ItemStockTable.MISSING), table.get(itemId), "item " + itemId);
+        }
+        assertEquals(expected.size(), table.size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.inventory.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.service.OrderService;
+
+/**
+ * Orders per second through OrderService.placeOrder: the JPA path against the sharded engine, same workload.
+ *
+ * Workload: benchmark.threads callers, each placing orders of 1 unit on random items out of benchmark.items
+ * (fewer items = more contention on the same rows), for benchmark.seconds after a short warm-up.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=OrderEngineBenchmark -Dbenchmark.threads=64 -Dbenchmark.items=10
+ */
+class OrderEngineBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 100);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int WARMUP_SECONDS = 3;
+
+    @Test
+    void ordersPerSecond_jpaVersusSharded() throws Exception {
+        System.out.printf("%nWorkload: %d threads, %d items, %d s%n", THREADS, ITEMS, SECONDS);
+        double jpa = run("jpa", "inventory.order-engine.type=jpa");
+        double sharded = run("sharded", "inventory.order-engine.type=sharded");
+        System.out.printf("%-10s %,12.0f orders/s%n", "jpa", jpa);
+        System.out.printf("%-10s %,12.0f orders/s (%.1fx)%n", "sharded", sharded, sharded / jpa);
+    }
+
+    private static double run(String name, String... properties) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+                .properties("server.port=0", "inventory.limiter.enabled=false", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:engine-" + name)
+                .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new))) {
+            OrderService orderService = context.getBean(OrderService.class);
+            Long customerId = context.getBean(CustomerRepository.class).save(new Customer("Benchmark")).getId();
+            List<Long> itemIds = new ArrayList<>();
+            InventoryItemRepository items = context.getBean(InventoryItemRepository.class);
+            for (int i = 0; i < ITEMS; i++) {
+                itemIds.add(items.save(new InventoryItem("Item " + i, Integer.MAX_VALUE / 2)).getId());
+            }
+
+            long warmup = drive(orderService, customerId, itemIds, WARMUP_SECONDS);
+            long placed = drive(orderService, customerId, itemIds, SECONDS);
+            long stockTaken = 0;
+            for (Long itemId : itemIds) {
+                stockTaken += Integer.MAX_VALUE / 2 - items.findById(itemId).get().getQuantity();
+            }
+            // The JPA path reads, subtracts and writes back (decreaseStock), so under contention some of its
+            // updates overwrite each other: it is reported, not asserted. The engine must be exact.
+            System.out.printf("%-10s placed %,d units, stock went down by %,d%n", name, warmup + placed, stockTaken);
+            if (name.equals("sharded")) {
+                assertEquals(warmup + placed, stockTaken, "stock taken must match placed orders");
+            }
+            return placed / (double) SECONDS;
+        }
+    }
+
+    /**
+     * Places orders from THREADS threads for the given time.
+     *
+     * @return how many orders were PLACED
+     */
+    private static long drive(OrderService orderService, Long customerId, List<Long> itemIds, int seconds)
+            throws InterruptedException {
+        AtomicLong placed = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Order order = orderService.placeOrder(customerId, itemIds.get(random.nextInt(itemIds.size())), 1);
+                    if (OrderStatus.PLACED.equals(order.getStatus())) {
+                        placed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return placed.get();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.inventory.engine;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for a shard's shutdown: callers must never wait for a shard thread that is gone.
+ */
+class OrderShardTest {
+
+    /**
+     * An order published after the shard drained its ring and exited (stop() racing the engine's running
+     * check) falls back to the JPA path instead of parking forever.
+     */
+    @Test
+    void testPlace_afterShardStopped_fallsBack() throws InterruptedException {
+        OrderShard shard = new OrderShard(0, 8, 4, 16, null); // no journal: no batch is ever processed
+        shard.start();
+        shard.stop();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertNull(shard.place(1, 2, 3)));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.inventory.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.service.InventoryService;
+import com.example.inventory.service.OrderService;
+
+/**
+ * OrderService.placeOrder with inventory.order-engine.type=sharded: same results as the JPA path,
+ * stock conserved under concurrency, and external stock changes are picked up.
+ */
+@SpringBootTest(properties = {
+        "inventory.order-engine.type=sharded",
+        "inventory.order-engine.shards=2",
+        "inventory.order-engine.ring-size=64"
+})
+class ShardedOrderEngineIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired // fails the context if the switch did not turn the engine on
+    private ShardedOrderEngine orderEngine;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Engine customer"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testPlaceOrder_decidesInMemory_andPersistsTheOrder() {
+        InventoryItem item = inventoryItemRepository.save(new InventoryItem("Engine item", 5));
+
+        Order placed = orderService.placeOrder(customer.getId(), item.getId(), 3);
+        Order rejected = orderService.placeOrder(customer.getId(), item.getId(), 3);
+
+        assertEquals(OrderStatus.PLACED, placed.getStatus());
+        assertNotNull(placed.getId());
+        assertEquals(2, placed.getItem().getQuantity());
+        assertEquals(OrderStatus.REJECTED, rejected.getStatus());
+        assertEquals(2, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+        assertEquals(2, orderRepository.findByCustomerId(customer.getId()).size());
+    }
+
+    @Test
+    void testUnknownCustomerOrItem_rejectedWithoutTakingStock() {
+        InventoryItem item = inventoryItemRepository.save(new InventoryItem("Engine item", 5));
+
+        Order unknownCustomer = orderService.placeOrder(customer.getId() + 1000, item.getId(), 2);
+        Order unknownItem = orderService.placeOrder(customer.getId(), item.getId() + 1000, 2);
+        Order placed = orderService.placeOrder(customer.getId(), item.getId(), 5);
+
+        assertEquals(OrderStatus.REJECTED, unknownCustomer.getStatus());
+        assertNull(unknownCustomer.getCustomer());
+        assertEquals(OrderStatus.REJECTED, unknownItem.getStatus());
+        assertNull(unknownItem.getItem());
+        // the units of the unknown customer's order were given back
+        assertEquals(OrderStatus.PLACED, placed.getStatus());
+        assertEquals(0, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testRestockThroughInventoryService_isSeenByTheEngine() {
+        InventoryItem item = inventoryItemRepository.save(new InventoryItem("Engine item", 1));
+        assertEquals(OrderStatus.PLACED, orderService.placeOrder(customer.getId(), item.getId(), 1).getStatus());
+        assertEquals(OrderStatus.REJECTED, orderService.placeOrder(customer.getId(), item.getId(), 1).getStatus());
+
+        InventoryItem restocked = inventoryItemRepository.findById(item.getId()).get();
+        restocked.setQuantity(10);
+        inventoryService.saveItem(restocked);
+
+        assertEquals(OrderStatus.PLACED, orderService.placeOrder(customer.getId(), item.getId(), 4).getStatus());
+        assertEquals(6, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testStockChangedBehindTheEnginesBack_neverOversells() {
+        InventoryItem item = inventoryItemRepository.save(new InventoryItem("Engine item", 5));
+        assertEquals(OrderStatus.PLACED, orderService.placeOrder(customer.getId(), item.getId(), 1).getStatus());
+
+        // Straight through the repository: the engine still believes 4 units are left
+        InventoryItem emptied = inventoryItemRepository.findById(item.getId()).get();
+        emptied.setQuantity(0);
+        inventoryItemRepository.save(emptied);
+
+        // The batch's conditional UPDATE is refused, so the order falls back to the JPA path
+        assertEquals(OrderStatus.REJECTED, orderService.placeOrder(customer.getId(), item.getId(), 1).getStatus());
+        assertEquals(0, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testConcurrentOrders_stockIsConserved() throws InterruptedException {
+        int threads = 8;
+        int ordersPerThread = 50;
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(inventoryItemRepository.save(new InventoryItem("Hot item " + i, 100)).getId());
+        }
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicLong placedUnits = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int n = 0; n < ordersPerThread; n++) {
+                        int quantity = 1 + random.nextInt(3);
+                        Order order = orderService.placeOrder(customer.getId(),
+                                itemIds.get(random.nextInt(itemIds.size())), quantity);
+                        if (OrderStatus.PLACED.equals(order.getStatus())) {
+                            placedUnits.addAndGet(quantity);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS), "orders did not finish");
+        assertTrue(failures.isEmpty(), () -> "orders failed: " + failures.peek());
+
+        long remaining = 0;
+        for (Long itemId : itemIds) {
+            int quantity = inventoryItemRepository.findById(itemId).get().getQuantity();
+            assertTrue(quantity >= 0, "stock went negative");
+            remaining += quantity;
+        }
+        assertEquals(300 - remaining, placedUnits.get());
+        assertEquals(threads * ordersPerThread, orderRepository.findByCustomerId(customer.getId()).size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.inventory.forecast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A full nightly rebuild of the demand model: time and heap for benchmark.items items and benchmark.orders
+ * order rows spread evenly over a year, in id (= time) order like DemandForecastService reads them.
+ *
+ * Only the model is measured: the rows are generated, not read from a database, so this shows what the
+ * rebuild costs on top of reading the history. Item popularity is skewed (a few items get most orders).
+ *
+ * Run: mvn -Pbenchmark test -Dtest=DemandForecastBenchmark -Dbenchmark.items=1000000 -Dbenchmark.orders=100000000
+ * (small heap on purpose, e.g. -Dbenchmark.heap=256m: the model takes about 60 MB)
+ */
+class DemandForecastBenchmark {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 1_000_000);
+    private static final long ORDERS = Long.getLong("benchmark.orders", 100_000_000L);
+    private static final int DAYS = 365;
+
+    @Test
+    void rebuild_timeAndHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long started = System.nanoTime();
+        DemandModel model = new DemandModel(0.2);
+        SplittableRandom random = new SplittableRandom(42);
+        long ordersPerDay = ORDERS / DAYS;
+        long units = 0;
+        for (long order = 0; order < ORDERS; order++) {
+            int day = (int) Math.min(order / ordersPerDay, DAYS - 1);
+            // Squaring a uniform number favours low ids: the top 10% of items get about a third of the orders
+            double skew = random.nextDouble();
+            long itemId = 1 + (long) (skew * skew * ITEMS);
+            int quantity = 1 + random.nextInt(3);
+            model.add(itemId, day, quantity);
+            units += quantity;
+        }
+        model.closeDaysBefore(DAYS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        long counted = 0;
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            if (model.demandOf(itemId) != null) {
+                counted++;
+            }
+        }
+
+        System.out.printf("%n%,d items ordered of %,d, %,d order rows, %,d units over %d days%n",
+                model.size(), ITEMS, ORDERS, units, DAYS);
+        System.out.printf("%-24s %,12.1f%n", "rebuild (s)", seconds);
+        System.out.printf("%-24s %,12.0f%n", "rows/s", ORDERS / seconds);
+        System.out.printf("%-24s %,12.1f%n", "model heap (MB)", (heapAfter - heapBefore) / 1e6);
+        System.out.printf("%-24s %,12.1f%n", "max heap (MB)", runtime.maxMemory() / 1e6);
+        assertEquals(model.size(), counted);
+    }
+}
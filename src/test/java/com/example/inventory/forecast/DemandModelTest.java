@@ -0,0 +1,87 @@
+package com.example.inventory.forecast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the per-item demand model: smoothing, closing days, and the id index growing.
+ */
+class DemandModelTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void testClosedDays_smoothLevelAndVariance() {
+        DemandModel model = new DemandModel(0.2);
+
+        model.add(7, 100, 4);
+        model.add(7, 102, 8); // closes day 100 (4 units) and day 101 (none)
+        model.closeDaysBefore(103);
+
+        // level: 0.8, 0.64, 2.112; variance: 2.56, 2.1504, 10.387456
+        DemandModel.Demand demand = model.demandOf(7);
+        assertEquals(2.112, demand.forecast(), DELTA);
+        assertEquals(Math.sqrt(10.387456), demand.stdDev(), DELTA);
+        assertEquals(4.0, demand.averageRate(), DELTA); // 12 units over 3 closed days
+        assertEquals(0, demand.todayUnits());
+        assertEquals(103, model.currentDay());
+    }
+
+    @Test
+    void testOpenDay_notInForecast_andItemsNotOrderedDecay() {
+        DemandModel model = new DemandModel(0.5);
+
+        model.add(1, 10, 10);
+        model.add(2, 10, 2);
+        model.add(2, 11, 6);
+
+        DemandModel.Demand first = model.demandOf(1);
+        assertEquals(5.0, first.forecast(), DELTA);
+        model.closeDaysBefore(12);
+        assertEquals(2.5, model.demandOf(1).forecast(), DELTA); // nothing on day 11: half way back to 0
+        assertEquals(3.5, model.demandOf(2).forecast(), DELTA); // 1, then 1 + 0.5 * (6 - 1)
+
+        model.add(2, 12, 3);
+        assertEquals(3, model.demandOf(2).todayUnits());
+        assertEquals(3.5, model.demandOf(2).forecast(), DELTA);
+        assertNull(model.demandOf(3));
+    }
+
+    @Test
+    void testOlderDay_countedOnOpenDay() {
+        DemandModel model = new DemandModel(0.2);
+
+        model.add(1, 20, 1);
+        model.add(1, 19, 5); // day 19 is closed already
+
+        assertEquals(6, model.demandOf(1).todayUnits());
+        assertEquals(20, model.currentDay());
+    }
+
+    @Test
+    void testManyItems_totalsMatchAHashMap() {
+        DemandModel model = new DemandModel(0.2); // starts with 1024 slots: forces growth
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long id = 1 + random.nextInt(50_000) * 7919L;
+            int units = 1 + random.nextInt(5);
+            model.add(id, 0, units);
+            expected.merge(id, (long) units, Long::sum);
+        }
+        model.closeDaysBefore(1);
+
+        assertEquals(expected.size(), model.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            DemandModel.Demand demand = model.demandOf(entry.getKey());
+            assertEquals(entry.getValue(), demand.averageRate(), DELTA);
+            assertEquals(0.2 * entry.getValue(), demand.forecast(), DELTA);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.inventory.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the AIMD rules of AdaptiveConcurrencyLimiter (no Spring, no threads).
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    /**
+     * When the limit is used up, further requests are rejected immediately (fail fast).
+     */
+    @Test
+    void testTryAcquire_limitReached_rejects() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("t", 2, 1, 10, 0.9, 2.0);
+
+        AdaptiveConcurrencyLimiter.Permit p1 = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit p2 = limiter.tryAcquire();
+        assertNotNull(p1);
+        assertNotNull(p2);
+        assertNull(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        p1.release(true);
+        assertEquals(1, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    /**
+     * Failures mean overload: the limit shrinks multiplicatively, but never below the minimum.
+     */
+    @Test
+    void testRelease_failures_shrinkLimitDownToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("t", 20, 3, 50, 0.5, 2.0);
+
+        limiter.tryAcquire().release(false);
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire().release(false);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    /**
+     * Fast requests while the limit is actually in use grow the limit additively, up to the maximum.
+     */
+    @Test
+    void testRelease_healthyAndBusy_growsLimitUpToMaximum() {
+        // A huge latency tolerance means "never congested", so timing noise cannot affect this test
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("t", 2, 1, 4, 0.9, 1_000_000.0);
+
+        for (int round = 0; round < 5; round++) {
+            AdaptiveConcurrencyLimiter.Permit a = limiter.tryAcquire();
+            AdaptiveConcurrencyLimiter.Permit b = limiter.tryAcquire();
+            a.release(true);
+            b.release(true);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    /**
+     * Requests that take much longer than the fastest one seen mean queueing: the limit shrinks although they
+     * succeeded, so an overloaded backend gets shed load instead of longer queues.
+     */
+    @Test
+    void testRelease_slowSuccess_shrinksLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("t", 10, 1, 10, 0.5, 2.0);
+        limiter.tryAcquire().release(true); // baseline: microseconds
+
+        AdaptiveConcurrencyLimiter.Permit slow = limiter.tryAcquire();
+        Thread.sleep(50);
+        slow.release(true);
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    /**
+     * Releasing the same permit twice must not free two slots.
+     */
+    @Test
+    void testRelease_twice_countsOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("t", 5, 1, 5, 0.9, 2.0);
+        limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+
+        permit.release(true);
+        permit.release(true);
+
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.suggestedRetryAfterSeconds() >= 1);
+    }
+
+    /**
+     * Nonsense settings are refused up front.
+     */
+    @Test
+    void testConstructor_invalidSettings_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter("t", 1, 0, 5, 0.9, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter("t", 1, 1, 5, 1.5, 2.0));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.inventory.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests the filter's routing of requests to the order/read limiters and its 429 response.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimiter orderLimiter = new AdaptiveConcurrencyLimiter("orders", 1, 1, 1, 0.9, 2.0);
+    private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter("reads", 1, 1, 1, 0.9, 2.0);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(orderLimiter, readLimiter);
+
+    @Test
+    void testPostOrders_limitReached_returns429WithRetryAfter() throws Exception {
+        assertNotNull(orderLimiter.tryAcquire()); // occupy the only slot
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/orders"), response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("orders"));
+    }
+
+    @Test
+    void testReads_haveIndependentLimit() throws Exception {
+        assertNotNull(orderLimiter.tryAcquire()); // orders are saturated...
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/inventory"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus()); // ...but reads still go through
+        assertEquals(0, readLimiter.getInFlight()); // and their permit was released
+    }
+
+    @Test
+    void testUnlimitedPaths_passThrough() throws Exception {
+        assertNotNull(readLimiter.tryAcquire());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/index.html"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.inventory.limit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A small local load generator showing that the limiter keeps goodput stable under 5x overload.
+ *
+ * The "backend" is a stand-in for H2 + the connection pool: a fixed number of slots, each request holds a
+ * slot for a fixed service time, and everyone else queues. Requests arrive at a fixed rate no matter how
+ * slow the backend is (an "open" load model, like real users), and only requests that finish within the
+ * client deadline count as goodput.
+ *
+ * Wall-clock timing on a shared machine, so it is a benchmark, not part of the default suite: the AIMD rules
+ * themselves are covered by AdaptiveConcurrencyLimiterTest.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=OverloadGoodputBenchmark
+ */
+class OverloadGoodputBenchmark {
+
+    private static final int BACKEND_SLOTS = 4;
+    private static final long SERVICE_TIME_MICROS = 2_000;  // => capacity of about 2000 requests/second
+    private static final long DEADLINE_MILLIS = 50;
+    private static final long RUN_MILLIS = 1_500;
+    private static final double CAPACITY_PER_SECOND = BACKEND_SLOTS * 1_000_000.0 / SERVICE_TIME_MICROS;
+
+    @Test
+    void testGoodput_fiveTimesOverload_staysStableWithLimiter() throws InterruptedException {
+        double normalLoad = CAPACITY_PER_SECOND * 0.8;
+        double overload = normalLoad * 5;
+
+        double limitedNormal = run(normalLoad, newLimiter());
+        double limitedOverload = run(overload, newLimiter());
+        double unlimitedOverload = run(overload, null);
+
+        System.out.printf("goodput/s  limited@1x=%.0f  limited@5x=%.0f  unlimited@5x=%.0f%n",
+                limitedNormal, limitedOverload, unlimitedOverload);
+
+        assertTrue(limitedOverload >= limitedNormal * 0.5,
+                "goodput under 5x overload should stay close to goodput at normal load");
+        assertTrue(limitedOverload > unlimitedOverload * 2,
+                "without load shedding, queueing should make most requests miss their deadline");
+    }
+
+    private static AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter("test", 20, 2, 100, 0.9, 2.0);
+    }
+
+    /**
+     * Drives the simulated backend at a fixed arrival rate and returns the goodput (on-time successes/second).
+     */
+    private static double run(double requestsPerSecond, AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        Semaphore backend = new Semaphore(BACKEND_SLOTS, true);
+        AtomicLong good = new AtomicLong();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(RUN_MILLIS);
+
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long arrival = intended; // measure from the intended start, so a slow generator cannot hide queueing
+            clients.execute(() -> handle(arrival, backend, limiter, good));
+        }
+        // Give on-time requests their deadline to finish, then abandon everything still queued
+        Thread.sleep(DEADLINE_MILLIS);
+        clients.shutdownNow();
+        clients.awaitTermination(5, TimeUnit.SECONDS);
+        return good.get() * 1_000.0 / RUN_MILLIS;
+    }
+
+    private static void handle(long arrival, Semaphore backend, AdaptiveConcurrencyLimiter limiter, AtomicLong good) {
+        AdaptiveConcurrencyLimiter.Permit permit = null;
+        if (limiter != null) {
+            permit = limiter.tryAcquire();
+            if (permit == null) {
+                return; // shed: the client gets a fast 429
+            }
+        }
+        boolean onTime = false;
+        try {
+            backend.acquire();
+            try {
+                TimeUnit.MICROSECONDS.sleep(SERVICE_TIME_MICROS);
+            } finally {
+                backend.release();
+            }
+            onTime = System.nanoTime() - arrival <= TimeUnit.MILLISECONDS.toNanos(DEADLINE_MILLIS);
+            if (onTime) {
+                good.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (permit != null) {
+                permit.release(onTime);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.inventory.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Watches how many threads and database connections the application under load really uses.
+ *
+ * - Threads: the JVM's peak number of live platform threads during the window (ThreadMXBean). Virtual threads
+ *   are not counted; the load generator's own platform threads are, the same for every stack under test.
+ * - Connections: the pool's busy connections, sampled every millisecond; peak and average are reported.
+ *
+ * Usage: try (FootprintSampler sampler = FootprintSampler.start(pool::busy)) { ...load...; sampler.summary() }
+ */
+final class FootprintSampler implements AutoCloseable {
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final IntSupplier busyConnections;
+    private final Thread sampler;
+    private final int threadsBefore;
+
+    private volatile boolean running = true;
+    private volatile int peakConnections;
+    private volatile long connectionSum;
+    private volatile long samples;
+
+    private FootprintSampler(IntSupplier busyConnections) {
+        this.busyConnections = busyConnections;
+        this.threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        this.sampler = new Thread(this::sample, "footprint-sampler");
+        this.sampler.setDaemon(true);
+    }
+
+    static FootprintSampler start(IntSupplier busyConnections) {
+        FootprintSampler footprint = new FootprintSampler(busyConnections);
+        footprint.sampler.start();
+        return footprint;
+    }
+
+    private void sample() {
+        while (running) {
+            int busy = busyConnections.getAsInt();
+            peakConnections = Math.max(peakConnections, busy);
+            connectionSum += busy; // only this thread writes
+            samples++;
+            try {
+                TimeUnit.MILLISECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * One line for the report, e.g. "threads: 41 before, 233 peak | busy connections: 10 peak, 6.2 average".
+     */
+    String summary() {
+        long count = Math.max(1, samples);
+        return String.format("threads: %d before, %d peak | busy connections: %d peak, %.1f average",
+                threadsBefore, threads.getPeakThreadCount(), peakConnections, connectionSum / (double) count);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        sampler.join();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.inventory.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Load test: starts the application on a random port, seeds customers and items, then drives a mix of
+ * POST /orders, GET /inventory, GET /customers and GET /orders/{customerId} at a fixed arrival rate
+ * (see {@link OpenModelLoadGenerator}) and reports p50/p99/p999 per endpoint.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=HttpLoadBenchmark -Dload.rate=300 -Dload.duration=60s
+ *
+ * Settings (system properties, defaults in brackets):
+ * - load.customers [1000], load.items [1000]      seeded before the run
+ * - load.rate [200]                                requests per second, all endpoints together
+ * - load.warmup [5s], load.duration [30s]          warm-up is sent but not recorded
+ * - load.mix [orders=20,inventory=30,customers=20,order-lookup=30]   relative weights, 0 disables one
+ * - load.app-args ["--inventory.limiter.enabled=false"]  extra application arguments, space-separated
+ * - load.report-dir [target/load-report]           one .hgrm file per endpoint plus summary.txt
+ *
+ * summary.txt ends with the footprint of the run: peak platform threads and busy Hikari connections
+ * (see {@link FootprintSampler}). ReactiveLoadBenchmark (mvn -Preactive) runs the same load against the
+ * reactive variant, so both reports can be put side by side.
+ *
+ * The .hgrm files are HdrHistogram percentile distributions (in milliseconds) and can be plotted with
+ * HdrHistogram's online plotter to compare runs.
+ */
+class HttpLoadBenchmark {
+
+    static final int CUSTOMERS = Integer.getInteger("load.customers", 1_000);
+    static final int ITEMS = Integer.getInteger("load.items", 1_000);
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "200"));
+    private static final Duration WARMUP = DurationStyle.detectAndParse(System.getProperty("load.warmup", "5s"));
+    private static final Duration DURATION = DurationStyle.detectAndParse(System.getProperty("load.duration", "30s"));
+    private static final String MIX = System.getProperty("load.mix", "orders=20,inventory=30,customers=20,order-lookup=30");
+    private static final String APP_ARGS = System.getProperty("load.app-args", "--inventory.limiter.enabled=false");
+    private static final Path REPORT_DIRECTORY = Path.of(System.getProperty("load.report-dir", "target/load-report"));
+
+    @Test
+    void endpointLatencies_underOpenModelLoad() throws Exception {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(APP_ARGS.trim().split("\\s+")));
+        args.removeIf(String::isBlank);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+                .run(args.toArray(String[]::new))) {
+            long[] customerIds = context.getBean(CustomerRepository.class)
+                    .saveAll(IntStream.range(0, CUSTOMERS).mapToObj(i -> new Customer("Load customer " + i)).toList())
+                    .stream().mapToLong(Customer::getId).toArray();
+            long[] itemIds = context.getBean(InventoryItemRepository.class)
+                    .saveAll(IntStream.range(0, ITEMS).mapToObj(i -> new InventoryItem("Load item " + i, 1_000_000_000))
+                            .toList())
+                    .stream().mapToLong(InventoryItem::getId).toArray();
+
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            // All Hikari pools together (there are two when the read replica is configured)
+            List<HikariPoolMXBean> pools = context.getBeansOfType(HikariDataSource.class).values().stream()
+                    .map(HikariDataSource::getHikariPoolMXBean).filter(Objects::nonNull).toList();
+            run(base, customerIds, itemIds, () -> pools.stream().mapToInt(HikariPoolMXBean::getActiveConnections).sum(),
+                    REPORT_DIRECTORY);
+        }
+    }
+
+    /**
+     * Drives the configured mix against a running application and writes the report, including how many threads
+     * and busy database connections it took (ReactiveLoadBenchmark runs the same against the reactive variant).
+     */
+    static void run(String base, long[] customerIds, long[] itemIds, IntSupplier busyConnections, Path reportDirectory)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<OpenModelLoadGenerator.Step> steps = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            String name = nameAndWeight[0];
+            OpenModelLoadGenerator.Operation operation = switch (name) {
+                case "orders" -> random -> send(client, HttpRequest.newBuilder(URI.create(base + "/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"customerId\":" + pick(customerIds, random)
+                                + ",\"itemId\":" + pick(itemIds, random) + ",\"quantity\":1}")));
+                case "inventory" -> random -> send(client, HttpRequest.newBuilder(URI.create(base + "/inventory")));
+                case "customers" -> random -> send(client, HttpRequest.newBuilder(URI.create(base + "/customers")));
+                case "order-lookup" -> random -> send(client,
+                        HttpRequest.newBuilder(URI.create(base + "/orders/" + pick(customerIds, random))));
+                default -> throw new IllegalArgumentException("Unknown load.mix entry '" + name
+                        + "', expected orders, inventory, customers or order-lookup");
+            };
+            int weight = Integer.parseInt(nameAndWeight[1]);
+            if (weight > 0) {
+                steps.add(new OpenModelLoadGenerator.Step(name, weight, operation));
+            }
+        }
+
+        System.out.printf("%nLoad: %.0f req/s for %s (after %s warm-up), %,d customers, %,d items, mix %s%n",
+                RATE, DURATION, WARMUP, customerIds.length, itemIds.length, MIX);
+        Map<String, OpenModelLoadGenerator.Result> results;
+        String footprint;
+        try (FootprintSampler sampler = FootprintSampler.start(busyConnections)) {
+            results = new OpenModelLoadGenerator(steps, RATE, 42).run(WARMUP, DURATION);
+            footprint = sampler.summary();
+        }
+        report(results, footprint, reportDirectory);
+    }
+
+    private static int send(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private static long pick(long[] ids, SplittableRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    /**
+     * Prints the summary table and writes it, plus one percentile distribution per endpoint, to the report directory.
+     */
+    private static void report(Map<String, OpenModelLoadGenerator.Result> results, String footprint,
+            Path reportDirectory) throws IOException {
+        Files.createDirectories(reportDirectory);
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-14s %8s %8s %8s %9s %9s %9s %9s", "endpoint", "ok", "429", "failed",
+                "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (OpenModelLoadGenerator.Result result : results.values()) {
+            Histogram histogram = result.latencyMicros();
+            lines.add(String.format("%-14s %8d %8d %8d %9.2f %9.2f %9.2f %9.2f", result.name(), result.succeeded(),
+                    result.rejected(), result.failed(), millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(reportDirectory.resolve(result.name() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0); // microseconds -> milliseconds
+            }
+        }
+        lines.add(footprint);
+        Files.write(reportDirectory.resolve("summary.txt"), lines);
+        lines.forEach(System.out::println);
+        System.out.println("Reports written to " + reportDirectory.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.inventory.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Sends requests at a fixed arrival rate, whatever the response times are (an "open" load model), each one on
+ * its own virtual thread, and records per-operation latencies in HdrHistograms.
+ *
+ * Why an open model?
+ * - A closed loop ("send, wait for the answer, send the next") slows down together with the server: during a
+ *   2-second stall it sends nothing, so it measures one slow request instead of the hundreds of users who
+ *   would have been waiting. This is called coordinated omission, and it makes p99/p999 look far too good.
+ * - Here request i is due at start + i * interval. Its latency is measured from that intended start time, not
+ *   from when it was actually sent, so time spent waiting behind a stall is counted too.
+ *
+ * Why virtual threads?
+ * - Under overload thousands of requests can be outstanding at once. A virtual thread per request costs a few
+ *   hundred bytes, so the generator never becomes the bottleneck that limits the arrival rate.
+ *
+ * What to take care:
+ * - Latencies are recorded in microseconds.
+ * - Requests due during the warm-up are sent but not recorded.
+ */
+final class OpenModelLoadGenerator {
+
+    /**
+     * One kind of request. Returns the HTTP status code; an exception counts as a failure.
+     */
+    @FunctionalInterface
+    interface Operation {
+        int call(SplittableRandom random) throws Exception;
+    }
+
+    /**
+     * An operation and its share of the traffic (weights are relative: 2 is twice as often as 1).
+     */
+    record Step(String name, int weight, Operation operation) {
+    }
+
+    /**
+     * What happened to one operation during the measured period.
+     */
+    record Result(String name, Histogram latencyMicros, long succeeded, long rejected, long failed) {
+
+        long total() {
+            return succeeded + rejected + failed;
+        }
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final List<Step> steps;
+    private final double requestsPerSecond;
+    private final long seed;
+    private final int totalWeight;
+
+    OpenModelLoadGenerator(List<Step> steps, double requestsPerSecond, long seed) {
+        if (steps.isEmpty() || requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Need at least one step and a positive rate");
+        }
+        this.steps = List.copyOf(steps);
+        this.requestsPerSecond = requestsPerSecond;
+        this.seed = seed;
+        this.totalWeight = steps.stream().mapToInt(Step::weight).sum();
+    }
+
+    /**
+     * Runs the warm-up and then the measured period, and waits for every outstanding request.
+     *
+     * @return one result per step, in the order of the steps
+     */
+    Map<String, Result> run(Duration warmup, Duration duration) throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        Map<String, AtomicLong[]> counters = new LinkedHashMap<>(); // succeeded, rejected, failed
+        for (Step step : steps) {
+            recorders.put(step.name(), new Recorder(MAX_LATENCY_MICROS, 3));
+            counters.put(step.name(), new AtomicLong[] {new AtomicLong(), new AtomicLong(), new AtomicLong()});
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Step step = pick(random.nextInt(totalWeight));
+                SplittableRandom requestRandom = random.split(); // SplittableRandom is not thread-safe
+                boolean measured = intended >= measureFrom;
+                clients.submit(() -> {
+                    int status;
+                    try {
+                        status = step.operation().call(requestRandom);
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    if (!measured) {
+                        return;
+                    }
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    recorders.get(step.name()).recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+                    AtomicLong[] count = counters.get(step.name());
+                    count[status >= 200 && status < 300 ? 0 : status == 429 ? 1 : 2].incrementAndGet();
+                });
+            }
+        } // close() waits for the outstanding requests
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Step step : steps) {
+            AtomicLong[] count = counters.get(step.name());
+            results.put(step.name(), new Result(step.name(), recorders.get(step.name()).getIntervalHistogram(),
+                    count[0].get(), count[1].get(), count[2].get()));
+        }
+        return results;
+    }
+
+    private Step pick(int ticket) {
+        for (Step step : steps) {
+            ticket -= step.weight();
+            if (ticket < 0) {
+                return step;
+            }
+        }
+        throw new IllegalStateException("unreachable: ticket beyond total weight");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.inventory.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The load generator keeps its arrival rate when responses are slow, and counts waiting time as latency.
+ */
+class OpenModelLoadGeneratorTest {
+
+    @Test
+    void testRun_slowResponses_doNotSlowDownArrivals() throws InterruptedException {
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(List.of(
+                new OpenModelLoadGenerator.Step("slow", 1, random -> {
+                    Thread.sleep(50);
+                    return 200;
+                })), 400, 1);
+
+        OpenModelLoadGenerator.Result result = generator.run(Duration.ZERO, Duration.ofSeconds(1)).get("slow");
+
+        // A closed loop with one client would manage 20 requests in a second; the open model sends all 400
+        assertEquals(400, result.succeeded());
+        assertTrue(result.latencyMicros().getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toMicros(50));
+    }
+
+    @Test
+    void testRun_stall_isMeasuredFromIntendedStartTime() throws InterruptedException {
+        AtomicBoolean stalled = new AtomicBoolean();
+        ReentrantLock server = new ReentrantLock(); // not synchronized: that would pin the virtual threads
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(List.of(
+                new OpenModelLoadGenerator.Step("stalling", 1, random -> {
+                    server.lock(); // one request at a time, like a single worker
+                    try {
+                        if (stalled.compareAndSet(false, true)) {
+                            Thread.sleep(300);
+                        }
+                    } finally {
+                        server.unlock();
+                    }
+                    return 200;
+                })), 200, 1);
+
+        OpenModelLoadGenerator.Result result = generator.run(Duration.ZERO, Duration.ofSeconds(1)).get("stalling");
+
+        // About 60 requests arrived during the stall and each waited up to 300 ms: more than 1% of 200
+        assertEquals(200, result.total());
+        assertTrue(result.latencyMicros().getValueAtPercentile(99) >= TimeUnit.MILLISECONDS.toMicros(200),
+                "p99 must include time spent queued behind the stall");
+    }
+
+    @Test
+    void testRun_mixAndStatusCounting() throws InterruptedException {
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(List.of(
+                new OpenModelLoadGenerator.Step("ok", 3, random -> 200),
+                new OpenModelLoadGenerator.Step("shed", 1, random -> 429),
+                new OpenModelLoadGenerator.Step("broken", 1, random -> {
+                    throw new IllegalStateException("boom");
+                })), 500, 7);
+
+        Map<String, OpenModelLoadGenerator.Result> results = generator.run(Duration.ZERO, Duration.ofSeconds(1));
+
+        assertEquals(500, results.values().stream().mapToLong(OpenModelLoadGenerator.Result::total).sum());
+        assertEquals(results.get("ok").total(), results.get("ok").succeeded());
+        assertEquals(results.get("shed").total(), results.get("shed").rejected());
+        assertEquals(results.get("broken").total(), results.get("broken").failed());
+        assertTrue(results.get("ok").total() > results.get("shed").total() * 2); // weight 3 vs 1
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.inventory.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the primitive per-id sales counters: adding, merging and the top list.
+ */
+class SalesCountersTest {
+
+    @Test
+    void testAddAndGet_countsRejectRate() {
+        SalesCounters counters = new SalesCounters(4);
+
+        counters.add(7, 1, 3, 0);
+        counters.add(7, 1, 5, 1);
+
+        SalesFigures figures = counters.get(7);
+        assertEquals(2, figures.orders());
+        assertEquals(8, figures.units());
+        assertEquals(1, figures.rejectedOrders());
+        assertEquals(0.5, figures.rejectRate());
+        assertEquals(0, counters.get(8).orders());
+        assertEquals(1, counters.size());
+    }
+
+    @Test
+    void testAddAll_andTop_matchAHashMap() {
+        SalesCounters left = new SalesCounters(8); // small on purpose: forces growth
+        SalesCounters right = new SalesCounters(8);
+        Map<Long, Long> expectedUnits = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long id = 1 + random.nextInt(2_000);
+            int units = 1 + random.nextInt(10);
+            (random.nextBoolean() ? left : right).add(id, 1, units, 0);
+            expectedUnits.merge(id, (long) units, Long::sum);
+        }
+
+        left.addAll(right);
+
+        assertEquals(expectedUnits.size(), left.size());
+        for (Map.Entry<Long, Long> entry : expectedUnits.entrySet()) {
+            assertEquals(entry.getValue(), left.get(entry.getKey()).units(), "id " + entry.getKey());
+        }
+        List<Long> expectedTop = expectedUnits.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .toList();
+        assertEquals(expectedTop, left.top(10).stream().map(SalesFigures::id).toList());
+        assertEquals(List.of(), left.top(0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.inventory.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sales report scan time against the number of fork-join threads, on the same orders table.
+ *
+ * An in-memory H2 database gets benchmark.orders orders (with the columns JPA creates) spread over 30 days,
+ * every tenth one a two-line basket. Then a daily report over those days is computed with 1, 2, 4 ... up to
+ * the number of cores threads, each with one connection per thread, like the reporting pool.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=SalesReportBenchmark -Dbenchmark.orders=5000000
+ * (50M orders need a heap of about 16 GB for the in-memory database: -Dbenchmark.heap=16g)
+ */
+class SalesReportBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 5_000_000);
+    private static final int CHUNK_SIZE = Integer.getInteger("benchmark.chunk-size", 100_000);
+    private static final int DAYS = 30;
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void scanTime_versusThreads() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sales-report-benchmark;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        try (Connection keepAlive = dataSource.getConnection()) {
+            fill(keepAlive);
+
+            List<Integer> threadCounts = new ArrayList<>();
+            for (int threads = 1; threads < Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                threadCounts.add(threads);
+            }
+            threadCounts.add(Runtime.getRuntime().availableProcessors());
+
+            System.out.printf("%n%,d orders, %d days, chunks of %,d ids%n", ORDERS, DAYS, CHUNK_SIZE);
+            System.out.printf("%-8s %12s %16s %10s%n", "threads", "ms", "orders/s", "speedup");
+            double single = 0;
+            for (int threads : threadCounts) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    SalesScan scan = new SalesScan(dataSource, pool, CHUNK_SIZE);
+                    scan.run(START, Duration.ofDays(1), DAYS); // warm-up
+                    long started = System.nanoTime();
+                    PeriodAggregate[] days = scan.run(START, Duration.ofDays(1), DAYS);
+                    double millis = (System.nanoTime() - started) / 1_000_000.0;
+
+                    long orders = 0;
+                    for (PeriodAggregate day : days) {
+                        orders += day.toPeriod(START, START, 0).total().orders();
+                    }
+                    assertEquals(ORDERS, orders);
+                    if (threads == 1) {
+                        single = millis;
+                    }
+                    System.out.printf("%-8d %,12.0f %,16.0f %9.2fx%n", threads, millis, ORDERS / (millis / 1000),
+                            single / millis);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            try (Statement statement = keepAlive.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    private static void fill(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id BIGINT, item_id BIGINT,"
+                    + " quantity INTEGER NOT NULL, status SMALLINT, placed_at TIMESTAMP(6) WITH TIME ZONE)");
+            statement.execute("CREATE TABLE order_lines (id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL,"
+                    + " item_id BIGINT, quantity INTEGER NOT NULL)");
+            long spacingMillis = Duration.ofDays(DAYS).toMillis() / ORDERS;
+            // 80% PLACED, 10% SHIPPED, 7% REJECTED, 3% CANCELLED; every tenth order is a basket (no item_id)
+            statement.execute("INSERT INTO orders SELECT X, MOD(X, 100000) + 1,"
+                    + " CASE WHEN MOD(X, 10) = 0 THEN NULL ELSE MOD(X, 10000) + 1 END, MOD(X, 5) + 1,"
+                    + " CASE WHEN MOD(X, 100) < 80 THEN 1 WHEN MOD(X, 100) < 90 THEN 3"
+                    + " WHEN MOD(X, 100) < 97 THEN 2 ELSE 4 END,"
+                    + " DATEADD(MILLISECOND, (X - 1) * " + spacingMillis + ", TIMESTAMP WITH TIME ZONE"
+                    + " '2026-01-01 00:00:00Z') FROM SYSTEM_RANGE(1, " + ORDERS + ")");
+            statement.execute("INSERT INTO order_lines SELECT O.X * 2 + L.X, O.X, MOD(O.X + L.X, 10000) + 1, L.X + 1"
+                    + " FROM SYSTEM_RANGE(10, " + ORDERS + ", 10) O, SYSTEM_RANGE(0, 1) L");
+            statement.execute("CREATE INDEX idx_orders_placed_at ON orders (placed_at)");
+            statement.execute("CREATE INDEX idx_order_lines_order ON order_lines (order_id)");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.inventory.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Heap held by loaded orders: customer and item fetched with every order (what EAGER @ManyToOne did, before)
+ * against LAZY references (after), and LAZY in a read-only query (what the readOnly service methods get).
+ *
+ * Each variant loads all benchmark.orders orders into a fresh persistence context and keeps it open, like a
+ * request does until it has written its response. The heap is measured after a full GC before and after the
+ * load, so the difference is what the loaded orders (and everything they reference) retain. The table also
+ * shows the number of SQL statements each load needed.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=OrderHeapBenchmark -Dbenchmark.orders=100000
+ */
+class OrderHeapBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 100_000);
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 10_000);
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 10_000);
+
+    private static final String FETCH_ALL = "SELECT o FROM Order o JOIN FETCH o.customer JOIN FETCH o.item";
+    private static final String LAZY = "SELECT o FROM Order o";
+
+    private static volatile Object sink; // keeps the loaded orders reachable until the heap is measured
+
+    @Test
+    void heapPer100kOrders_eagerVersusLazy() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:order-heap",
+                        "spring.jpa.properties.hibernate.generate_statistics=true")
+                .run()) {
+            fill(context);
+            EntityManagerFactory factory = context.getBean(EntityManagerFactory.class);
+
+            // Warm-up: class loading and Hibernate's first-use caches would otherwise count as "order" heap
+            measure(factory, FETCH_ALL, false);
+            measure(factory, LAZY, false);
+
+            System.out.printf("%n%,d orders, %,d customers, %,d items%n", ORDERS, CUSTOMERS, ITEMS);
+            System.out.printf("%-28s %12s %14s %16s %11s%n",
+                    "loading", "heap MB", "bytes/order", "MB per 100k", "statements");
+            print("customer + item (EAGER)", measure(factory, FETCH_ALL, false));
+            print("LAZY (after)", measure(factory, LAZY, false));
+            print("LAZY, read-only query", measure(factory, LAZY, true));
+        }
+    }
+
+    private static void fill(ConfigurableApplicationContext context) {
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer("Benchmark customer " + i));
+        }
+        long firstCustomer = context.getBean(CustomerRepository.class).saveAll(customers).get(0).getId();
+        List<InventoryItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new InventoryItem("Item " + i + " stainless steel bolt M8", 1_000));
+        }
+        long firstItem = context.getBean(InventoryItemRepository.class).saveAll(items).get(0).getId();
+
+        // Status 1 = PLACED (OrderStatus code)
+        context.getBean(JdbcTemplate.class).update("INSERT INTO orders (customer_id, item_id, quantity, status,"
+                + " placed_at) SELECT ? + MOD(X, ?), ? + MOD(X * 7, ?), 1 + MOD(X, 5), 1, CURRENT_TIMESTAMP"
+                + " FROM SYSTEM_RANGE(1, ?)", firstCustomer, CUSTOMERS, firstItem, ITEMS, ORDERS);
+    }
+
+    private static Result measure(EntityManagerFactory factory, String query, boolean readOnly) {
+        Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            long before = usedHeap();
+            statistics.clear();
+            List<Order> orders = entityManager.createQuery(query, Order.class)
+                    .setHint(HibernateHints.HINT_READ_ONLY, readOnly)
+                    .getResultList();
+            long statements = statistics.getPrepareStatementCount();
+            sink = orders;
+            long after = usedHeap(); // the persistence context is still open: it is part of the cost
+            assertEquals(ORDERS, orders.size());
+            sink = null;
+            return new Result(after - before, statements);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-28s %,12.1f %,14.0f %,16.1f %,11d%n", name, result.bytes / (1024.0 * 1024.0),
+                result.bytes / (double) ORDERS, result.bytes * 100_000.0 / ORDERS / (1024.0 * 1024.0),
+                result.statements);
+    }
+
+    private record Result(long bytes, long statements) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.inventory.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * On-disk size of the orders table and its status indexes: status as text (before) against the SMALLINT code
+ * of OrderStatus (after).
+ *
+ * For each variant, a fresh H2 file database gets benchmark.orders rows with the same columns JPA creates,
+ * then the two status indexes, one after the other. After each step the file is compacted (SHUTDOWN COMPACT),
+ * so its growth is the size of what was just added.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=OrderStatusStorageBenchmark -Dbenchmark.orders=10000000
+ */
+class OrderStatusStorageBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 10_000_000);
+
+    // 80% PLACED, 10% SHIPPED, 7% REJECTED, 3% CANCELLED
+    private static final String TEXT_STATUS = "CASE WHEN MOD(X, 100) < 80 THEN 'PLACED' WHEN MOD(X, 100) < 90"
+            + " THEN 'SHIPPED' WHEN MOD(X, 100) < 97 THEN 'REJECTED' ELSE 'CANCELLED' END";
+    private static final String CODE_STATUS = "CASE WHEN MOD(X, 100) < 80 THEN 1 WHEN MOD(X, 100) < 90"
+            + " THEN 3 WHEN MOD(X, 100) < 97 THEN 2 ELSE 4 END";
+
+    @Test
+    void tableAndIndexSize_textVersusSmallintStatus() throws Exception {
+        System.out.printf("%n%,d orders%n", ORDERS);
+        System.out.printf("%-22s %12s %10s %18s %18s%n",
+                "status column", "table MB", "bytes/row", "(status, id) MB", "(cust, status) MB");
+        measure("VARCHAR(255) (before)", "VARCHAR(255)", TEXT_STATUS);
+        measure("SMALLINT (after)", "SMALLINT", CODE_STATUS);
+    }
+
+    private static void measure(String name, String columnType, String statusExpression) throws Exception {
+        Path directory = Files.createTempDirectory("order-status-storage");
+        Path file = directory.resolve("orders.mv.db");
+        String url = "jdbc:h2:file:" + directory.resolve("orders").toAbsolutePath();
+        try {
+            long empty = step(url, file, "CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id BIGINT,"
+                    + " item_id BIGINT, quantity INTEGER NOT NULL, status " + columnType + ","
+                    + " placed_at TIMESTAMP(6) WITH TIME ZONE)");
+            long table = step(url, file, "INSERT INTO orders SELECT X, MOD(X, 100000) + 1, MOD(X, 10000) + 1,"
+                    + " MOD(X, 5) + 1, " + statusExpression + ","
+                    + " TIMESTAMP WITH TIME ZONE '2026-01-01 00:00:00Z' + X * INTERVAL '1' SECOND"
+                    + " FROM SYSTEM_RANGE(1, " + ORDERS + ")");
+            long statusIndex = step(url, file, "CREATE INDEX idx_orders_status_id ON orders (status, id)");
+            long customerIndex = step(url, file,
+                    "CREATE INDEX idx_orders_customer_status ON orders (customer_id, status, id)");
+
+            long tableBytes = table - empty;
+            System.out.printf("%-22s %,12.1f %,10.1f %,18.1f %,18.1f%n", name, megabytes(tableBytes),
+                    tableBytes / (double) ORDERS, megabytes(statusIndex - table), megabytes(customerIndex - statusIndex));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Runs one statement, compacts the database and returns the size of its file afterwards.
+     */
+    private static long step(String url, Path file, String sql) throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+            statement.execute("SHUTDOWN COMPACT");
+        }
+        return Files.size(file);
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.inventory.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyList;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+
+/**
+ * Unit tests for the queue, batching and result publishing of the asynchronous order pipeline.
+ */
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderPipelineTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private AsyncOrderPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void testSubmit_workerPlacesOrder_andPublishesResult() throws Exception {
+        when(orderService.placeOrderBatch(anyList())).thenAnswer(invocation -> {
+            List<OrderRequest> requests = invocation.getArgument(0);
+            List<Order> orders = new ArrayList<>();
+            for (OrderRequest request : requests) {
+                Order order = new Order(null, null, request.quantity(),
+                        request.quantity() > 5 ? OrderStatus.REJECTED : OrderStatus.PLACED);
+                ReflectionTestUtils.setField(order, "id", 100L + request.quantity());
+                orders.add(order);
+            }
+            return orders;
+        });
+        pipeline.start();
+
+        OrderTracking placed = pipeline.submit(new OrderRequest(1L, 2L, 3));
+        OrderTracking rejected = pipeline.submit(new OrderRequest(1L, 2L, 9));
+        assertEquals(OrderTracking.QUEUED, placed.status());
+
+        assertEquals(new OrderTracking(placed.trackingId(), "PLACED", 103L),
+                pipeline.whenDone(placed.trackingId()).get(5, TimeUnit.SECONDS));
+        assertEquals(new OrderTracking(rejected.trackingId(), "REJECTED", 109L),
+                pipeline.whenDone(rejected.trackingId()).get(5, TimeUnit.SECONDS));
+        assertEquals("PLACED", pipeline.status(placed.trackingId()).status());
+        assertNull(pipeline.status("no-such-id"));
+    }
+
+    @Test
+    void testSubmit_batchFails_ordersMarkedFailed() throws Exception {
+        when(orderService.placeOrderBatch(anyList())).thenThrow(new IllegalStateException("database down"));
+        pipeline.start();
+
+        OrderTracking tracking = pipeline.submit(new OrderRequest(1L, 2L, 1));
+
+        assertEquals(OrderTracking.FAILED, pipeline.whenDone(tracking.trackingId()).get(5, TimeUnit.SECONDS).status());
+    }
+
+    @Test
+    void testSubmit_queueFull_refusesOrder() {
+        ReflectionTestUtils.setField(pipeline, "workerCount", 0); // nobody drains the queue
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 2);
+        ReflectionTestUtils.setField(pipeline, "shutdownTimeout", Duration.ZERO);
+        pipeline.start();
+
+        assertNotNull(pipeline.submit(new OrderRequest(1L, 2L, 1)));
+        assertNotNull(pipeline.submit(new OrderRequest(1L, 2L, 1)));
+        assertNull(pipeline.submit(new OrderRequest(1L, 2L, 1)));
+        assertEquals(2, pipeline.queuedOrders());
+    }
+
+    @Test
+    void testStop_ordersStillQueued_endAsFailed() throws Exception {
+        ReflectionTestUtils.setField(pipeline, "workerCount", 0);
+        ReflectionTestUtils.setField(pipeline, "shutdownTimeout", Duration.ZERO);
+        pipeline.start();
+        OrderTracking tracking = pipeline.submit(new OrderRequest(1L, 2L, 1));
+
+        pipeline.stop();
+
+        assertTrue(pipeline.whenDone(tracking.trackingId()).isDone());
+        assertEquals(OrderTracking.FAILED, pipeline.status(tracking.trackingId()).status());
+        assertNull(pipeline.submit(new OrderRequest(1L, 2L, 1)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.inventory.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.inventory.config.ReplicaRoutingPolicy;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for the copy-on-write catalog snapshot: encoding, debounced rebuilds and the staleness bound.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryCatalogCacheTest {
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+    @Mock
+    private ReplicaRoutingPolicy replicaRoutingPolicy;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private InventoryCatalogCache catalogCache;
+
+    private final List<InventoryItem> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogCache, "enabled", true);
+        ReflectionTestUtils.setField(catalogCache, "debounce", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(catalogCache, "maxStaleness", Duration.ofMinutes(1));
+        when(replicaRoutingPolicy.onPrimary(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+        when(inventoryItemRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(items));
+        items.add(new InventoryItem("Pen", 3));
+    }
+
+    /**
+     * The snapshot holds the JSON and a gzip copy of exactly the same bytes.
+     */
+    @Test
+    void testCurrent_buildsJsonAndGzip() throws IOException {
+        InventoryCatalogSnapshot snapshot = catalogCache.current();
+
+        String json = new String(snapshot.getJson());
+        assertTrue(json.contains("\"name\":\"Pen\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipJson()))) {
+            assertArrayEquals(snapshot.getJson(), in.readAllBytes());
+        }
+        assertEquals(1, snapshot.getItems().size());
+    }
+
+    /**
+     * Without changes, every request gets the same snapshot object (no DB query, no encoding).
+     */
+    @Test
+    void testCurrent_noChanges_reusesSnapshot() {
+        InventoryCatalogSnapshot first = catalogCache.current();
+        assertSame(first, catalogCache.current());
+        verify(inventoryItemRepository, times(1)).findAll();
+    }
+
+    /**
+     * A burst of changes leads to one background rebuild after the debounce delay.
+     */
+    @Test
+    void testMarkDirty_burstOfChanges_singleDebouncedRebuild() throws InterruptedException {
+        InventoryCatalogSnapshot before = catalogCache.current();
+
+        items.add(new InventoryItem("Ink", 9));
+        for (int i = 0; i < 100; i++) {
+            catalogCache.markDirty();
+        }
+        Thread.sleep(500);
+
+        InventoryCatalogSnapshot after = catalogCache.current();
+        assertNotSame(before, after);
+        assertEquals(2, after.getItems().size());
+        verify(inventoryItemRepository, times(2)).findAll();
+    }
+
+    /**
+     * If the background rebuild has not happened within max-staleness, a reader rebuilds synchronously.
+     */
+    @Test
+    void testCurrent_staleLongerThanBound_rebuildsSynchronously() throws InterruptedException {
+        ReflectionTestUtils.setField(catalogCache, "debounce", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(catalogCache, "maxStaleness", Duration.ofMillis(20));
+        catalogCache.current();
+
+        items.add(new InventoryItem("Ink", 9));
+        catalogCache.markDirty();
+        Thread.sleep(50);
+
+        assertEquals(2, catalogCache.current().getItems().size());
+    }
+}
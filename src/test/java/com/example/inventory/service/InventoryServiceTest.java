@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
@@ -19,6 +20,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.example.inventory.entity.InventoryItem;
 import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.ItemTombstoneRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.sync.ChangeVersions;
 
 /**
  * Unit tests for InventoryService using JUnit and Mockito.
@@ -34,6 +38,21 @@ class InventoryServiceTest {
     @Mock
     private InventoryItemRepository inventoryItemRepository;
 
+    @Mock
+    private InventoryCatalogCache catalogCache;
+
+    @Mock
+    private StockLocationRepository stockLocationRepository;
+
+    @Mock
+    private StockLocationIndex stockLocationIndex;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    @Mock
+    private ItemTombstoneRepository itemTombstoneRepository;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -91,6 +110,7 @@ class InventoryServiceTest {
         InventoryItem saved = inventoryService.saveItem(item);
         assertEquals("Chair", saved.getName());
         verify(inventoryItemRepository).save(item);
+        verify(catalogCache).markDirty();
     }
 
     /**
@@ -129,12 +149,13 @@ class InventoryServiceTest {
     }
 
     /**
-     * Tests deleteItemById delegates to repository.
+     * Tests deleteItemById delegates to repository and leaves a tombstone for delta sync.
      */
     @Test
     void testDeleteItemById_callsRepository() {
         inventoryService.deleteItemById(10L);
         verify(inventoryItemRepository).deleteById(10L);
+        verify(itemTombstoneRepository).save(argThat(tombstone -> tombstone.getItemId().equals(10L)));
     }
 
     // ------- Additional Business Logic Test Cases Below with Explanations -------
@@ -202,4 +223,21 @@ class InventoryServiceTest {
         assertFalse(inventoryService.decreaseStock(8L, 1));
         assertEquals(0, item.getQuantity());
     }
+
+    /**
+     * decreaseStockIfAvailable: one conditional UPDATE; the catalog only hears about successful changes.
+     */
+    @Test
+    void testDecreaseStockIfAvailable_usesConditionalUpdate() {
+        when(changeVersions.current()).thenReturn(77L);
+        when(inventoryItemRepository.decrementIfAvailable(3L, 2, 77L)).thenReturn(1);
+        when(inventoryItemRepository.decrementIfAvailable(4L, 2, 77L)).thenReturn(0);
+
+        assertTrue(inventoryService.decreaseStockIfAvailable(3L, 2));
+        assertFalse(inventoryService.decreaseStockIfAvailable(4L, 2));
+        assertFalse(inventoryService.decreaseStockIfAvailable(5L, 0)); // rejected before touching the DB
+
+        verify(catalogCache).markDirty(); // exactly once, for the successful call
+        verify(inventoryItemRepository, never()).findById(any());
+    }
 }
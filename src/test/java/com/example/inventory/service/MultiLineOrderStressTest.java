@@ -0,0 +1,128 @@
+package com.example.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.entity.OrderLine;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+
+/**
+ * Stress test: many threads place baskets that overlap on the same few items, listed in random order.
+ *
+ * What we check:
+ * - No deadlocks or lock timeouts (every call returns normally), thanks to locking in ascending item id order.
+ * - No stock is created or lost: initial stock - final stock == units on PLACED order lines, and no item
+ *   ever goes below zero.
+ */
+@SpringBootTest
+class MultiLineOrderStressTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 40;
+    private static final int ITEMS = 5;
+    private static final int INITIAL_STOCK = 150;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testOverlappingBaskets_noDeadlocksAndStockIsConserved() throws InterruptedException {
+        Customer customer = customerRepository.save(new Customer("Stress Buyer"));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(inventoryItemRepository.save(new InventoryItem("Hot item " + i, INITIAL_STOCK)).getId());
+        }
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger placed = new AtomicInteger();
+        AtomicLong placedUnits = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int n = 0; n < ORDERS_PER_THREAD; n++) {
+                        Order order = orderService.placeMultiLineOrder(customer.getId(), randomBasket(itemIds));
+                        if (OrderStatus.PLACED.equals(order.getStatus())) {
+                            placed.incrementAndGet();
+                            placedUnits.addAndGet(order.getLines().stream().mapToInt(OrderLine::getQuantity).sum());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS), "stress run did not finish (deadlock?)");
+
+        assertTrue(failures.isEmpty(), () -> "orders failed: " + failures.peek());
+
+        long remaining = 0;
+        for (Long itemId : itemIds) {
+            int quantity = inventoryItemRepository.findById(itemId).get().getQuantity();
+            assertTrue(quantity >= 0, "stock went negative");
+            remaining += quantity;
+        }
+        assertEquals((long) ITEMS * INITIAL_STOCK - remaining, placedUnits.get());
+        assertTrue(placed.get() > 0, "at least some baskets should have been placed");
+    }
+
+    /**
+     * 2-4 lines on random items, in random order (sometimes with a duplicate), 1-5 units each.
+     */
+    private static List<OrderLineRequest> randomBasket(List<Long> itemIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> shuffled = new ArrayList<>(itemIds);
+        Collections.shuffle(shuffled, random);
+        List<OrderLineRequest> lines = new ArrayList<>();
+        int size = 2 + random.nextInt(3);
+        for (int i = 0; i < size; i++) {
+            lines.add(new OrderLineRequest(shuffled.get(i % shuffled.size()), 1 + random.nextInt(5)));
+        }
+        if (random.nextInt(4) == 0) {
+            lines.add(new OrderLineRequest(shuffled.get(0), 1));
+        }
+        return lines;
+    }
+}
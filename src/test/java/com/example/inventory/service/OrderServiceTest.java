@@ -5,20 +5,28 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.inventory.archive.OrderArchiveService;
+import com.example.inventory.config.ReplicaRoutingPolicy;
 import com.example.inventory.entity.Customer;
 import com.example.inventory.entity.InventoryItem;
 import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
 import com.example.inventory.repository.CustomerRepository;
 import com.example.inventory.repository.InventoryItemRepository;
 import com.example.inventory.repository.OrderRepository;
@@ -41,10 +49,25 @@ class OrderServiceTest {
     private InventoryService inventoryService;
     @Mock
     private InventoryItemRepository inventoryItemRepository;
+    @Mock
+    private ReplicaRoutingPolicy replicaRoutingPolicy;
+    @Mock
+    private StockAllocationService stockAllocationService;
+    @Mock
+    private OrderArchiveService orderArchiveService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private OrderService orderService;
 
+    @BeforeEach
+    void runTransactionsInline() {
+        // No database here: a "transaction" just runs its callback
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     /**
      * Normal use: order placed if all conditions met, sufficient stock.
      */
@@ -57,16 +80,16 @@ class OrderServiceTest {
         item.setQuantity(10);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(inventoryService.decreaseStock(1L, 5)).thenReturn(true);
+        when(inventoryItemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(inventoryService.decreaseLockedStock(item, 5)).thenReturn(true);
 
-        Order dummyOrder = new Order(customer, item, 5, "PLACED");
+        Order dummyOrder = new Order(customer, item, 5, OrderStatus.PLACED);
         when(orderRepository.save(any(Order.class))).thenReturn(dummyOrder);
 
         Order placedOrder = orderService.placeOrder(1L, 1L, 5);
 
         assertNotNull(placedOrder);
-        assertEquals("PLACED", placedOrder.getStatus());
+        assertEquals(OrderStatus.PLACED, placedOrder.getStatus());
         assertEquals(5, placedOrder.getQuantity());
         verify(orderRepository).save(any(Order.class));
     }
@@ -76,21 +99,25 @@ class OrderServiceTest {
      */
     @Test
     void testPlaceOrder_customerOrItemMissing_rejectsOrder() {
+        InventoryItem item = new InventoryItem();
+        item.setName("ItemX");
         when(customerRepository.findById(99L)).thenReturn(Optional.empty());
-        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.of(item));
 
-        Order dummyOrder = new Order(null, null, 1, "REJECTED");
+        Order dummyOrder = new Order(null, item, 1, OrderStatus.REJECTED);
         when(orderRepository.save(any(Order.class))).thenReturn(dummyOrder);
 
         Order placedOrder = orderService.placeOrder(99L, 1L, 1);
 
         assertNotNull(placedOrder);
-        assertEquals("REJECTED", placedOrder.getStatus());
-        verify(orderRepository).save(any(Order.class));
+        assertEquals(OrderStatus.REJECTED, placedOrder.getStatus());
+        // The item is kept for the audit trail, like ShardedOrderEngine keeps it
+        verify(orderRepository).save(argThat(order -> order.getCustomer() == null && order.getItem() == item));
     }
 
     /**
-     * Edge: If quantity is zero or less, order is always REJECTED.
+     * Edge: If quantity is zero or less, order is always REJECTED, without locking or checking any stock. It keeps
+     * its customer and item, for the customer's order history and the audit trail.
      */
     @Test
     void testPlaceOrder_invalidQuantity_rejectsOrder() {
@@ -99,11 +126,10 @@ class OrderServiceTest {
         InventoryItem item = new InventoryItem();
         item.setName("ItemX");
 
+        Order dummyOrderZero = new Order(customer, item, 0, OrderStatus.REJECTED);
+        Order dummyOrderNegative = new Order(customer, item, -4, OrderStatus.REJECTED);
         when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
         when(inventoryItemRepository.findById(3L)).thenReturn(Optional.of(item));
-
-        Order dummyOrderZero = new Order(customer, item, 0, "REJECTED");
-        Order dummyOrderNegative = new Order(customer, item, -4, "REJECTED");
         when(orderRepository.save(argThat(order -> order != null && order.getQuantity() == 0)))
                 .thenReturn(dummyOrderZero);
         when(orderRepository.save(argThat(order -> order != null && order.getQuantity() == -4)))
@@ -112,16 +138,18 @@ class OrderServiceTest {
         // Test quantity zero
         Order orderZero = orderService.placeOrder(2L, 3L, 0);
         assertNotNull(orderZero);
-        assertEquals("REJECTED", orderZero.getStatus());
+        assertEquals(OrderStatus.REJECTED, orderZero.getStatus());
         assertEquals(0, orderZero.getQuantity());
 
         // Test negative quantity
         Order orderNeg = orderService.placeOrder(2L, 3L, -4);
         assertNotNull(orderNeg);
-        assertEquals("REJECTED", orderNeg.getStatus());
+        assertEquals(OrderStatus.REJECTED, orderNeg.getStatus());
         assertEquals(-4, orderNeg.getQuantity());
 
-        verify(orderRepository, times(2)).save(any(Order.class));
+        verify(orderRepository, times(2)).save(argThat(order -> order != null && order.getCustomer() == customer
+                && order.getItem() == item));
+        verify(inventoryItemRepository, never()).findByIdForUpdate(any());
     }
 
     // ----------- More Comprehensive Business Logic Tests -----------
@@ -138,16 +166,16 @@ class OrderServiceTest {
         item.setQuantity(2);
 
         when(customerRepository.findById(10L)).thenReturn(Optional.of(customer));
-        when(inventoryItemRepository.findById(10L)).thenReturn(Optional.of(item));
+        when(inventoryItemRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(item));
         // Simulate not enough stock
-        Order rejected = new Order(customer, item, 5, "REJECTED");
+        Order rejected = new Order(customer, item, 5, OrderStatus.REJECTED);
         when(orderRepository.save(any(Order.class))).thenReturn(rejected);
 
-        // Actually the service, as coded, will check item.getQuantity() >= quantity; not call decreaseStock if not enough
+        // InventoryService.decreaseLockedStock (a mock: false) says there is not enough
         Order placedOrder = orderService.placeOrder(10L, 10L, 5);
 
         assertNotNull(placedOrder);
-        assertEquals("REJECTED", placedOrder.getStatus());
+        assertEquals(OrderStatus.REJECTED, placedOrder.getStatus());
         assertEquals(5, placedOrder.getQuantity());
         verify(orderRepository).save(any(Order.class));
     }
@@ -158,7 +186,7 @@ class OrderServiceTest {
     /**
      * Simulates two consecutive orders for the last available stock:
      * The first order should succeed and reduce stock to 0; the second should be rejected.
-     * Also verifies decreaseStock method is NOT called for the rejected order.
+     * Also verifies the stock is only taken from the item that still has some.
      */
     @Test
     void testPlaceOrder_exactZeroStock_thenRejectsFurther() {
@@ -176,7 +204,7 @@ class OrderServiceTest {
 
         when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
         // First call: 1 left, second call: 0 left (mimic real repo)
-        when(inventoryItemRepository.findById(2L))
+        when(inventoryItemRepository.findByIdForUpdate(2L))
             .thenReturn(Optional.of(itemWithStock))   // first call
             .thenReturn(Optional.of(itemOutOfStock)); // second call
 
@@ -184,19 +212,21 @@ class OrderServiceTest {
         when(orderRepository.save(any(Order.class)))
             .thenAnswer(invocation -> invocation.getArgument(0));
 
-        // decreaseStock should only be called for the first order (returns true), never for the rejected one
-        when(inventoryService.decreaseStock(2L, 1))
+        // Taking the stock works for the first order only (the locked item still has 1)
+        when(inventoryService.decreaseLockedStock(itemWithStock, 1))
             .thenReturn(true);
+        when(inventoryService.decreaseLockedStock(itemOutOfStock, 1))
+            .thenReturn(false);
 
-        // First order: should succeed, decreaseStock invoked, item drops to 1->0
+        // First order: should succeed, stock taken, item drops to 1->0
         Order placedFirst = orderService.placeOrder(2L, 2L, 1);
-        assertEquals("PLACED", placedFirst.getStatus());
-        verify(inventoryService, times(1)).decreaseStock(2L, 1);
+        assertEquals(OrderStatus.PLACED, placedFirst.getStatus());
+        verify(inventoryService, times(1)).decreaseLockedStock(itemWithStock, 1);
 
-        // Second order: stock is zero, decreaseStock should NOT be called again
+        // Second order: stock is zero, so nothing is taken
         Order placedSecond = orderService.placeOrder(2L, 2L, 1);
-        assertEquals("REJECTED", placedSecond.getStatus());
-        verify(inventoryService, times(1)).decreaseStock(2L, 1); // still 1 call only
+        assertEquals(OrderStatus.REJECTED, placedSecond.getStatus());
+        verify(inventoryService, times(1)).decreaseLockedStock(itemWithStock, 1); // still 1 call only
 
         // Additionally, check that the rejected order was still for quantity 1, as requested (not remaining stock)
         assertEquals(1, placedFirst.getQuantity());
@@ -229,4 +259,49 @@ class OrderServiceTest {
         assertTrue(orderService.getOrdersByCustomer(5L).isEmpty());
         verify(orderRepository).findByCustomerId(5L);
     }
+
+    /**
+     * Archived orders are merged with the database rows, sorted by id; the database copy wins on overlap.
+     */
+    @Test
+    void testGetOrdersByCustomer_mergesArchivedOrders() {
+        Order hot = Order.archived(5L, null, null, 1, OrderStatus.PLACED, java.time.Instant.now());
+        Order archivedCopy = Order.archived(5L, null, null, 1, OrderStatus.PLACED, java.time.Instant.EPOCH);
+        Order archived = Order.archived(2L, null, null, 3, OrderStatus.REJECTED, java.time.Instant.EPOCH);
+        when(orderRepository.findByCustomerId(7L)).thenReturn(java.util.List.of(hot));
+        when(orderArchiveService.findOrders(7L, null, null)).thenReturn(java.util.List.of(archivedCopy, archived));
+
+        java.util.List<Order> orders = orderService.getOrdersByCustomer(7L);
+
+        assertEquals(2, orders.size());
+        assertEquals(2L, orders.get(0).getId());
+        assertTrue(orders.get(1) == hot, "the database row should win over its archived copy");
+    }
+
+    /**
+     * Read-your-writes: right after placing an order, the customer's order list is read on the primary.
+     */
+    @Test
+    void testGetOrdersByCustomer_recentWriter_readsFromPrimary() {
+        when(replicaRoutingPolicy.mustReadFromPrimary(6L)).thenReturn(true);
+        when(replicaRoutingPolicy.onPrimary(any())).thenAnswer(invocation ->
+                invocation.<java.util.function.Supplier<?>>getArgument(0).get());
+        when(orderRepository.findByCustomerId(6L)).thenReturn(java.util.Collections.emptyList());
+
+        assertTrue(orderService.getOrdersByCustomer(6L).isEmpty());
+        verify(replicaRoutingPolicy).onPrimary(any());
+    }
+
+    /**
+     * Every saved order (placed or rejected) marks the customer as a recent writer.
+     */
+    @Test
+    void testPlaceOrder_recordsCustomerWrite() {
+        when(customerRepository.findById(4L)).thenReturn(Optional.empty());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.placeOrder(4L, 4L, 1);
+
+        verify(replicaRoutingPolicy).recordWrite(4L);
+    }
 }
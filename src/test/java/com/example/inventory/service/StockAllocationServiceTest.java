@@ -0,0 +1,108 @@
+package com.example.inventory.service;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.service.allocation.Allocation;
+import com.example.inventory.service.allocation.LocationStock;
+import com.example.inventory.service.allocation.SplitShipmentStrategy;
+
+/**
+ * Unit tests for StockAllocationService: planning, conditional updates and recovery from a stale index.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockAllocationServiceTest {
+
+    @Mock
+    private StockLocationRepository stockLocationRepository;
+    @Mock
+    private StockLocationIndex stockLocationIndex;
+    @Mock
+    private InventoryService inventoryService;
+
+    @InjectMocks
+    private StockAllocationService stockAllocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockAllocationService, "strategies", Map.of("split-shipment", new SplitShipmentStrategy()));
+        ReflectionTestUtils.setField(stockAllocationService, "strategyName", "split-shipment");
+    }
+
+    /**
+     * Normal case: the plan is applied to each warehouse and to the item total.
+     */
+    @Test
+    void testAllocate_enoughStock_takesFromWarehousesAndTotal() {
+        when(stockLocationIndex.locationsOf(7L)).thenReturn(List.of(new LocationStock(1, 1, 2), new LocationStock(2, 3, 5)));
+        when(stockLocationRepository.decrementIfAvailable(anyLong(), anyLong(), anyInt())).thenReturn(1);
+        when(inventoryService.decreaseStockIfAvailable(7L, 4)).thenReturn(true);
+
+        List<Allocation> plan = stockAllocationService.allocate(7L, 4);
+
+        assertEquals(List.of(new Allocation(1, 2), new Allocation(2, 2)), plan);
+        verify(stockLocationRepository).decrementIfAvailable(7L, 1L, 2);
+        verify(stockLocationRepository).decrementIfAvailable(7L, 2L, 2);
+        verify(stockLocationIndex).applyAfterCommit(7L, 1L, -2);
+        verify(stockLocationIndex).applyAfterCommit(7L, 2L, -2);
+    }
+
+    /**
+     * Not enough stock anywhere: nothing is touched.
+     */
+    @Test
+    void testAllocate_notEnoughStock_changesNothing() {
+        when(stockLocationIndex.locationsOf(7L)).thenReturn(List.of(new LocationStock(1, 1, 2)));
+
+        assertTrue(stockAllocationService.allocate(7L, 3).isEmpty());
+        verify(stockLocationRepository, never()).decrementIfAvailable(anyLong(), anyLong(), anyInt());
+        verify(inventoryService, never()).decreaseStockIfAvailable(anyLong(), anyInt());
+    }
+
+    /**
+     * Stale index: the second warehouse no longer has the stock. What was taken is put back,
+     * the item is reloaded, and the new plan succeeds.
+     */
+    @Test
+    void testAllocate_staleIndex_undoesPartialPlanAndRetries() {
+        when(stockLocationIndex.locationsOf(7L))
+                .thenReturn(List.of(new LocationStock(1, 1, 2), new LocationStock(2, 3, 5)))
+                .thenReturn(List.of(new LocationStock(1, 1, 2), new LocationStock(3, 4, 9)));
+        when(stockLocationRepository.decrementIfAvailable(7L, 1L, 2)).thenReturn(1);
+        when(stockLocationRepository.decrementIfAvailable(7L, 2L, 2)).thenReturn(0);
+        when(stockLocationRepository.decrementIfAvailable(7L, 3L, 2)).thenReturn(1);
+        when(inventoryService.decreaseStockIfAvailable(7L, 4)).thenReturn(true);
+
+        List<Allocation> plan = stockAllocationService.allocate(7L, 4);
+
+        assertEquals(List.of(new Allocation(1, 2), new Allocation(3, 2)), plan);
+        verify(stockLocationRepository).increment(7L, 1L, 2);
+        verify(stockLocationIndex).evict(7L);
+    }
+
+    /**
+     * A misspelled strategy name is reported clearly.
+     */
+    @Test
+    void testAllocate_unknownStrategy_throws() {
+        ReflectionTestUtils.setField(stockAllocationService, "strategyName", "cheapest");
+        assertThrows(IllegalStateException.class, () -> stockAllocationService.allocate(7L, 1));
+    }
+}
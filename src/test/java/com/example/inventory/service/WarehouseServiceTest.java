@@ -0,0 +1,84 @@
+package com.example.inventory.service;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.StockLocation;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.StockLocationRepository;
+import com.example.inventory.repository.WarehouseRepository;
+
+/**
+ * Unit tests for WarehouseService stock changes.
+ */
+@ExtendWith(MockitoExtension.class)
+class WarehouseServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+    @Mock
+    private StockLocationRepository stockLocationRepository;
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private StockLocationIndex stockLocationIndex;
+
+    @InjectMocks
+    private WarehouseService warehouseService;
+
+    /**
+     * Setting stock creates the row, refreshes the item total and the in-memory index.
+     */
+    @Test
+    void testSetStock_newLocation_savesAndRefreshesTotal() {
+        Warehouse warehouse = new Warehouse("North", 1);
+        InventoryItem item = new InventoryItem("Bolt", 0);
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(inventoryItemRepository.findById(2L)).thenReturn(Optional.of(item));
+        when(stockLocationRepository.findByItemIdAndWarehouseId(2L, 1L)).thenReturn(Optional.empty());
+        when(stockLocationRepository.save(any(StockLocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<StockLocation> saved = warehouseService.setStock(1L, 2L, 12);
+
+        assertTrue(saved.isPresent());
+        assertEquals(12, saved.get().getQuantity());
+        verify(inventoryService).refreshAggregateQuantity(2L);
+        verify(stockLocationIndex).evictAfterCompletion(2L);
+    }
+
+    /**
+     * Unknown warehouse or item: nothing is saved.
+     */
+    @Test
+    void testSetStock_unknownWarehouse_returnsEmpty() {
+        when(warehouseRepository.findById(9L)).thenReturn(Optional.empty());
+        when(inventoryItemRepository.findById(2L)).thenReturn(Optional.of(new InventoryItem("Bolt", 0)));
+
+        assertTrue(warehouseService.setStock(9L, 2L, 5).isEmpty());
+        verify(stockLocationRepository, never()).save(any());
+    }
+
+    /**
+     * Negative stock levels are refused.
+     */
+    @Test
+    void testSetStock_negativeQuantity_throws() {
+        assertThrows(IllegalArgumentException.class, () -> warehouseService.setStock(1L, 2L, -1));
+    }
+}
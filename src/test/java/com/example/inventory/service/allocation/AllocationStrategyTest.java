@@ -0,0 +1,55 @@
+package com.example.inventory.service.allocation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the three built-in allocation strategies.
+ *
+ * Shared setup: a near warehouse with little stock, a middle one, and a far one with lots of stock.
+ */
+class AllocationStrategyTest {
+
+    private static final LocationStock NEAR = new LocationStock(1, 1, 3);
+    private static final LocationStock MIDDLE = new LocationStock(2, 5, 6);
+    private static final LocationStock FAR = new LocationStock(3, 9, 20);
+    private static final List<LocationStock> LOCATIONS = List.of(FAR, NEAR, MIDDLE);
+
+    @Test
+    void testNearest_picksNearestWarehouseWithEnoughStock() {
+        AllocationStrategy nearest = new NearestWarehouseStrategy();
+
+        assertEquals(List.of(new Allocation(1, 2)), nearest.allocate(2, LOCATIONS));
+        assertEquals(List.of(new Allocation(2, 5)), nearest.allocate(5, LOCATIONS)); // NEAR has only 3
+        assertTrue(nearest.allocate(21, LOCATIONS).isEmpty());
+    }
+
+    @Test
+    void testMostStock_picksFullestWarehouse() {
+        AllocationStrategy mostStock = new MostStockStrategy();
+
+        assertEquals(List.of(new Allocation(3, 2)), mostStock.allocate(2, LOCATIONS));
+        assertTrue(mostStock.allocate(21, LOCATIONS).isEmpty());
+        assertTrue(mostStock.allocate(1, List.of()).isEmpty());
+    }
+
+    @Test
+    void testSplitShipment_fillsNearestFirstAcrossWarehouses() {
+        AllocationStrategy split = new SplitShipmentStrategy();
+
+        assertEquals(List.of(new Allocation(1, 2)), split.allocate(2, LOCATIONS));
+        assertEquals(List.of(new Allocation(1, 3), new Allocation(2, 6), new Allocation(3, 1)),
+                split.allocate(10, LOCATIONS));
+        assertTrue(split.allocate(30, LOCATIONS).isEmpty()); // 29 in total: never a partial plan
+    }
+
+    @Test
+    void testSplitShipment_skipsEmptyWarehouses() {
+        List<LocationStock> locations = List.of(new LocationStock(1, 1, 0), new LocationStock(2, 2, 4));
+
+        assertEquals(List.of(new Allocation(2, 4)), new SplitShipmentStrategy().allocate(4, locations));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.inventory.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+
+/**
+ * Round trip: data written in one application run is back after a "restart" with a brand-new in-memory DB.
+ */
+class DatabaseSnapshotIntegrationTest {
+
+    @TempDir
+    Path snapshots;
+
+    @Test
+    void testShutdownSnapshot_isRestoredIntoFreshDatabase() {
+        Long customerId;
+        Long itemId;
+        try (ConfigurableApplicationContext first = start("snapshot-first")) {
+            Customer customer = first.getBean(CustomerRepository.class).save(new Customer("It's \"quoted\", too"));
+            InventoryItem item = first.getBean(InventoryItemRepository.class).save(new InventoryItem("Pen", 7));
+            Order order = new Order(customer, item, 2, OrderStatus.PLACED);
+            order.setPlacedAt(Instant.parse("2026-01-10T10:00:00.123456Z"));
+            first.getBean(OrderRepository.class).save(order);
+            first.getBean(OrderRepository.class).save(new Order(customer, null, 0, OrderStatus.REJECTED));
+            customerId = customer.getId();
+            itemId = item.getId();
+        } // closing the context writes the shutdown snapshot
+
+        assertTrue(Files.exists(snapshots.resolve("CURRENT")));
+
+        try (ConfigurableApplicationContext second = start("snapshot-second")) {
+            CustomerRepository customers = second.getBean(CustomerRepository.class);
+            InventoryItemRepository items = second.getBean(InventoryItemRepository.class);
+            assertEquals("It's \"quoted\", too", customers.findById(customerId).get().getName());
+            assertEquals(7, items.findById(itemId).get().getQuantity());
+
+            List<Order> orders = second.getBean(OrderRepository.class).findByCustomerId(customerId);
+            assertEquals(2, orders.size());
+            assertEquals(Instant.parse("2026-01-10T10:00:00.123456Z"), orders.get(0).getPlacedAt());
+            assertNull(orders.get(1).getItem(), "NULL columns must come back as NULL");
+
+            // Id counters were moved past the restored rows
+            InventoryItem next = items.save(new InventoryItem("Book", 1));
+            assertTrue(next.getId() > itemId);
+        }
+    }
+
+    private ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(InventorySystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName,
+                        "inventory.snapshot.enabled=true",
+                        "inventory.snapshot.interval=0",
+                        "inventory.snapshot.dir=" + snapshots)
+                .run();
+    }
+}
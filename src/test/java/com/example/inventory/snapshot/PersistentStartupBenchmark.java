@@ -0,0 +1,153 @@
+package com.example.inventory.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.InventoryItemRepository;
+
+/**
+ * Measures time-to-ready after a restart with a large database, for both persistent modes:
+ * - "persistent" profile: file-backed H2, nothing to reload.
+ * - in-memory + snapshot: bulk-load of the CSV snapshot at startup.
+ * and compares them with reloading the rows one by one through JPA (measured on a sample, extrapolated).
+ *
+ * Run: mvn -Pbenchmark test -Dtest=PersistentStartupBenchmark -Dbenchmark.items=1000000 -Dbenchmark.orders=10000000
+ * (defaults are 10x smaller so the benchmark fits a laptop; "time-to-ready" = context started + first HTTP 200)
+ */
+class PersistentStartupBenchmark {
+
+    private static final long ITEMS = Long.getLong("benchmark.items", 100_000);
+    private static final long ORDERS = Long.getLong("benchmark.orders", 1_000_000);
+    private static final long CUSTOMERS = Long.getLong("benchmark.customers", 10_000);
+    private static final int JPA_SAMPLE = 5_000;
+
+    @TempDir
+    Path workDirectory;
+
+    private long lastReadyMillis;
+
+    @Test
+    void timeToReady_afterRestart() throws Exception {
+        System.out.printf("%nDataset: %,d customers, %,d items, %,d orders%n", CUSTOMERS, ITEMS, ORDERS);
+
+        // --- file-backed H2 ("persistent" profile) ---
+        String fileUrl = "jdbc:h2:file:" + workDirectory.resolve("db/inventory").toAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE";
+        try (ConfigurableApplicationContext seeding = start(List.of("persistent"), "spring.datasource.url=" + fileUrl)) {
+            seed(seeding);
+        }
+        long fileReady;
+        try (ConfigurableApplicationContext restarted = startTimed(List.of("persistent"), "spring.datasource.url=" + fileUrl)) {
+            fileReady = lastReadyMillis;
+            assertCounts(restarted);
+        }
+
+        // --- in-memory H2 + CSV snapshot ---
+        String snapshotDir = "inventory.snapshot.dir=" + workDirectory.resolve("snapshots");
+        long snapshotWrite;
+        ConfigurableApplicationContext seeding = start(List.of(), "spring.datasource.url=jdbc:h2:mem:bench-seed",
+                "inventory.snapshot.enabled=true", "inventory.snapshot.interval=0", "inventory.snapshot.on-shutdown=false",
+                snapshotDir);
+        try (seeding) {
+            seed(seeding);
+            long started = System.nanoTime();
+            seeding.getBean(DatabaseSnapshotService.class).snapshot();
+            snapshotWrite = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        }
+        long snapshotReady;
+        double jpaRowsPerSecond;
+        try (ConfigurableApplicationContext restarted = startTimed(List.of(),
+                "spring.datasource.url=jdbc:h2:mem:bench-restore", "inventory.snapshot.enabled=true",
+                "inventory.snapshot.interval=0", "inventory.snapshot.on-shutdown=false", snapshotDir)) {
+            snapshotReady = lastReadyMillis;
+            assertCounts(restarted);
+            jpaRowsPerSecond = measureJpaSaves(restarted);
+        }
+
+        long rows = CUSTOMERS + ITEMS + ORDERS;
+        System.out.printf("%-42s %,10d ms%n", "file-backed H2: time-to-ready", fileReady);
+        System.out.printf("%-42s %,10d ms%n", "in-memory + snapshot: time-to-ready", snapshotReady);
+        System.out.printf("%-42s %,10d ms%n", "in-memory + snapshot: writing the snapshot", snapshotWrite);
+        System.out.printf("%-42s %,10.0f ms (%,.0f rows/s, extrapolated)%n", "row-by-row JPA saves",
+                rows / jpaRowsPerSecond * 1000, jpaRowsPerSecond);
+    }
+
+    private ConfigurableApplicationContext startTimed(List<String> profiles, String... properties) throws Exception {
+        long started = System.nanoTime();
+        ConfigurableApplicationContext context = start(profiles, properties);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/warehouses")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        lastReadyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return context;
+    }
+
+    private static ConfigurableApplicationContext start(List<String> profiles, String... properties) {
+        return new SpringApplicationBuilder(InventorySystemApplication.class)
+                .profiles(profiles.toArray(new String[0]))
+                .properties("server.port=0", "inventory.limiter.enabled=false", "logging.level.root=WARN")
+                // As command-line arguments, so they win over application-persistent.properties
+                .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Fills the tables with set-based INSERT ... SELECT FROM SYSTEM_RANGE (seconds instead of hours),
+     * in slices of a million rows so no single statement has to keep undo data for everything.
+     */
+    private static void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        insertRange(jdbc, CUSTOMERS, "INSERT INTO customers (id, name) SELECT x, 'Customer ' || x");
+        insertRange(jdbc, ITEMS, "INSERT INTO \"inventory-item\" (id, name, quantity) SELECT x, 'Item ' || x, 1000");
+        insertRange(jdbc, ORDERS, "INSERT INTO orders (id, customer_id, item_id, quantity, status, placed_at) SELECT x, "
+                + "MOD(x, " + CUSTOMERS + ") + 1, MOD(x, " + ITEMS + ") + 1, MOD(x, 5) + 1, "
+                + "CASE WHEN MOD(x, 10) = 0 THEN 'REJECTED' ELSE 'PLACED' END, "
+                + "TIMESTAMP WITH TIME ZONE '2026-01-01 00:00:00+00' + x * INTERVAL '1' SECOND");
+        for (String table : List.of("customers", "\"inventory-item\"", "orders")) {
+            jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (Math.max(Math.max(CUSTOMERS, ITEMS), ORDERS) + 1));
+        }
+    }
+
+    private static void insertRange(JdbcTemplate jdbc, long rows, String insertSelect) {
+        for (long from = 1; from <= rows; from += 1_000_000) {
+            jdbc.execute(insertSelect + " FROM SYSTEM_RANGE(" + from + ", " + Math.min(rows, from + 999_999) + ")");
+        }
+    }
+
+    private static void assertCounts(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        assertEquals(ITEMS, jdbc.queryForObject("SELECT COUNT(*) FROM \"inventory-item\"", Long.class));
+        assertEquals(ORDERS, jdbc.queryForObject("SELECT COUNT(*) FROM orders", Long.class));
+    }
+
+    /**
+     * What "reloading through the API" costs at best: one JPA save (one INSERT, one transaction) per row.
+     */
+    private static double measureJpaSaves(ConfigurableApplicationContext context) {
+        InventoryItemRepository items = context.getBean(InventoryItemRepository.class);
+        long started = System.nanoTime();
+        for (int i = 0; i < JPA_SAMPLE; i++) {
+            items.save(new InventoryItem("Reloaded " + i, 1));
+        }
+        return JPA_SAMPLE / ((System.nanoTime() - started) / 1e9);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.inventory.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The "startup" profile: lazy initialization, except for the GET /inventory path.
+ */
+@SpringBootTest
+@ActiveProfiles("startup")
+@AutoConfigureMockMvc
+class StartupProfileIntegrationTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testStartup_createsInventoryPathEagerlyAndOrderPathOnFirstUse() throws Exception {
+        assertTrue(context.getBeanFactory().containsSingleton("inventoryController"));
+        assertTrue(context.getBeanFactory().containsSingleton("inventoryService"));
+        assertFalse(context.getBeanFactory().containsSingleton("orderController"));
+        assertFalse(context.getBeanFactory().containsSingleton("orderService"));
+
+        mockMvc.perform(post("/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Lazy\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/orders/1"))
+                .andExpect(status().isOk());
+
+        assertTrue(context.getBeanFactory().containsSingleton("orderController"));
+    }
+}
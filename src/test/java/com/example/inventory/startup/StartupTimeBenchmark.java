@@ -0,0 +1,138 @@
+package com.example.inventory.startup;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures time-to-first-successful GET /inventory: from launching a fresh JVM until the first HTTP 200.
+ * That is what a new instance costs when the autoscaler adds it during a traffic spike.
+ *
+ * Each step adds one optimization on top of the previous one:
+ * 1. baseline: the normal Spring Boot fat jar, default settings
+ * 2. plain jar + lib/ (needed for AppCDS)
+ * 3. + lazy initialization ("startup" profile)
+ * 4. + AppCDS archive from the training run
+ * 5. + Spring AOT bean definitions (the complete optimized build)
+ *
+ * Run: mvn -Pstartup -DskipTests package && mvn -Pbenchmark test -Dtest=StartupTimeBenchmark
+ * (-Dbenchmark.startup.runs=N launches per step, default 5; the median is reported)
+ */
+class StartupTimeBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.startup.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path FAT_JAR = TARGET.resolve("inventory-system-1.0-SNAPSHOT.jar");
+    private static final Path STARTUP_JAR = TARGET.resolve("startup/inventory-system-1.0-SNAPSHOT-startup.jar");
+    private static final Path CDS_ARCHIVE = TARGET.resolve("startup/app.jsa");
+
+    @TempDir
+    Path logDirectory;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void timeToFirstInventoryResponse() throws Exception {
+        assumeTrue(Files.exists(FAT_JAR) && Files.exists(STARTUP_JAR) && Files.exists(CDS_ARCHIVE),
+                "build the artifacts first: mvn -Pstartup -DskipTests package");
+
+        List<String> startupProfile = List.of("--spring.profiles.active=startup");
+        long[] baseline = measure("baseline", List.of(), FAT_JAR, List.of());
+        long[] plainJar = measure("plain-jar", List.of(), STARTUP_JAR, List.of());
+        long[] lazy = measure("lazy", List.of(), STARTUP_JAR, startupProfile);
+        long[] cds = measure("cds", List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE), STARTUP_JAR, startupProfile);
+        long[] aot = measure("aot", List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Dspring.aot.enabled=true"),
+                STARTUP_JAR, startupProfile);
+
+        System.out.printf("%nTime to first successful GET /inventory (%d runs each, median / best)%n", RUNS);
+        print("1. baseline (fat jar)", baseline, baseline);
+        print("2. plain jar + lib/", plainJar, baseline);
+        print("3. + lazy initialization", lazy, baseline);
+        print("4. + AppCDS archive", cds, baseline);
+        print("5. + Spring AOT (optimized build)", aot, baseline);
+    }
+
+    /**
+     * Launches the application RUNS times and returns each time-to-first-200, in milliseconds (sorted).
+     */
+    private long[] measure(String name, List<String> jvmOptions, Path jar, List<String> arguments) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmOptions);
+            command.add("-jar");
+            command.add(jar.toString());
+            command.addAll(arguments);
+            command.add("--server.port=" + port);
+            Path log = logDirectory.resolve(name + "-" + run + ".log");
+
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+            try {
+                waitForInventory(process, port, started, log);
+                millis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    /**
+     * Polls GET /inventory until it answers 200. Connection refused just means "not listening yet".
+     */
+    private void waitForInventory(Process process, int port, long started, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/inventory")).build();
+        while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ":\n"
+                        + Files.readString(log));
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // retry below
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful GET /inventory within " + TIMEOUT + ":\n" + Files.readString(log));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void print(String label, long[] millis, long[] baseline) {
+        long median = millis[millis.length / 2];
+        long baselineMedian = baseline[baseline.length / 2];
+        System.out.printf("%-36s %,7d ms / %,7d ms  (%+.0f%% vs baseline)%n", label, median, millis[0],
+                (median - baselineMedian) * 100.0 / baselineMedian);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.inventory.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.service.InventoryService;
+import com.example.inventory.service.OrderLineRequest;
+import com.example.inventory.service.OrderService;
+
+/**
+ * InventoryService.decreaseStock and the order paths with inventory.stock-store.type=mapped: the slot and the
+ * database row change together, other stock changes reach the slot, and the database wins when the slot is out
+ * of date.
+ */
+@SpringBootTest(properties = {
+        "inventory.stock-store.type=mapped",
+        "inventory.stock-store.file=target/stock-store-test/stock.slots",
+        "inventory.stock-store.max-items=100000"
+})
+class MappedStockStoreIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired // fails the context if the switch did not turn the store on
+    private MappedStockStore mappedStockStore;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testDecreaseStock_takesFromSlotAndRow() {
+        InventoryItem item = inventoryService.saveItem(new InventoryItem("Slot item", 10));
+
+        assertTrue(inventoryService.decreaseStock(item.getId(), 4));
+        assertFalse(inventoryService.decreaseStock(item.getId(), 7)); // decided by the slot alone
+
+        assertEquals(OptionalInt.of(6), mappedStockStore.quantity(item.getId()));
+        assertEquals(6, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testOtherStockChanges_reachTheSlot() {
+        InventoryItem item = inventoryService.saveItem(new InventoryItem("Restocked item", 2));
+
+        item.setQuantity(50);
+        inventoryService.saveItem(item);
+        assertEquals(OptionalInt.of(50), mappedStockStore.quantity(item.getId()));
+        inventoryService.increaseStock(item.getId(), 5);
+        assertEquals(OptionalInt.of(55), mappedStockStore.quantity(item.getId()));
+
+        inventoryService.deleteItemById(item.getId());
+        assertEquals(OptionalInt.empty(), mappedStockStore.quantity(item.getId()));
+        assertFalse(inventoryService.decreaseStock(item.getId(), 1));
+    }
+
+    @Test
+    void testRowChangedBehindTheStoresBack_databaseWins() {
+        InventoryItem item = inventoryService.saveItem(new InventoryItem("Changed behind the back", 10));
+        jdbcTemplate.update("UPDATE \"inventory-item\" SET quantity = 1 WHERE id = ?", item.getId());
+
+        assertFalse(inventoryService.decreaseStock(item.getId(), 3)); // the slot said 10, the UPDATE refused
+
+        assertEquals(OptionalInt.of(1), mappedStockStore.quantity(item.getId()));
+        assertTrue(inventoryService.decreaseStock(item.getId(), 1));
+        assertEquals(0, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testBasket_takesFromSlots_rejectedBasketGivesSlotsBack() {
+        Long customerId = customerRepository.save(new Customer("Slot basket")).getId();
+        InventoryItem plenty = inventoryService.saveItem(new InventoryItem("Plenty", 5));
+        InventoryItem scarce = inventoryService.saveItem(new InventoryItem("Scarce", 1));
+
+        // The first line is taken, the second is short: the transaction rolls back, and so does the slot
+        assertEquals(OrderStatus.REJECTED, orderService.placeMultiLineOrder(customerId, List.of(
+                new OrderLineRequest(plenty.getId(), 2), new OrderLineRequest(scarce.getId(), 2))).getStatus());
+        assertEquals(OptionalInt.of(5), mappedStockStore.quantity(plenty.getId()));
+        assertEquals(5, inventoryItemRepository.findById(plenty.getId()).get().getQuantity());
+
+        assertEquals(OrderStatus.PLACED, orderService.placeMultiLineOrder(customerId, List.of(
+                new OrderLineRequest(plenty.getId(), 2), new OrderLineRequest(scarce.getId(), 1))).getStatus());
+        assertEquals(OptionalInt.of(3), mappedStockStore.quantity(plenty.getId()));
+        assertEquals(OptionalInt.of(0), mappedStockStore.quantity(scarce.getId()));
+        assertEquals(3, inventoryItemRepository.findById(plenty.getId()).get().getQuantity());
+        assertEquals(0, inventoryItemRepository.findById(scarce.getId()).get().getQuantity());
+    }
+
+    @Test
+    void testSingleOrder_entityPath_slotFollowsAfterCommit() {
+        Long customerId = customerRepository.save(new Customer("Slot order")).getId();
+        InventoryItem item = inventoryService.saveItem(new InventoryItem("Single", 4));
+
+        assertEquals(OrderStatus.PLACED, orderService.placeOrder(customerId, item.getId(), 3).getStatus());
+
+        assertEquals(OptionalInt.of(1), mappedStockStore.quantity(item.getId()));
+    }
+
+    @Test
+    void testConcurrentDecreases_neverOversell() throws Exception {
+        InventoryItem item = inventoryService.saveItem(new InventoryItem("Contended item", 100));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    int taken = 0;
+                    for (int i = 0; i < 50; i++) {
+                        if (inventoryService.decreaseStock(item.getId(), 1)) {
+                            taken++;
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            int taken = 0;
+            for (Future<Integer> result : results) {
+                taken += result.get();
+            }
+
+            assertEquals(100, taken); // 400 tries for 100 units
+            assertEquals(OptionalInt.of(0), mappedStockStore.quantity(item.getId()));
+            assertEquals(0, inventoryItemRepository.findById(item.getId()).get().getQuantity());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.inventory.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the memory-mapped stock slots: taking, reserving, concurrent takes and reopening the file.
+ */
+class MappedStockTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testTake_onlyWithEnoughStock() throws Exception {
+        try (MappedStockTable table = MappedStockTable.open(directory.resolve("stock.slots"), 1024)) {
+            assertEquals(MappedStockTable.UNKNOWN, table.quantity(5));
+            table.put(5, 10);
+            table.put(6, MappedStockTable.MISSING);
+
+            assertEquals(7, table.take(5, 3));
+            assertEquals(MappedStockTable.TOO_LITTLE, table.take(5, 8));
+            assertEquals(7, table.quantity(5));
+            assertEquals(MappedStockTable.MISSING, table.take(6, 1));
+            assertEquals(MappedStockTable.UNKNOWN, table.take(7, 1));
+            assertEquals(MappedStockTable.UNKNOWN, table.take(1024, 1)); // beyond the capacity
+            assertEquals(2, table.version(5)); // put, then one take
+        }
+    }
+
+    @Test
+    void testReserved_untilConfirmedOrCancelled() throws Exception {
+        try (MappedStockTable table = MappedStockTable.open(directory.resolve("stock.slots"), 1024)) {
+            table.put(1, 10);
+            table.put(2, 10);
+            table.take(1, 4);
+            table.take(2, 4);
+            table.take(2, 20); // refused: reserves nothing
+
+            List<Long> reserved = new ArrayList<>();
+            table.forEachReserved(reserved::add);
+            assertEquals(List.of(1L, 2L), reserved);
+
+            table.confirm(1, 4);
+            table.cancel(2, 4);
+            reserved.clear();
+            table.forEachReserved(reserved::add);
+            assertTrue(reserved.isEmpty());
+            assertEquals(6, table.quantity(1));
+            assertEquals(10, table.quantity(2));
+        }
+    }
+
+    @Test
+    void testConcurrentTakes_neverOversell() throws Exception {
+        try (MappedStockTable table = MappedStockTable.open(directory.resolve("stock.slots"), 1024)) {
+            table.put(9, 10_000);
+            AtomicInteger taken = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        if (table.take(9, 1) >= 0) {
+                            taken.incrementAndGet();
+                            table.confirm(9, 1);
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(10_000, taken.get()); // 20,000 tries for 10,000 units
+            assertEquals(0, table.quantity(9));
+        }
+    }
+
+    @Test
+    void testReopen_keepsSlotsAndCheckpoint_otherCapacity_startsOver() throws Exception {
+        Path file = directory.resolve("stock.slots");
+        try (MappedStockTable table = MappedStockTable.open(file, 1024)) {
+            assertFalse(table.restored());
+            assertEquals(-1, table.checkpointVersion());
+            table.put(3, 42);
+            table.take(3, 2);
+            table.checkpoint(17);
+        }
+
+        try (MappedStockTable table = MappedStockTable.open(file, 1024)) {
+            assertTrue(table.restored());
+            assertEquals(17, table.checkpointVersion());
+            assertEquals(40, table.quantity(3));
+            List<Long> reserved = new ArrayList<>();
+            table.forEachReserved(reserved::add); // the take was never confirmed
+            assertEquals(List.of(3L), reserved);
+
+            table.clear();
+            assertEquals(MappedStockTable.UNKNOWN, table.quantity(3));
+            assertEquals(-1, table.checkpointVersion());
+        }
+
+        try (MappedStockTable table = MappedStockTable.open(file, 2048)) {
+            assertFalse(table.restored());
+            assertEquals(MappedStockTable.UNKNOWN, table.quantity(3));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.inventory.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.service.InventoryService;
+
+/**
+ * Stock checks and InventoryService.decreaseStockIfAvailable (how basket lines and order batches take stock) on
+ * benchmark.items items: the database path (entity lookups, one conditional UPDATE per decrease) against the
+ * mapped stock store, same workload, one application run each.
+ *
+ * Workload: benchmark.ops stock checks (read the quantity of a random item), then benchmark.ops decreases of
+ * 1 unit on random items, on one thread, each in its own transaction. Every third decrease asks for more than the item has, so it is
+ * refused. Also shown: GC runs and time during the measurements, heap in use afterwards, and for the store the
+ * full load at startup and one checkpoint (force()) after the decreases.
+ *
+ * Run: mvn -Pbenchmark test -Dtest=StockStoreBenchmark -Dbenchmark.items=10000000
+ * (10M items need about 4 GB for the in-memory database: -Dbenchmark.heap=4g)
+ */
+class StockStoreBenchmark {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 1_000_000);
+    private static final int OPS = Integer.getInteger("benchmark.ops", 200_000);
+    private static final int STOCK = 1_000_000;
+    private static final int CHUNK = 500_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entityPathVersusMappedStore() {
+        System.out.printf("%n%,d items, %,d operations per measurement%n", ITEMS, OPS);
+        System.out.printf("%-8s %-14s %14s %10s %10s %12s%n", "path", "operation", "ops/s", "GC runs", "GC ms",
+                "heap MB");
+        run("entity", "inventory.stock-store.type=none");
+        run("mapped", "inventory.stock-store.type=mapped",
+                "inventory.stock-store.file=" + directory.resolve("stock.slots"),
+                "inventory.stock-store.max-items=" + Math.max(16_777_216, ITEMS + 1_024));
+    }
+
+    private static void run(String name, String... properties) {
+        String[] args = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            args[i] = "--" + properties[i];
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+                .properties("server.port=0", "inventory.limiter.enabled=false", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:stock-store-" + name)
+                .run(args)) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            for (int from = 1; from <= ITEMS; from += CHUNK) { // one statement each: H2 keeps undo per transaction
+                jdbcTemplate.update("INSERT INTO \"inventory-item\" (name, quantity, change_version)"
+                        + " SELECT CONCAT('Item ', X), " + STOCK + ", 0 FROM SYSTEM_RANGE(" + from + ", "
+                        + Math.min(ITEMS, from + CHUNK - 1) + ")");
+            }
+            long firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM \"inventory-item\"", Long.class);
+            long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM \"inventory-item\"", Long.class);
+
+            MappedStockStore store = context.getBeanProvider(MappedStockStore.class).getIfAvailable();
+            if (store != null) {
+                long started = System.nanoTime();
+                store.reloadAll(); // the rows went in with plain SQL after startup: this is the startup load
+                System.out.printf("%-8s %-14s %,11.0f ms%n", name, "full load", (System.nanoTime() - started) / 1e6);
+            }
+
+            InventoryItemRepository items = context.getBean(InventoryItemRepository.class);
+            InventoryService inventoryService = context.getBean(InventoryService.class);
+            SplittableRandom random = new SplittableRandom(42);
+
+            long[] seen = {0};
+            measure(name, "stock check", () -> {
+                long id = random.nextLong(firstId, lastId + 1);
+                seen[0] += store != null ? store.quantity(id).getAsInt() : items.findById(id).get().getQuantity();
+            });
+            int[] taken = {0};
+            int[] call = {0};
+            measure(name, "decrease", () -> {
+                long id = random.nextLong(firstId, lastId + 1);
+                int units = call[0]++ % 3 == 2 ? STOCK + 1 : 1;
+                if (inventoryService.decreaseStockIfAvailable(id, units)) {
+                    taken[0]++;
+                }
+            });
+            assertEquals(call[0] - call[0] / 3, taken[0]);
+            long units = jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM \"inventory-item\"", Long.class);
+            assertEquals((long) ITEMS * STOCK - taken[0], units);
+
+            assertTrue(seen[0] > 0);
+            if (store != null) {
+                long started = System.nanoTime();
+                store.checkpoint();
+                System.out.printf("%-8s %-14s %,11.0f ms%n", name, "checkpoint", (System.nanoTime() - started) / 1e6);
+            }
+        }
+    }
+
+    private static void measure(String name, String operation, Runnable op) {
+        for (int i = 0; i < OPS / 10; i++) {
+            op.run(); // warm-up
+        }
+        long gcRuns = gcRuns();
+        long gcMillis = gcMillis();
+        long started = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            op.run();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long runs = gcRuns() - gcRuns;
+        long millis = gcMillis() - gcMillis;
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%-8s %-14s %,14.0f %,10d %,10d %,12.0f%n", name, operation, OPS / seconds, runs, millis,
+                (runtime.totalMemory() - runtime.freeMemory()) / 1e6);
+    }
+
+    private static long gcRuns() {
+        long runs = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            runs += gc.getCollectionCount();
+        }
+        return runs;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += gc.getCollectionTime();
+        }
+        return millis;
+    }
+}
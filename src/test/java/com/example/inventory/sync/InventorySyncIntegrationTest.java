@@ -0,0 +1,155 @@
+package com.example.inventory.sync;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * GET /inventory/changes and /customers/changes: every kind of write shows up exactly once, deletions as ids,
+ * and a client behind the compaction horizon gets a full resync.
+ *
+ * Not @Transactional: versions are released after commit, like in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class InventorySyncIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventorySyncService inventorySyncService;
+
+    private Customer customer;
+    private InventoryItem pen;
+    private InventoryItem book;
+    private InventoryItem lamp;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Sync Buyer"));
+        pen = inventoryItemRepository.save(new InventoryItem("Pen", 10));
+        book = inventoryItemRepository.save(new InventoryItem("Book", 10));
+        lamp = inventoryItemRepository.save(new InventoryItem("Lamp", 10));
+    }
+
+    @Test
+    void testFirstSync_isFullResyncWithEveryItem() throws Exception {
+        JsonNode changes = itemChanges(0);
+
+        assertTrue(changes.get("fullResync").asBoolean());
+        assertTrue(changes.get("version").asLong() > 0);
+        assertEquals(List.of(pen.getId(), book.getId(), lamp.getId()), ids(changes.get("changed")));
+    }
+
+    @Test
+    void testChangesSince_onlyWrittenAndDeletedRows() throws Exception {
+        long since = itemChanges(0).get("version").asLong();
+
+        // An order (conditional UPDATE), a bulk adjustment (JDBC batch) and a delete
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":" + customer.getId() + ",\"itemId\":" + pen.getId() + ",\"quantity\":2}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/inventory/adjustments").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\":[{\"itemId\":" + book.getId() + ",\"delta\":5}]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/inventory/" + lamp.getId())).andExpect(status().isOk());
+
+        JsonNode changes = itemChanges(since);
+        assertFalse(changes.get("fullResync").asBoolean());
+        assertEquals(List.of(pen.getId(), book.getId()), ids(changes.get("changed")));
+        assertEquals(8, changes.get("changed").get(0).get("quantity").asInt());
+        assertEquals(15, changes.get("changed").get(1).get("quantity").asInt());
+        assertEquals(lamp.getId(), changes.get("deleted").get(0).asLong());
+
+        // Asking again with the new version: nothing new
+        JsonNode again = itemChanges(changes.get("version").asLong());
+        assertEquals(0, again.get("changed").size());
+        assertEquals(0, again.get("deleted").size());
+    }
+
+    @Test
+    void testVersionNeverHandedOut_fullResync() throws Exception {
+        long version = itemChanges(0).get("version").asLong();
+
+        assertTrue(itemChanges(version + 1_000_000).get("fullResync").asBoolean());
+    }
+
+    @Test
+    void testSinceBeforeCompactedDeletion_fullResync() throws Exception {
+        long before = itemChanges(0).get("version").asLong();
+        mockMvc.perform(delete("/inventory/" + lamp.getId())).andExpect(status().isOk());
+        long after = itemChanges(0).get("version").asLong();
+
+        assertTrue(inventorySyncService.compactTombstones(Instant.now().plusSeconds(1)) >= 1);
+
+        JsonNode stale = itemChanges(before);
+        assertTrue(stale.get("fullResync").asBoolean(), "the deletion is forgotten, so a delta could miss it");
+        assertEquals(List.of(pen.getId(), book.getId()), ids(stale.get("changed")));
+        assertFalse(itemChanges(after).get("fullResync").asBoolean());
+    }
+
+    @Test
+    void testCustomerChanges() throws Exception {
+        long since = customerChanges(0).get("version").asLong();
+        mockMvc.perform(post("/customers").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"New Buyer\"}"))
+                .andExpect(status().isOk());
+
+        JsonNode changes = customerChanges(since);
+        assertFalse(changes.get("fullResync").asBoolean());
+        assertEquals(1, changes.get("changed").size());
+        assertEquals("New Buyer", changes.get("changed").get(0).get("name").asText());
+    }
+
+    private JsonNode itemChanges(long since) throws Exception {
+        return fetch("/inventory/changes?since=" + since);
+    }
+
+    private JsonNode customerChanges(long since) throws Exception {
+        return fetch("/customers/changes?since=" + since);
+    }
+
+    private JsonNode fetch(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<Long> ids(JsonNode rows) {
+        List<Long> ids = new ArrayList<>();
+        rows.forEach(row -> ids.add(row.get("id").asLong()));
+        return ids;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventory.timing;
+
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Server-Timing header and slow request log. The threshold is 0 here, so every request counts as slow.
+ *
+ * Not @Transactional: a test transaction would hide the statements (and commit) of the real request.
+ */
+@SpringBootTest(properties = "inventory.request-timing.slow-threshold=0ms")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class ServerTimingIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Test
+    void testGetInventory_hasServerTimingHeader() throws Exception {
+        mockMvc.perform(get("/inventory"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", allOf(
+                        matchesPattern("total;dur=[0-9.]+, controller;dur=[0-9.]+, service;dur=[0-9.]+, .*"),
+                        containsString("db;dur="))));
+    }
+
+    @Test
+    void testPlaceOrder_countsStatementsAndLogsBreakdown(CapturedOutput output) throws Exception {
+        Customer customer = customerRepository.save(new Customer("Timing customer"));
+        InventoryItem item = inventoryItemRepository.save(new InventoryItem("Timing item", 5));
+
+        String header = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":" + customer.getId() + ",\"itemId\":" + item.getId() + ",\"quantity\":1}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertTrue(matcher.find(), header);
+        int statements = Integer.parseInt(matcher.group(1));
+        assertTrue(statements >= 3, "customer lookup, stock update and order insert at least, got " + statements);
+
+        assertTrue(output.getOut().contains("Slow request POST /orders -> 200"));
+        assertTrue(output.getOut().toLowerCase().contains("insert into orders"));
+    }
+}
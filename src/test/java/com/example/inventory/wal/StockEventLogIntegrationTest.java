@@ -0,0 +1,175 @@
+package com.example.inventory.wal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.entity.Order;
+import com.example.inventory.entity.OrderStatus;
+import com.example.inventory.entity.StockLocation;
+import com.example.inventory.entity.Warehouse;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.repository.OrderRepository;
+import com.example.inventory.service.CustomerService;
+import com.example.inventory.service.InventoryService;
+import com.example.inventory.service.OrderLineRequest;
+import com.example.inventory.service.OrderService;
+import com.example.inventory.service.WarehouseService;
+import com.example.inventory.snapshot.DatabaseSnapshotService;
+
+/**
+ * Round trips: changes made in one application run come back in a "restart" with a brand-new in-memory database,
+ * from the write-ahead log alone, or from a snapshot plus the log written after it.
+ */
+class StockEventLogIntegrationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplay_restoresStockOrdersAndDeletions() {
+        Long customerId;
+        Long itemId;
+        Long deletedId;
+        Long basketId;
+        try (ConfigurableApplicationContext first = start("wal-first", false)) {
+            InventoryService inventoryService = first.getBean(InventoryService.class);
+            OrderService orderService = first.getBean(OrderService.class);
+            customerId = first.getBean(CustomerService.class).saveCustomer(new Customer("Logged")).getId();
+            itemId = inventoryService.saveItem(new InventoryItem("Logged item", 20)).getId();
+            Long otherId = inventoryService.saveItem(new InventoryItem("Other item", 5)).getId();
+            deletedId = inventoryService.saveItem(new InventoryItem("Deleted item", 5)).getId();
+
+            Order placed = orderService.placeOrder(customerId, itemId, 3);
+            orderService.shipOrder(placed.getId());
+            orderService.placeOrder(customerId, itemId, 100); // rejected, still recorded
+            assertTrue(inventoryService.decreaseStock(itemId, 2));
+            basketId = orderService.placeMultiLineOrder(customerId,
+                    List.of(new OrderLineRequest(itemId, 1), new OrderLineRequest(otherId, 1))).getId();
+            inventoryService.deleteItemById(deletedId);
+            assertTrue(first.getBean(StockEventLog.class).stats().frames() > 0);
+            // Commits wait for the log after giving their connection back
+            assertTrue(first.getBean(PlatformTransactionManager.class)
+                    instanceof WalTransactionConfig.DurableCommitTransactionManager);
+        } // no snapshot: everything comes back from the log
+
+        try (ConfigurableApplicationContext second = start("wal-second", false)) {
+            InventoryItemRepository items = second.getBean(InventoryItemRepository.class);
+            assertEquals(14, items.findById(itemId).get().getQuantity());
+            assertFalse(items.findById(deletedId).isPresent());
+            assertEquals(1, second.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT COUNT(*) FROM item_tombstones WHERE item_id = ?", Integer.class, deletedId));
+
+            List<Order> orders = second.getBean(OrderService.class).getOrdersByCustomer(customerId);
+            assertEquals(3, orders.size());
+            assertEquals(OrderStatus.SHIPPED, orders.get(0).getStatus());
+            assertEquals(OrderStatus.REJECTED, orders.get(1).getStatus());
+            assertEquals(basketId, orders.get(2).getId());
+            assertEquals(2, orders.get(2).getLines().size());
+
+            // Id counters were moved past the replayed rows
+            assertTrue(second.getBean(InventoryService.class).saveItem(new InventoryItem("New", 1)).getId() > deletedId);
+        }
+    }
+
+    /**
+     * Units an order took from warehouses stay taken: the stock rows come back with the item's total.
+     */
+    @Test
+    void testReplay_warehouseAllocatedOrder_stockRowsMatchTotal() {
+        Long customerId;
+        Long itemId;
+        Long deletedId;
+        Long warehouseId;
+        try (ConfigurableApplicationContext first = start("wal-warehouse-first", false)) {
+            WarehouseService warehouseService = first.getBean(WarehouseService.class);
+            InventoryService inventoryService = first.getBean(InventoryService.class);
+            customerId = first.getBean(CustomerService.class).saveCustomer(new Customer("Stocked")).getId();
+            itemId = inventoryService.saveItem(new InventoryItem("Stocked item", 0)).getId();
+            deletedId = inventoryService.saveItem(new InventoryItem("Deleted stocked item", 0)).getId();
+            warehouseId = warehouseService.saveWarehouse(new Warehouse("Near", 1)).getId();
+            Long farId = warehouseService.saveWarehouse(new Warehouse("Far", 9)).getId();
+            warehouseService.setStock(warehouseId, itemId, 4);
+            warehouseService.setStock(farId, itemId, 3);
+            warehouseService.setStock(farId, deletedId, 2);
+
+            Order order = first.getBean(OrderService.class).placeOrder(customerId, itemId, 5);
+            assertEquals(OrderStatus.PLACED, order.getStatus());
+            inventoryService.deleteItemById(deletedId);
+        }
+
+        try (ConfigurableApplicationContext second = start("wal-warehouse-second", false)) {
+            List<StockLocation> locations = second.getBean(WarehouseService.class).getStockLocations(itemId);
+            assertEquals(2, locations.size());
+            assertEquals(2, locations.stream().mapToInt(StockLocation::getQuantity).sum());
+            assertEquals(2, second.getBean(InventoryItemRepository.class).findById(itemId).get().getQuantity());
+            assertTrue(second.getBean(WarehouseService.class).getStockLocations(deletedId).isEmpty());
+
+            // The 5 sold units cannot be sold again
+            OrderService orderService = second.getBean(OrderService.class);
+            assertEquals(OrderStatus.REJECTED, orderService.placeOrder(customerId, itemId, 3).getStatus());
+            assertEquals(OrderStatus.PLACED, orderService.placeOrder(customerId, itemId, 2).getStatus());
+            assertTrue(second.getBean(WarehouseService.class).saveWarehouse(new Warehouse("New", 5)).getId()
+                    > warehouseId);
+        }
+    }
+
+    @Test
+    void testSnapshotCheckpoint_truncatesLog_laterChangesReplayedOnTop() {
+        Long customerId;
+        Long itemId;
+        try (ConfigurableApplicationContext first = start("wal-snapshot-first", true)) {
+            InventoryService inventoryService = first.getBean(InventoryService.class);
+            OrderService orderService = first.getBean(OrderService.class);
+            StockEventLog eventLog = first.getBean(StockEventLog.class);
+            customerId = first.getBean(CustomerService.class).saveCustomer(new Customer("Checkpointed")).getId();
+            itemId = inventoryService.saveItem(new InventoryItem("Checkpointed item", 1000)).getId();
+            for (int i = 0; i < 20; i++) {
+                orderService.placeOrder(customerId, itemId, 1);
+            }
+            int segments = eventLog.stats().segments();
+            assertTrue(segments > 1, "the small segment size should have rotated");
+
+            first.getBean(DatabaseSnapshotService.class).snapshot();
+            assertTrue(eventLog.stats().segments() < segments);
+
+            for (int i = 0; i < 5; i++) {
+                orderService.placeOrder(customerId, itemId, 10);
+            }
+        } // on-shutdown=false: the last 5 orders are only in the log
+
+        try (ConfigurableApplicationContext second = start("wal-snapshot-second", true)) {
+            assertEquals(1000 - 20 - 50, second.getBean(InventoryItemRepository.class).findById(itemId).get().getQuantity());
+            assertEquals(25, second.getBean(OrderRepository.class).findByCustomerId(customerId).size());
+        }
+    }
+
+    private ConfigurableApplicationContext start(String databaseName, boolean snapshots) {
+        return new SpringApplicationBuilder(InventorySystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName,
+                        "inventory.wal.enabled=true",
+                        "inventory.wal.dir=" + directory.resolve("wal"),
+                        "inventory.wal.segment-size=2KB",
+                        "inventory.snapshot.enabled=" + snapshots,
+                        "inventory.snapshot.interval=0",
+                        "inventory.snapshot.on-shutdown=false",
+                        "inventory.snapshot.dir=" + directory.resolve("snapshots"))
+                .run();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.inventory.wal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.inventory.InventorySystemApplication;
+import com.example.inventory.entity.Customer;
+import com.example.inventory.entity.InventoryItem;
+import com.example.inventory.repository.CustomerRepository;
+import com.example.inventory.repository.InventoryItemRepository;
+import com.example.inventory.service.OrderService;
+
+/**
+ * Orders per second through OrderService.placeOrder and fsyncs per second of the write-ahead log, for each
+ * durability mode, against the same workload without the log.
+ *
+ * Workload: benchmark.threads callers, each placing orders of 1 unit on random items out of benchmark.items,
+ * for benchmark.seconds after a short warm-up, once per entry of benchmark.modes (off, sync, group, async).
+ * The whole list runs benchmark.rounds times and only the last round is shown: every application run reuses the
+ * code the JIT compiled for the ones before, so on few cores the first runs are far slower whatever the mode.
+ * The log goes to benchmark.wal-dir, which must be on a real disk (on tmpfs an fsync costs nothing and the modes
+ * look alike).
+ *
+ * Run: mvn -Pbenchmark test -Dtest=WalBenchmark -Dbenchmark.seconds=20
+ */
+class WalBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 1000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int WARMUP_SECONDS = 3;
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+    private static final String MODES = System.getProperty("benchmark.modes", "off,sync,group,async");
+    private static final Path WAL_DIR = Path.of(System.getProperty("benchmark.wal-dir", "target/wal-benchmark"));
+
+    @Test
+    void ordersAndFsyncsPerSecond_perDurabilityMode() throws Exception {
+        System.out.printf("%nWorkload: %d threads, %d items, %d s, round %d of %d shown, log in %s%n", THREADS,
+                ITEMS, SECONDS, ROUNDS, ROUNDS, WAL_DIR.toAbsolutePath());
+        for (int round = 1; round <= ROUNDS; round++) {
+            boolean show = round == ROUNDS;
+            if (show) {
+                System.out.printf("%-8s %12s %12s %16s%n", "log", "orders/s", "fsyncs/s", "orders per fsync");
+            }
+            for (String mode : MODES.split(",")) {
+                if (mode.equals("off")) {
+                    run(mode, show, "inventory.wal.enabled=false");
+                } else {
+                    run(mode, show, "inventory.wal.enabled=true", "inventory.wal.durability=" + mode);
+                }
+            }
+        }
+    }
+
+    private static void run(String name, boolean show, String... properties) throws Exception {
+        deleteRecursively(WAL_DIR);
+        List<String> args = new ArrayList<>();
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        args.add("--inventory.wal.dir=" + WAL_DIR);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventorySystemApplication.class)
+                .properties("server.port=0", "inventory.limiter.enabled=false", "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:wal-" + name)
+                .run(args.toArray(String[]::new))) {
+            OrderService orderService = context.getBean(OrderService.class);
+            Long customerId = context.getBean(CustomerRepository.class).save(new Customer("Benchmark")).getId();
+            List<Long> itemIds = new ArrayList<>();
+            InventoryItemRepository items = context.getBean(InventoryItemRepository.class);
+            for (int i = 0; i < ITEMS; i++) {
+                itemIds.add(items.save(new InventoryItem("Item " + i, Integer.MAX_VALUE / 2)).getId());
+            }
+            StockEventLog eventLog = context.getBeanProvider(StockEventLog.class).getIfAvailable();
+
+            drive(orderService, customerId, itemIds, WARMUP_SECONDS);
+            long fsyncsBefore = eventLog == null ? 0 : eventLog.stats().fsyncs();
+            long orders = drive(orderService, customerId, itemIds, SECONDS);
+            long fsyncs = eventLog == null ? 0 : eventLog.stats().fsyncs() - fsyncsBefore;
+            if (!show) {
+                return;
+            }
+            System.out.printf("%-8s %,12.0f %,12.0f %16s%n", name, orders / (double) SECONDS,
+                    fsyncs / (double) SECONDS, fsyncs == 0 ? "-" : String.format("%.1f", orders / (double) fsyncs));
+        }
+    }
+
+    /**
+     * Places orders from THREADS threads for the given time.
+     *
+     * @return how many orders were placed (PLACED or REJECTED: both are written and logged)
+     */
+    private static long drive(OrderService orderService, Long customerId, List<Long> itemIds, int seconds)
+            throws InterruptedException {
+        AtomicLong orders = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    orderService.placeOrder(customerId, itemIds.get(random.nextInt(itemIds.size())), 1);
+                    orders.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return orders.get();
+    }
+
+    private static void deleteRecursively(Path directory) throws Exception {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
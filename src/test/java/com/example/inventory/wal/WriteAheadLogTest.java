@@ -0,0 +1,178 @@
+package com.example.inventory.wal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the log files: reading back, torn tails, rotation with checkpoints, and shared fsyncs.
+ */
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppend_readBackAfterReopen_inOrder() throws Exception {
+        List<Long> lsns = new ArrayList<>();
+        try (WriteAheadLog log = open(1 << 20, WalDurability.SYNC)) {
+            for (int i = 0; i < 3; i++) {
+                lsns.add(log.append(bytes("frame " + i)));
+            }
+            assertEquals(3, log.stats().fsyncs()); // SYNC: one per frame
+        }
+
+        try (WriteAheadLog log = open(1 << 20, WalDurability.SYNC)) {
+            List<String> frames = new ArrayList<>();
+            List<Long> read = new ArrayList<>();
+            log.forEachFrame(0, (lsn, payload) -> {
+                read.add(lsn);
+                frames.add(new String(payload, StandardCharsets.UTF_8));
+            });
+            assertEquals(List.of("frame 0", "frame 1", "frame 2"), frames);
+            assertEquals(lsns, read);
+            assertTrue(log.append(bytes("frame 3")) > lsns.get(2));
+        }
+    }
+
+    @Test
+    void testTornTail_isCutOff() throws Exception {
+        long second;
+        try (WriteAheadLog log = open(1 << 20, WalDurability.SYNC)) {
+            log.append(bytes("complete"));
+            second = log.append(bytes("torn by a crash"));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(Files.size(segment) - 3);
+        }
+
+        try (WriteAheadLog log = open(1 << 20, WalDurability.SYNC)) {
+            List<String> frames = new ArrayList<>();
+            log.forEachFrame(0, (lsn, payload) -> frames.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(List.of("complete"), frames);
+            assertEquals(second, log.append(bytes("next"))); // written where the torn frame started
+        }
+    }
+
+    @Test
+    void testBadChecksum_endsTheLog() throws Exception {
+        try (WriteAheadLog log = open(1 << 20, WalDurability.SYNC)) {
+            log.append(bytes("good"));
+            log.append(bytes("flipped"));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[] { 'X' }), Files.size(segment) - 1);
+        }
+
+        try (WriteAheadLog log = open(1 << 20, WalDurability.SYNC)) {
+            List<String> frames = new ArrayList<>();
+            log.forEachFrame(0, (lsn, payload) -> frames.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(List.of("good"), frames);
+        }
+    }
+
+    @Test
+    void testRotationAndCheckpoint_deleteOldSegments_recoveryStartsAtCheckpoint() throws Exception {
+        List<Long> lsns = new ArrayList<>();
+        try (WriteAheadLog log = open(100, WalDurability.SYNC)) {
+            for (int i = 0; i < 20; i++) {
+                lsns.add(log.append(bytes("frame number " + i))); // 8 + 15 bytes: 3 per segment
+            }
+            int before = log.stats().segments();
+            assertTrue(before >= 6, "expected rotation, got " + before + " segments");
+
+            log.checkpoint(lsns.get(10));
+            assertTrue(log.stats().segments() < before);
+            assertEquals(log.stats().segments(), segments().size());
+        }
+
+        try (WriteAheadLog log = open(100, WalDurability.SYNC)) {
+            assertEquals(lsns.get(10), log.checkpointLsn());
+            List<String> frames = new ArrayList<>();
+            log.forEachFrame(log.checkpointLsn(), (lsn, payload) -> frames.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(10, frames.size());
+            assertEquals("frame number 10", frames.get(0));
+        }
+    }
+
+    @Test
+    void testGroupDurability_concurrentWritersShareFsyncs() throws Exception {
+        try (WriteAheadLog log = open(1 << 20, WalDurability.GROUP, Duration.ofMillis(5))) {
+            List<Thread> threads = new ArrayList<>();
+            List<Throwable> failures = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 20; i++) {
+                            log.awaitDurable(log.append(bytes("order")));
+                        }
+                    } catch (Throwable e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertTrue(failures.isEmpty(), failures.toString());
+            WalStats stats = log.stats();
+            assertEquals(320, stats.frames());
+            assertTrue(stats.fsyncs() * 4 <= stats.frames(), stats.fsyncs() + " fsyncs for 320 frames");
+        }
+    }
+
+    /**
+     * Without a group window a lone transaction is forced at once: it never waits for others that are not coming.
+     */
+    @Test
+    void testGroupDurability_noWindow_loneWriterForcedAtOnce() throws Exception {
+        try (WriteAheadLog log = open(1 << 20, WalDurability.GROUP)) {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                for (int i = 0; i < 5; i++) {
+                    log.awaitDurable(log.append(bytes("order")));
+                }
+            });
+            assertEquals(5, log.stats().fsyncs());
+        }
+    }
+
+    private WriteAheadLog open(long segmentSize, WalDurability durability) throws Exception {
+        return open(segmentSize, durability, Duration.ZERO);
+    }
+
+    private WriteAheadLog open(long segmentSize, WalDurability durability, Duration groupWindow) throws Exception {
+        return WriteAheadLog.open(directory, segmentSize, durability, groupWindow, Duration.ofSeconds(1));
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}